@@ -21,6 +21,8 @@
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.commons.compress.utils.Metrics;
+
 /**
  * Archive input streams <b>MUST</b> override the
  * {@link #read(byte[], int, int)} - or {@link #read()} -
@@ -91,6 +93,7 @@ protected void count(final int read) {
     protected void count(final long read) {
         if (read != -1) {
             bytesRead = bytesRead + read;
+            Metrics.getListener().bytesRead(this, read);
         }
     }
 
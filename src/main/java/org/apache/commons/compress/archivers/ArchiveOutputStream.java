@@ -24,6 +24,8 @@
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 
+import org.apache.commons.compress.utils.Metrics;
+
 /**
  * Archive output stream implementations are expected to override the
  * {@link #write(byte[], int, int)} method to improve performance.
@@ -98,6 +100,7 @@ protected void count(final int written) {
     protected void count(final long written) {
         if (written != -1) {
             bytesWritten = bytesWritten + written;
+            Metrics.getListener().bytesWritten(this, written);
         }
     }
 
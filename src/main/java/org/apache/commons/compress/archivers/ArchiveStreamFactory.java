@@ -24,7 +24,9 @@
 import java.io.OutputStream;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.ServiceLoader;
 import java.util.Set;
@@ -42,9 +44,15 @@
 import org.apache.commons.compress.archivers.sevenz.SevenZFile;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarUtils;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.MeteredInputStream;
+import org.apache.commons.compress.utils.MeteredOutputStream;
+import org.apache.commons.compress.utils.Metrics;
 import org.apache.commons.compress.utils.Sets;
 
 /**
@@ -87,9 +95,8 @@ public class ArchiveStreamFactory implements ArchiveStreamProvider {
 
     private static final int TAR_HEADER_SIZE = 512;
 
-    private static final int DUMP_SIGNATURE_SIZE = 32;
-
-    private static final int SIGNATURE_SIZE = 12;
+    /** Number of bytes {@link #detectStack} reads ahead. */
+    private static final int STACK_DETECTION_WINDOW = 64 * 1024;
 
     /**
      * The singleton instance using the platform default encoding.
@@ -207,9 +214,10 @@ public static String detect(final InputStream in) throws ArchiveException {
             throw new IllegalArgumentException("Mark is not supported.");
         }
 
-        final byte[] signature = new byte[SIGNATURE_SIZE];
+        // the first tar block is big enough for all signatures
+        final byte[] signature = new byte[TAR_HEADER_SIZE];
         in.mark(signature.length);
-        int signatureLength = -1;
+        final int signatureLength;
         try {
             signatureLength = IOUtils.readFully(in, signature);
             in.reset();
@@ -217,6 +225,14 @@ public static String detect(final InputStream in) throws ArchiveException {
             throw new ArchiveException("IOException while reading signature.", e);
         }
 
+        final String archiverName = detect(signature, signatureLength);
+        if (archiverName == null) {
+            throw new ArchiveException("No Archiver found for the stream signature");
+        }
+        return archiverName;
+    }
+
+    private static String detect(final byte[] signature, final int signatureLength) {
         if (ZipArchiveInputStream.matches(signature, signatureLength)) {
             return ZIP;
         }
@@ -235,52 +251,85 @@ public static String detect(final InputStream in) throws ArchiveException {
         if (SevenZFile.matches(signature, signatureLength)) {
             return SEVEN_Z;
         }
+        if (DumpArchiveInputStream.matches(signature, signatureLength)) {
+            return DUMP;
+        }
+        if (TarArchiveInputStream.matches(signature, signatureLength)) {
+            return TAR;
+        }
 
-        // Dump needs a bigger buffer to check the signature;
-        final byte[] dumpsig = new byte[DUMP_SIGNATURE_SIZE];
-        in.mark(dumpsig.length);
-        try {
-            signatureLength = IOUtils.readFully(in, dumpsig);
-            in.reset();
-        } catch (final IOException e) {
-            throw new ArchiveException("IOException while reading dump signature", e);
+        // COMPRESS-117 - improve auto-recognition
+        if (signatureLength >= TAR_HEADER_SIZE && isTarHeaderWithValidChecksum(signature)) {
+            return TAR;
         }
-        if (DumpArchiveInputStream.matches(dumpsig, signatureLength)) {
-            return DUMP;
+        return null;
+    }
+
+    /**
+     * Detects the compressor and archive formats of a stream that may contain a compressed archive, like a
+     * {@code .tar.gz} file.
+     *
+     * <p>Reads at most {@value #STACK_DETECTION_WINDOW} bytes ahead using a single mark and reset. If the stream
+     * does not start with an archive but with a compressor signature, the start of that window is decompressed in
+     * memory and checked for an archive signature. Compressors like bzip2 that need more than the window to produce
+     * any output are reported without the archive they contain.</p>
+     *
+     * @param in input stream, must support mark
+     * @return the format names from the outermost to the innermost, for example {@code [gz, tar]}, {@code [zip]}
+     * or {@code [xz]}
+     * @throws ArchiveException if neither an archiver nor a compressor can be detected in the stream
+     * @throws IllegalArgumentException if the stream is null or does not support mark
+     * @since 1.23
+     */
+    public static List<String> detectStack(final InputStream in) throws ArchiveException {
+        if (in == null) {
+            throw new IllegalArgumentException("Stream must not be null.");
         }
 
-        // Tar needs an even bigger buffer to check the signature; read the first block
-        final byte[] tarHeader = new byte[TAR_HEADER_SIZE];
-        in.mark(tarHeader.length);
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Mark is not supported.");
+        }
+
+        final byte[] window = new byte[STACK_DETECTION_WINDOW];
+        in.mark(window.length);
+        final int windowLength;
         try {
-            signatureLength = IOUtils.readFully(in, tarHeader);
+            windowLength = IOUtils.readFully(in, window);
             in.reset();
         } catch (final IOException e) {
-            throw new ArchiveException("IOException while reading tar signature", e);
+            throw new ArchiveException("IOException while reading signature.", e);
         }
-        if (TarArchiveInputStream.matches(tarHeader, signatureLength)) {
-            return TAR;
+
+        final String archiverName = detect(window, windowLength);
+        if (archiverName != null) {
+            return Collections.singletonList(archiverName);
+        }
+        final String compressorName;
+        try {
+            compressorName = CompressorStreamFactory.detect(new ByteArrayInputStream(window, 0, windowLength));
+        } catch (final CompressorException e) {
+            throw new ArchiveException("No Archiver or Compressor found for the stream signature", e);
         }
 
-        // COMPRESS-117 - improve auto-recognition
-        if (signatureLength >= TAR_HEADER_SIZE) {
-            TarArchiveInputStream tais = null;
-            try {
-                tais = new TarArchiveInputStream(new ByteArrayInputStream(tarHeader));
-                // COMPRESS-191 - verify the header checksum
-                if (tais.getNextTarEntry().isCheckSumOK()) {
-                    return TAR;
+        final byte[] header = new byte[TAR_HEADER_SIZE];
+        int headerLength;
+        try {
+            // probing the content is not part of the work measured for the application
+            headerLength = Metrics.unmetered(() -> {
+                try (InputStream decompressed = CompressorStreamFactory.getSingleton()
+                    .createCompressorInputStream(compressorName, new ByteArrayInputStream(window, 0, windowLength))) {
+                    return IOUtils.readFully(decompressed, header);
                 }
-            } catch (final Exception e) { // NOPMD NOSONAR
-                // can generate IllegalArgumentException as well
-                // as IOException
-                // autodetection, simply not a TAR
-                // ignored
-            } finally {
-                IOUtils.closeQuietly(tais);
-            }
+            });
+        } catch (final Exception e) { // NOSONAR
+            // the window has been too small or the compressor is not available, the content is unknown
+            headerLength = 0;
         }
-        throw new ArchiveException("No Archiver found for the stream signature");
+        final String innerArchiverName = detect(header, headerLength);
+        if (innerArchiverName == null) {
+            return Collections.singletonList(compressorName);
+        }
+        return Arrays.asList(compressorName, innerArchiverName);
     }
 
     /**
@@ -355,6 +404,31 @@ public static SortedMap<String, ArchiveStreamProvider> findAvailableArchiveOutpu
         });
     }
 
+    private static boolean isTarHeaderWithValidChecksum(final byte[] tarHeader) {
+        try {
+            // cheap check first, most blocks getting here are no tar headers
+            if (!TarUtils.verifyCheckSum(tarHeader)) {
+                return false;
+            }
+        } catch (final IllegalArgumentException e) { // NOSONAR
+            return false;
+        }
+        TarArchiveInputStream tais = null;
+        try {
+            tais = new TarArchiveInputStream(new ByteArrayInputStream(tarHeader));
+            // COMPRESS-191 - verify the header checksum
+            return tais.getNextTarEntry().isCheckSumOK();
+        } catch (final Exception e) { // NOPMD NOSONAR
+            // can generate IllegalArgumentException as well
+            // as IOException
+            // autodetection, simply not a TAR
+            // ignored
+            return false;
+        } finally {
+            IOUtils.closeQuietly(tais);
+        }
+    }
+
     static void putAll(final Set<String> names, final ArchiveStreamProvider provider, final TreeMap<String, ArchiveStreamProvider> map) {
         names.forEach(name -> map.put(toKey(name), provider));
     }
@@ -441,7 +515,12 @@ public ArchiveInputStream createArchiveInputStream(final String archiverName, fi
         if (in == null) {
             throw new IllegalArgumentException("InputStream must not be null.");
         }
+        return newArchiveInputStream(archiverName, Metrics.isEnabled() ? new MeteredInputStream(in, archiverName) : in,
+            actualEncoding);
+    }
 
+    private ArchiveInputStream newArchiveInputStream(final String archiverName, final InputStream in,
+            final String actualEncoding) throws ArchiveException {
         if (AR.equalsIgnoreCase(archiverName)) {
             return new ArArchiveInputStream(in);
         }
@@ -520,7 +599,12 @@ public ArchiveOutputStream createArchiveOutputStream(
         if (out == null) {
             throw new IllegalArgumentException("OutputStream must not be null.");
         }
+        return newArchiveOutputStream(archiverName,
+            Metrics.isEnabled() ? new MeteredOutputStream(out, archiverName) : out, actualEncoding);
+    }
 
+    private ArchiveOutputStream newArchiveOutputStream(final String archiverName, final OutputStream out,
+            final String actualEncoding) throws ArchiveException {
         if (AR.equalsIgnoreCase(archiverName)) {
             return new ArArchiveOutputStream(out);
         }
@@ -18,9 +18,12 @@
  */
 package org.apache.commons.compress.archivers.examples;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
@@ -32,15 +35,25 @@
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntryRequest;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipMethod;
+import org.apache.commons.compress.utils.ByteUtils;
 import org.apache.commons.compress.utils.IOUtils;
 
 /**
@@ -93,6 +106,115 @@ public FileVisitResult visitFile(final Path file, final BasicFileAttributes attr
         }
     }
 
+    /**
+     * An entry that has been prepared by a worker thread and waits to be written.
+     */
+    private static final class PendingEntry {
+        private final ArchiveEntry entry;
+        private final Path path;
+        /** content of the file or null if it is a directory or must be streamed */
+        private final byte[] content;
+        private final long cost;
+
+        private PendingEntry(final ArchiveEntry entry, final Path path, final byte[] content, final long cost) {
+            this.entry = entry;
+            this.path = path;
+            this.content = content;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * Walks the tree on the calling thread, prepares the entries using an executor and writes them in traversal
+     * order on the calling thread.
+     */
+    private static class PipelinedArchiverFileVisitor extends ArchiverFileVisitor {
+
+        private final ExecutorService executorService;
+        private final long memoryBudget;
+        private final Deque<Future<PendingEntry>> pending = new ArrayDeque<>();
+        private long bufferedBytes;
+
+        private PipelinedArchiverFileVisitor(final ArchiveOutputStream target, final Path directory,
+            final ExecutorService executorService, final long memoryBudget, final LinkOption... linkOptions) {
+            super(target, directory, linkOptions);
+            this.executorService = executorService;
+            this.memoryBudget = memoryBudget;
+        }
+
+        private void cancelPending() {
+            pending.forEach(f -> f.cancel(true));
+            pending.clear();
+        }
+
+        private void drain() throws IOException {
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+        }
+
+        @Override
+        protected FileVisitResult visit(final Path path, final BasicFileAttributes attrs, final boolean isFile)
+            throws IOException {
+            Objects.requireNonNull(path);
+            Objects.requireNonNull(attrs);
+            final String name = super.directory.relativize(path).toString().replace('\\', '/');
+            if (!name.isEmpty()) {
+                final String entryName = isFile || name.endsWith("/") ? name : name + "/";
+                final boolean buffered = isFile && attrs.size() <= memoryBudget;
+                final long cost = PIPELINE_ENTRY_OVERHEAD + (buffered ? attrs.size() : 0);
+                while (!pending.isEmpty() && bufferedBytes + cost > memoryBudget) {
+                    writeNext();
+                }
+                // archive output streams are not thread-safe, only the file contents are read by the executor
+                final ArchiveEntry entry = super.target.createArchiveEntry(path, entryName, super.linkOptions);
+                pending.add(executorService.submit(() -> new PendingEntry(entry, isFile ? path : null,
+                    buffered ? Files.readAllBytes(path) : null, cost)));
+                bufferedBytes += cost;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        private void writeNext() throws IOException {
+            final PendingEntry next = await(pending.removeFirst());
+            super.target.putArchiveEntry(next.entry);
+            if (next.content != null) {
+                super.target.write(next.content);
+            } else if (next.path != null) {
+                Files.copy(next.path, super.target);
+            }
+            super.target.closeArchiveEntry();
+            bufferedBytes -= next.cost;
+        }
+    }
+
+    /**
+     * Bytes accounted against the memory budget for every entry in the pipeline in addition to the file content.
+     */
+    private static final long PIPELINE_ENTRY_OVERHEAD = 1024;
+
+    private static <T> T await(final Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for archive entry");
+        } catch (final ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static IOException unwrap(final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        return new IOException(cause);
+    }
+
     /**
      * No {@link FileVisitOption}.
      */
@@ -138,6 +260,116 @@ public void create(final ArchiveOutputStream target, final Path directory,
         target.finish();
     }
 
+    /**
+     * Creates an archive {@code target} by recursively including all files and directories in {@code directory},
+     * preparing the entries concurrently.
+     *
+     * <p>
+     * The calling thread walks the directory tree and writes the entries to {@code target} in traversal order, so the
+     * resulting archive is the same as the one created by {@link #create(ArchiveOutputStream, Path, EnumSet,
+     * LinkOption...)}. The archive entries are created by the calling thread as well, as {@code target} is not
+     * thread-safe. Reading the contents of the files happens in tasks submitted to {@code executorService}, which
+     * hides the latency of opening and reading many small files.
+     * </p>
+     * <p>
+     * File contents are held in memory until they have been written, at most about {@code memoryBudget} bytes are
+     * buffered at any time. Files bigger than {@code memoryBudget} are copied to the archive by the calling thread
+     * when it is their turn. The executor service is not shut down by this method.
+     * </p>
+     *
+     * @param target the stream to write the new archive to.
+     * @param directory the directory that contains the files to archive.
+     * @param executorService the executor service used to prepare the entries.
+     * @param memoryBudget the maximum number of bytes to buffer.
+     * @param fileVisitOptions linkOptions to configure the traversal of the source {@code directory}.
+     * @param linkOptions indicating how symbolic links are handled.
+     * @throws IOException if an I/O error occurs or the archive cannot be created for other reasons.
+     * @since 1.23
+     */
+    public void create(final ArchiveOutputStream target, final Path directory, final ExecutorService executorService,
+        final long memoryBudget, final EnumSet<FileVisitOption> fileVisitOptions, final LinkOption... linkOptions)
+        throws IOException {
+        final PipelinedArchiverFileVisitor visitor = new PipelinedArchiverFileVisitor(target, directory,
+            executorService, memoryBudget, linkOptions);
+        try {
+            Files.walkFileTree(directory, fileVisitOptions, Integer.MAX_VALUE, visitor);
+            visitor.drain();
+        } finally {
+            visitor.cancelPending();
+        }
+        target.finish();
+    }
+
+    /**
+     * Creates a zip archive {@code target} by recursively including all files and directories in {@code directory},
+     * compressing the entries in parallel.
+     *
+     * <p>
+     * The calling thread walks the directory tree and adds the entries to {@code creator} in traversal order, reading
+     * the file attributes and compressing the contents happens on the threads of the creator's executor. Compressed
+     * data is buffered by the {@link ParallelScatterZipCreator}'s backing stores - temporary files by default - and
+     * written to {@code target} in traversal order once all entries have been compressed. As with
+     * {@link ParallelScatterZipCreator#writeTo}, the creator's executor service is shut down by this method.
+     * </p>
+     * <p>
+     * Unlike {@link #create(ArchiveOutputStream, Path, ExecutorService, long, EnumSet, LinkOption...)} this method
+     * has no memory budget, how much compressed data is held back depends only on the creator's backing stores.
+     * Don't use a creator with in-memory backing stores if the archive may not fit into memory.
+     * </p>
+     *
+     * @param target the stream to write the new archive to.
+     * @param directory the directory that contains the files to archive.
+     * @param creator the creator used to compress the entries.
+     * @param fileVisitOptions linkOptions to configure the traversal of the source {@code directory}.
+     * @param linkOptions indicating how symbolic links are handled.
+     * @throws IOException if an I/O error occurs or the archive cannot be created for other reasons.
+     * @since 1.23
+     */
+    public void create(final ZipArchiveOutputStream target, final Path directory,
+        final ParallelScatterZipCreator creator, final EnumSet<FileVisitOption> fileVisitOptions,
+        final LinkOption... linkOptions) throws IOException {
+        Files.walkFileTree(directory, fileVisitOptions, Integer.MAX_VALUE,
+            new ArchiverFileVisitor(target, directory, linkOptions) {
+
+            @Override
+            protected FileVisitResult visit(final Path path, final BasicFileAttributes attrs, final boolean isFile) {
+                Objects.requireNonNull(path);
+                Objects.requireNonNull(attrs);
+                final String name = directory.relativize(path).toString().replace('\\', '/');
+                if (!name.isEmpty()) {
+                    final String entryName = isFile || name.endsWith("/") ? name : name + "/";
+                    creator.addArchiveEntry(() -> {
+                        try {
+                            final ZipArchiveEntry entry = new ZipArchiveEntry(path, entryName, linkOptions);
+                            entry.setMethod(isFile ? ZipMethod.DEFLATED.getCode() : ZipMethod.STORED.getCode());
+                            return ZipArchiveEntryRequest.createZipArchiveEntryRequest(entry, () -> {
+                                try {
+                                    return isFile ? Files.newInputStream(path)
+                                        : new ByteArrayInputStream(ByteUtils.EMPTY_BYTE_ARRAY);
+                                } catch (final IOException e) {
+                                    throw new UncheckedIOException(e); //NOSONAR
+                                }
+                            });
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e); //NOSONAR
+                        }
+                    });
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        try {
+            creator.writeTo(target);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing archive entries");
+        } catch (final ExecutionException e) {
+            throw unwrap(e);
+        }
+        target.finish();
+    }
+
     /**
      * Creates an archive {@code target} by recursively including all files and directories in {@code directory}.
      *
@@ -52,6 +52,7 @@
 import org.apache.commons.compress.utils.CRC32VerifyingInputStream;
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.compress.utils.InputStreamStatistics;
+import org.apache.commons.compress.utils.Metrics;
 
 /**
  * Reads a 7z file, using SeekableByteChannel under
@@ -865,6 +866,7 @@ public SevenZArchiveEntry getNextEntry() throws IOException {
         }
         buildDecodingStream(currentEntryIndex, false);
         uncompressedBytesReadFromCurrentEntry = compressedBytesReadFromCurrentEntry = 0;
+        Metrics.getListener().entryRead(this, entry);
         return entry;
     }
 
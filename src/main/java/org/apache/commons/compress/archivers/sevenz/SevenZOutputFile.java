@@ -54,6 +54,7 @@
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.utils.CountingOutputStream;
+import org.apache.commons.compress.utils.Metrics;
 import org.apache.commons.compress.utils.TimeUtils;
 
 /**
@@ -380,6 +381,7 @@ private OutputStream getCurrentOutputStream() throws IOException {
     public void putArchiveEntry(final ArchiveEntry archiveEntry) {
         final SevenZArchiveEntry entry = (SevenZArchiveEntry) archiveEntry;
         files.add(entry);
+        Metrics.getListener().entryWritten(this, entry);
     }
 
     /**
@@ -39,6 +39,7 @@
 import org.apache.commons.compress.utils.ArchiveUtils;
 import org.apache.commons.compress.utils.BoundedInputStream;
 import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.Metrics;
 
 /**
  * The TarInputStream reads a UNIX tar archive as an InputStream.
@@ -523,6 +524,7 @@ public TarArchiveEntry getNextTarEntry() throws IOException {
         // the correct value.
         entrySize = currEntry.getSize();
 
+        Metrics.getListener().entryRead(this, currEntry);
         return currEntry;
     }
 
@@ -43,6 +43,7 @@
 import org.apache.commons.compress.utils.CountingOutputStream;
 import org.apache.commons.compress.utils.ExactMath;
 import org.apache.commons.compress.utils.FixedLengthBlockOutputStream;
+import org.apache.commons.compress.utils.Metrics;
 
 /**
  * The TarOutputStream writes a UNIX tar archive as an OutputStream. Methods are provided to put
@@ -621,6 +622,7 @@ && handleLongName(entry, linkName, paxHeaders, "linkpath",
             currName = entryName;
             haveUnclosedEntry = true;
         }
+        Metrics.getListener().entryWritten(this, entry);
     }
 
     /**
@@ -38,6 +38,8 @@
 import org.apache.commons.compress.utils.BoundedArchiveInputStream;
 import org.apache.commons.compress.utils.BoundedInputStream;
 import org.apache.commons.compress.utils.BoundedSeekableByteChannelInputStream;
+import org.apache.commons.compress.utils.MeteredInputStream;
+import org.apache.commons.compress.utils.Metrics;
 import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 
 /**
@@ -409,8 +411,10 @@ public List<TarArchiveEntry> getEntries() {
      * @throws IOException Corrupted TAR archive. Can't read entry.
      */
     public InputStream getInputStream(final TarArchiveEntry entry) throws IOException {
+        Metrics.getListener().entryRead(this, entry);
         try {
-            return new BoundedTarEntryInputStream(entry, archive);
+            final InputStream in = new BoundedTarEntryInputStream(entry, archive);
+            return Metrics.isEnabled() ? new MeteredInputStream(in, this) : in;
         } catch (RuntimeException ex) {
             throw new IOException("Corrupted TAR archive. Can't read entry", ex);
         }
@@ -39,6 +39,15 @@ class BinaryTree {
     /** Value in the array indicating a non leaf node */
     private static final int NODE = -2;
 
+    /** Number of bits resolved by a single lookup in {@link #lookup} */
+    private static final int LOOKUP_BITS = 8;
+
+    /** Bits of a lookup entry holding the depth of the leaf */
+    private static final int LOOKUP_DEPTH_MASK = 0xF;
+
+    /** Position of the value or node inside of a lookup entry */
+    private static final int LOOKUP_SHIFT = 4;
+
     /**
      * Decodes the packed binary tree from the specified stream.
      */
@@ -138,6 +147,15 @@ static BinaryTree decode(final InputStream inputStream, final int totalNumberOfV
      */
     private final int[] tree;
 
+    /**
+     * Lookup table indexed by the next {@link #LOOKUP_BITS} bits of
+     * the stream, built on first use. An entry holds {@code value << 4
+     * | depth} if a leaf is reached within these bits, {@code node << 4}
+     * for the node reached after consuming all of them or -1 if the
+     * bits lead to an undefined node.
+     */
+    private int[] lookup;
+
     public BinaryTree(final int depth) {
         if (depth < 0 || depth > 30) {
             throw new IllegalArgumentException("depth must be bigger than 0 and not bigger than 30"
@@ -156,6 +174,7 @@ public BinaryTree(final int depth) {
      * @param value  the value of the leaf (must be positive)
      */
     public void addLeaf(final int node, final int path, final int depth, final int value) {
+        lookup = null;
         if (depth == 0) {
             // end of the path reached, add the value to the current node
             if (tree[node] != UNDEFINED) {
@@ -173,14 +192,62 @@ public void addLeaf(final int node, final int path, final int depth, final int v
     }
 
 
+    private int[] buildLookup() {
+        final int[] table = new int[1 << LOOKUP_BITS];
+        for (int bits = 0; bits < table.length; bits++) {
+            int node = 0;
+            int entry = -1;
+            for (int depth = 1; depth <= LOOKUP_BITS; depth++) {
+                final int child = 2 * node + 1 + ((bits >>> (depth - 1)) & 1);
+                final int value = tree[child];
+                if (value == NODE) {
+                    node = child;
+                    if (depth == LOOKUP_BITS) {
+                        entry = node << LOOKUP_SHIFT;
+                    }
+                } else {
+                    if (value != UNDEFINED) {
+                        entry = value << LOOKUP_SHIFT | depth;
+                    }
+                    break;
+                }
+            }
+            table[bits] = entry;
+        }
+        return table;
+    }
+
     /**
      * Reads a value from the specified bit stream.
      *
+     * <p>Resolves the first {@value #LOOKUP_BITS} bits of the path with
+     * a single table lookup and only walks the tree bit by bit for longer
+     * paths, near the end of the stream or for invalid paths.</p>
+     *
      * @param stream
      * @return the value decoded, or -1 if the end of the stream is reached
      */
     public int read(final BitStream stream) throws IOException {
-        int currentIndex = 0;
+        if (lookup == null) {
+            lookup = buildLookup();
+        }
+        final int entry = lookup[(int) stream.peekBits(LOOKUP_BITS)];
+        if (entry >= 0) {
+            final int depth = entry & LOOKUP_DEPTH_MASK;
+            if (depth > 0 && depth <= stream.bitsCached()) {
+                stream.readBits(depth);
+                return entry >>> LOOKUP_SHIFT;
+            }
+            if (depth == 0 && stream.bitsCached() >= LOOKUP_BITS) {
+                stream.readBits(LOOKUP_BITS);
+                return read(stream, entry >>> LOOKUP_SHIFT);
+            }
+        }
+        return read(stream, 0);
+    }
+
+    private int read(final BitStream stream, final int startIndex) throws IOException {
+        int currentIndex = startIndex;
 
         while (true) {
             final int bit = stream.nextBit();
@@ -59,6 +59,13 @@ public boolean available() {
      * @param length   the number of bytes to copy
      */
     public void copy(final int distance, final int length) {
+        final int from = (writeIndex - distance + size) % size;
+        if (distance >= length && from + length <= size && writeIndex + length <= size) {
+            // source and target neither overlap nor wrap around
+            System.arraycopy(buffer, from, buffer, writeIndex, length);
+            writeIndex = (writeIndex + length) % size;
+            return;
+        }
         final int pos1 = writeIndex - distance;
         final int pos2 = pos1 + length;
         for (int i = pos1; i < pos2; i++) {
@@ -81,6 +88,26 @@ public int get() {
         return -1;
     }
 
+    /**
+     * Reads up to len bytes from the buffer.
+     *
+     * @param b   the array to copy the bytes to
+     * @param off the offset inside of b
+     * @param len the maximum number of bytes to read
+     * @return the number of bytes read, 0 if the buffer is empty
+     */
+    public int get(final byte[] b, final int off, final int len) {
+        int count = 0;
+        while (count < len && available()) {
+            final int end = writeIndex > readIndex ? writeIndex : size;
+            final int n = Math.min(len - count, end - readIndex);
+            System.arraycopy(buffer, readIndex, b, off + count, n);
+            readIndex = (readIndex + n) % size;
+            count += n;
+        }
+        return count;
+    }
+
     /**
      * Puts a byte to the buffer.
      *
@@ -208,4 +208,30 @@ public int read() throws IOException {
         return ret;
     }
 
+    /**
+     * @since 1.23
+     */
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < len) {
+            if (!buffer.available()) {
+                try {
+                    fillBuffer();
+                } catch (final IllegalArgumentException ex) {
+                    throw new IOException("bad IMPLODE stream", ex);
+                }
+                if (!buffer.available()) {
+                    break;
+                }
+            }
+            count += buffer.get(b, off + count, len - count);
+        }
+        uncompressedCount += count;
+        return count == 0 ? -1 : count;
+    }
+
 }
@@ -27,13 +27,20 @@
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
 import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
 
 /**
  * Encapsulates a {@link Deflater} and crc calculator, handling multiple types of output streams.
- * Currently {@link java.util.zip.ZipEntry#DEFLATED} and {@link java.util.zip.ZipEntry#STORED} are the only
- * supported compression methods.
+ * Currently {@link java.util.zip.ZipEntry#DEFLATED}, {@link java.util.zip.ZipEntry#STORED},
+ * {@link ZipMethod#ZSTD} and {@link ZipMethod#XZ} are the supported compression methods. Zstandard
+ * and XZ entries are compressed using the default level of the respective format and require
+ * zstd-jni or XZ for Java to be available.
  *
  * @since 1.10
  */
@@ -187,6 +194,30 @@ static StreamCompressor create(final SeekableByteChannel os, final Deflater defl
 
     private final byte[] readerBuf = new byte[BUFFER_SIZE];
 
+    /** Compresses the current ZSTD or XZ entry, created when the entry's data is written. */
+    private OutputStream methodCompressor;
+
+    /** Set while an unfinished method compressor is released, its remaining output is dropped. */
+    private boolean discardMethodCompressorOutput;
+
+    /** Receives the output of {@link #methodCompressor}. */
+    private final OutputStream methodCompressorSink = new OutputStream() {
+        private final byte[] oneByte = new byte[1];
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (!discardMethodCompressorOutput) {
+                writeCounted(b, off, len);
+            }
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            oneByte[0] = (byte) b;
+            write(oneByte, 0, 1);
+        }
+    };
+
     StreamCompressor(final Deflater deflater) {
         this.def = deflater;
     }
@@ -194,7 +225,11 @@ static StreamCompressor create(final SeekableByteChannel os, final Deflater defl
 
     @Override
     public void close() throws IOException {
-        def.end();
+        try {
+            releaseMethodCompressor();
+        } finally {
+            def.end();
+        }
     }
 
     void deflate() throws IOException {
@@ -220,9 +255,7 @@ public void deflate(final InputStream source, final int method) throws IOExcepti
         while ((length = source.read(readerBuf, 0, readerBuf.length)) >= 0) {
             write(readerBuf, 0, length, method);
         }
-        if (method == ZipEntry.DEFLATED) {
-            flushDeflater();
-        }
+        flushCompressor(method);
     }
 
     private void deflateUntilInputIsNeeded() throws IOException {
@@ -231,6 +264,23 @@ private void deflateUntilInputIsNeeded() throws IOException {
         }
     }
 
+    /**
+     * Writes all data still buffered for the current entry, completing
+     * its compressed representation.
+     *
+     * @param method The #ZipArchiveEntry compression method
+     * @throws IOException When failures happen
+     */
+    void flushCompressor(final int method) throws IOException {
+        if (method == ZipEntry.DEFLATED) {
+            flushDeflater();
+        } else if (usesMethodCompressor(method)) {
+            // also creates the compressor for empty entries, both formats need a header
+            getMethodCompressor(method).close();
+            methodCompressor = null;
+        }
+    }
+
     void flushDeflater() throws IOException {
         def.finish();
         while (!def.finished()) {
@@ -238,6 +288,23 @@ void flushDeflater() throws IOException {
         }
     }
 
+    private OutputStream getMethodCompressor(final int method) throws IOException {
+        if (methodCompressor == null) {
+            if (method == ZipMethod.ZSTD.getCode()) {
+                if (!ZstdUtils.isZstdCompressionAvailable()) {
+                    throw new ZipException("Zstandard compression is not available, it requires zstd-jni");
+                }
+                methodCompressor = new ZstdCompressorOutputStream(methodCompressorSink);
+            } else {
+                if (!XZUtils.isXZCompressionAvailable()) {
+                    throw new ZipException("XZ compression is not available, it requires XZ for Java");
+                }
+                methodCompressor = new XZCompressorOutputStream(methodCompressorSink);
+            }
+        }
+        return methodCompressor;
+    }
+
     /**
      * Return the number of bytes read from the source stream
      *
@@ -275,9 +342,37 @@ public long getTotalBytesWritten() {
         return totalWrittenToOutputStream;
     }
 
-    void reset() {
+    /**
+     * Accounts for data that is already present in the target before
+     * anything gets written by this compressor.
+     *
+     * @param length the number of bytes already present
+     */
+    void skipExistingContent(final long length) {
+        totalWrittenToOutputStream += length;
+    }
+
+    /**
+     * Closes the compressor of an entry that has not been completed,
+     * freeing native resources or encoder buffers without writing the
+     * rest of its output.
+     */
+    private void releaseMethodCompressor() throws IOException {
+        if (methodCompressor != null) {
+            discardMethodCompressorOutput = true;
+            try {
+                methodCompressor.close();
+            } finally {
+                methodCompressor = null;
+                discardMethodCompressorOutput = false;
+            }
+        }
+    }
+
+    void reset() throws IOException {
         crc.reset();
         def.reset();
+        releaseMethodCompressor();
         sourcePayloadLength = 0;
         writtenToOutputStreamForLastEntry = 0;
     }
@@ -297,6 +392,10 @@ long write(final byte[] b, final int offset, final int length, final int method)
         crc.update(b, offset, length);
         if (method == ZipEntry.DEFLATED) {
             writeDeflated(b, offset, length);
+        } else if (usesMethodCompressor(method)) {
+            if (length > 0) {
+                getMethodCompressor(method).write(b, offset, length);
+            }
         } else {
             writeCounted(b, offset, length);
         }
@@ -336,5 +435,9 @@ private void writeDeflated(final byte[] b, final int offset, final int length)
         }
     }
 
+    private static boolean usesMethodCompressor(final int method) {
+        return method == ZipMethod.ZSTD.getCode() || method == ZipMethod.XZ.getCode();
+    }
+
     protected abstract void writeOut(byte[] data, int offset, int length) throws IOException;
 }
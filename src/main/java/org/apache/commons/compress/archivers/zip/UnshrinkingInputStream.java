@@ -21,6 +21,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 import org.apache.commons.compress.compressors.lzw.LZWInputStream;
 
@@ -33,6 +34,7 @@ class UnshrinkingInputStream extends LZWInputStream {
     private static final int MAX_CODE_SIZE = 13;
     private static final int MAX_TABLE_SIZE = 1 << MAX_CODE_SIZE;
     private final boolean[] isUsed;
+    private final boolean[] isParent = new boolean[MAX_TABLE_SIZE];
 
     /**
      * IOException is not actually thrown!
@@ -110,7 +112,7 @@ protected int decompressNextSymbol() throws IOException {
     }
 
     private void partialClear() {
-        final boolean[] isParent = new boolean[MAX_TABLE_SIZE];
+        Arrays.fill(isParent, false);
         for (int i = 0; i < isUsed.length; i++) {
             if (isUsed[i] && getPrefix(i) != UNUSED_PREFIX) {
                 isParent[getPrefix(i)] = true;
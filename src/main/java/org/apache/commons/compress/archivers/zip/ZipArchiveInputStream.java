@@ -43,9 +43,11 @@
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
 import org.apache.commons.compress.utils.ArchiveUtils;
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.compress.utils.InputStreamStatistics;
+import org.apache.commons.compress.utils.Metrics;
 
 /**
  * Implements an input stream that can read Zip archives.
@@ -715,7 +717,9 @@ public long getCompressedCount() {
         if (method == ZipMethod.UNSHRINKING.getCode()
             || method == ZipMethod.IMPLODING.getCode()
             || method == ZipMethod.ENHANCED_DEFLATED.getCode()
-            || method == ZipMethod.BZIP2.getCode()) {
+            || method == ZipMethod.BZIP2.getCode()
+            || method == ZipMethod.ZSTD.getCode()
+            || method == ZipMethod.XZ.getCode()) {
             return ((InputStreamStatistics) current.checkInputStream()).getCompressedCount();
         }
         return -1;
@@ -855,6 +859,12 @@ public ZipArchiveEntry getNextZipEntry() throws IOException {
                 case ENHANCED_DEFLATED:
                     current.inputStream = new Deflate64CompressorInputStream(bis);
                     break;
+                case ZSTD:
+                    current.inputStream = ZipUtil.createZstdInputStream(bis);
+                    break;
+                case XZ:
+                    current.inputStream = new XZCompressorInputStream(bis);
+                    break;
                 default:
                     // we should never get here as all supported methods have been covered
                     // will cause an error when read is invoked, don't throw an exception here so people can
@@ -867,6 +877,7 @@ public ZipArchiveEntry getNextZipEntry() throws IOException {
         }
 
         entriesRead++;
+        Metrics.getListener().entryRead(this, current.entry);
         return current.entry;
     }
 
@@ -1018,7 +1029,9 @@ public int read(final byte[] buffer, final int offset, final int length) throws
         } else if (current.entry.getMethod() == ZipMethod.UNSHRINKING.getCode()
                 || current.entry.getMethod() == ZipMethod.IMPLODING.getCode()
                 || current.entry.getMethod() == ZipMethod.ENHANCED_DEFLATED.getCode()
-                || current.entry.getMethod() == ZipMethod.BZIP2.getCode()) {
+                || current.entry.getMethod() == ZipMethod.BZIP2.getCode()
+                || current.entry.getMethod() == ZipMethod.ZSTD.getCode()
+                || current.entry.getMethod() == ZipMethod.XZ.getCode()) {
             read = current.inputStream.read(buffer, offset, length);
         } else {
             throw new UnsupportedZipFeatureException(ZipMethod.getMethodByCode(current.entry.getMethod()),
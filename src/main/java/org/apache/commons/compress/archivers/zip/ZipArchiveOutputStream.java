@@ -21,6 +21,7 @@
 import static org.apache.commons.compress.archivers.zip.ZipConstants.DEFLATE_MIN_VERSION;
 import static org.apache.commons.compress.archivers.zip.ZipConstants.DWORD;
 import static org.apache.commons.compress.archivers.zip.ZipConstants.INITIAL_VERSION;
+import static org.apache.commons.compress.archivers.zip.ZipConstants.LZMA_MIN_VERSION;
 import static org.apache.commons.compress.archivers.zip.ZipConstants.SHORT;
 import static org.apache.commons.compress.archivers.zip.ZipConstants.WORD;
 import static org.apache.commons.compress.archivers.zip.ZipConstants.ZIP64_MAGIC;
@@ -52,8 +53,10 @@
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
 import org.apache.commons.compress.utils.ByteUtils;
 import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.Metrics;
 
 /**
  * Reimplementation of {@link java.util.zip.ZipOutputStream
@@ -69,7 +72,8 @@
  *
  * <p>If SeekableByteChannel cannot be used, this implementation will use
  * a Data Descriptor to store size and CRC information for {@link
- * #DEFLATED DEFLATED} entries, this means, you don't need to
+ * #DEFLATED DEFLATED}, {@link ZipMethod#ZSTD ZSTD} and {@link
+ * ZipMethod#XZ XZ} entries, this means, you don't need to
  * calculate them yourself.  Unfortunately this is not possible for
  * the {@link #STORED STORED} method, here setting the CRC and
  * uncompressed size information is required before {@link
@@ -129,9 +133,15 @@ private CurrentEntry(final ZipArchiveEntry entry) {
     private static final class EntryMetaData {
         private final long offset;
         private final boolean usesDataDescriptor;
+        /** whether the entry has been written before, see {@link #addExistingEntries} */
+        private final boolean existing;
         private EntryMetaData(final long offset, final boolean usesDataDescriptor) {
+            this(offset, usesDataDescriptor, false);
+        }
+        private EntryMetaData(final long offset, final boolean usesDataDescriptor, final boolean existing) {
             this.offset = offset;
             this.usesDataDescriptor = usesDataDescriptor;
+            this.existing = existing;
         }
     }
     /**
@@ -554,6 +564,30 @@ public void addRawArchiveEntry(final ZipArchiveEntry entry, final InputStream ra
         closeCopiedEntry(is2PhaseSource);
     }
 
+    /**
+     * Registers entries that are already present in the target
+     * channel, so they become part of the central directory written
+     * by {@link #finish}, in front of the entries written by this
+     * stream.
+     *
+     * <p>Used by {@link ZipUpdater} which appends to an existing
+     * archive, see {@link #skipExistingContent}.</p>
+     *
+     * <p>The central directory records of these entries keep the
+     * general purpose bits and the raw name of the entry rather than
+     * using the settings of this stream, so they match the local file
+     * headers that have been written before.</p>
+     *
+     * @param existing the entries in the order they shall appear in the central directory
+     */
+    void addExistingEntries(final List<ZipArchiveEntry> existing) {
+        for (final ZipArchiveEntry ze : existing) {
+            metaData.put(ze, new EntryMetaData(ze.getLocalHeaderOffset(),
+                ze.getGeneralPurposeBit().usesDataDescriptor(), true));
+        }
+        entries.addAll(0, existing);
+    }
+
     /**
      * Adds UnicodeExtra fields for name and file comment if mode is
      * ALWAYS or the data cannot be encoded using the configured
@@ -602,6 +636,7 @@ public boolean canWriteEntryData(final ArchiveEntry ae) {
             final ZipArchiveEntry zae = (ZipArchiveEntry) ae;
             return zae.getMethod() != ZipMethod.IMPLODING.getCode()
                 && zae.getMethod() != ZipMethod.UNSHRINKING.getCode()
+                && (zae.getMethod() != ZipMethod.ZSTD.getCode() || ZstdUtils.isZstdCompressionAvailable())
                 && ZipUtil.canHandleEntryData(zae);
         }
         return false;
@@ -774,7 +809,9 @@ private byte[] createCentralFileHeader(final ZipArchiveEntry ze) throws IOExcept
 
         handleZip64Extra(ze, entryMetaData.offset, needsZip64Extra);
 
-        return createCentralFileHeader(ze, getName(ze), entryMetaData, needsZip64Extra);
+        final ByteBuffer name = entryMetaData.existing && ze.getRawName() != null
+            ? ByteBuffer.wrap(ze.getRawName()) : getName(ze);
+        return createCentralFileHeader(ze, name, entryMetaData, needsZip64Extra);
     }
 
     /**
@@ -808,7 +845,8 @@ private byte[] createCentralFileHeader(final ZipArchiveEntry ze, final ByteBuffe
             comm = "";
         }
 
-        final ByteBuffer commentB = getEntryEncoding(ze).encode(comm);
+        final ZipEncoding entryEncoding = entryMetaData.existing ? getExistingEntryEncoding(ze) : getEntryEncoding(ze);
+        final ByteBuffer commentB = entryEncoding.encode(comm);
         final int nameLen = name.limit() - name.position();
         final int commentLen = commentB.limit() - commentB.position();
         final int len= CFH_FILENAME_OFFSET + nameLen + extraLength + commentLen;
@@ -822,10 +860,15 @@ private byte[] createCentralFileHeader(final ZipArchiveEntry ze, final ByteBuffe
                 buf, CFH_VERSION_MADE_BY_OFFSET);
 
         final int zipMethod = ze.getMethod();
-        final boolean encodable = zipEncoding.canEncode(ze.getName());
         putShort(versionNeededToExtract(zipMethod, needsZip64Extra, entryMetaData.usesDataDescriptor),
             buf, CFH_VERSION_NEEDED_OFFSET);
-        getGeneralPurposeBits(!encodable && fallbackToUTF8, entryMetaData.usesDataDescriptor).encode(buf, CFH_GPB_OFFSET);
+        if (entryMetaData.existing) {
+            putShort(getExistingGeneralPurposeBits(ze), buf, CFH_GPB_OFFSET);
+        } else {
+            final boolean encodable = zipEncoding.canEncode(ze.getName());
+            getGeneralPurposeBits(!encodable && fallbackToUTF8, entryMetaData.usesDataDescriptor)
+                .encode(buf, CFH_GPB_OFFSET);
+        }
 
         // compression method
         putShort(zipMethod, buf, CFH_METHOD_OFFSET);
@@ -941,7 +984,7 @@ private byte[] createLocalFileHeader(final ZipArchiveEntry ze, final ByteBuffer
         ZipUtil.toDosTime(calendarInstance, ze.getTime(), buf, LFH_TIME_OFFSET);
 
         // CRC
-        if (phased || !(zipMethod == DEFLATED || channel != null)){
+        if (phased || !(isCompressedByStream(zipMethod) || channel != null)){
             putLong(ze.getCrc(), buf, LFH_CRC_OFFSET);
         } else {
             System.arraycopy(LZERO, 0, buf, LFH_CRC_OFFSET, WORD);
@@ -958,7 +1001,7 @@ private byte[] createLocalFileHeader(final ZipArchiveEntry ze, final ByteBuffer
         } else if (phased) {
             putLong(ze.getCompressedSize(), buf, LFH_COMPRESSED_SIZE_OFFSET);
             putLong(ze.getSize(), buf, LFH_ORIGINAL_SIZE_OFFSET);
-        } else if (zipMethod == DEFLATED || channel != null) {
+        } else if (isCompressedByStream(zipMethod) || channel != null) {
             System.arraycopy(LZERO, 0, buf, LFH_COMPRESSED_SIZE_OFFSET, WORD);
             System.arraycopy(LZERO, 0, buf, LFH_ORIGINAL_SIZE_OFFSET, WORD);
         } else { // Stored
@@ -988,6 +1031,22 @@ protected final void deflate() throws IOException {
         streamCompressor.deflate();
     }
 
+    /**
+     * Tells the stream the target channel already contains the given
+     * number of bytes before its current position, so the offsets of
+     * the entries written by this stream are counted from the start
+     * of the channel.
+     *
+     * @param length the number of bytes already present in the target
+     * @throws IllegalStateException if anything has been written to this stream
+     */
+    void skipExistingContent(final long length) {
+        if (entry != null || streamCompressor.getTotalBytesWritten() != 0) {
+            throw new IllegalStateException("Existing content must be skipped before anything is written");
+        }
+        streamCompressor.skipExistingContent(length);
+    }
+
     /**
      * Closes the underlying stream/file without finishing the
      * archive, the result will likely be a corrupt archive.
@@ -1078,9 +1137,7 @@ public void flush() throws IOException {
      * Ensures all bytes sent to the deflater are written to the stream.
      */
     private void flushDeflater() throws IOException {
-        if (entry.entry.getMethod() == DEFLATED) {
-            streamCompressor.flushDeflater();
-        }
+        streamCompressor.flushCompressor(entry.entry.getMethod());
     }
 
     /**
@@ -1103,7 +1160,7 @@ public long getBytesWritten() {
     private Zip64Mode getEffectiveZip64Mode(final ZipArchiveEntry ze) {
         if (zip64Mode != Zip64Mode.AsNeeded
             || channel != null
-            || ze.getMethod() != DEFLATED
+            || !isCompressedByStream(ze.getMethod())
             || ze.getSize() != ArchiveEntry.SIZE_UNKNOWN) {
             return zip64Mode;
         }
@@ -1125,6 +1182,28 @@ private ZipEncoding getEntryEncoding(final ZipArchiveEntry ze) {
             ? ZipEncodingHelper.UTF8_ZIP_ENCODING : zipEncoding;
     }
 
+    /**
+     * The encoding the name and comment of an entry that has been
+     * read from an archive have been decoded with.
+     */
+    private ZipEncoding getExistingEntryEncoding(final ZipArchiveEntry ze) {
+        return ze.getGeneralPurposeBit().usesUTF8ForNames() ? ZipEncodingHelper.UTF8_ZIP_ENCODING : zipEncoding;
+    }
+
+    /**
+     * The general purpose bits of an entry that has been read from an
+     * archive, including the method specific bits 1 and 2 {@link
+     * GeneralPurposeBit#encode} doesn't write.
+     */
+    private static int getExistingGeneralPurposeBits(final ZipArchiveEntry ze) {
+        final GeneralPurposeBit b = ze.getGeneralPurposeBit();
+        // CheckStyle:MagicNumber OFF
+        return ZipShort.getValue(b.encode())
+            | (b.getSlidingDictionarySize() == 8192 ? 1 << 1 : 0)
+            | (b.getNumberOfShannonFanoTrees() == 3 ? 1 << 2 : 0);
+        // CheckStyle:MagicNumber ON
+    }
+
     private GeneralPurposeBit getGeneralPurposeBits(final boolean utfFallback, final boolean usesDataDescriptor) {
         final GeneralPurposeBit b = new GeneralPurposeBit();
         b.useUTF8ForNames(useUTF8Flag || utfFallback);
@@ -1134,6 +1213,29 @@ private GeneralPurposeBit getGeneralPurposeBits(final boolean utfFallback, final
         return b;
     }
 
+    /**
+     * Gets the compression level used for subsequent entries.
+     *
+     * @return the compression level
+     * @see #setLevel
+     * @since 1.23
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the default compression method used for entries that
+     * don't specify one.
+     *
+     * @return the compression method
+     * @see #setMethod
+     * @since 1.23
+     */
+    public int getMethod() {
+        return method;
+    }
+
     private ByteBuffer getName(final ZipArchiveEntry ze) throws IOException {
         return getEntryEncoding(ze).encode(ze.getName());
     }
@@ -1178,7 +1280,7 @@ private ByteBuffer getName(final ZipArchiveEntry ze) throws IOException {
     private boolean handleSizesAndCrc(final long bytesWritten, final long crc,
                                       final Zip64Mode effectiveMode)
         throws ZipException {
-        if (entry.entry.getMethod() == DEFLATED) {
+        if (isCompressedByStream(entry.entry.getMethod())) {
             /* It turns out def.getBytesRead() returns wrong values if
              * the size exceeds 4 GB on Java < Java7
             entry.entry.setSize(def.getBytesRead());
@@ -1360,6 +1462,7 @@ private void putArchiveEntry(final ArchiveEntry archiveEntry, final boolean phas
             hasCompressionLevelChanged = false;
         }
         writeLocalFileHeader((ZipArchiveEntry) archiveEntry, phased);
+        Metrics.getListener().entryWritten(this, archiveEntry);
     }
 
     /**
@@ -1504,7 +1607,10 @@ public void setLevel(final int level) {
     /**
      * Sets the default compression method for subsequent entries.
      *
-     * <p>Default is DEFLATED.</p>
+     * <p>Default is DEFLATED. Besides DEFLATED and STORED the codes
+     * of {@link ZipMethod#ZSTD} and {@link ZipMethod#XZ} can be used,
+     * which need zstd-jni or XZ for Java respectively. The
+     * compression level only applies to DEFLATED entries.</p>
      * @param method an {@code int} from java.util.zip.ZipEntry
      */
     public void setMethod(final int method) {
@@ -1618,8 +1724,18 @@ private boolean shouldUseZip64EOCD() {
                                                                 the starting disk number */
     }
 
+    /**
+     * Whether the data of entries using the given method gets
+     * compressed by this stream, size and CRC of those entries are
+     * only known after the data has been written.
+     */
+    private static boolean isCompressedByStream(final int zipMethod) {
+        return zipMethod == DEFLATED || zipMethod == ZipMethod.ZSTD.getCode()
+            || zipMethod == ZipMethod.XZ.getCode();
+    }
+
     private boolean usesDataDescriptor(final int zipMethod, final boolean phased) {
-        return !phased && zipMethod == DEFLATED && channel == null;
+        return !phased && isCompressedByStream(zipMethod) && channel == null;
     }
 
     /**
@@ -1704,16 +1820,20 @@ private void validateSizeInformation(final Zip64Mode effectiveMode)
 
 
     private int versionNeededToExtract(final int zipMethod, final boolean zip64, final boolean usedDataDescriptor) {
+        final int methodVersion = versionNeededToExtractMethod(zipMethod);
         if (zip64) {
-            return ZIP64_MIN_VERSION;
+            return Math.max(ZIP64_MIN_VERSION, methodVersion);
         }
         if (usedDataDescriptor) {
-            return DATA_DESCRIPTOR_MIN_VERSION;
+            return Math.max(DATA_DESCRIPTOR_MIN_VERSION, methodVersion);
         }
-        return versionNeededToExtractMethod(zipMethod);
+        return methodVersion;
     }
 
     private int versionNeededToExtractMethod(final int zipMethod) {
+        if (zipMethod == ZipMethod.ZSTD.getCode() || zipMethod == ZipMethod.XZ.getCode()) {
+            return LZMA_MIN_VERSION;
+        }
         return zipMethod == DEFLATED ? DEFLATE_MIN_VERSION : INITIAL_VERSION;
     }
 
@@ -44,6 +44,13 @@ final class ZipConstants {
      */
     static final int DEFLATE_MIN_VERSION = 20;
 
+    /**
+     * ZIP specification version that introduced the LZMA compression
+     * method, also used for the XZ and Zstandard methods.
+     * @since 1.23
+     */
+    static final int LZMA_MIN_VERSION = 63;
+
     /** ZIP specification version that introduced data descriptor method */
     static final int DATA_DESCRIPTOR_MIN_VERSION = 20;
 
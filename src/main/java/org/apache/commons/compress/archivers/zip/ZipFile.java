@@ -52,11 +52,14 @@
 import org.apache.commons.compress.archivers.EntryStreamOffsets;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
 import org.apache.commons.compress.utils.BoundedArchiveInputStream;
 import org.apache.commons.compress.utils.BoundedSeekableByteChannelInputStream;
 import org.apache.commons.compress.utils.CountingInputStream;
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.compress.utils.InputStreamStatistics;
+import org.apache.commons.compress.utils.MeteredInputStream;
+import org.apache.commons.compress.utils.Metrics;
 
 /**
  * Replacement for {@code java.util.ZipFile}.
@@ -934,6 +937,15 @@ public ZipArchiveEntry getEntry(final String name) {
         return entriesOfThatName != null ? entriesOfThatName.getFirst() : null;
     }
 
+    /**
+     * Gets the offset of the central directory inside the archive.
+     *
+     * @return the offset of the first central file header
+     */
+    long getCentralDirectoryStartOffset() {
+        return centralDirectoryStartOffset;
+    }
+
     /**
      * Gets the offset of the first local file header in the file.
      *
@@ -959,11 +971,13 @@ public InputStream getInputStream(final ZipArchiveEntry ze)
         }
         // cast validity is checked just above
         ZipUtil.checkRequestedFeatures(ze);
+        Metrics.getListener().entryRead(this, ze);
 
         // doesn't get closed if the method is not supported - which
         // should never happen because of the checkRequestedFeatures
         // call above
-        final InputStream is = new BufferedInputStream(getRawInputStream(ze)); //NOSONAR
+        final InputStream raw = getRawInputStream(ze);
+        final InputStream is = new BufferedInputStream(Metrics.isEnabled() ? new MeteredInputStream(raw, this) : raw); //NOSONAR
         switch (ZipMethod.getMethodByCode(ze.getMethod())) {
             case STORED:
                 return new StoredStatisticsStream(is);
@@ -998,6 +1012,10 @@ public void close() throws IOException {
                 return new BZip2CompressorInputStream(is);
             case ENHANCED_DEFLATED:
                 return new Deflate64CompressorInputStream(is);
+            case ZSTD:
+                return ZipUtil.createZstdInputStream(is);
+            case XZ:
+                return new XZCompressorInputStream(is);
             case AES_ENCRYPTED:
             case EXPANDING_LEVEL_1:
             case EXPANDING_LEVEL_2:
@@ -1010,7 +1028,6 @@ public void close() throws IOException {
             case TOKENIZATION:
             case UNKNOWN:
             case WAVPACK:
-            case XZ:
             default:
                 throw new UnsupportedZipFeatureException(ZipMethod.getMethodByCode(ze.getMethod()), ze);
         }
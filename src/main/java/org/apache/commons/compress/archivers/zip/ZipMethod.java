@@ -131,6 +131,13 @@ public enum ZipMethod {
      */
     LZMA(14),
 
+    /**
+     * Compression Method 93 for Zstandard.
+     *
+     * @see <a href="https://pkware.cachefly.net/webdocs/casestudies/APPNOTE.TXT">APPNOTE.TXT</a>
+     * @since 1.23
+     */
+    ZSTD(93),
 
     /**
      * Compression Method 95 for XZ.
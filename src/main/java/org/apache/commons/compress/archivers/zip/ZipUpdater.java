@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.archivers.zip;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.utils.IOUtils;
+
+/**
+ * Updates an existing zip archive in place.
+ *
+ * <p>Entries added to the archive are appended to the local file
+ * data of the existing archive, overwriting its central directory.
+ * When the updater is closed, a new central directory is written
+ * that contains the remaining entries of the original archive
+ * followed by the added entries. The cost of an update is
+ * proportional to the size of the added entries and the central
+ * directory, not to the size of the archive.</p>
+ *
+ * <p>Deleted and replaced entries are only removed from the central
+ * directory, their data remains inside the archive. Use {@link
+ * #compact} to create a copy of the archive without the unused
+ * data.</p>
+ *
+ * <p>The archive is not a valid zip archive between the first
+ * modification and {@link #close}, if the process dies before the
+ * updater has been closed the archive is lost. The comment of the
+ * original archive is not preserved.</p>
+ *
+ * <p>Split archives are not supported.</p>
+ *
+ * @NotThreadSafe
+ * @since 1.23
+ */
+public class ZipUpdater implements Closeable {
+
+    /**
+     * Copies all entries of an archive to a new archive without the
+     * data of deleted or replaced entries.
+     *
+     * <p>The entries are copied without being decompressed and
+     * compressed again.</p>
+     *
+     * @param archive the archive to compact
+     * @param target the archive to create
+     * @throws IOException if reading or writing fails
+     */
+    public static void compact(final Path archive, final Path target) throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive);
+             ZipArchiveOutputStream out = new ZipArchiveOutputStream(target)) {
+            zipFile.copyRawEntries(out, e -> true);
+        }
+    }
+
+    private final FileChannel channel;
+    private final String encoding;
+    private final long centralDirectoryStartOffset;
+    private final List<ZipArchiveEntry> entries;
+    private ZipArchiveOutputStream out;
+    private boolean modified;
+    private int method = ZipEntry.DEFLATED;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Opens the given archive for updating, using UTF-8 for file names.
+     *
+     * @param path the archive to update
+     * @throws IOException if the archive cannot be read or opened for writing
+     */
+    public ZipUpdater(final Path path) throws IOException {
+        this(path, ZipEncodingHelper.UTF8);
+    }
+
+    /**
+     * Opens the given archive for updating.
+     *
+     * @param path the archive to update
+     * @param encoding the encoding to use for file names, use null
+     * for the platform's default encoding
+     * @throws IOException if the archive cannot be read or opened for writing
+     */
+    public ZipUpdater(final Path path, final String encoding) throws IOException {
+        this.encoding = encoding;
+        try (ZipFile zipFile = new ZipFile(path, encoding)) {
+            entries = new ArrayList<>(Collections.list(zipFile.getEntriesInPhysicalOrder()));
+            centralDirectoryStartOffset = zipFile.getCentralDirectoryStartOffset();
+        }
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Adds an entry to the archive, replacing all entries of the
+     * original archive with the same name.
+     *
+     * @param entry the entry to add
+     * @param content the content of the entry
+     * @throws IOException if writing fails
+     */
+    public void addArchiveEntry(final ZipArchiveEntry entry, final InputStream content) throws IOException {
+        delete(entry.getName());
+        final ZipArchiveOutputStream zos = getOutputStream();
+        zos.putArchiveEntry(entry);
+        IOUtils.copy(content, zos);
+        zos.closeArchiveEntry();
+    }
+
+    /**
+     * Adds an entry with already compressed content to the archive,
+     * replacing all entries of the original archive with the same
+     * name.
+     *
+     * @param entry the entry to add
+     * @param rawStream the raw content of the entry
+     * @throws IOException if writing fails
+     * @see ZipArchiveOutputStream#addRawArchiveEntry
+     */
+    public void addRawArchiveEntry(final ZipArchiveEntry entry, final InputStream rawStream) throws IOException {
+        delete(entry.getName());
+        getOutputStream().addRawArchiveEntry(entry, rawStream);
+    }
+
+    /**
+     * Writes the new central directory if the archive has been
+     * modified and closes the archive.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (!modified) {
+            channel.close();
+            return;
+        }
+        try (ZipArchiveOutputStream zos = getOutputStream()) {
+            zos.addExistingEntries(entries);
+            zos.finish();
+        }
+    }
+
+    /**
+     * Removes all entries with the given name of the original archive.
+     *
+     * @param name the name of the entries to remove
+     * @return whether an entry has been removed
+     */
+    public boolean delete(final String name) {
+        final boolean removed = entries.removeIf(e -> e.getName().equals(name));
+        modified |= removed;
+        return removed;
+    }
+
+    /**
+     * Gets the entries of the original archive that have not been
+     * deleted or replaced, in physical order.
+     *
+     * @return the remaining entries, never null
+     */
+    public List<ZipArchiveEntry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Creates the stream appending to the archive on first use,
+     * this truncates the original central directory.
+     */
+    private ZipArchiveOutputStream getOutputStream() throws IOException {
+        if (out == null) {
+            channel.truncate(centralDirectoryStartOffset);
+            channel.position(centralDirectoryStartOffset);
+            out = new ZipArchiveOutputStream(channel);
+            out.setEncoding(encoding);
+            out.setMethod(method);
+            out.setLevel(level);
+            out.skipExistingContent(centralDirectoryStartOffset);
+            modified = true;
+        }
+        return out;
+    }
+
+    /**
+     * Sets the compression level for added entries, see {@link
+     * ZipArchiveOutputStream#setLevel}.
+     *
+     * @param level the compression level.
+     * @throws IllegalArgumentException if an invalid compression
+     * level is specified.
+     */
+    public void setLevel(final int level) {
+        if (out != null) {
+            out.setLevel(level);
+        } else if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.level = level;
+    }
+
+    /**
+     * Sets the default compression method for added entries, see
+     * {@link ZipArchiveOutputStream#setMethod}.
+     *
+     * @param method an {@code int} from java.util.zip.ZipEntry
+     */
+    public void setMethod(final int method) {
+        if (out != null) {
+            out.setMethod(method);
+        }
+        this.method = method;
+    }
+}
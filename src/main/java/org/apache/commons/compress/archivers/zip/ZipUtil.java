@@ -18,6 +18,7 @@
 package org.apache.commons.compress.archivers.zip;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -25,6 +26,11 @@
 import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.compressors.zstandard.PureJavaZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+
 /**
  * Utility class for handling DOS and Java time conversions.
  * @Immutable
@@ -110,6 +116,22 @@ static void copy(final byte[] from, final byte[] to, final int offset) {
         }
     }
 
+    /**
+     * Creates a stream decompressing the data of a {@link
+     * ZipMethod#ZSTD ZSTD} entry, using the pure Java decoder if
+     * zstd-jni is not available.
+     */
+    static InputStream createZstdInputStream(final InputStream in) throws IOException {
+        if (ZstdUtils.isZstdCompressionAvailable()) {
+            try {
+                return new ZstdCompressorInputStream(in);
+            } catch (final LinkageError e) { // NOSONAR
+                // the native library cannot be loaded, use the pure Java decoder
+            }
+        }
+        return new PureJavaZstdCompressorInputStream(in);
+    }
+
     /**
      * Converts DOS time to Java time (number of milliseconds since
      * epoch).
@@ -282,7 +304,9 @@ private static boolean supportsMethodOf(final ZipArchiveEntry entry) {
             || entry.getMethod() == ZipMethod.IMPLODING.getCode()
             || entry.getMethod() == ZipEntry.DEFLATED
             || entry.getMethod() == ZipMethod.ENHANCED_DEFLATED.getCode()
-            || entry.getMethod() == ZipMethod.BZIP2.getCode();
+            || entry.getMethod() == ZipMethod.BZIP2.getCode()
+            || entry.getMethod() == ZipMethod.ZSTD.getCode()
+            || (entry.getMethod() == ZipMethod.XZ.getCode() && XZUtils.isXZCompressionAvailable());
     }
 
     static void toDosTime(final Calendar c, final long t, final byte[] buf, final int offset) {
@@ -18,18 +18,33 @@
  */
 package org.apache.commons.compress.changes;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ScatterZipOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntryRequest;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.CloseShieldFilterInputStream;
 import org.apache.commons.compress.utils.IOUtils;
 
 /**
@@ -38,10 +53,23 @@
  * It operates on a copy of the ChangeSet. If the ChangeSet changes,
  * a new Performer must be created.
  *
+ * <p>When performing the changes on a {@link ZipFile} and writing to
+ * a {@link ZipArchiveOutputStream}, entries that are kept from the
+ * original archive are copied without being decompressed and
+ * compressed again.</p>
+ *
+ * <p>If the performer has been created with an {@link
+ * ExecutorService} and the output is a {@link
+ * ZipArchiveOutputStream}, the entries added by the ChangeSet are
+ * compressed in parallel before they get written.</p>
+ *
  * @ThreadSafe
  * @Immutable
  */
 public class ChangeSetPerformer {
+    /** The method of an entry that doesn't specify one, see {@link java.util.zip.ZipEntry#getMethod}. */
+    private static final int METHOD_NOT_SPECIFIED = -1;
+
     /**
      * Used in perform to abstract out getting entries and streams for
      * those entries.
@@ -52,6 +80,10 @@ public class ChangeSetPerformer {
      * ArchiveInputStream#getNextEntry.</p>
      */
     interface ArchiveEntryIterator {
+        /**
+         * Copies the current entry to the given output.
+         */
+        void copyTo(ArchiveOutputStream out) throws IOException;
         InputStream getInputStream() throws IOException;
         boolean hasNext() throws IOException;
         ArchiveEntry next();
@@ -65,6 +97,10 @@ interface ArchiveEntryIterator {
             this.in = in;
         }
         @Override
+        public void copyTo(final ArchiveOutputStream out) throws IOException {
+            copyStream(in, out, next);
+        }
+        @Override
         public InputStream getInputStream() {
             return in;
         }
@@ -88,6 +124,14 @@ public ArchiveEntry next() {
             nestedEnum = in.getEntriesInPhysicalOrder();
         }
         @Override
+        public void copyTo(final ArchiveOutputStream out) throws IOException {
+            if (out instanceof ZipArchiveOutputStream) {
+                ((ZipArchiveOutputStream) out).addRawArchiveEntry(current, in.getRawInputStream(current));
+            } else {
+                copyStream(getInputStream(), out, current);
+            }
+        }
+        @Override
         public InputStream getInputStream() throws IOException {
             return in.getInputStream(current);
         }
@@ -102,14 +146,110 @@ public ArchiveEntry next() {
         }
     }
 
-    private final Set<Change> changes;
-
     /**
-     * Constructs a ChangeSetPerformer with the changes from this ChangeSet
-     * @param changeSet the ChangeSet which operations are used for performing
+     * Compresses entries added by the ChangeSet on an executor service
+     * using the defaults of the target stream.
      */
-    public ChangeSetPerformer(final ChangeSet changeSet) {
-        changes = changeSet.getChanges();
+    private static final class ParallelCompressor implements Closeable {
+        private final ExecutorService executorService;
+        private final int level;
+        private final int method;
+        private final Map<Change, Future<ScatterZipOutputStream>> compressed = new IdentityHashMap<>();
+        /** Set when the changes are not going to be written, remaining tasks do nothing. */
+        private volatile boolean aborted;
+
+        ParallelCompressor(final ExecutorService executorService, final ZipArchiveOutputStream out) {
+            this.executorService = executorService;
+            this.level = out.getLevel();
+            this.method = out.getMethod();
+        }
+
+        /**
+         * Skips the changes that have not been compressed yet and
+         * removes the temporary files of those that have been.
+         */
+        @Override
+        public void close() {
+            aborted = true;
+            for (final Future<ScatterZipOutputStream> future : compressed.values()) {
+                try {
+                    final ScatterZipOutputStream scatter = await(future);
+                    if (scatter != null) {
+                        scatter.close();
+                    }
+                } catch (final Exception ex) { //NOSONAR
+                    // failed, nothing to clean up
+                }
+            }
+            compressed.clear();
+        }
+
+        private ScatterZipOutputStream compress(final Change change, final ZipArchiveEntry entry)
+                throws IOException {
+            if (aborted) {
+                return null;
+            }
+            final ScatterZipOutputStream scatter = ScatterZipOutputStream.pathBased(
+                Files.createTempFile("changeset", ".zip"), level);
+            try {
+                // the input belongs to the caller and must not be closed
+                scatter.addArchiveEntry(ZipArchiveEntryRequest.createZipArchiveEntryRequest(entry,
+                    () -> new CloseShieldFilterInputStream(change.getInput())));
+            } catch (final IOException | RuntimeException ex) {
+                scatter.close();
+                throw ex;
+            }
+            if (aborted) {
+                scatter.close();
+                return null;
+            }
+            return scatter;
+        }
+
+        /**
+         * Starts compressing the changes that add zip entries.
+         */
+        void submit(final List<Change> added) {
+            for (final Change change : added) {
+                if (!(change.getEntry() instanceof ZipArchiveEntry)) {
+                    continue;
+                }
+                // the entry belongs to the caller and must not be modified
+                final ZipArchiveEntry entry = (ZipArchiveEntry) ((ZipArchiveEntry) change.getEntry()).clone();
+                if (entry.getMethod() == METHOD_NOT_SPECIFIED) {
+                    entry.setMethod(method);
+                }
+                compressed.put(change, executorService.submit(() -> compress(change, entry)));
+            }
+        }
+
+        /**
+         * Writes the compressed data of a change.
+         *
+         * @return false if the change has not been compressed in parallel
+         */
+        boolean writeTo(final Change change, final ZipArchiveOutputStream out) throws IOException {
+            final Future<ScatterZipOutputStream> future = compressed.remove(change);
+            if (future == null) {
+                return false;
+            }
+            try (ScatterZipOutputStream scatter = await(future)) {
+                scatter.writeTo(out);
+            }
+            return true;
+        }
+    }
+
+    private static <T> T await(final Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing entry");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
     }
 
     /**
@@ -124,13 +264,62 @@ public ChangeSetPerformer(final ChangeSet changeSet) {
      * @throws IOException
      *             if data cannot be read or written
      */
-    private void copyStream(final InputStream in, final ArchiveOutputStream out,
+    private static void copyStream(final InputStream in, final ArchiveOutputStream out,
             final ArchiveEntry entry) throws IOException {
         out.putArchiveEntry(entry);
         IOUtils.copy(in, out);
         out.closeArchiveEntry();
     }
 
+    private final Set<Change> changes;
+
+    private final ExecutorService executorService;
+
+    /**
+     * Constructs a ChangeSetPerformer with the changes from this ChangeSet
+     * @param changeSet the ChangeSet which operations are used for performing
+     */
+    public ChangeSetPerformer(final ChangeSet changeSet) {
+        this(changeSet, null);
+    }
+
+    /**
+     * Constructs a ChangeSetPerformer with the changes from this ChangeSet
+     * that compresses added zip entries in parallel.
+     *
+     * <p>The executor service is only used if the output of {@code
+     * perform} is a {@link ZipArchiveOutputStream}. Only entries that
+     * are going to be written get compressed, using the compression
+     * level and the default method of the output stream. The executor
+     * service is not shut down by this class.</p>
+     *
+     * @param changeSet the ChangeSet which operations are used for performing
+     * @param executorService the executor service used to compress added entries,
+     *            may be null to compress them sequentially
+     * @since 1.23
+     */
+    public ChangeSetPerformer(final ChangeSet changeSet, final ExecutorService executorService) {
+        changes = changeSet.getChanges();
+        this.executorService = executorService;
+    }
+
+    /**
+     * Writes the entries added by the ChangeSet, compressing them in
+     * parallel if possible.
+     */
+    private void addFromChangeSet(final List<Change> added, final ArchiveOutputStream out,
+            final ChangeSetResults results, final ParallelCompressor parallel) throws IOException {
+        if (parallel != null) {
+            parallel.submit(added);
+        }
+        for (final Change change : added) {
+            if (parallel == null || !parallel.writeTo(change, (ZipArchiveOutputStream) out)) {
+                copyStream(change.getInput(), out, change.getEntry());
+            }
+            results.addedFromChangeSet(change.getEntry().getName());
+        }
+    }
+
     /**
      * Checks if an ArchiveEntry is deleted later in the ChangeSet. This is
      * necessary if an file is added with this ChangeSet, but later became
@@ -180,16 +369,30 @@ private ChangeSetResults perform(final ArchiveEntryIterator entryIterator,
         final ChangeSetResults results = new ChangeSetResults();
 
         final Set<Change> workingSet = new LinkedHashSet<>(changes);
+        final ParallelCompressor parallel = executorService != null && out instanceof ZipArchiveOutputStream
+            ? new ParallelCompressor(executorService, (ZipArchiveOutputStream) out) : null;
+        try {
+            perform(entryIterator, out, results, workingSet, parallel);
+        } finally {
+            IOUtils.closeQuietly(parallel);
+        }
+        out.finish();
+        return results;
+    }
 
+    private void perform(final ArchiveEntryIterator entryIterator, final ArchiveOutputStream out,
+            final ChangeSetResults results, final Set<Change> workingSet,
+            final ParallelCompressor parallel) throws IOException {
+        final List<Change> replacing = new ArrayList<>();
         for (final Iterator<Change> it = workingSet.iterator(); it.hasNext();) {
             final Change change = it.next();
 
             if (change.type() == Change.TYPE_ADD && change.isReplaceMode()) {
-                copyStream(change.getInput(), out, change.getEntry());
+                replacing.add(change);
                 it.remove();
-                results.addedFromChangeSet(change.getEntry().getName());
             }
         }
+        addFromChangeSet(replacing, out, results, parallel);
 
         while (entryIterator.hasNext()) {
             final ArchiveEntry entry = entryIterator.next();
@@ -220,25 +423,26 @@ private ChangeSetResults perform(final ArchiveEntryIterator entryIterator,
             if (copy
                 && !isDeletedLater(workingSet, entry)
                 && !results.hasBeenAdded(entry.getName())) {
-                copyStream(entryIterator.getInputStream(), out, entry);
+                entryIterator.copyTo(out);
                 results.addedFromStream(entry.getName());
             }
         }
 
         // Adds files which hasn't been added from the original and do not have replace mode on
+        final List<Change> added = new ArrayList<>();
+        final Set<String> addedNames = new HashSet<>();
         for (final Iterator<Change> it = workingSet.iterator(); it.hasNext();) {
             final Change change = it.next();
 
             if (change.type() == Change.TYPE_ADD &&
                 !change.isReplaceMode() &&
-                !results.hasBeenAdded(change.getEntry().getName())) {
-                copyStream(change.getInput(), out, change.getEntry());
+                !results.hasBeenAdded(change.getEntry().getName()) &&
+                addedNames.add(change.getEntry().getName())) {
+                added.add(change);
                 it.remove();
-                results.addedFromChangeSet(change.getEntry().getName());
             }
         }
-        out.finish();
-        return results;
+        addFromChangeSet(added, out, results, parallel);
     }
 
     /**
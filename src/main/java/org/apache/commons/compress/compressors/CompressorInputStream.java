@@ -20,6 +20,8 @@
 
 import java.io.InputStream;
 
+import org.apache.commons.compress.utils.Metrics;
+
 public abstract class CompressorInputStream extends InputStream {
     private long bytesRead;
 
@@ -44,6 +46,7 @@ protected void count(final int read) {
     protected void count(final long read) {
         if (read != -1) {
             bytesRead = bytesRead + read;
+            Metrics.getListener().bytesRead(this, read);
         }
     }
 
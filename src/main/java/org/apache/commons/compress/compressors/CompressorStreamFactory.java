@@ -21,6 +21,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Collections;
@@ -29,13 +30,18 @@
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.apache.commons.compress.compressors.brotli.BrotliCompressorInputStream;
+import org.apache.commons.compress.compressors.brotli.BrotliCompressorOutputStream;
 import org.apache.commons.compress.compressors.brotli.BrotliUtils;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.compress.compressors.deflate.DeflateCompressorInputStream;
 import org.apache.commons.compress.compressors.deflate.DeflateCompressorOutputStream;
+import org.apache.commons.compress.compressors.deflate.DeflateParameters;
 import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
@@ -51,14 +57,19 @@
 import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorInputStream;
 import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorOutputStream;
 import org.apache.commons.compress.compressors.snappy.SnappyCompressorInputStream;
+import org.apache.commons.compress.compressors.snappy.SnappyCompressorOutputStream;
 import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
 import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
 import org.apache.commons.compress.compressors.xz.XZUtils;
 import org.apache.commons.compress.compressors.z.ZCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.PureJavaZstdCompressorInputStream;
 import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
 import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
 import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
 import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.MeteredInputStream;
+import org.apache.commons.compress.utils.MeteredOutputStream;
+import org.apache.commons.compress.utils.Metrics;
 import org.apache.commons.compress.utils.Sets;
 
 /**
@@ -94,6 +105,132 @@
  */
 public class CompressorStreamFactory implements CompressorStreamProvider {
 
+    /** Reads the remaining bytes of a buffer, advancing its position. */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+
+    /** Writes to the remaining space of a buffer, advancing its position. */
+    private static final class ByteBufferOutputStream extends OutputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferOutputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len > buffer.remaining()) {
+                throw new IOException("Destination buffer is too small");
+            }
+            buffer.put(b, off, len);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Destination buffer is too small");
+            }
+            buffer.put((byte) b);
+        }
+    }
+
+    /**
+     * Compresses a heap buffer into another heap buffer using the
+     * backing arrays and the settings of {@link DeflateCompressorOutputStream}.
+     */
+    private static int deflate(final ByteBuffer src, final ByteBuffer dst) throws IOException {
+        final DeflateParameters parameters = new DeflateParameters();
+        final Deflater deflater = new Deflater(parameters.getCompressionLevel(), !parameters.withZlibHeader());
+        try {
+            deflater.setInput(src.array(), src.arrayOffset() + src.position(), src.remaining());
+            deflater.finish();
+            final byte[] out = dst.array();
+            final int outOff = dst.arrayOffset() + dst.position();
+            int written = 0;
+            while (!deflater.finished() && written < dst.remaining()) {
+                written += deflater.deflate(out, outOff + written, dst.remaining() - written);
+            }
+            if (!deflater.finished()) {
+                throw new IOException("Destination buffer is too small");
+            }
+            src.position(src.limit());
+            dst.position(dst.position() + written);
+            return written;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses a heap buffer into another heap buffer using the
+     * backing arrays and the settings of {@link DeflateCompressorInputStream}.
+     */
+    private static int inflate(final ByteBuffer src, final ByteBuffer dst) throws IOException {
+        final Inflater inflater = new Inflater(!new DeflateParameters().withZlibHeader());
+        try {
+            inflater.setInput(src.array(), src.arrayOffset() + src.position(), src.remaining());
+            final byte[] out = dst.array();
+            final int outOff = dst.arrayOffset() + dst.position();
+            int written = 0;
+            while (!inflater.finished()) {
+                // once dst is full only the trailer may be left, any further output means dst is too small
+                final int n = written < dst.remaining()
+                    ? inflater.inflate(out, outOff + written, dst.remaining() - written)
+                    : inflater.inflate(new byte[1]);
+                if (n > 0 && written == dst.remaining()) {
+                    throw new IOException("Destination buffer is too small");
+                }
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated or corrupt deflate data");
+                }
+                written += n;
+            }
+            src.position(src.limit() - inflater.getRemaining());
+            dst.position(dst.position() + written);
+            return written;
+        } catch (final DataFormatException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Whether both buffers can be handed to a native codec without
+     * copying, i.e. both are heap buffers or both are direct buffers.
+     */
+    private static boolean isSameKind(final ByteBuffer src, final ByteBuffer dst) {
+        return src.hasArray() && dst.hasArray() || src.isDirect() && dst.isDirect();
+    }
+
     private static final CompressorStreamFactory SINGLETON = new CompressorStreamFactory();
 
 
@@ -504,6 +641,55 @@ public CompressorStreamFactory(final boolean decompressUntilEOF, final int memor
         this.decompressConcatenated = decompressUntilEOF;
         this.memoryLimitInKb = memoryLimitInKb;
     }
+
+    /**
+     * Compresses the remaining bytes of a buffer into another buffer.
+     *
+     * <p>On success the position of {@code src} is advanced to its limit
+     * and the position of {@code dst} by the number of bytes written. The
+     * compressed data includes the headers and trailers of the format, as
+     * if it had been written to {@link #createCompressorOutputStream}.
+     * Unlike the stream based API this method supports {@value
+     * #SNAPPY_RAW} as the uncompressed size is known up front.</p>
+     *
+     * <p>{@value #DEFLATE} data held in heap buffers is compressed
+     * directly between the backing arrays, {@value #ZSTANDARD} data is
+     * handed to zstd-jni without copying if both buffers are heap
+     * buffers or both are direct buffers. All other formats are
+     * compressed using {@link #createCompressorOutputStream(String,
+     * OutputStream)}, direct buffers are copied in chunks.</p>
+     *
+     * @param name the compressor name, see {@link #createCompressorOutputStream}
+     * @param src the data to compress
+     * @param dst the buffer to write the compressed data to
+     * @return the number of bytes written to dst
+     * @throws IOException if dst is too small or compressing fails
+     * @throws CompressorException if the compressor name is not known
+     * @since 1.23
+     */
+    public int compress(final String name, final ByteBuffer src, final ByteBuffer dst)
+        throws IOException, CompressorException {
+        if (DEFLATE.equalsIgnoreCase(name) && src.hasArray() && dst.hasArray()) {
+            return deflate(src, dst);
+        }
+        if (ZSTANDARD.equalsIgnoreCase(name) && isSameKind(src, dst) && ZstdUtils.isZstdCompressionAvailable()) {
+            return ZstdCompressorOutputStream.compress(src, dst);
+        }
+        final int start = dst.position();
+        final OutputStream out = new ByteBufferOutputStream(dst);
+        try (OutputStream cos = SNAPPY_RAW.equalsIgnoreCase(name)
+                 ? new SnappyCompressorOutputStream(out, src.remaining())
+                 : createCompressorOutputStream(name, out)) {
+            if (src.hasArray()) {
+                cos.write(src.array(), src.arrayOffset() + src.position(), src.remaining());
+                src.position(src.limit());
+            } else {
+                IOUtils.copy(new ByteBufferInputStream(src), cos);
+            }
+        }
+        return dst.position() - start;
+    }
+
     /**
      * Create an compressor input stream from an input stream, autodetecting the
      * compressor type from the first few bytes of the stream. The InputStream
@@ -554,7 +740,12 @@ public CompressorInputStream createCompressorInputStream(final String name, fina
         if (name == null || in == null) {
             throw new IllegalArgumentException("Compressor name and stream must not be null.");
         }
+        return newCompressorInputStream(name, Metrics.isEnabled() ? new MeteredInputStream(in, name) : in,
+            actualDecompressConcatenated);
+    }
 
+    private CompressorInputStream newCompressorInputStream(final String name, final InputStream in,
+            final boolean actualDecompressConcatenated) throws CompressorException {
         try {
 
             if (GZIP.equalsIgnoreCase(name)) {
@@ -580,10 +771,14 @@ public CompressorInputStream createCompressorInputStream(final String name, fina
             }
 
             if (ZSTANDARD.equalsIgnoreCase(name)) {
-                if (!ZstdUtils.isZstdCompressionAvailable()) {
-                    throw new CompressorException("Zstandard compression is not available." + YOU_NEED_ZSTD_JNI);
+                if (ZstdUtils.isZstdCompressionAvailable()) {
+                    try {
+                        return new ZstdCompressorInputStream(in);
+                    } catch (final LinkageError e) { // NOSONAR
+                        // the native library cannot be loaded, use the pure Java decoder
+                    }
                 }
-                return new ZstdCompressorInputStream(in);
+                return new PureJavaZstdCompressorInputStream(in, (byte[]) null, memoryLimitInKb);
             }
 
             if (LZMA.equalsIgnoreCase(name)) {
@@ -643,8 +838,8 @@ public CompressorInputStream createCompressorInputStream(final String name, fina
      * @param name
      *            the compressor name, i.e. {@value #GZIP}, {@value #BZIP2},
      *            {@value #XZ}, {@value #PACK200}, {@value #SNAPPY_FRAMED},
-     *            {@value #LZ4_BLOCK}, {@value #LZ4_FRAMED}, {@value #ZSTANDARD}
-     *            or {@value #DEFLATE}
+     *            {@value #LZ4_BLOCK}, {@value #LZ4_FRAMED}, {@value #ZSTANDARD},
+     *            {@value #BROTLI} or {@value #DEFLATE}
      * @param out
      *            the output stream
      * @return the compressor output stream
@@ -659,7 +854,11 @@ public CompressorOutputStream createCompressorOutputStream(final String name, fi
         if (name == null || out == null) {
             throw new IllegalArgumentException("Compressor name and stream must not be null.");
         }
+        return newCompressorOutputStream(name, Metrics.isEnabled() ? new MeteredOutputStream(out, name) : out);
+    }
 
+    private CompressorOutputStream newCompressorOutputStream(final String name, final OutputStream out)
+            throws CompressorException {
         try {
 
             if (GZIP.equalsIgnoreCase(name)) {
@@ -701,6 +900,10 @@ public CompressorOutputStream createCompressorOutputStream(final String name, fi
             if (ZSTANDARD.equalsIgnoreCase(name)) {
                 return new ZstdCompressorOutputStream(out);
             }
+
+            if (BROTLI.equalsIgnoreCase(name)) {
+                return new BrotliCompressorOutputStream(out);
+            }
         } catch (final IOException e) {
             throw new CompressorException("Could not create CompressorOutputStream", e);
         }
@@ -711,6 +914,82 @@ public CompressorOutputStream createCompressorOutputStream(final String name, fi
         throw new CompressorException("Compressor: " + name + " not found.");
     }
 
+    /**
+     * Decompresses the remaining bytes of a buffer into another buffer.
+     *
+     * <p>On success the position of {@code src} is advanced by the
+     * number of bytes read by the decompressor - which may be more than
+     * the compressed data for formats that buffer their input - and the
+     * position of {@code dst} by the number of bytes written.
+     * {@value #DEFLATE}, {@value #LZ4_BLOCK} and {@value #SNAPPY_RAW}
+     * data held in heap buffers is decompressed directly between the
+     * backing arrays, {@value #ZSTANDARD} data is handed to zstd-jni
+     * without copying if both buffers are heap buffers or both are
+     * direct buffers. All other formats are decompressed using {@link
+     * #createCompressorInputStream(String, InputStream)}, direct buffers
+     * are copied in chunks.</p>
+     *
+     * @param name the compressor name, see {@link #createCompressorInputStream(String, InputStream)}
+     * @param src the compressed data
+     * @param dst the buffer to write the decompressed data to
+     * @return the number of bytes written to dst
+     * @throws IOException if dst is too small or the compressed data is corrupt
+     * @throws CompressorException if the compressor name is not known or not available
+     * @since 1.23
+     */
+    public int decompress(final String name, final ByteBuffer src, final ByteBuffer dst)
+        throws IOException, CompressorException {
+        if (ZSTANDARD.equalsIgnoreCase(name) && isSameKind(src, dst) && ZstdUtils.isZstdCompressionAvailable()) {
+            try {
+                return ZstdCompressorInputStream.decompress(src, dst);
+            } catch (final LinkageError e) { // NOSONAR
+                // the native library cannot be loaded, use the pure Java decoder
+            }
+        }
+        if (DEFLATE.equalsIgnoreCase(name) && src.hasArray() && dst.hasArray()) {
+            return inflate(src, dst);
+        }
+        if (src.hasArray() && dst.hasArray()) {
+            final byte[] in = src.array();
+            final int inOff = src.arrayOffset() + src.position();
+            final byte[] out = dst.array();
+            final int outOff = dst.arrayOffset() + dst.position();
+            final int written;
+            if (LZ4_BLOCK.equalsIgnoreCase(name)) {
+                written = BlockLZ4CompressorInputStream.decompress(in, inOff, src.remaining(), out, outOff,
+                    dst.remaining());
+            } else if (SNAPPY_RAW.equalsIgnoreCase(name)) {
+                if (SnappyCompressorInputStream.getUncompressedSize(in, inOff, src.remaining()) > dst.remaining()) {
+                    throw new IOException("Destination buffer is too small");
+                }
+                written = SnappyCompressorInputStream.decompress(in, inOff, src.remaining(), out, outOff);
+            } else {
+                written = -1;
+            }
+            if (written >= 0) {
+                src.position(src.limit());
+                dst.position(dst.position() + written);
+                return written;
+            }
+        }
+        final int start = dst.position();
+        try (InputStream cis = createCompressorInputStream(name, new ByteBufferInputStream(src))) {
+            if (dst.hasArray()) {
+                final byte[] out = dst.array();
+                int n;
+                while ((n = cis.read(out, dst.arrayOffset() + dst.position(), dst.remaining())) > 0) {
+                    dst.position(dst.position() + n);
+                }
+                if (n == 0 && cis.read() != -1) {
+                    throw new IOException("Destination buffer is too small");
+                }
+            } else {
+                IOUtils.copy(cis, new ByteBufferOutputStream(dst));
+            }
+        }
+        return dst.position() - start;
+    }
+
     public SortedMap<String, CompressorStreamProvider> getCompressorInputStreamProviders() {
         if (compressorInputStreamProviders == null) {
             compressorInputStreamProviders = Collections
@@ -744,7 +1023,8 @@ public Set<String> getInputStreamCompressorNames() {
 
     @Override
     public Set<String> getOutputStreamCompressorNames() {
-        return Sets.newHashSet(GZIP, BZIP2, XZ, LZMA, PACK200, DEFLATE, SNAPPY_FRAMED, LZ4_BLOCK, LZ4_FRAMED, ZSTANDARD);
+        return Sets.newHashSet(GZIP, BROTLI, BZIP2, XZ, LZMA, PACK200, DEFLATE, SNAPPY_FRAMED, LZ4_BLOCK, LZ4_FRAMED,
+            ZSTANDARD);
     }
 
     /**
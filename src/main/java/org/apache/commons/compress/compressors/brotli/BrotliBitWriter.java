@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.brotli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Collects bits in the order used by Brotli, least significant bit first.
+ *
+ * @NotThreadSafe
+ */
+final class BrotliBitWriter {
+
+    private byte[] buffer;
+    private int bytes;
+    private long accumulator;
+    private int bitCount;
+
+    BrotliBitWriter(final int initialCapacity) {
+        buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    /**
+     * Pads the current byte with zero bits.
+     */
+    void alignToByte() {
+        final int pad = -bitCount & 7;
+        if (pad != 0) {
+            writeBits(pad, 0);
+        }
+        flushAccumulator();
+    }
+
+    /**
+     * Number of bits written since the last reset or {@link #writeTo}.
+     */
+    long bitsWritten() {
+        return bytes * 8L + bitCount;
+    }
+
+    private void ensureCapacity(final int extra) {
+        if (bytes + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bytes + extra));
+        }
+    }
+
+    private void flushAccumulator() {
+        ensureCapacity(8);
+        while (bitCount >= 8) {
+            buffer[bytes++] = (byte) accumulator;
+            accumulator >>>= 8;
+            bitCount -= 8;
+        }
+    }
+
+    /**
+     * Discards everything written so far.
+     */
+    void reset() {
+        bytes = 0;
+        accumulator = 0;
+        bitCount = 0;
+    }
+
+    /**
+     * Writes the lowest {@code n} bits of value, n must not exceed 32.
+     */
+    void writeBits(final int n, final long value) {
+        accumulator |= value << bitCount;
+        bitCount += n;
+        if (bitCount >= 32) {
+            ensureCapacity(4);
+            final byte[] b = buffer;
+            int i = bytes;
+            b[i++] = (byte) accumulator;
+            b[i++] = (byte) (accumulator >>> 8);
+            b[i++] = (byte) (accumulator >>> 16);
+            b[i++] = (byte) (accumulator >>> 24);
+            bytes = i;
+            accumulator >>>= 32;
+            bitCount -= 32;
+        }
+    }
+
+    /**
+     * Writes bytes, the writer must be aligned to a byte boundary.
+     */
+    void writeBytes(final byte[] b, final int off, final int len) {
+        flushAccumulator();
+        ensureCapacity(len);
+        System.arraycopy(b, off, buffer, bytes, len);
+        bytes += len;
+    }
+
+    /**
+     * Writes all complete bytes to the stream and keeps the remaining bits.
+     */
+    void writeTo(final OutputStream out) throws IOException {
+        flushAccumulator();
+        out.write(buffer, 0, bytes);
+        bytes = 0;
+    }
+}
@@ -0,0 +1,641 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.brotli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+
+/**
+ * {@link CompressorOutputStream} implementation to create Brotli encoded streams.
+ *
+ * <p>This is a pure Java encoder. It finds back-references using hash
+ * chains and writes one prefix code per category and meta-block. It
+ * doesn't use the static dictionary, context modeling or block
+ * splitting of the reference implementation, so its output is bigger
+ * than that of the brotli command line tool at the same quality. Meta-blocks
+ * that don't compress are stored uncompressed.</p>
+ *
+ * <p>The quality determines how hard the encoder searches for
+ * matches. Qualities up to 3 use a greedy search over a history of at
+ * most 256 KiB and are meant for compressing on the fly, higher
+ * qualities use lazy matching and longer hash chains.</p>
+ *
+ * <p>Calling {@link #flush} encodes all data written so far and pads
+ * the stream to a byte boundary so the receiver can decode it, at the
+ * cost of a worse compression ratio.</p>
+ *
+ * @see <a href="https://datatracker.ietf.org/doc/html/rfc7932">RFC 7932</a>
+ * @NotThreadSafe
+ * @since 1.23
+ */
+public class BrotliCompressorOutputStream extends CompressorOutputStream {
+
+    /** The smallest quality, fastest compression. */
+    public static final int MIN_QUALITY = 0;
+
+    /** The biggest quality, best compression. */
+    public static final int MAX_QUALITY = 11;
+
+    /** The default quality, matches the brotli command line tool. */
+    public static final int DEFAULT_QUALITY = 11;
+
+    /** The smallest base 2 logarithm of the window size. */
+    public static final int MIN_WINDOW_BITS = 10;
+
+    /** The biggest base 2 logarithm of the window size. */
+    public static final int MAX_WINDOW_BITS = 24;
+
+    /** The default base 2 logarithm of the window size. */
+    public static final int DEFAULT_WINDOW_BITS = 22;
+
+    private static final int MIN_MATCH = 4;
+    /** The window size minus this gap is the biggest distance allowed. */
+    private static final int WINDOW_GAP = 16;
+    private static final int NUM_LITERALS = 256;
+    private static final int NUM_COMMANDS = 704;
+    private static final int NUM_DISTANCES = 64;
+    private static final int NUM_SHORT_DISTANCE_CODES = 16;
+    private static final int REBASE_THRESHOLD = 1 << 30;
+    private static final int HASH_MULTIPLIER = 0x1E35A7BD;
+    /** Only the first few positions of a match are hashed at the lowest qualities. */
+    private static final int FAST_INSERT_LIMIT = 8;
+
+    private static final int[] CHAIN_LENGTHS = {1, 2, 4, 8, 16, 32, 64, 128, 192, 256, 512, 1024};
+    private static final int[] NICE_LENGTHS = {16, 24, 32, 48, 64, 96, 128, 192, 256, 384, 512, 1024};
+    private static final int[] HASH_BITS = {14, 14, 15, 15, 16, 16, 16, 16, 17, 17, 17, 17};
+
+    private static final int[] INSERT_BASE = {
+        0, 1, 2, 3, 4, 5, 6, 8, 10, 14, 18, 26, 34, 50, 66, 98, 130, 194, 322, 578, 1090, 2114, 6210, 22594
+    };
+    private static final int[] INSERT_EXTRA = {
+        0, 0, 0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 7, 8, 9, 10, 12, 14, 24
+    };
+    private static final int[] COPY_BASE = {
+        2, 3, 4, 5, 6, 7, 8, 9, 10, 12, 14, 18, 22, 30, 38, 54, 70, 102, 134, 198, 326, 582, 1094, 2118
+    };
+    private static final int[] COPY_EXTRA = {
+        0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 7, 8, 9, 10, 24
+    };
+    /** First command code of the cells combining insert and copy length code ranges, indexed by range. */
+    private static final int[][] COMMAND_CELLS = {{128, 192, 384}, {256, 320, 512}, {448, 576, 640}};
+
+    private static int combineLengthCodes(final int insertCode, final int copyCode, final boolean lastDistance) {
+        final int bits = (copyCode & 7) | (insertCode & 7) << 3;
+        if (lastDistance) {
+            return copyCode < 8 ? bits : bits | 64;
+        }
+        return COMMAND_CELLS[insertCode >> 3][copyCode >> 3] | bits;
+    }
+
+    private static int copyLengthCode(final int length) {
+        if (length < 10) {
+            return length - 2;
+        }
+        if (length < 134) {
+            final int nbits = log2Floor(length - 6) - 1;
+            return (nbits << 1) + ((length - 6) >>> nbits) + 4;
+        }
+        if (length < 2118) {
+            return log2Floor(length - 70) + 12;
+        }
+        return 23;
+    }
+
+    private static int insertLengthCode(final int length) {
+        if (length < 6) {
+            return length;
+        }
+        if (length < 130) {
+            final int nbits = log2Floor(length - 2) - 1;
+            return (nbits << 1) + ((length - 2) >>> nbits) + 2;
+        }
+        if (length < 2114) {
+            return log2Floor(length - 66) + 10;
+        }
+        if (length < 6210) {
+            return 21;
+        }
+        return length < 22594 ? 22 : 23;
+    }
+
+    private static int log2Floor(final int x) {
+        return 31 - Integer.numberOfLeadingZeros(x);
+    }
+
+    private final OutputStream out;
+    private final int windowBits;
+    private final int maxChainLength;
+    private final int niceLength;
+    private final boolean lazyMatching;
+    private final boolean fast;
+    private final int hashBits;
+    private final int historyBits;
+    private final int blockSize;
+    private final BrotliBitWriter writer = new BrotliBitWriter(1 << 12);
+    private final byte[] oneByte = new byte[1];
+
+    // input buffer, holds the history followed by the data of the current meta-block
+    private byte[] buffer = new byte[1 << 12];
+    private int bufferBase;
+    private int blockStart;
+    private int end;
+
+    // hash chains storing stream positions plus one
+    private int[] head;
+    private int[] prev;
+    private int prevMask;
+    private int hashShift;
+    private int maxDistance;
+    private int matchLength;
+    private int matchDistance;
+
+    /** Last distances, most recent first. */
+    private final int[] distanceRing = {4, 11, 15, 16};
+    private final int[] savedDistanceRing = new int[4];
+
+    // commands of the current meta-block
+    private int commandCount;
+    private int[] commandCodes = new int[256];
+    private int[] insertLengths = new int[256];
+    private int[] copyLengths = new int[256];
+    private int[] distanceSymbols = new int[256];
+    private int[] distanceExtras = new int[256];
+    private long extraBits;
+    private final int[] literalHistogram = new int[NUM_LITERALS];
+    private final int[] commandHistogram = new int[NUM_COMMANDS];
+    private final int[] distanceHistogram = new int[NUM_DISTANCES];
+    private final BrotliPrefixCode literalCode = new BrotliPrefixCode(NUM_LITERALS, 8);
+    private final BrotliPrefixCode commandCode = new BrotliPrefixCode(NUM_COMMANDS, 10);
+    private final BrotliPrefixCode distanceCode = new BrotliPrefixCode(NUM_DISTANCES, 6);
+    private final BrotliBitWriter scratch = new BrotliBitWriter(1 << 10);
+
+    private boolean finished;
+
+    /**
+     * Creates a stream using {@link #DEFAULT_QUALITY} and {@link #DEFAULT_WINDOW_BITS}.
+     *
+     * @param out the stream to write to
+     */
+    public BrotliCompressorOutputStream(final OutputStream out) {
+        this(out, DEFAULT_QUALITY, DEFAULT_WINDOW_BITS);
+    }
+
+    /**
+     * Creates a stream using {@link #DEFAULT_WINDOW_BITS}.
+     *
+     * @param out the stream to write to
+     * @param quality the quality between {@value #MIN_QUALITY} and {@value #MAX_QUALITY}
+     * @throws IllegalArgumentException if quality is out of range
+     */
+    public BrotliCompressorOutputStream(final OutputStream out, final int quality) {
+        this(out, quality, DEFAULT_WINDOW_BITS);
+    }
+
+    /**
+     * Creates a stream.
+     *
+     * @param out the stream to write to
+     * @param quality the quality between {@value #MIN_QUALITY} and {@value #MAX_QUALITY}
+     * @param windowBits the base 2 logarithm of the window size between
+     * {@value #MIN_WINDOW_BITS} and {@value #MAX_WINDOW_BITS}, the decoder
+     * needs a buffer of this size
+     * @throws IllegalArgumentException if quality or windowBits is out of range
+     */
+    public BrotliCompressorOutputStream(final OutputStream out, final int quality, final int windowBits) {
+        if (quality < MIN_QUALITY || quality > MAX_QUALITY) {
+            throw new IllegalArgumentException("quality must be between " + MIN_QUALITY + " and " + MAX_QUALITY);
+        }
+        if (windowBits < MIN_WINDOW_BITS || windowBits > MAX_WINDOW_BITS) {
+            throw new IllegalArgumentException("windowBits must be between " + MIN_WINDOW_BITS + " and "
+                + MAX_WINDOW_BITS);
+        }
+        this.out = out;
+        this.windowBits = windowBits;
+        maxChainLength = CHAIN_LENGTHS[quality];
+        niceLength = NICE_LENGTHS[quality];
+        lazyMatching = quality >= 4;
+        fast = quality <= 1;
+        hashBits = HASH_BITS[quality];
+        historyBits = Math.min(windowBits, quality <= 3 ? 18 : MAX_WINDOW_BITS);
+        blockSize = 1 << (quality <= 3 ? 16 : 18);
+        writeStreamHeader();
+    }
+
+    private void addCommand(final int literalStart, final int insertLength, final int copyLength,
+        final int distance) {
+        if (commandCount == commandCodes.length) {
+            final int size = commandCount * 2;
+            commandCodes = Arrays.copyOf(commandCodes, size);
+            insertLengths = Arrays.copyOf(insertLengths, size);
+            copyLengths = Arrays.copyOf(copyLengths, size);
+            distanceSymbols = Arrays.copyOf(distanceSymbols, size);
+            distanceExtras = Arrays.copyOf(distanceExtras, size);
+        }
+        final byte[] buf = buffer;
+        for (int i = literalStart; i < literalStart + insertLength; i++) {
+            literalHistogram[buf[i] & 0xff]++;
+        }
+        final int insertCode = insertLengthCode(insertLength);
+        extraBits += INSERT_EXTRA[insertCode];
+        int distanceSymbol = -1;
+        int distanceExtra = 0;
+        final int command;
+        if (copyLength == 0) {
+            // the meta-block ends after the literals, copy length and distance are never read
+            command = combineLengthCodes(insertCode, 2, insertCode < 8);
+        } else {
+            final int copyCode = copyLengthCode(copyLength);
+            extraBits += COPY_EXTRA[copyCode];
+            final int[] ring = distanceRing;
+            if (distance == ring[0]) {
+                distanceSymbol = 0;
+            } else if (distance == ring[1]) {
+                distanceSymbol = 1;
+            } else if (distance == ring[2]) {
+                distanceSymbol = 2;
+            } else if (distance == ring[3]) {
+                distanceSymbol = 3;
+            } else {
+                final int v = distance + 3;
+                final int nbits = log2Floor(v) - 1;
+                final int prefix = (v >>> nbits) & 1;
+                distanceSymbol = NUM_SHORT_DISTANCE_CODES + 2 * (nbits - 1) + prefix;
+                distanceExtra = v - ((2 + prefix) << nbits);
+                extraBits += nbits;
+            }
+            if (distanceSymbol != 0) {
+                ring[3] = ring[2];
+                ring[2] = ring[1];
+                ring[1] = ring[0];
+                ring[0] = distance;
+            }
+            final boolean implicitDistance = distanceSymbol == 0 && insertCode < 8 && copyCode < 16;
+            command = combineLengthCodes(insertCode, copyCode, implicitDistance);
+            if (implicitDistance) {
+                distanceSymbol = -1;
+            } else {
+                distanceHistogram[distanceSymbol]++;
+            }
+        }
+        commandHistogram[command]++;
+        commandCodes[commandCount] = command;
+        insertLengths[commandCount] = insertLength;
+        copyLengths[commandCount] = copyLength;
+        distanceSymbols[commandCount] = distanceSymbol;
+        distanceExtras[commandCount] = distanceExtra;
+        commandCount++;
+    }
+
+    private void allocateHashChains(final boolean last) {
+        int chainBits = historyBits;
+        int tableBits = hashBits;
+        if (last && bufferBase == 0) {
+            // everything is known, don't allocate more than the input needs
+            final int inputBits = Math.max(MIN_WINDOW_BITS, 32 - Integer.numberOfLeadingZeros(end));
+            chainBits = Math.min(chainBits, inputBits);
+            tableBits = Math.min(tableBits, inputBits);
+        }
+        head = new int[1 << tableBits];
+        hashShift = 32 - tableBits;
+        prev = new int[1 << chainBits];
+        prevMask = prev.length - 1;
+        maxDistance = Math.min((1 << windowBits) - WINDOW_GAP, prevMask);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Finds back-references in the meta-block and records the commands.
+     */
+    private void compressBlock(final int start, final int stop) {
+        final int hashEnd = stop - MIN_MATCH;
+        int pos = start;
+        int literalStart = start;
+        int misses = 0;
+        while (pos <= hashEnd) {
+            findLongestMatch(pos, stop);
+            insert(pos);
+            if (matchLength == 0) {
+                pos += fast ? 1 + (misses++ >> 5) : 1;
+                continue;
+            }
+            int length = matchLength;
+            int distance = matchDistance;
+            if (lazyMatching) {
+                while (length < niceLength && pos < hashEnd) {
+                    findLongestMatch(pos + 1, stop);
+                    if (matchLength <= length) {
+                        break;
+                    }
+                    pos++;
+                    insert(pos);
+                    length = matchLength;
+                    distance = matchDistance;
+                }
+            }
+            addCommand(literalStart, pos - literalStart, length, distance);
+            final int matchEnd = pos + length;
+            final int insertEnd = Math.min(fast ? Math.min(matchEnd, pos + FAST_INSERT_LIMIT) : matchEnd,
+                hashEnd + 1);
+            for (int p = pos + 1; p < insertEnd; p++) {
+                insert(p);
+            }
+            pos = matchEnd;
+            literalStart = pos;
+            misses = 0;
+        }
+        if (literalStart < stop) {
+            addCommand(literalStart, stop - literalStart, 0, 0);
+        }
+    }
+
+    /**
+     * Encodes the data that hasn't been encoded, yet, as a meta-block.
+     */
+    private void encodePending(final boolean last) throws IOException {
+        final int start = blockStart;
+        final int length = end - start;
+        if (length == 0) {
+            return;
+        }
+        if (head == null) {
+            allocateHashChains(last);
+        }
+        System.arraycopy(distanceRing, 0, savedDistanceRing, 0, 4);
+        commandCount = 0;
+        extraBits = 0;
+        Arrays.fill(literalHistogram, 0);
+        Arrays.fill(commandHistogram, 0);
+        Arrays.fill(distanceHistogram, 0);
+        compressBlock(start, end);
+
+        literalCode.build(literalHistogram);
+        commandCode.build(commandHistogram);
+        distanceCode.build(distanceHistogram);
+        scratch.reset();
+        literalCode.writeTo(scratch);
+        commandCode.writeTo(scratch);
+        distanceCode.writeTo(scratch);
+        final long compressedBits = scratch.bitsWritten() + literalCode.cost(literalHistogram)
+            + commandCode.cost(commandHistogram) + distanceCode.cost(distanceHistogram) + extraBits + 16;
+        if (compressedBits >= 8L * length + 8) {
+            // the decoder doesn't see the commands, so neither must the distance ring
+            System.arraycopy(savedDistanceRing, 0, distanceRing, 0, 4);
+            writeMetaBlockHeader(length, true);
+            writer.alignToByte();
+            writer.writeBytes(buffer, start, length);
+        } else {
+            writeMetaBlockHeader(length, false);
+            writeCompressedMetaBlock(start);
+        }
+        blockStart = end;
+        writer.writeTo(out);
+    }
+
+    /**
+     * Finds the longest match for the given position, preferring the last distance used.
+     *
+     * <p>Stores the result in matchLength and matchDistance, a length of 0 means no match.</p>
+     */
+    private void findLongestMatch(final int pos, final int stop) {
+        final byte[] buf = buffer;
+        final int position = bufferBase + pos;
+        final int maxLength = stop - pos;
+        int bestLength = MIN_MATCH - 1;
+        int bestDistance = 0;
+        final int last = distanceRing[0];
+        if (last <= position && last <= maxDistance) {
+            final int length = matchLength(pos - last, pos, maxLength);
+            if (length >= MIN_MATCH) {
+                bestLength = length;
+                bestDistance = last;
+            }
+        }
+        int candidate = head[hash(pos)] - 1;
+        for (int chain = maxChainLength; candidate >= 0 && chain > 0 && bestLength < niceLength
+            && bestLength < maxLength; chain--) {
+            final int distance = position - candidate;
+            if (distance > maxDistance) {
+                break;
+            }
+            final int index = pos - distance;
+            if (buf[index + bestLength] == buf[pos + bestLength] && buf[index] == buf[pos]) {
+                final int length = matchLength(index, pos, maxLength);
+                if (length > bestLength) {
+                    bestLength = length;
+                    bestDistance = distance;
+                }
+            }
+            candidate = prev[candidate & prevMask] - 1;
+        }
+        if (bestLength >= MIN_MATCH) {
+            matchLength = bestLength;
+            matchDistance = bestDistance;
+        } else {
+            matchLength = 0;
+        }
+    }
+
+    /**
+     * Encodes all data written so far and ends the stream.
+     *
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            encodePending(true);
+            // ISLAST and ISLASTEMPTY
+            writer.writeBits(2, 3);
+            writer.alignToByte();
+            writer.writeTo(out);
+            finished = true;
+        }
+    }
+
+    /**
+     * Encodes all data written so far, pads the stream to a byte boundary and flushes the underlying stream.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!finished) {
+            encodePending(false);
+            if ((writer.bitsWritten() & 7) != 0) {
+                // empty metadata meta-block: ISLAST = 0, MNIBBLES = 0, reserved bit, MSKIPBYTES = 0
+                writer.writeBits(6, 6);
+                writer.alignToByte();
+            }
+            writer.writeTo(out);
+        }
+        out.flush();
+    }
+
+    private int hash(final int pos) {
+        final byte[] buf = buffer;
+        final int value = (buf[pos] & 0xff) | (buf[pos + 1] & 0xff) << 8 | (buf[pos + 2] & 0xff) << 16
+            | buf[pos + 3] << 24;
+        return value * HASH_MULTIPLIER >>> hashShift;
+    }
+
+    private void insert(final int pos) {
+        final int position = bufferBase + pos;
+        final int h = hash(pos);
+        prev[position & prevMask] = head[h];
+        head[h] = position + 1;
+    }
+
+    private int matchLength(final int candidate, final int pos, final int maxLength) {
+        final byte[] buf = buffer;
+        int length = 0;
+        while (length < maxLength && buf[candidate + length] == buf[pos + length]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Makes room for more input, either by growing the buffer or by discarding data that is outside of the window.
+     */
+    private void makeRoom() throws IOException {
+        final int capacity = (1 << historyBits) + blockSize;
+        if (buffer.length < capacity) {
+            buffer = Arrays.copyOf(buffer, Math.min(capacity, buffer.length * 2));
+            return;
+        }
+        encodePending(false);
+        final int keep = Math.min(1 << historyBits, end);
+        final int shift = end - keep;
+        System.arraycopy(buffer, shift, buffer, 0, keep);
+        bufferBase += shift;
+        blockStart = end = keep;
+        if (bufferBase > REBASE_THRESHOLD && head != null) {
+            // keep positions stored in the chains small, preserving their slot in prev
+            final int delta = bufferBase & ~prevMask;
+            rebase(head, delta);
+            rebase(prev, delta);
+            bufferBase -= delta;
+        }
+    }
+
+    private static void rebase(final int[] table, final int delta) {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = table[i] > delta ? table[i] - delta : 0;
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (finished) {
+            throw new IOException("Stream has already been finished");
+        }
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (end - blockStart == blockSize) {
+                encodePending(false);
+            }
+            if (end == buffer.length) {
+                makeRoom();
+            }
+            final int n = Math.min(remaining, Math.min(blockSize - (end - blockStart), buffer.length - end));
+            System.arraycopy(b, offset, buffer, end, n);
+            end += n;
+            offset += n;
+            remaining -= n;
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        oneByte[0] = (byte) b;
+        write(oneByte, 0, 1);
+    }
+
+    private void writeCompressedMetaBlock(final int start) {
+        final BrotliBitWriter w = writer;
+        // one block type for literals, commands and distances
+        w.writeBits(3, 0);
+        // NPOSTFIX and NDIRECT
+        w.writeBits(6, 0);
+        // context mode of the only literal block type
+        w.writeBits(2, 0);
+        // a single literal and distance prefix code
+        w.writeBits(2, 0);
+        literalCode.writeTo(w);
+        commandCode.writeTo(w);
+        distanceCode.writeTo(w);
+        final byte[] buf = buffer;
+        int pos = start;
+        for (int i = 0; i < commandCount; i++) {
+            commandCode.writeSymbol(w, commandCodes[i]);
+            final int insertLength = insertLengths[i];
+            final int insertCode = insertLengthCode(insertLength);
+            w.writeBits(INSERT_EXTRA[insertCode], insertLength - INSERT_BASE[insertCode]);
+            final int copyLength = copyLengths[i];
+            if (copyLength != 0) {
+                final int copyCode = copyLengthCode(copyLength);
+                w.writeBits(COPY_EXTRA[copyCode], copyLength - COPY_BASE[copyCode]);
+            }
+            for (int j = 0; j < insertLength; j++) {
+                literalCode.writeSymbol(w, buf[pos + j] & 0xff);
+            }
+            pos += insertLength;
+            final int distanceSymbol = distanceSymbols[i];
+            if (distanceSymbol >= 0) {
+                distanceCode.writeSymbol(w, distanceSymbol);
+                if (distanceSymbol >= NUM_SHORT_DISTANCE_CODES) {
+                    w.writeBits(1 + ((distanceSymbol - NUM_SHORT_DISTANCE_CODES) >> 1), distanceExtras[i]);
+                }
+            }
+            pos += copyLength;
+        }
+    }
+
+    private void writeMetaBlockHeader(final int length, final boolean uncompressed) {
+        final int nibbles = length - 1 < 1 << 16 ? 4 : length - 1 < 1 << 20 ? 5 : 6;
+        // ISLAST
+        writer.writeBits(1, 0);
+        writer.writeBits(2, nibbles - 4);
+        writer.writeBits(nibbles * 4, length - 1);
+        writer.writeBits(1, uncompressed ? 1 : 0);
+    }
+
+    private void writeStreamHeader() {
+        if (windowBits == 16) {
+            writer.writeBits(1, 0);
+        } else if (windowBits == 17) {
+            writer.writeBits(7, 1);
+        } else if (windowBits > 17) {
+            writer.writeBits(4, (windowBits - 17) << 1 | 1);
+        } else {
+            writer.writeBits(7, (windowBits - 8) << 4 | 1);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.brotli;
+
+import java.util.Arrays;
+
+/**
+ * A canonical prefix code of the Brotli format together with the code
+ * that describes it in the compressed stream.
+ *
+ * @NotThreadSafe
+ */
+final class BrotliPrefixCode {
+
+    /** Maximum length of a code of literals, commands and distances. */
+    static final int MAX_DEPTH = 15;
+
+    private static final int CODE_LENGTH_CODES = 18;
+    private static final int MAX_CODE_LENGTH_DEPTH = 5;
+    private static final int REPEAT_PREVIOUS = 16;
+    private static final int REPEAT_ZERO = 17;
+    private static final int INITIAL_REPEATED_LENGTH = 8;
+
+    /** Order in which the lengths of the code length code are stored. */
+    private static final int[] CODE_LENGTH_ORDER = {
+        1, 2, 3, 4, 0, 5, 17, 6, 16, 7, 8, 9, 10, 11, 12, 13, 14, 15
+    };
+
+    /** Static code used to store the lengths of the code length code, indexed by length. */
+    private static final int[] CODE_LENGTH_LENGTH_SYMBOLS = {0, 7, 3, 2, 1, 15};
+    private static final int[] CODE_LENGTH_LENGTH_DEPTHS = {2, 4, 3, 2, 2, 4};
+
+    /**
+     * Computes the lengths of a Huffman code for the histogram not
+     * exceeding maxDepth, a single used symbol gets length 0.
+     */
+    static void computeDepths(final int[] histogram, final int alphabetSize, final int maxDepth,
+        final int[] depths) {
+        Arrays.fill(depths, 0, alphabetSize, 0);
+        int n = 0;
+        for (int i = 0; i < alphabetSize; i++) {
+            if (histogram[i] != 0) {
+                n++;
+            }
+        }
+        if (n < 2) {
+            return;
+        }
+        final long[] leaves = new long[n];
+        final long[] weights = new long[2 * n - 1];
+        final int[] parents = new int[2 * n - 1];
+        final int[] nodeDepths = new int[2 * n - 1];
+        for (long minCount = 1;; minCount <<= 1) {
+            int k = 0;
+            for (int i = 0; i < alphabetSize; i++) {
+                if (histogram[i] != 0) {
+                    // weight in the upper bits, symbol in the lower ten bits
+                    leaves[k++] = Math.max(histogram[i], minCount) << 10 | i;
+                }
+            }
+            Arrays.sort(leaves);
+            for (int i = 0; i < n; i++) {
+                weights[i] = leaves[i] >>> 10;
+            }
+            // two queue construction, leaves and inner nodes are both sorted by weight
+            int nextLeaf = 0;
+            int nextNode = n;
+            for (int node = n; node < 2 * n - 1; node++) {
+                final int a = nextLeaf < n && (nextNode >= node || weights[nextLeaf] <= weights[nextNode])
+                    ? nextLeaf++ : nextNode++;
+                final int b = nextLeaf < n && (nextNode >= node || weights[nextLeaf] <= weights[nextNode])
+                    ? nextLeaf++ : nextNode++;
+                weights[node] = weights[a] + weights[b];
+                parents[a] = node;
+                parents[b] = node;
+            }
+            nodeDepths[2 * n - 2] = 0;
+            int max = 0;
+            for (int node = 2 * n - 3; node >= 0; node--) {
+                nodeDepths[node] = nodeDepths[parents[node]] + 1;
+                max = Math.max(max, nodeDepths[node]);
+            }
+            if (max <= maxDepth) {
+                for (int i = 0; i < n; i++) {
+                    depths[(int) (leaves[i] & 0x3FF)] = nodeDepths[i];
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Assigns canonical codes to the depths, bit reversed so they can be written least significant bit first.
+     */
+    private static void computeCodes(final int[] depths, final int alphabetSize, final int[] codes) {
+        final int[] counts = new int[MAX_DEPTH + 2];
+        for (int i = 0; i < alphabetSize; i++) {
+            counts[depths[i]]++;
+        }
+        counts[0] = 0;
+        final int[] nextCode = new int[MAX_DEPTH + 2];
+        int code = 0;
+        for (int bits = 1; bits <= MAX_DEPTH + 1; bits++) {
+            code = code + counts[bits - 1] << 1;
+            nextCode[bits] = code;
+        }
+        for (int i = 0; i < alphabetSize; i++) {
+            final int depth = depths[i];
+            if (depth != 0) {
+                codes[i] = Integer.reverse(nextCode[depth]++) >>> 32 - depth;
+            }
+        }
+    }
+
+    private final int alphabetSize;
+    private final int alphabetBits;
+    private final int[] depths;
+    private final int[] codes;
+    private final int[] usedSymbols = new int[4];
+    private int usedCount;
+
+    /**
+     * Creates a code for an alphabet.
+     *
+     * @param alphabetSize the number of symbols
+     * @param alphabetBits the number of bits used to store a symbol in a simple prefix code
+     */
+    BrotliPrefixCode(final int alphabetSize, final int alphabetBits) {
+        this.alphabetSize = alphabetSize;
+        this.alphabetBits = alphabetBits;
+        depths = new int[alphabetSize];
+        codes = new int[alphabetSize];
+    }
+
+    /**
+     * Builds the code for the given histogram.
+     */
+    void build(final int[] histogram) {
+        computeDepths(histogram, alphabetSize, MAX_DEPTH, depths);
+        Arrays.fill(codes, 0);
+        computeCodes(depths, alphabetSize, codes);
+        usedCount = 0;
+        usedSymbols[0] = 0;
+        for (int i = 0; i < alphabetSize; i++) {
+            if (histogram[i] != 0) {
+                if (usedCount < usedSymbols.length) {
+                    usedSymbols[usedCount] = i;
+                }
+                usedCount++;
+            }
+        }
+    }
+
+    /**
+     * Number of bits needed to encode the symbols counted in the histogram.
+     */
+    long cost(final int[] histogram) {
+        long bits = 0;
+        for (int i = 0; i < alphabetSize; i++) {
+            bits += (long) histogram[i] * depths[i];
+        }
+        return bits;
+    }
+
+    /**
+     * Writes the description of the code.
+     */
+    void writeTo(final BrotliBitWriter out) {
+        if (usedCount <= 4) {
+            writeSimple(out);
+        } else {
+            writeComplex(out);
+        }
+    }
+
+    private void writeComplex(final BrotliBitWriter out) {
+        int last = alphabetSize - 1;
+        while (depths[last] == 0) {
+            last--;
+        }
+        // run length encoding of the depths, never using the same repeat code twice in a row
+        final int[] tokens = new int[last + 1];
+        final int[] extras = new int[last + 1];
+        int count = 0;
+        int previous = INITIAL_REPEATED_LENGTH;
+        int i = 0;
+        while (i <= last) {
+            final int value = depths[i];
+            int run = 1;
+            while (i + run <= last && depths[i + run] == value) {
+                run++;
+            }
+            i += run;
+            if (value != 0 && value != previous) {
+                tokens[count++] = value;
+                run--;
+                previous = value;
+            }
+            final int repeatCode = value == 0 ? REPEAT_ZERO : REPEAT_PREVIOUS;
+            final int maxRepeat = value == 0 ? 10 : 6;
+            while (run > 0) {
+                if (run >= 3) {
+                    final int repeat = Math.min(run, maxRepeat);
+                    tokens[count] = repeatCode;
+                    extras[count++] = repeat - 3;
+                    run -= repeat;
+                    if (run > 0) {
+                        tokens[count++] = value;
+                        run--;
+                    }
+                } else {
+                    tokens[count++] = value;
+                    run--;
+                }
+            }
+        }
+
+        final int[] histogram = new int[CODE_LENGTH_CODES];
+        for (int t = 0; t < count; t++) {
+            histogram[tokens[t]]++;
+        }
+        final int[] clDepths = new int[CODE_LENGTH_CODES];
+        computeDepths(histogram, CODE_LENGTH_CODES, MAX_CODE_LENGTH_DEPTH, clDepths);
+        final int[] clCodes = new int[CODE_LENGTH_CODES];
+        computeCodes(clDepths, CODE_LENGTH_CODES, clCodes);
+
+        int numCodes = 0;
+        int singleCode = 0;
+        for (int s = 0; s < CODE_LENGTH_CODES; s++) {
+            if (histogram[s] != 0) {
+                numCodes++;
+                singleCode = s;
+            }
+        }
+        final int[] storedDepths = clDepths.clone();
+        int codesToStore = CODE_LENGTH_CODES;
+        if (numCodes == 1) {
+            // a single code length code is stored with length one but uses zero bits
+            storedDepths[singleCode] = 1;
+        } else {
+            while (storedDepths[CODE_LENGTH_ORDER[codesToStore - 1]] == 0) {
+                codesToStore--;
+            }
+        }
+        int skip = 0;
+        if (storedDepths[CODE_LENGTH_ORDER[0]] == 0 && storedDepths[CODE_LENGTH_ORDER[1]] == 0) {
+            skip = storedDepths[CODE_LENGTH_ORDER[2]] == 0 ? 3 : 2;
+        }
+        out.writeBits(2, skip);
+        for (int s = skip; s < codesToStore; s++) {
+            final int depth = storedDepths[CODE_LENGTH_ORDER[s]];
+            out.writeBits(CODE_LENGTH_LENGTH_DEPTHS[depth], CODE_LENGTH_LENGTH_SYMBOLS[depth]);
+        }
+        for (int t = 0; t < count; t++) {
+            final int token = tokens[t];
+            out.writeBits(clDepths[token], clCodes[token]);
+            if (token == REPEAT_PREVIOUS) {
+                out.writeBits(2, extras[t]);
+            } else if (token == REPEAT_ZERO) {
+                out.writeBits(3, extras[t]);
+            }
+        }
+    }
+
+    private void writeSimple(final BrotliBitWriter out) {
+        final int n = Math.max(usedCount, 1);
+        final int[] symbols = Arrays.copyOf(usedSymbols, n);
+        // shortest codes first, the order of symbols with equal length doesn't matter
+        for (int a = 1; a < n; a++) {
+            for (int b = a; b > 0 && depths[symbols[b]] < depths[symbols[b - 1]]; b--) {
+                final int tmp = symbols[b];
+                symbols[b] = symbols[b - 1];
+                symbols[b - 1] = tmp;
+            }
+        }
+        out.writeBits(2, 1);
+        out.writeBits(2, n - 1);
+        for (int s = 0; s < n; s++) {
+            out.writeBits(alphabetBits, symbols[s]);
+        }
+        if (n == 4) {
+            out.writeBits(1, depths[symbols[0]] == 1 ? 1 : 0);
+        }
+    }
+
+    /**
+     * Writes the code of a symbol.
+     */
+    void writeSymbol(final BrotliBitWriter out, final int symbol) {
+        out.writeBits(depths[symbol], codes[symbol]);
+    }
+}
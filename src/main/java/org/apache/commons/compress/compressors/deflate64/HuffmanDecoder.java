@@ -35,34 +35,169 @@
 
 class HuffmanDecoder implements Closeable {
 
-    private static class BinaryTreeNode {
-        private final int bits;
-        int literal = -1;
-        BinaryTreeNode leftNode;
-        BinaryTreeNode rightNode;
-
-        private BinaryTreeNode(final int bits) {
-            this.bits = bits;
-        }
+    /**
+     * Two level lookup table for a canonical Huffman code, modelled
+     * after zlib's inflate_table.
+     *
+     * <p>The first level is indexed by the next {@code rootBits} bits
+     * of the stream, entries of codes longer than that link to a second
+     * level table indexed by the remaining bits of the code. As the
+     * stream contains the codes starting with their most significant
+     * bit all indices are bit-reversed codes.</p>
+     *
+     * <p>A leaf entry holds {@code symbol << 5 | code length}, a link
+     * holds {@code offset of the second level table << 5 | LINK | bits
+     * of the second level table}. An entry of 0 marks a bit sequence
+     * that isn't part of any code.</p>
+     *
+     * <p>Tables are rebuilt in place, the backing array only grows if a
+     * code needs more or bigger second level tables than any code seen
+     * before.</p>
+     */
+    private static final class HuffmanTable {
+        private static final int ENTRY_SHIFT = 5;
+        private static final int LINK = 0x10;
+        private static final int LENGTH_MASK = 0xF;
+
+        private final int rootBits;
+        private final int rootMask;
+        private final int[] counts = new int[MAX_CODE_LENGTH + 1];
+        private final int[] firstCode = new int[MAX_CODE_LENGTH + 1];
+        private final int[] nextCode = new int[MAX_CODE_LENGTH + 1];
+        private final int[] subTableBits;
+        private int[] entries;
+
+        HuffmanTable(final int rootBits) {
+            this.rootBits = rootBits;
+            rootMask = (1 << rootBits) - 1;
+            subTableBits = new int[1 << rootBits];
+            entries = new int[1 << rootBits];
+        }
+
+        HuffmanTable(final int rootBits, final int[] lengths) {
+            this(rootBits);
+            build(lengths, 0, lengths.length);
+        }
+
+        private static int reverse(final int code, final int length) {
+            return Integer.reverse(code) >>> (Integer.SIZE - length);
+        }
+
+        /**
+         * Builds the table for the code lengths of symbols 0 to count - 1
+         * stored in lengths starting at off.
+         */
+        void build(final int[] lengths, final int off, final int count) {
+            Arrays.fill(counts, 0);
+            for (int i = off; i < off + count; i++) {
+                final int len = lengths[i];
+                if (len < 0 || len > MAX_CODE_LENGTH) {
+                    throw new IllegalArgumentException("Invalid code " + len + " in literal table");
+                }
+                counts[len]++;
+            }
+            counts[0] = 0;
+
+            int code = 0;
+            int left = 1;
+            for (int len = 1; len <= MAX_CODE_LENGTH; len++) {
+                left = (left << 1) - counts[len];
+                if (left < 0) {
+                    throw new IllegalStateException("Over-subscribed Huffman code");
+                }
+                code = (code + counts[len - 1]) << 1;
+                firstCode[len] = code;
+            }
 
-        void leaf(final int symbol) {
-            literal = symbol;
-            leftNode = null;
-            rightNode = null;
-        }
+            // size the second level tables by the longest code sharing a first level entry
+            Arrays.fill(subTableBits, 0);
+            System.arraycopy(firstCode, 0, nextCode, 0, nextCode.length);
+            for (int i = off; i < off + count; i++) {
+                final int len = lengths[i];
+                if (len > rootBits) {
+                    final int index = reverse(nextCode[len]++, len) & rootMask;
+                    subTableBits[index] = Math.max(subTableBits[index], len - rootBits);
+                }
+            }
+            int size = 1 << rootBits;
+            for (final int bits : subTableBits) {
+                if (bits > 0) {
+                    size += 1 << bits;
+                }
+            }
+            if (entries.length < size) {
+                entries = new int[size];
+            } else {
+                Arrays.fill(entries, 0, size, 0);
+            }
+            int subTableOffset = 1 << rootBits;
+            for (int index = 0; index < subTableBits.length; index++) {
+                final int bits = subTableBits[index];
+                if (bits > 0) {
+                    entries[index] = subTableOffset << ENTRY_SHIFT | LINK | bits;
+                    subTableOffset += 1 << bits;
+                }
+            }
 
-        BinaryTreeNode left() {
-            if (leftNode == null && literal == -1) {
-                leftNode = new BinaryTreeNode(bits + 1);
+            // fill in all entries whose index starts with a code
+            System.arraycopy(firstCode, 0, nextCode, 0, nextCode.length);
+            for (int i = off; i < off + count; i++) {
+                final int len = lengths[i];
+                if (len == 0) {
+                    continue;
+                }
+                final int leaf = (i - off) << ENTRY_SHIFT | len;
+                final int reversed = reverse(nextCode[len]++, len);
+                if (len <= rootBits) {
+                    for (int index = reversed; index <= rootMask; index += 1 << len) {
+                        entries[index] = leaf;
+                    }
+                } else {
+                    final int link = entries[reversed & rootMask];
+                    final int base = link >>> ENTRY_SHIFT;
+                    final int end = 1 << (link & LENGTH_MASK);
+                    for (int index = reversed >>> rootBits; index < end; index += 1 << (len - rootBits)) {
+                        entries[base + index] = leaf;
+                    }
+                }
             }
-            return leftNode;
         }
 
-        BinaryTreeNode right() {
-            if (rightNode == null && literal == -1) {
-                rightNode = new BinaryTreeNode(bits + 1);
+        /**
+         * Reads the next symbol.
+         *
+         * <p>Looks up the bits already cached by the reader first and
+         * only reads another byte if they don't hold a complete code. The
+         * stream must not be read beyond the end of the compressed data
+         * as the zip package relies on that for entries using a data
+         * descriptor.</p>
+         */
+        int decode(final BitInputStream reader) throws IOException {
+            int available = Math.min(reader.bitsCached(), MAX_CODE_LENGTH);
+            while (true) {
+                if (available > 0) {
+                    final int bits = (int) reader.peekBits(available);
+                    int entry = entries[bits & rootMask];
+                    if ((entry & LINK) != 0) {
+                        final int subTableMask = (1 << (entry & LENGTH_MASK)) - 1;
+                        entry = entries[(entry >>> ENTRY_SHIFT) + ((bits >>> rootBits) & subTableMask)];
+                    }
+                    final int len = entry & LENGTH_MASK;
+                    if (len != 0 && len <= available) {
+                        reader.skipBits(len);
+                        return entry >>> ENTRY_SHIFT;
+                    }
+                }
+                if (available == MAX_CODE_LENGTH) {
+                    throw new IllegalStateException("Invalid Huffman code");
+                }
+                // the cached bits are a prefix of a longer code, read one more byte
+                reader.peekBits(available + 1);
+                if (reader.bitsCached() <= available) {
+                    throw new EOFException("Truncated Deflate64 Stream");
+                }
+                available = Math.min(reader.bitsCached(), MAX_CODE_LENGTH);
             }
-            return rightNode;
         }
     }
 
@@ -128,17 +263,16 @@ void recordToBuffer(final int distance, final int length, final byte[] buff) {
     private class HuffmanCodes extends DecoderState {
         private boolean endOfBlock;
         private final HuffmanState state;
-        private final BinaryTreeNode lengthTree;
-        private final BinaryTreeNode distanceTree;
+        private final HuffmanTable lengthTable;
+        private final HuffmanTable distanceTable;
 
         private int runBufferPos;
-        private byte[] runBuffer = ByteUtils.EMPTY_BYTE_ARRAY;
         private int runBufferLength;
 
-        HuffmanCodes(final HuffmanState state, final int[] lengths, final int[] distance) {
+        HuffmanCodes(final HuffmanState state, final HuffmanTable lengthTable, final HuffmanTable distanceTable) {
             this.state = state;
-            lengthTree = buildTree(lengths);
-            distanceTree = buildTree(distance);
+            this.lengthTable = lengthTable;
+            this.distanceTable = distanceTable;
         }
 
         @Override
@@ -164,7 +298,7 @@ private int decodeNext(final byte[] b, final int off, final int len) throws IOEx
             int result = copyFromRunBuffer(b, off, len);
 
             while (result < len) {
-                final int symbol = nextSymbol(reader, lengthTree);
+                final int symbol = lengthTable.decode(reader);
                 if (symbol < 256) {
                     b[off + result++] = memory.add((byte) symbol);
                 } else if (symbol > 256) {
@@ -173,7 +307,7 @@ private int decodeNext(final byte[] b, final int off, final int len) throws IOEx
                     final int runXtra = runMask & 0x1F;
                     run = ExactMath.add(run, readBits(runXtra));
 
-                    final int distSym = nextSymbol(reader, distanceTree);
+                    final int distSym = distanceTable.decode(reader);
 
                     final int distMask = DISTANCE_TABLE[distSym];
                     int dist = distMask >>> 4;
@@ -347,6 +481,18 @@ HuffmanState state() {
      */
     private static final int[] CODE_LENGTHS_ORDER =
             {16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+    /**
+     * Longest code allowed by the format.
+     */
+    private static final int MAX_CODE_LENGTH = 15;
+    /**
+     * Bits of the first level lookup tables, longer codes need a second
+     * lookup. Fixed literal and all code length codes fit into the first
+     * level.
+     */
+    private static final int LITERAL_ROOT_BITS = 9;
+    private static final int DISTANCE_ROOT_BITS = 6;
+    private static final int CODE_LENGTH_ROOT_BITS = 7;
     /**
      * Huffman Fixed Literal / Distance tables for mode 1
      */
@@ -354,6 +500,10 @@ HuffmanState state() {
 
     private static final int[] FIXED_DISTANCE;
 
+    private static final HuffmanTable FIXED_LITERAL_TABLE;
+
+    private static final HuffmanTable FIXED_DISTANCE_TABLE;
+
     static {
         FIXED_LITERALS = new int[288];
         Arrays.fill(FIXED_LITERALS, 0, 144, 8);
@@ -363,111 +513,9 @@ HuffmanState state() {
 
         FIXED_DISTANCE = new int[32];
         Arrays.fill(FIXED_DISTANCE, 5);
-    }
 
-    private static BinaryTreeNode buildTree(final int[] litTable) {
-        final int[] literalCodes = getCodes(litTable);
-
-        final BinaryTreeNode root = new BinaryTreeNode(0);
-
-        for (int i = 0; i < litTable.length; i++) {
-            final int len = litTable[i];
-            if (len != 0) {
-                BinaryTreeNode node = root;
-                final int lit = literalCodes[len - 1];
-                for (int p = len - 1; p >= 0; p--) {
-                    final int bit = lit & (1 << p);
-                    node = bit == 0 ? node.left() : node.right();
-                    if (node == null) {
-                        throw new IllegalStateException("node doesn't exist in Huffman tree");
-                    }
-                }
-                node.leaf(i);
-                literalCodes[len - 1]++;
-            }
-        }
-        return root;
-    }
-
-    private static int[] getCodes(final int[] litTable) {
-        int max = 0;
-        int[] blCount = new int[65];
-
-        for (final int aLitTable : litTable) {
-            if (aLitTable < 0 || aLitTable > 64) {
-                throw new IllegalArgumentException("Invalid code " + aLitTable
-                    + " in literal table");
-            }
-            max = Math.max(max, aLitTable);
-            blCount[aLitTable]++;
-        }
-        blCount = Arrays.copyOf(blCount, max + 1);
-
-        int code = 0;
-        final int[] nextCode = new int[max + 1];
-        for (int i = 0; i <= max; i++) {
-            code = (code + blCount[i]) << 1;
-            nextCode[i] = code;
-        }
-
-        return nextCode;
-    }
-
-    private static int nextSymbol(final BitInputStream reader, final BinaryTreeNode tree) throws IOException {
-        BinaryTreeNode node = tree;
-        while (node != null && node.literal == -1) {
-            final long bit = readBits(reader, 1);
-            node = bit == 0 ? node.leftNode : node.rightNode;
-        }
-        return node != null ? node.literal : -1;
-    }
-
-    private static void populateDynamicTables(final BitInputStream reader, final int[] literals, final int[] distances) throws IOException {
-        final int codeLengths = (int) (readBits(reader, 4) + 4);
-
-        final int[] codeLengthValues = new int[19];
-        for (int cLen = 0; cLen < codeLengths; cLen++) {
-            codeLengthValues[CODE_LENGTHS_ORDER[cLen]] = (int) readBits(reader, 3);
-        }
-
-        final BinaryTreeNode codeLengthTree = buildTree(codeLengthValues);
-
-        final int[] auxBuffer = new int[literals.length + distances.length];
-
-        int value = -1;
-        int length = 0;
-        int off = 0;
-        while (off < auxBuffer.length) {
-            if (length > 0) {
-                auxBuffer[off++] = value;
-                length--;
-            } else {
-                final int symbol = nextSymbol(reader, codeLengthTree);
-                if (symbol < 16) {
-                    value = symbol;
-                    auxBuffer[off++] = value;
-                } else {
-                    switch (symbol) {
-                    case 16:
-                        length = (int) (readBits(reader, 2) + 3);
-                        break;
-                    case 17:
-                        value = 0;
-                        length = (int) (readBits(reader, 3) + 3);
-                        break;
-                    case 18:
-                        value = 0;
-                        length = (int) (readBits(reader, 7) + 11);
-                        break;
-                    default:
-                        break;
-                    }
-                }
-            }
-        }
-
-        System.arraycopy(auxBuffer, 0, literals, 0, literals.length);
-        System.arraycopy(auxBuffer, literals.length, distances, 0, distances.length);
+        FIXED_LITERAL_TABLE = new HuffmanTable(LITERAL_ROOT_BITS, FIXED_LITERALS);
+        FIXED_DISTANCE_TABLE = new HuffmanTable(DISTANCE_ROOT_BITS, FIXED_DISTANCE);
     }
 
     private static long readBits(final BitInputStream reader, final int numBits) throws IOException {
@@ -488,6 +536,18 @@ private static long readBits(final BitInputStream reader, final int numBits) thr
 
     private final DecodingMemory memory = new DecodingMemory();
 
+    private final HuffmanTable codeLengthTable = new HuffmanTable(CODE_LENGTH_ROOT_BITS);
+
+    private final HuffmanTable literalTable = new HuffmanTable(LITERAL_ROOT_BITS);
+
+    private final HuffmanTable distanceTable = new HuffmanTable(DISTANCE_ROOT_BITS);
+
+    private final int[] codeLengthCodeLengths = new int[CODE_LENGTHS_ORDER.length];
+
+    private final int[] codeLengths = new int[FIXED_LITERALS.length + FIXED_DISTANCE.length];
+
+    private byte[] runBuffer = ByteUtils.EMPTY_BYTE_ARRAY;
+
     HuffmanDecoder(final InputStream in) {
         this.reader = new BitInputStream(in, ByteOrder.LITTLE_ENDIAN);
         this.in = in;
@@ -518,11 +578,11 @@ public int decode(final byte[] b, final int off, final int len) throws IOExcepti
                     switchToUncompressedState();
                     break;
                 case 1:
-                    state = new HuffmanCodes(FIXED_CODES, FIXED_LITERALS, FIXED_DISTANCE);
+                    state = new HuffmanCodes(FIXED_CODES, FIXED_LITERAL_TABLE, FIXED_DISTANCE_TABLE);
                     break;
                 case 2:
-                    final int[][] tables = readDynamicTables();
-                    state = new HuffmanCodes(DYNAMIC_CODES, tables[0], tables[1]);
+                    readDynamicTables();
+                    state = new HuffmanCodes(DYNAMIC_CODES, literalTable, distanceTable);
                     break;
                 default:
                     throw new IllegalStateException("Unsupported compression: " + mode);
@@ -548,16 +608,56 @@ private long readBits(final int numBits) throws IOException {
         return readBits(reader, numBits);
     }
 
-    private int[][] readDynamicTables() throws IOException {
-        final int[][] result = new int[2][];
+    /**
+     * Reads the code lengths of a dynamic block and rebuilds {@link
+     * #literalTable} and {@link #distanceTable} from them.
+     */
+    private void readDynamicTables() throws IOException {
         final int literals = (int) (readBits(5) + 257);
-        result[0] = new int[literals];
-
         final int distances = (int) (readBits(5) + 1);
-        result[1] = new int[distances];
+        final int codeLengthCodes = (int) (readBits(4) + 4);
+
+        Arrays.fill(codeLengthCodeLengths, 0);
+        for (int cLen = 0; cLen < codeLengthCodes; cLen++) {
+            codeLengthCodeLengths[CODE_LENGTHS_ORDER[cLen]] = (int) readBits(3);
+        }
+        codeLengthTable.build(codeLengthCodeLengths, 0, codeLengthCodeLengths.length);
+
+        final int total = literals + distances;
+        int value = -1;
+        int length = 0;
+        int off = 0;
+        while (off < total) {
+            if (length > 0) {
+                codeLengths[off++] = value;
+                length--;
+            } else {
+                final int symbol = codeLengthTable.decode(reader);
+                if (symbol < 16) {
+                    value = symbol;
+                    codeLengths[off++] = value;
+                } else {
+                    switch (symbol) {
+                    case 16:
+                        length = (int) (readBits(2) + 3);
+                        break;
+                    case 17:
+                        value = 0;
+                        length = (int) (readBits(3) + 3);
+                        break;
+                    case 18:
+                        value = 0;
+                        length = (int) (readBits(7) + 11);
+                        break;
+                    default:
+                        break;
+                    }
+                }
+            }
+        }
 
-        populateDynamicTables(reader, result[0], result[1]);
-        return result;
+        literalTable.build(codeLengths, 0, literals);
+        distanceTable.build(codeLengths, literals, distances);
     }
 
     private void switchToUncompressedState() throws IOException {
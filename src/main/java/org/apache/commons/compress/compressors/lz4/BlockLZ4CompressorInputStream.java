@@ -42,6 +42,88 @@ private enum State {
 
     static final int LITERAL_SIZE_MASK = BACK_REFERENCE_SIZE_MASK << SIZE_BITS;
 
+    /**
+     * Decompresses a complete LZ4 block held in memory.
+     *
+     * <p>This avoids the window and the state machine of the stream, literals are copied
+     * straight from the source array and back-references are expanded inside of the
+     * destination array. The destination must be big enough to hold the whole
+     * uncompressed block, which is usually known from the surrounding container.</p>
+     *
+     * @param src the compressed block
+     * @param srcOff the offset of the block inside of src
+     * @param srcLen the length of the compressed block
+     * @param dest the array to decompress to
+     * @param destOff the offset inside of dest to start writing to
+     * @param destLen the maximum number of bytes to write
+     * @return the number of bytes written to dest
+     * @throws IOException if the block is malformed or doesn't fit into destLen bytes
+     * @since 1.23
+     */
+    public static int decompress(final byte[] src, final int srcOff, final int srcLen, final byte[] dest,
+        final int destOff, final int destLen) throws IOException {
+        final int srcEnd = srcOff + srcLen;
+        final int destEnd = destOff + destLen;
+        int sp = srcOff;
+        int dp = destOff;
+        while (sp < srcEnd) {
+            final int token = src[sp++] & 0xFF;
+
+            long literalLength = (token & LITERAL_SIZE_MASK) >> SIZE_BITS;
+            if (literalLength == BACK_REFERENCE_SIZE_MASK) {
+                int nextByte;
+                do {
+                    if (sp == srcEnd) {
+                        throw new IOException("Premature end of block while parsing length");
+                    }
+                    nextByte = src[sp++] & 0xFF;
+                    literalLength += nextByte;
+                } while (nextByte == 255);
+            }
+            if (literalLength > srcEnd - sp) {
+                throw new IOException("Premature end of block reading literal");
+            }
+            if (literalLength > destEnd - dp) {
+                throw new IOException("Decompressed data doesn't fit into " + destLen + " bytes");
+            }
+            System.arraycopy(src, sp, dest, dp, (int) literalLength);
+            sp += literalLength;
+            dp += literalLength;
+
+            if (sp == srcEnd) {
+                // the last block has no back-reference
+                break;
+            }
+            if (srcEnd - sp < 2) {
+                throw new IOException("Premature end of block reading back-reference offset");
+            }
+            final int offset = (int) ByteUtils.fromLittleEndian(src, sp, 2);
+            sp += 2;
+            long length = token & BACK_REFERENCE_SIZE_MASK;
+            if (length == BACK_REFERENCE_SIZE_MASK) {
+                int nextByte;
+                do {
+                    if (sp == srcEnd) {
+                        throw new IOException("Premature end of block while parsing length");
+                    }
+                    nextByte = src[sp++] & 0xFF;
+                    length += nextByte;
+                } while (nextByte == 255);
+            }
+            // minimal match length 4 is encoded as 0
+            length += 4;
+            if (offset <= 0 || offset > dp - destOff) {
+                throw new IOException("Illegal block with bad offset found");
+            }
+            if (length > destEnd - dp) {
+                throw new IOException("Decompressed data doesn't fit into " + destLen + " bytes");
+            }
+            copyBackReference(dest, dp, offset, (int) length);
+            dp += length;
+        }
+        return dp - destOff;
+    }
+
     /** Back-Reference-size part of the block starting byte. */
     private int nextBackReferenceSize;
 
@@ -19,7 +19,6 @@
 package org.apache.commons.compress.compressors.lz4;
 
 import static java.lang.Integer.rotateLeft;
-import static org.apache.commons.compress.utils.ByteUtils.fromLittleEndian;
 
 import java.util.zip.Checksum;
 
@@ -42,7 +41,11 @@ public class XXHash32 implements Checksum {
     private static final int PRIME5 =  374761393;
 
     private static int getInt(final byte[] buffer, final int idx) {
-        return (int) (fromLittleEndian(buffer, idx, 4) & 0xffffffffL);
+        // inlined little endian read, this is the hot path of the hash
+        return (buffer[idx] & 0xff)
+            | (buffer[idx + 1] & 0xff) << 8
+            | (buffer[idx + 2] & 0xff) << 16
+            | (buffer[idx + 3] & 0xff) << 24;
     }
     private final byte[] oneByte = new byte[1];
     private final int[] state = new int[4];
@@ -159,9 +162,23 @@ public void update(final byte[] b, int off, final int len) {
         }
 
         final int limit = end - BUF_SIZE;
-        while (off <= limit) {
-            process(b, off);
-            off += BUF_SIZE;
+        if (off <= limit) {
+            // keep the state in locals for the whole run of stripes
+            int s0 = state[0];
+            int s1 = state[1];
+            int s2 = state[2];
+            int s3 = state[3];
+            do {
+                s0 = rotateLeft(s0 + getInt(b, off) * PRIME2, ROTATE_BITS) * PRIME1;
+                s1 = rotateLeft(s1 + getInt(b, off + 4) * PRIME2, ROTATE_BITS) * PRIME1;
+                s2 = rotateLeft(s2 + getInt(b, off + 8) * PRIME2, ROTATE_BITS) * PRIME1;
+                s3 = rotateLeft(s3 + getInt(b, off + 12) * PRIME2, ROTATE_BITS) * PRIME1;
+                off += BUF_SIZE;
+            } while (off <= limit);
+            state[0] = s0;
+            state[1] = s1;
+            state[2] = s2;
+            state[3] = s3;
         }
 
         if (off < end) {
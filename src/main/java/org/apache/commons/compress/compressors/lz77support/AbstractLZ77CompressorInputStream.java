@@ -116,6 +116,40 @@ public abstract class AbstractLZ77CompressorInputStream extends CompressorInputS
      */
     protected final ByteUtils.ByteSupplier supplier = this::readOneByte;
 
+    /**
+     * Copies a back-reference inside of a buffer holding decompressed data.
+     *
+     * <p>If the back-reference overlaps with the bytes created from it -
+     * like go back two bytes and then copy six - the bytes copied so far
+     * become part of the source of the next copy, so the number of bytes
+     * copied by a single {@link System#arraycopy} doubles with each
+     * step.</p>
+     *
+     * @param buf the buffer holding the decompressed data
+     * @param writeIndex the position to write the copy to
+     * @param offset the offset of the back-reference, must be between 1 and writeIndex
+     * @param length the number of bytes to copy, there must be enough room in buf
+     * @since 1.23
+     */
+    protected static void copyBackReference(final byte[] buf, final int writeIndex, final int offset,
+        final int length) {
+        final int from = writeIndex - offset;
+        if (offset == 1) { // pretty common special case
+            Arrays.fill(buf, writeIndex, writeIndex + length, buf[from]);
+        } else if (length <= offset) {
+            System.arraycopy(buf, from, buf, writeIndex, length);
+        } else {
+            // copied is a multiple of offset until the last step, so copying
+            // from the start of the back-reference keeps the pattern intact
+            int copied = 0;
+            while (copied < length) {
+                final int n = Math.min(length - copied, offset + copied);
+                System.arraycopy(buf, from, buf, writeIndex + copied, n);
+                copied += n;
+            }
+        }
+    }
+
     /**
      * Creates a new LZ77 input stream.
      *
@@ -318,30 +352,9 @@ private void tryToCopy(final int bytesToCopy) {
         // require more than is available inside the back-reference
         final int copy = Math.min((int) Math.min(bytesToCopy, bytesRemaining),
                             buf.length - writeIndex);
-        if (copy == 0) {
-            // NOP
-        } else if (backReferenceOffset == 1) { // pretty common special case
-            final byte last = buf[writeIndex - 1];
-            Arrays.fill(buf, writeIndex, writeIndex + copy, last);
+        if (copy > 0) {
+            copyBackReference(buf, writeIndex, backReferenceOffset, copy);
             writeIndex += copy;
-        } else if (copy < backReferenceOffset) {
-            System.arraycopy(buf, writeIndex - backReferenceOffset, buf, writeIndex, copy);
-            writeIndex += copy;
-        } else {
-            // back-reference overlaps with the bytes created from it
-            // like go back two bytes and then copy six (by copying
-            // the last two bytes three time).
-            final int fullRots = copy / backReferenceOffset;
-            for (int i = 0; i < fullRots; i++) {
-                System.arraycopy(buf, writeIndex - backReferenceOffset, buf, writeIndex, backReferenceOffset);
-                writeIndex += backReferenceOffset;
-            }
-
-            final int pad = copy - (backReferenceOffset * fullRots);
-            if (pad > 0) {
-                System.arraycopy(buf, writeIndex - backReferenceOffset, buf, writeIndex, pad);
-                writeIndex += pad;
-            }
         }
         bytesRemaining -= copy;
     }
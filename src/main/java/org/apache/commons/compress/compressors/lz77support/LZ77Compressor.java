@@ -213,11 +213,6 @@ public String toString() {
     static final int NUMBER_OF_BYTES_IN_HASH = 3;
     private static final int NO_MATCH = -1;
 
-    // we use a 15 bit hashcode as calculated in updateHash
-    private static final int HASH_SIZE = 1 << 15;
-    private static final int HASH_MASK = HASH_SIZE - 1;
-
-    private static final int H_SHIFT = 5;
     private final Parameters params;
     private final Callback callback;
 
@@ -227,6 +222,12 @@ public String toString() {
     // the head of hash-chain - indexed by hash-code, points to the
     // location inside of window of the latest sequence of bytes with
     // the given hash.
+    // hashBits bit hashcode as calculated in nextHash
+    private final int hashMask;
+    // shift applied on each update of the rolling hash, big enough
+    // that all bits of the first byte have been shifted out after
+    // NUMBER_OF_BYTES_IN_HASH updates
+    private final int hashShift;
     private final int[] head;
     // for each window-location points to the latest earlier location
     // with the same hash. Only stores values for the latest
@@ -272,7 +273,10 @@ public LZ77Compressor(final Parameters params, final Callback callback) {
         final int wSize = params.getWindowSize();
         window = new byte[wSize * 2];
         wMask = wSize - 1;
-        head = new int[HASH_SIZE];
+        final int hashBits = params.getHashBits();
+        hashMask = (1 << hashBits) - 1;
+        hashShift = (hashBits + NUMBER_OF_BYTES_IN_HASH - 1) / NUMBER_OF_BYTES_IN_HASH;
+        head = new int[1 << hashBits];
         Arrays.fill(head, NO_MATCH);
         prev = new int[wSize];
     }
@@ -444,6 +448,12 @@ private int longestMatch(int matchHead) {
         final int niceBackReferenceLength = Math.min(maxPossibleLength, params.getNiceBackReferenceLength());
         final int maxCandidates = params.getMaxCandidates();
         for (int candidates = 0; candidates < maxCandidates && matchHead >= minIndex; candidates++) {
+            if (longestMatchLength < maxPossibleLength
+                && window[matchHead + longestMatchLength] != window[currentPosition + longestMatchLength]) {
+                // can't be longer than the longest match found so far
+                matchHead = prev[matchHead & wMask];
+                continue;
+            }
             int currentLength = 0;
             for (int i = 0; i < maxPossibleLength; i++) {
                 if (window[matchHead + i] != window[currentPosition + i]) {
@@ -494,12 +504,13 @@ private int longestMatchForNextPosition(final int prevMatchLength) {
      * as a rolling hash, i.e. for bytes ABCD if H is the hash of ABC
      * the new hash for BCD is nextHash(H, D).
      *
-     * <p>The hash is shifted by five bits on each update so all
-     * effects of A have been swapped after the third update.</p>
+     * <p>The hash is shifted by a third of the hash bits (five bits
+     * for the default of 15) on each update so all effects of A have
+     * been swapped after the third update.</p>
      */
     private int nextHash(final int oldHash, final byte nextByte) {
         final int nextVal = nextByte & 0xFF;
-        return ((oldHash << H_SHIFT) ^ nextVal) & HASH_MASK;
+        return ((oldHash << hashShift) ^ nextVal) & hashMask;
     }
 
     /**
@@ -545,7 +556,7 @@ private void slide() throws IOException {
         currentPosition -= wSize;
         matchStart -= wSize;
         blockStart -= wSize;
-        for (int i = 0; i < HASH_SIZE; i++) {
+        for (int i = 0; i < head.length; i++) {
             final int h = head[i];
             head[i] = h >= wSize ? h - wSize : NO_MATCH;
         }
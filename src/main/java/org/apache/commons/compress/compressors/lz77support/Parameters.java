@@ -28,6 +28,7 @@ public final class Parameters {
     public static class Builder {
         private final int windowSize;
         private int minBackReferenceLength, maxBackReferenceLength, maxOffset, maxLiteralLength;
+        private int hashBits = DEFAULT_HASH_BITS;
         private Integer niceBackReferenceLength, maxCandidates, lazyThreshold;
         private Boolean lazyMatches;
 
@@ -55,7 +56,7 @@ public Parameters build() {
             final int threshold = lazy ? (lazyThreshold != null ? lazyThreshold : niceLen) : minBackReferenceLength;
 
             return new Parameters(windowSize, minBackReferenceLength, maxBackReferenceLength,
-                maxOffset, maxLiteralLength, niceLen, candidates, lazy, threshold);
+                maxOffset, maxLiteralLength, niceLen, candidates, lazy, threshold, hashBits);
         }
 
         /**
@@ -87,6 +88,33 @@ public Builder tunedForSpeed() {
             return this;
         }
 
+        /**
+         * Sets the size of the hash table used to find back-reference candidates as a power of two.
+         *
+         * <p>The compressor hashes the next {@value #TRUE_MIN_BACK_REFERENCE_LENGTH} bytes of each
+         * position into a table of {@code 2^hashBits} heads of hash chains. Bigger tables mean fewer
+         * positions with different prefixes share a chain, so fewer useless candidates are inspected
+         * when looking for back-references, which helps with highly redundant input and big numbers
+         * of candidates. Smaller tables use less memory and are cheaper to reset whenever the
+         * window slides.</p>
+         *
+         * <p>The default is {@value #DEFAULT_HASH_BITS}.</p>
+         *
+         * @param hashBits the number of bits of the hash, must be between {@value #MIN_HASH_BITS}
+         * and {@value #MAX_HASH_BITS}
+         * @throws IllegalArgumentException if hashBits is out of range
+         * @return the builder
+         * @since 1.23
+         */
+        public Builder withHashBits(final int hashBits) {
+            if (hashBits < MIN_HASH_BITS || hashBits > MAX_HASH_BITS) {
+                throw new IllegalArgumentException("hashBits must be between " + MIN_HASH_BITS + " and "
+                    + MAX_HASH_BITS);
+            }
+            this.hashBits = hashBits;
+            return this;
+        }
+
         /**
          * Sets whether lazy matching should be performed.
          *
@@ -236,6 +264,25 @@ public Builder withNiceBackReferenceLength(final int niceLen) {
      */
     public static final int TRUE_MIN_BACK_REFERENCE_LENGTH = LZ77Compressor.NUMBER_OF_BYTES_IN_HASH;
 
+    /**
+     * The default number of bits of the hash used to find back-reference candidates.
+     * @since 1.23
+     */
+    public static final int DEFAULT_HASH_BITS = 15;
+
+    /**
+     * The minimal number of bits of the hash used to find back-reference candidates.
+     * @since 1.23
+     */
+    public static final int MIN_HASH_BITS = 8;
+
+    /**
+     * The maximal number of bits of the hash used to find back-reference candidates, the
+     * hash of {@value #TRUE_MIN_BACK_REFERENCE_LENGTH} bytes doesn't carry more information.
+     * @since 1.23
+     */
+    public static final int MAX_HASH_BITS = 24;
+
     /**
      * Initializes the builder for the compressor's parameters with a
      * {@code minBackReferenceLength} of 3 and {@code max*Length}
@@ -261,13 +308,13 @@ private static boolean isPowerOfTwo(final int x) {
         return (x & (x - 1)) == 0;
     }
     private final int windowSize, minBackReferenceLength, maxBackReferenceLength, maxOffset, maxLiteralLength,
-        niceBackReferenceLength, maxCandidates, lazyThreshold;
+        niceBackReferenceLength, maxCandidates, lazyThreshold, hashBits;
 
     private final boolean lazyMatching;
 
     private Parameters(final int windowSize, final int minBackReferenceLength, final int maxBackReferenceLength, final int maxOffset,
             final int maxLiteralLength, final int niceBackReferenceLength, final int maxCandidates, final boolean lazyMatching,
-            final int lazyThreshold) {
+            final int lazyThreshold, final int hashBits) {
         this.windowSize = windowSize;
         this.minBackReferenceLength = minBackReferenceLength;
         this.maxBackReferenceLength = maxBackReferenceLength;
@@ -277,6 +324,16 @@ private Parameters(final int windowSize, final int minBackReferenceLength, final
         this.maxCandidates = maxCandidates;
         this.lazyMatching = lazyMatching;
         this.lazyThreshold = lazyThreshold;
+        this.hashBits = hashBits;
+    }
+
+    /**
+     * Gets the number of bits of the hash used to find back-reference candidates.
+     * @return the number of bits of the hash
+     * @since 1.23
+     */
+    public int getHashBits() {
+        return hashBits;
     }
     /**
      * Gets whether to perform lazy matching.
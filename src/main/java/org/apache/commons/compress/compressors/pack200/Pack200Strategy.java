@@ -40,6 +40,18 @@ StreamBridge newStreamBridge() {
         StreamBridge newStreamBridge() throws IOException {
             return new TempFileCachingStreamBridge();
         }
+    },
+    /**
+     * Cache output in memory up to 16 MiB and in a temporary file
+     * once it gets bigger.
+     *
+     * @since 1.23
+     */
+    SPILL_TO_TEMP_FILE() {
+        @Override
+        StreamBridge newStreamBridge() {
+            return new SpillingStreamBridge();
+        }
     };
 
     abstract StreamBridge newStreamBridge() throws IOException;
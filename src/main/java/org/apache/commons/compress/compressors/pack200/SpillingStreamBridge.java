@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.compress.compressors.pack200;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.compress.utils.IOUtils;
+
+/**
+ * StreamBridge that caches the data written to the output side in
+ * memory until it exceeds a threshold and in a temporary file after
+ * that.
+ *
+ * <p>The data kept in memory is stored in a list of chunks that is
+ * read directly by the input side, so no copy of the whole data is
+ * made.</p>
+ *
+ * @since 1.23
+ */
+class SpillingStreamBridge extends StreamBridge {
+
+    /**
+     * Output side collecting the written data in chunks that grow
+     * with the amount of data written.
+     */
+    private static final class ChunkedOutputStream extends OutputStream {
+        private final List<byte[]> chunks = new ArrayList<>();
+        private long size;
+        private int lastChunkLength;
+
+        /**
+         * Gets the last chunk, adding a new one if it is full.
+         */
+        private byte[] writableChunk() {
+            byte[] chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (chunk == null || lastChunkLength == chunk.length) {
+                chunk = new byte[(int) Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size))];
+                chunks.add(chunk);
+                lastChunkLength = 0;
+            }
+            return chunk;
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) {
+            while (len > 0) {
+                final byte[] chunk = writableChunk();
+                final int n = Math.min(len, chunk.length - lastChunkLength);
+                System.arraycopy(b, off, chunk, lastChunkLength, n);
+                lastChunkLength += n;
+                size += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void write(final int b) {
+            writableChunk()[lastChunkLength++] = (byte) b;
+            size++;
+        }
+
+        void writeTo(final OutputStream os) throws IOException {
+            final int last = chunks.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                final byte[] chunk = chunks.get(i);
+                os.write(chunk, 0, i == last ? lastChunkLength : chunk.length);
+            }
+        }
+    }
+
+    /**
+     * Input side reading the chunks of a {@link ChunkedOutputStream}.
+     */
+    private static final class ChunkedInputStream extends InputStream {
+        private final List<byte[]> chunks;
+        private final int lastChunkLength;
+        private int chunk;
+        private int position;
+        private int markChunk;
+        private int markPosition;
+
+        ChunkedInputStream(final ChunkedOutputStream data) {
+            chunks = data.chunks;
+            lastChunkLength = data.lastChunkLength;
+        }
+
+        @Override
+        public int available() {
+            long remaining = 0;
+            for (int i = chunk; i < chunks.size(); i++) {
+                remaining += length(i);
+            }
+            return (int) Math.min(Integer.MAX_VALUE, remaining - position);
+        }
+
+        /**
+         * Moves to the next chunk if the current one has been read completely.
+         *
+         * @return false if all chunks have been read
+         */
+        private boolean ensureData() {
+            while (chunk < chunks.size() && position == length(chunk)) {
+                chunk++;
+                position = 0;
+            }
+            return chunk < chunks.size();
+        }
+
+        private int length(final int index) {
+            return index == chunks.size() - 1 ? lastChunkLength : chunks.get(index).length;
+        }
+
+        @Override
+        public void mark(final int readlimit) {
+            markChunk = chunk;
+            markPosition = position;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public int read() {
+            if (!ensureData()) {
+                return -1;
+            }
+            return chunks.get(chunk)[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensureData()) {
+                return -1;
+            }
+            final int n = Math.min(len, length(chunk) - position);
+            System.arraycopy(chunks.get(chunk), position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void reset() {
+            chunk = markChunk;
+            position = markPosition;
+        }
+
+        @Override
+        public long skip(final long n) {
+            long remaining = n;
+            while (remaining > 0 && ensureData()) {
+                final int skipped = (int) Math.min(remaining, length(chunk) - position);
+                position += skipped;
+                remaining -= skipped;
+            }
+            return n < 0 ? 0 : n - remaining;
+        }
+    }
+
+    /** Default number of bytes kept in memory before the data is written to a temporary file. */
+    static final int DEFAULT_THRESHOLD = 16 * 1024 * 1024;
+
+    private static final int MIN_CHUNK_SIZE = 8 * 1024;
+
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+    private final long threshold;
+    private ChunkedOutputStream memory = new ChunkedOutputStream();
+    private File f;
+
+    SpillingStreamBridge() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold the number of bytes to keep in memory
+     */
+    SpillingStreamBridge(final long threshold) {
+        this.threshold = threshold;
+        out = memory;
+    }
+
+    @Override
+    InputStream getInputView() throws IOException {
+        out.close();
+        return f == null ? new ChunkedInputStream(memory) : TempFileCachingStreamBridge.newDeletingInputStream(f);
+    }
+
+    /**
+     * Whether the data has been written to a temporary file.
+     */
+    boolean isSpilled() {
+        return f != null;
+    }
+
+    /**
+     * Moves the data written so far to a temporary file that receives
+     * all further data.
+     */
+    private void spill() throws IOException {
+        final File file = TempFileCachingStreamBridge.createTempFile();
+        OutputStream fileOut = null;
+        try {
+            fileOut = new BufferedOutputStream(Files.newOutputStream(file.toPath()));
+            memory.writeTo(fileOut);
+        } catch (final IOException ex) {
+            IOUtils.closeQuietly(fileOut);
+            // if this fails the only thing we can do is to rely on deleteOnExit
+            file.delete(); // NOSONAR
+            throw ex;
+        }
+        f = file;
+        memory = null;
+        out = fileOut;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (memory != null && memory.size + len > threshold) {
+            spill();
+        }
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (memory != null && memory.size + 1 > threshold) {
+            spill();
+        }
+        out.write(b);
+    }
+}
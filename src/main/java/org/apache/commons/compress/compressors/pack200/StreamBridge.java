@@ -72,4 +72,13 @@ void stop() throws IOException {
             }
         }
     }
+
+    /**
+     * Writes the whole array to the wrapped stream rather than a
+     * byte at a time as {@link FilterOutputStream} does.
+     */
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        out.write(b, off, len);
+    }
 }
@@ -31,17 +31,20 @@
  * @since 1.3
  */
 class TempFileCachingStreamBridge extends StreamBridge {
-    private final File f;
-
-    TempFileCachingStreamBridge() throws IOException {
-        f = File.createTempFile("commons-compress", "packtemp");
+    /**
+     * Creates the temporary file used to cache the data.
+     */
+    static File createTempFile() throws IOException {
+        final File f = File.createTempFile("commons-compress", "packtemp");
         f.deleteOnExit();
-        out = Files.newOutputStream(f.toPath());
+        return f;
     }
 
-    @Override
-    InputStream getInputView() throws IOException {
-        out.close();
+    /**
+     * Opens the given file for reading, the file is deleted when the
+     * stream gets closed.
+     */
+    static InputStream newDeletingInputStream(final File f) throws IOException {
         return new FilterInputStream(Files.newInputStream(f.toPath())) {
             @Override
             public void close() throws IOException {
@@ -54,4 +57,17 @@ public void close() throws IOException {
             }
         };
     }
+
+    private final File f;
+
+    TempFileCachingStreamBridge() throws IOException {
+        f = createTempFile();
+        out = Files.newOutputStream(f.toPath());
+    }
+
+    @Override
+    InputStream getInputView() throws IOException {
+        out.close();
+        return newDeletingInputStream(f);
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.snappy;
+
+import java.lang.reflect.Constructor;
+import java.util.zip.Checksum;
+
+/**
+ * Creates CRC32-C checksums.
+ *
+ * <p>Uses {@code java.util.zip.CRC32C} when running on Java 9 or
+ * later, the JVM implements it as an intrinsic using the CPU's CRC32
+ * instructions where available. Falls back to {@link PureJavaCrc32C}
+ * on Java 8.</p>
+ */
+final class Crc32C {
+
+    private static final Constructor<? extends Checksum> JDK_CRC32C = findJdkCrc32C();
+
+    private static Constructor<? extends Checksum> findJdkCrc32C() {
+        try {
+            return Class.forName("java.util.zip.CRC32C").asSubclass(Checksum.class).getConstructor();
+        } catch (final ReflectiveOperationException | LinkageError | SecurityException ex) { // NOSONAR
+            // Java 8, use the pure Java implementation
+            return null;
+        }
+    }
+
+    /**
+     * Whether {@link #newChecksum} returns the JDK's implementation.
+     *
+     * @return true if java.util.zip.CRC32C is used
+     */
+    static boolean isJdkImplementation() {
+        return JDK_CRC32C != null;
+    }
+
+    /**
+     * Creates a new CRC32-C checksum.
+     *
+     * @return the fastest implementation available
+     */
+    static Checksum newChecksum() {
+        if (JDK_CRC32C != null) {
+            try {
+                return JDK_CRC32C.newInstance();
+            } catch (final ReflectiveOperationException ex) { // NOSONAR
+                // fall through
+            }
+        }
+        return new PureJavaCrc32C();
+    }
+
+    private Crc32C() {
+    }
+}
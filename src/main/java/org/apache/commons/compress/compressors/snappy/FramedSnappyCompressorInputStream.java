@@ -22,6 +22,7 @@
 import java.io.InputStream;
 import java.io.PushbackInputStream;
 import java.util.Arrays;
+import java.util.zip.Checksum;
 
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.utils.BoundedInputStream;
@@ -112,7 +113,7 @@ static long unmask(long x) {
 
     private final int blockSize;
 
-    private final PureJavaCrc32C checksum = new PureJavaCrc32C();
+    private final Checksum checksum = Crc32C.newChecksum();
 
     private final ByteUtils.ByteSupplier supplier = this::readOneByte;
 
@@ -21,6 +21,7 @@
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.zip.Checksum;
 
 import org.apache.commons.compress.compressors.CompressorOutputStream;
 import org.apache.commons.compress.compressors.lz77support.Parameters;
@@ -52,7 +53,7 @@ static long mask(long x) {
     }
     private final OutputStream out;
     private final Parameters params;
-    private final PureJavaCrc32C checksum = new PureJavaCrc32C();
+    private final Checksum checksum = Crc32C.newChecksum();
     // used in one-arg write method
     private final byte[] oneByte = new byte[1];
     private final byte[] buffer = new byte[MAX_COMPRESSED_BUFFER_SIZE];
@@ -50,6 +50,139 @@ private enum State {
     /** Default block size */
     public static final int DEFAULT_BLOCK_SIZE = 32768;
 
+    /** The maximum length of the varint holding the uncompressed size of a block */
+    private static final int MAX_SIZE_BYTES = 5;
+
+    /** The maximum uncompressed size of a block, the size is an unsigned 32-bit value */
+    private static final long MAX_SIZE = 0xFFFFFFFFL;
+
+    /**
+     * Decompresses a complete Snappy block held in memory.
+     *
+     * <p>This avoids the window and the state machine of the stream, literals are copied
+     * straight from the source array and back-references are expanded inside of the
+     * destination array. Use {@link #getUncompressedSize(byte[], int, int)} to find out how
+     * big the destination must be.</p>
+     *
+     * @param src the compressed block, starting with the varint encoded uncompressed size
+     * @param srcOff the offset of the block inside of src
+     * @param srcLen the length of the compressed block
+     * @param dest the array to decompress to
+     * @param destOff the offset inside of dest to start writing to
+     * @return the number of bytes written to dest
+     * @throws IOException if the block is malformed or dest is too small
+     * @since 1.23
+     */
+    public static int decompress(final byte[] src, final int srcOff, final int srcLen, final byte[] dest,
+        final int destOff) throws IOException {
+        final long size = getUncompressedSize(src, srcOff, srcLen);
+        final int srcEnd = srcOff + srcLen;
+        int sp = srcOff;
+        while ((src[sp++] & 0x80) != 0) { // NOSONAR
+            // skip the size, getUncompressedSize has made sure it is at most MAX_SIZE_BYTES long
+        }
+        if (size > dest.length - destOff) {
+            throw new IOException("Decompressed data of " + size + " bytes doesn't fit into destination");
+        }
+        final int destEnd = destOff + (int) size;
+        int dp = destOff;
+        while (dp < destEnd) {
+            if (sp == srcEnd) {
+                throw new IOException("Premature end of block reading block start");
+            }
+            final int b = src[sp++] & 0xFF;
+            final int length;
+            final int offset;
+            switch (b & TAG_MASK) {
+            case 0x00:
+                int literalLength = b >> 2;
+                if (literalLength >= 60) {
+                    final int sizeBytes = literalLength - 59;
+                    if (srcEnd - sp < sizeBytes) {
+                        throw new IOException("Premature end of block reading literal length");
+                    }
+                    literalLength = (int) ByteUtils.fromLittleEndian(src, sp, sizeBytes);
+                    sp += sizeBytes;
+                }
+                final long literal = (literalLength & 0xFFFFFFFFL) + 1;
+                if (literal > srcEnd - sp) {
+                    throw new IOException("Premature end of block reading literal");
+                }
+                if (literal > destEnd - dp) {
+                    throw new IOException("Literal exceeds the uncompressed size");
+                }
+                System.arraycopy(src, sp, dest, dp, (int) literal);
+                sp += literal;
+                dp += literal;
+                continue;
+            case 0x01:
+                if (sp == srcEnd) {
+                    throw new IOException("Premature end of block reading back-reference length");
+                }
+                length = 4 + ((b >> 2) & 0x07);
+                offset = (b & 0xE0) << 3 | src[sp++] & 0xFF;
+                break;
+            case 0x02:
+                if (srcEnd - sp < 2) {
+                    throw new IOException("Premature end of block reading back-reference offset");
+                }
+                length = (b >> 2) + 1;
+                offset = (int) ByteUtils.fromLittleEndian(src, sp, 2);
+                sp += 2;
+                break;
+            default:
+                if (srcEnd - sp < 4) {
+                    throw new IOException("Premature end of block reading back-reference offset");
+                }
+                length = (b >> 2) + 1;
+                offset = (int) ByteUtils.fromLittleEndian(src, sp, 4) & 0x7fffffff;
+                sp += 4;
+                break;
+            }
+            if (offset <= 0 || offset > dp - destOff) {
+                throw new IOException("Illegal block with bad offset found");
+            }
+            if (length > destEnd - dp) {
+                throw new IOException("Back-reference exceeds the uncompressed size");
+            }
+            copyBackReference(dest, dp, offset, length);
+            dp += length;
+        }
+        return dp - destOff;
+    }
+
+    /**
+     * Reads the uncompressed size from the start of a Snappy block held in memory.
+     *
+     * @param src the compressed block, starting with the varint encoded uncompressed size
+     * @param srcOff the offset of the block inside of src
+     * @param srcLen the length of the compressed block
+     * @return the uncompressed size
+     * @throws IOException if the size cannot be read or is encoded in more than five bytes
+     * @since 1.23
+     */
+    public static long getUncompressedSize(final byte[] src, final int srcOff, final int srcLen) throws IOException {
+        final int srcEnd = srcOff + srcLen;
+        int sp = srcOff;
+        long size = 0;
+        int b;
+        int index = 0;
+        do {
+            if (index == MAX_SIZE_BYTES) {
+                throw new IOException("Uncompressed size is encoded in more than " + MAX_SIZE_BYTES + " bytes");
+            }
+            if (sp == srcEnd) {
+                throw new IOException("Premature end of block reading size");
+            }
+            b = src[sp++] & 0xFF;
+            size |= (long) (b & 0x7f) << (index++ * 7);
+        } while (0 != (b & 0x80));
+        if (size > MAX_SIZE) {
+            throw new IOException("Uncompressed size " + size + " exceeds the maximum of " + MAX_SIZE);
+        }
+        return size;
+    }
+
     /** The size of the uncompressed data */
     private final int size;
 
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+
+/**
+ * Reads the bit streams of Zstandard's entropy coded sections.
+ *
+ * <p>These streams are written forward but read backward, starting
+ * with the most significant bit of the last byte. The last byte
+ * contains a marker bit signaling the start of the stream, all bits
+ * above it are padding.</p>
+ *
+ * <p>Like the reference implementation this reads the stream into a
+ * 64 bit container that is refilled by {@link #reload}. Callers
+ * must make sure they don't consume more than 57 bits between two
+ * calls to {@link #reload}.</p>
+ *
+ * @NotThreadSafe
+ * @since 1.23
+ */
+final class BackwardBitReader {
+
+    private static long getLong(final byte[] buf, final int idx) {
+        return (buf[idx] & 0xffL)
+            | (buf[idx + 1] & 0xffL) << 8
+            | (buf[idx + 2] & 0xffL) << 16
+            | (buf[idx + 3] & 0xffL) << 24
+            | (buf[idx + 4] & 0xffL) << 32
+            | (buf[idx + 5] & 0xffL) << 40
+            | (buf[idx + 6] & 0xffL) << 48
+            | (buf[idx + 7] & 0xffL) << 56;
+    }
+
+    private byte[] buf;
+    private int start;
+    private int ptr;
+    private long container;
+    private int bitsConsumed;
+
+    /**
+     * Starts reading a new stream.
+     *
+     * @param buf the buffer holding the stream
+     * @param start the offset of the first byte of the stream
+     * @param end the offset of the byte following the stream
+     * @throws IOException if the stream is empty or its last byte doesn't contain the marker bit
+     */
+    void init(final byte[] buf, final int start, final int end) throws IOException {
+        if (end <= start) {
+            throw new IOException("Empty bit stream");
+        }
+        final int lastByte = buf[end - 1] & 0xff;
+        if (lastByte == 0) {
+            throw new IOException("Bit stream lacks the start marker");
+        }
+        this.buf = buf;
+        this.start = start;
+        final int size = end - start;
+        if (size >= 8) {
+            ptr = end - 8;
+            container = getLong(buf, ptr);
+            bitsConsumed = 0;
+        } else {
+            ptr = start;
+            container = 0;
+            for (int i = 0; i < size; i++) {
+                container |= (buf[start + i] & 0xffL) << (8 * i);
+            }
+            bitsConsumed = (8 - size) * 8;
+        }
+        // padding bits and the marker itself
+        bitsConsumed += Integer.numberOfLeadingZeros(lastByte) - 23;
+    }
+
+    /**
+     * Whether all bits of the stream and not a single bit more have been consumed.
+     */
+    boolean isFullyConsumed() {
+        return ptr == start && bitsConsumed == Long.SIZE;
+    }
+
+    /**
+     * Returns the next bits of the stream without consuming them,
+     * bits beyond the start of the stream read as zeros as long as
+     * not all bits of the container have been consumed.
+     *
+     * @param count the number of bits to return, between 0 and 57
+     */
+    int peekBits(final int count) {
+        return (int) (container << bitsConsumed >>> 1 >>> 63 - count);
+    }
+
+    /**
+     * Reads the next bits of the stream.
+     *
+     * @param count the number of bits to read, between 0 and 31
+     */
+    int readBits(final int count) {
+        final int bits = peekBits(count);
+        bitsConsumed += count;
+        return bits;
+    }
+
+    /**
+     * Refills the container.
+     *
+     * @return true if more bits have been consumed than the stream contains
+     */
+    boolean reload() {
+        if (bitsConsumed > Long.SIZE) {
+            return true;
+        }
+        if (ptr >= start + 8) {
+            ptr -= bitsConsumed >>> 3;
+            bitsConsumed &= 7;
+        } else if (ptr > start) {
+            final int bytes = Math.min(bitsConsumed >>> 3, ptr - start);
+            ptr -= bytes;
+            bitsConsumed -= bytes * 8;
+        } else {
+            return false;
+        }
+        container = getLong(buf, ptr);
+        return false;
+    }
+
+    /**
+     * Skips bits that have been peeked.
+     */
+    void skipBits(final int count) {
+        bitsConsumed += count;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+
+/**
+ * Decoding table of Zstandard's finite state entropy coder.
+ *
+ * <p>For each state the table holds the decoded symbol, the number
+ * of bits to read for the next state and the baseline the bits are
+ * added to.</p>
+ *
+ * @NotThreadSafe
+ * @since 1.23
+ */
+final class FseTable {
+
+    private static final int MIN_ACCURACY_LOG = 5;
+    private static final int MAX_SYMBOLS = 256;
+
+    /** Reads 25 or more bits starting at the given bit position, bits beyond end read as zeros. */
+    private static int bitsAt(final byte[] src, final int off, final int end, final int bitPos) {
+        final int idx = off + (bitPos >>> 3);
+        int v = 0;
+        for (int i = 0; i < 4 && idx + i < end; i++) {
+            v |= (src[idx + i] & 0xff) << (8 * i);
+        }
+        return v >>> (bitPos & 7);
+    }
+
+    private final int maxAccuracyLog;
+
+    int accuracyLog;
+    final byte[] symbols;
+    final byte[] numBits;
+    final int[] baseStates;
+
+    private final short[] normalizedCounts = new short[MAX_SYMBOLS];
+    private final int[] symbolNext = new int[MAX_SYMBOLS];
+
+    /**
+     * Creates an empty table.
+     *
+     * @param maxAccuracyLog the biggest accuracy log this table will support
+     */
+    FseTable(final int maxAccuracyLog) {
+        this.maxAccuracyLog = maxAccuracyLog;
+        final int maxSize = 1 << maxAccuracyLog;
+        symbols = new byte[maxSize];
+        numBits = new byte[maxSize];
+        baseStates = new int[maxSize];
+    }
+
+    /**
+     * Builds the table from normalized counts, a count of -1
+     * represents a "less than one" probability.
+     */
+    void build(final short[] counts, final int maxSymbol, final int log) throws IOException {
+        final int tableSize = 1 << log;
+        int highThreshold = tableSize - 1;
+        for (int s = 0; s <= maxSymbol; s++) {
+            if (counts[s] == -1) {
+                symbols[highThreshold--] = (byte) s;
+                symbolNext[s] = 1;
+            } else {
+                symbolNext[s] = counts[s];
+            }
+        }
+        final int step = (tableSize >>> 1) + (tableSize >>> 3) + 3;
+        final int mask = tableSize - 1;
+        int pos = 0;
+        for (int s = 0; s <= maxSymbol; s++) {
+            for (int i = 0; i < counts[s]; i++) {
+                symbols[pos] = (byte) s;
+                do {
+                    pos = (pos + step) & mask;
+                } while (pos > highThreshold);
+            }
+        }
+        if (pos != 0) {
+            throw new IOException("Invalid FSE table distribution");
+        }
+        for (int u = 0; u < tableSize; u++) {
+            final int nextState = symbolNext[symbols[u] & 0xff]++;
+            final int bits = log - (31 - Integer.numberOfLeadingZeros(nextState));
+            numBits[u] = (byte) bits;
+            baseStates[u] = (nextState << bits) - tableSize;
+        }
+        accuracyLog = log;
+    }
+
+    /**
+     * Copies the content of another table into this one.
+     */
+    void copyFrom(final FseTable other) {
+        final int size = 1 << other.accuracyLog;
+        System.arraycopy(other.symbols, 0, symbols, 0, size);
+        System.arraycopy(other.numBits, 0, numBits, 0, size);
+        System.arraycopy(other.baseStates, 0, baseStates, 0, size);
+        accuracyLog = other.accuracyLog;
+    }
+
+    /**
+     * Makes this a table with a single state that always decodes to the given symbol.
+     */
+    void initRle(final int symbol) {
+        symbols[0] = (byte) symbol;
+        numBits[0] = 0;
+        baseStates[0] = 0;
+        accuracyLog = 0;
+    }
+
+    /**
+     * Reads a table description and builds the table from it.
+     *
+     * @param src the buffer holding the description
+     * @param off offset of the description
+     * @param end end of the data that may be read
+     * @param maxSymbol the biggest symbol allowed
+     * @return the number of bytes consumed
+     * @throws IOException if the description is invalid
+     */
+    int readTableDescription(final byte[] src, final int off, final int end, final int maxSymbol)
+        throws IOException {
+        final short[] counts = normalizedCounts;
+        final int log = (bitsAt(src, off, end, 0) & 0xF) + MIN_ACCURACY_LOG;
+        if (log > maxAccuracyLog) {
+            throw new IOException("FSE accuracy log " + log + " exceeds maximum of " + maxAccuracyLog);
+        }
+        int bitPos = 4;
+        int remaining = (1 << log) + 1;
+        int threshold = 1 << log;
+        int bitCount = log + 1;
+        int symbol = 0;
+        boolean previousZero = false;
+        while (remaining > 1 && symbol <= maxSymbol) {
+            if (previousZero) {
+                int target = symbol;
+                int repeat;
+                do {
+                    repeat = bitsAt(src, off, end, bitPos) & 3;
+                    bitPos += 2;
+                    target += repeat;
+                } while (repeat == 3);
+                if (target > maxSymbol) {
+                    throw new IOException("FSE table description contains too many symbols");
+                }
+                while (symbol < target) {
+                    counts[symbol++] = 0;
+                }
+            }
+            final int bits = bitsAt(src, off, end, bitPos);
+            final int max = (2 * threshold - 1) - remaining;
+            int count;
+            if ((bits & (threshold - 1)) < max) {
+                count = bits & (threshold - 1);
+                bitPos += bitCount - 1;
+            } else {
+                count = bits & (2 * threshold - 1);
+                if (count >= threshold) {
+                    count -= max;
+                }
+                bitPos += bitCount;
+            }
+            count--;
+            remaining -= Math.abs(count);
+            if (remaining < 1) {
+                throw new IOException("Invalid FSE table description");
+            }
+            counts[symbol++] = (short) count;
+            previousZero = count == 0;
+            while (remaining < threshold) {
+                bitCount--;
+                threshold >>= 1;
+            }
+        }
+        final int consumed = (bitPos + 7) >>> 3;
+        if (remaining != 1 || off + consumed > end) {
+            throw new IOException("Invalid FSE table description");
+        }
+        build(counts, symbol - 1, log);
+        return consumed;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Decoding table for the Huffman coded literals of Zstandard blocks.
+ *
+ * <p>The table is indexed by the next {@code tableLog} bits of the
+ * stream, each entry holds the decoded symbol and the length of its
+ * code.</p>
+ *
+ * @NotThreadSafe
+ * @since 1.23
+ */
+final class HuffmanTable {
+
+    private static final int MAX_TABLE_LOG = 12;
+    private static final int MAX_SYMBOLS = 256;
+    private static final int WEIGHTS_MAX_ACCURACY_LOG = 6;
+
+    private int tableLog;
+    private final byte[] symbols = new byte[1 << MAX_TABLE_LOG];
+    private final byte[] lengths = new byte[1 << MAX_TABLE_LOG];
+
+    private final byte[] weights = new byte[MAX_SYMBOLS];
+    private final int[] rankStart = new int[MAX_TABLE_LOG + 1];
+    private FseTable weightTable;
+
+    /**
+     * Copies the content of another table into this one.
+     */
+    void copyFrom(final HuffmanTable other) {
+        final int size = 1 << other.tableLog;
+        System.arraycopy(other.symbols, 0, symbols, 0, size);
+        System.arraycopy(other.lengths, 0, lengths, 0, size);
+        tableLog = other.tableLog;
+    }
+
+    /**
+     * Decodes a single stream of Huffman coded literals.
+     *
+     * @param bits reader to use
+     * @param src buffer holding the stream
+     * @param start offset of the stream
+     * @param end end of the stream
+     * @param out buffer to write the literals to
+     * @param outOff offset of the first literal
+     * @param count number of literals to decode
+     * @throws IOException if the stream is corrupt
+     */
+    void decodeStream(final BackwardBitReader bits, final byte[] src, final int start, final int end,
+        final byte[] out, final int outOff, final int count) throws IOException {
+        bits.init(src, start, end);
+        final int log = tableLog;
+        int i = outOff;
+        final int outEnd = outOff + count;
+        // four symbols of at most twelve bits each fit into a reloaded container
+        for (final int fastEnd = outEnd - 3; i < fastEnd; i += 4) {
+            bits.reload();
+            int idx = bits.peekBits(log);
+            out[i] = symbols[idx];
+            bits.skipBits(lengths[idx]);
+            idx = bits.peekBits(log);
+            out[i + 1] = symbols[idx];
+            bits.skipBits(lengths[idx]);
+            idx = bits.peekBits(log);
+            out[i + 2] = symbols[idx];
+            bits.skipBits(lengths[idx]);
+            idx = bits.peekBits(log);
+            out[i + 3] = symbols[idx];
+            bits.skipBits(lengths[idx]);
+        }
+        bits.reload();
+        for (; i < outEnd; i++) {
+            final int idx = bits.peekBits(log);
+            out[i] = symbols[idx];
+            bits.skipBits(lengths[idx]);
+        }
+        bits.reload();
+        if (!bits.isFullyConsumed()) {
+            throw new IOException("Huffman coded literals stream is corrupt");
+        }
+    }
+
+    /**
+     * Reads the description of a Huffman tree and builds the table from it.
+     *
+     * @param bits reader to use for FSE compressed weights
+     * @param src buffer holding the description
+     * @param off offset of the description
+     * @param end end of the data that may be read
+     * @return the number of bytes consumed
+     * @throws IOException if the description is invalid
+     */
+    int readTableDescription(final BackwardBitReader bits, final byte[] src, final int off, final int end)
+        throws IOException {
+        if (off >= end) {
+            throw new IOException("Missing Huffman tree description");
+        }
+        final int header = src[off] & 0xff;
+        final int numWeights;
+        final int consumed;
+        if (header >= 128) {
+            numWeights = header - 127;
+            consumed = 1 + (numWeights + 1) / 2;
+            if (off + consumed > end) {
+                throw new IOException("Truncated Huffman tree description");
+            }
+            for (int i = 0; i < numWeights; i++) {
+                final int b = src[off + 1 + i / 2];
+                weights[i] = (byte) ((i & 1) == 0 ? (b >> 4) & 0xF : b & 0xF);
+            }
+        } else {
+            consumed = 1 + header;
+            if (off + consumed > end) {
+                throw new IOException("Truncated Huffman tree description");
+            }
+            numWeights = readCompressedWeights(bits, src, off + 1, off + consumed);
+        }
+        build(numWeights);
+        return consumed;
+    }
+
+    private void build(final int numWeights) throws IOException {
+        final int[] rankCount = rankStart;
+        Arrays.fill(rankCount, 0);
+        int total = 0;
+        for (int i = 0; i < numWeights; i++) {
+            final int w = weights[i];
+            if (w > MAX_TABLE_LOG) {
+                throw new IOException("Invalid Huffman weight " + w);
+            }
+            rankCount[w]++;
+            total += (1 << w) >> 1;
+        }
+        if (total == 0) {
+            throw new IOException("Huffman tree description doesn't contain any symbol");
+        }
+        final int log = 32 - Integer.numberOfLeadingZeros(total);
+        if (log > MAX_TABLE_LOG) {
+            throw new IOException("Huffman codes exceed " + MAX_TABLE_LOG + " bits");
+        }
+        // the weight of the last symbol is implied, it must complete the tree
+        final int rest = (1 << log) - total;
+        if (Integer.bitCount(rest) != 1) {
+            throw new IOException("Huffman tree description is incomplete");
+        }
+        final int lastWeight = 32 - Integer.numberOfLeadingZeros(rest);
+        weights[numWeights] = (byte) lastWeight;
+        rankCount[lastWeight]++;
+        if (rankCount[1] < 2 || (rankCount[1] & 1) != 0) {
+            throw new IOException("Invalid Huffman tree description");
+        }
+
+        int next = 0;
+        for (int w = 1; w <= log; w++) {
+            final int current = next;
+            next += rankCount[w] << (w - 1);
+            rankStart[w] = current;
+        }
+        for (int s = 0; s <= numWeights; s++) {
+            final int w = weights[s];
+            if (w == 0) {
+                continue;
+            }
+            final int length = 1 << (w - 1);
+            final int from = rankStart[w];
+            Arrays.fill(symbols, from, from + length, (byte) s);
+            Arrays.fill(lengths, from, from + length, (byte) (log + 1 - w));
+            rankStart[w] = from + length;
+        }
+        tableLog = log;
+    }
+
+    /**
+     * Decodes FSE compressed weights using two interleaved states.
+     *
+     * @return the number of weights decoded
+     */
+    private int readCompressedWeights(final BackwardBitReader bits, final byte[] src, final int off, final int end)
+        throws IOException {
+        if (weightTable == null) {
+            weightTable = new FseTable(WEIGHTS_MAX_ACCURACY_LOG);
+        }
+        final FseTable table = weightTable;
+        final int consumed = table.readTableDescription(src, off, end, MAX_SYMBOLS - 1);
+        bits.init(src, off + consumed, end);
+        final byte[] sym = table.symbols;
+        final byte[] nb = table.numBits;
+        final int[] base = table.baseStates;
+        int state1 = bits.readBits(table.accuracyLog);
+        int state2 = bits.readBits(table.accuracyLog);
+        int n = 0;
+        // the weight of the last symbol is implicit
+        final int max = MAX_SYMBOLS - 1;
+        while (true) {
+            if (n > max - 2) {
+                throw new IOException("Too many Huffman weights");
+            }
+            weights[n++] = sym[state1];
+            state1 = base[state1] + bits.readBits(nb[state1]);
+            if (bits.reload()) {
+                weights[n++] = sym[state2];
+                break;
+            }
+            weights[n++] = sym[state2];
+            state2 = base[state2] + bits.readBits(nb[state2]);
+            if (bits.reload()) {
+                weights[n++] = sym[state1];
+                break;
+            }
+        }
+        return n;
+    }
+}
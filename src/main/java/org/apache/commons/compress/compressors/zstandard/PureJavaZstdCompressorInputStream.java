@@ -0,0 +1,454 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.apache.commons.compress.MemoryLimitException;
+import org.apache.commons.compress.compressors.CompressorInputStream;
+import org.apache.commons.compress.utils.ByteUtils;
+import org.apache.commons.compress.utils.CountingInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.InputStreamStatistics;
+
+/**
+ * {@link CompressorInputStream} implementation to decode Zstandard
+ * encoded streams without any native code.
+ *
+ * <p>Unlike {@link ZstdCompressorInputStream} this class doesn't
+ * depend on <a href="https://github.com/luben/zstd-jni/">Zstandard
+ * JNI</a>. It decodes all frames of the stream, skips skippable
+ * frames and verifies content checksums if present.</p>
+ *
+ * <p>Frames that have been compressed using a dictionary can only be
+ * decoded if the same dictionary is passed to the constructor or can
+ * be found in a {@link ZstdDictionaryRegistry}. Both dictionaries
+ * created by {@code zstd --train} and raw content dictionaries are
+ * supported.</p>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc8878">RFC 8878</a>
+ * @NotThreadSafe
+ * @since 1.23
+ */
+public class PureJavaZstdCompressorInputStream extends CompressorInputStream
+    implements InputStreamStatistics {
+
+    static final int MAGIC = 0xFD2FB528;
+    private static final int SKIPPABLE_FRAME_MAGIC = 0x184D2A50;
+    private static final int SKIPPABLE_FRAME_MAGIC_MASK = 0xFFFFFFF0;
+
+    private static final int BLOCK_TYPE_RAW = 0;
+    private static final int BLOCK_TYPE_RLE = 1;
+    private static final int BLOCK_TYPE_COMPRESSED = 2;
+
+    private static final int MIN_WINDOW_LOG = 10;
+    private static final int INITIAL_WINDOW_CAPACITY = 1 << 18;
+    /** Leave some room for the VM's array header. */
+    private static final long MAX_WINDOW_CAPACITY = Integer.MAX_VALUE - 16;
+
+    private static final int[] DICTIONARY_ID_SIZES = {0, 1, 2, 4};
+
+    private final CountingInputStream in;
+    private final ZstdDictionary dictionary;
+    private final ZstdDictionaryRegistry dictionaries;
+    private final int memoryLimitInKb;
+    private final ZstdBlockDecoder decoder = new ZstdBlockDecoder();
+    private final XXHash64 contentHash = new XXHash64();
+    private final byte[] oneByte = new byte[1];
+    private final ByteUtils.ByteSupplier supplier = this::readOneByte;
+
+    private byte[] block;
+
+    /**
+     * Holds the history of the current frame - including the
+     * dictionary's content - starting at offset 0, followed by
+     * decoded data that has not been read, yet.
+     */
+    private byte[] window;
+    private int readPos;
+    private int writePos;
+    /** Number of bytes matches may refer to. */
+    private long keepLimit;
+    /** Maximum capacity the window may grow to for the current frame. */
+    private int maxCapacity;
+
+    private boolean inFrame;
+    private boolean lastBlock;
+    private boolean endReached;
+    private boolean expectContentChecksum;
+    private long contentSize;
+    private long frameDecodedBytes;
+    private int blockMaximumSize;
+
+    /**
+     * Creates a new input stream that decompresses the given stream
+     * without a dictionary and without a memory limit.
+     *
+     * @param in the InputStream from which to read the compressed data
+     */
+    public PureJavaZstdCompressorInputStream(final InputStream in) {
+        this(in, null, null, -1);
+    }
+
+    /**
+     * Creates a new input stream that decompresses the given stream
+     * using a dictionary and without a memory limit.
+     *
+     * @param in the InputStream from which to read the compressed data
+     * @param dictionary the dictionary, may be null
+     * @throws IOException if the dictionary is corrupt
+     */
+    public PureJavaZstdCompressorInputStream(final InputStream in, final byte[] dictionary) throws IOException {
+        this(in, dictionary, -1);
+    }
+
+    /**
+     * Creates a new input stream that decompresses the given stream
+     * using a dictionary.
+     *
+     * @param in the InputStream from which to read the compressed data
+     * @param dictionary the dictionary, may be null
+     * @param memoryLimitInKb maximum amount of memory the window of a
+     * frame may use in kilobytes, use -1 for no limit
+     * @throws IOException if the dictionary is corrupt
+     */
+    public PureJavaZstdCompressorInputStream(final InputStream in, final byte[] dictionary, final int memoryLimitInKb)
+        throws IOException {
+        this(in, dictionary == null ? null : ZstdDictionary.parse(dictionary.clone()), null, memoryLimitInKb);
+    }
+
+    /**
+     * Creates a new input stream that decompresses the given stream
+     * resolving the dictionary of each frame by its ID.
+     *
+     * @param in the InputStream from which to read the compressed data
+     * @param dictionaries the dictionaries frames may refer to
+     * @param memoryLimitInKb maximum amount of memory the window of a
+     * frame may use in kilobytes, use -1 for no limit
+     */
+    public PureJavaZstdCompressorInputStream(final InputStream in, final ZstdDictionaryRegistry dictionaries,
+        final int memoryLimitInKb) {
+        this(in, null, dictionaries, memoryLimitInKb);
+    }
+
+    private PureJavaZstdCompressorInputStream(final InputStream in, final ZstdDictionary dictionary,
+        final ZstdDictionaryRegistry dictionaries, final int memoryLimitInKb) {
+        this.in = new CountingInputStream(in);
+        this.dictionary = dictionary;
+        this.dictionaries = dictionaries;
+        this.memoryLimitInKb = memoryLimitInKb;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return writePos - readPos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Decodes the next block, starting a new frame if necessary.
+     *
+     * @return false if the end of the stream has been reached
+     */
+    private boolean decodeNextBlock() throws IOException {
+        if (endReached) {
+            return false;
+        }
+        if (!inFrame) {
+            if (!readFrameHeader()) {
+                endReached = true;
+                return false;
+            }
+            inFrame = true;
+        }
+        final int header = (int) ByteUtils.fromLittleEndian(supplier, 3);
+        lastBlock = (header & 1) != 0;
+        final int type = (header >>> 1) & 3;
+        final int size = header >>> 3;
+
+        final int start;
+        final int maxDecoded = (int) Math.min(blockMaximumSize,
+            contentSize < 0 ? Long.MAX_VALUE : contentSize - frameDecodedBytes);
+        switch (type) {
+        case BLOCK_TYPE_RAW:
+        case BLOCK_TYPE_RLE:
+            if (size > maxDecoded) {
+                throw new IOException("Block size " + size + " exceeds maximum of " + maxDecoded);
+            }
+            prepareWindow(size);
+            start = writePos;
+            if (type == BLOCK_TYPE_RAW) {
+                readFully(window, writePos, size);
+            } else {
+                final int b = readOneByte();
+                if (b == -1) {
+                    throw new IOException("Premature end of stream while reading block");
+                }
+                Arrays.fill(window, writePos, writePos + size, (byte) b);
+            }
+            writePos += size;
+            break;
+        case BLOCK_TYPE_COMPRESSED:
+            if (size > blockMaximumSize) {
+                throw new IOException("Block size " + size + " exceeds maximum of " + blockMaximumSize);
+            }
+            if (block == null) {
+                block = new byte[ZstdBlockDecoder.MAX_BLOCK_SIZE];
+            }
+            readFully(block, 0, size);
+            prepareWindow(maxDecoded);
+            start = writePos;
+            writePos = decoder.decodeBlock(block, 0, size, window, writePos, writePos + maxDecoded);
+            break;
+        default:
+            throw new IOException("Invalid block type " + type);
+        }
+        frameDecodedBytes += writePos - start;
+        if (expectContentChecksum) {
+            contentHash.update(window, start, writePos - start);
+        }
+        if (lastBlock) {
+            finishFrame();
+        }
+        return true;
+    }
+
+    private void finishFrame() throws IOException {
+        inFrame = false;
+        if (contentSize >= 0 && contentSize != frameDecodedBytes) {
+            throw new IOException("Frame content size mismatch, expected " + contentSize + " bytes but got "
+                + frameDecodedBytes);
+        }
+        if (expectContentChecksum) {
+            final int expected = (int) ByteUtils.fromLittleEndian(supplier, 4);
+            if (expected != (int) contentHash.getValue()) {
+                throw new IOException("Frame content checksum mismatch");
+            }
+        }
+    }
+
+    @Override
+    public long getCompressedCount() {
+        return in.getBytesRead();
+    }
+
+    /**
+     * Makes sure the window can hold the given number of bytes after
+     * {@link #writePos}, discarding history matches may no longer
+     * refer to if necessary.
+     */
+    private void prepareWindow(final int size) throws IOException {
+        if (window != null && writePos + size <= window.length) {
+            return;
+        }
+        final int keepFrom = (int) Math.max(0, writePos - keepLimit);
+        final int keep = writePos - keepFrom;
+        final int required = keep + size;
+        final int capacity = window == null ? 0 : window.length;
+        if (required > maxCapacity) {
+            throw new IOException("Frame content exceeds its window");
+        }
+        if (window == null || required > capacity) {
+            final int newCapacity = (int) Math.min(maxCapacity,
+                Math.max(required, Math.max(INITIAL_WINDOW_CAPACITY, 2L * capacity)));
+            final byte[] newWindow = new byte[newCapacity];
+            if (keep > 0) {
+                System.arraycopy(window, keepFrom, newWindow, 0, keep);
+            }
+            window = newWindow;
+        } else if (keep > 0 && keepFrom > 0) {
+            System.arraycopy(window, keepFrom, window, 0, keep);
+        }
+        readPos -= keepFrom;
+        writePos = keep;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(oneByte, 0, 1) == -1 ? -1 : oneByte[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (readPos == writePos) {
+            if (!decodeNextBlock()) {
+                return -1;
+            }
+        }
+        final int n = Math.min(len, writePos - readPos);
+        System.arraycopy(window, readPos, b, off, n);
+        readPos += n;
+        count(n);
+        return n;
+    }
+
+    private int readByteOrFail(final String what) throws IOException {
+        final int b = readOneByte();
+        if (b == -1) {
+            throw new IOException("Premature end of stream while reading " + what);
+        }
+        return b;
+    }
+
+    /**
+     * Reads the header of the next frame, skipping over skippable frames.
+     *
+     * @return false if the end of the stream has been reached before a frame started
+     */
+    private boolean readFrameHeader() throws IOException {
+        final byte[] magic = new byte[4];
+        int magicNumber;
+        while (true) {
+            final int read = IOUtils.readFully(in, magic);
+            if (read == 0) {
+                return false;
+            }
+            if (read != 4) {
+                throw new IOException("Premature end of stream while reading frame magic");
+            }
+            magicNumber = (int) ByteUtils.fromLittleEndian(magic);
+            if ((magicNumber & SKIPPABLE_FRAME_MAGIC_MASK) != SKIPPABLE_FRAME_MAGIC) {
+                break;
+            }
+            final long len = ByteUtils.fromLittleEndian(supplier, 4);
+            if (IOUtils.skip(in, len) != len) {
+                throw new IOException("Premature end of stream while skipping frame");
+            }
+        }
+        if (magicNumber != MAGIC) {
+            throw new IOException("Not a Zstandard frame");
+        }
+
+        final int descriptor = readByteOrFail("frame header");
+        final int contentSizeFlag = descriptor >>> 6;
+        final boolean singleSegment = (descriptor & 0x20) != 0;
+        if ((descriptor & 0x08) != 0) {
+            throw new IOException("Reserved bit of frame header descriptor is set");
+        }
+        expectContentChecksum = (descriptor & 0x04) != 0;
+
+        long windowSize = 0;
+        if (!singleSegment) {
+            final int windowDescriptor = readByteOrFail("frame header");
+            final long windowBase = 1L << (MIN_WINDOW_LOG + (windowDescriptor >>> 3));
+            windowSize = windowBase + (windowBase >>> 3) * (windowDescriptor & 7);
+        }
+        final int dictionaryIdSize = DICTIONARY_ID_SIZES[descriptor & 3];
+        final long dictionaryId = dictionaryIdSize == 0 ? 0 : ByteUtils.fromLittleEndian(supplier, dictionaryIdSize);
+        final int contentSizeSize = contentSizeFlag == 0 ? (singleSegment ? 1 : 0) : 1 << contentSizeFlag;
+        if (contentSizeSize == 0) {
+            contentSize = -1;
+        } else {
+            contentSize = ByteUtils.fromLittleEndian(supplier, contentSizeSize);
+            if (contentSizeSize == 2) {
+                contentSize += 256;
+            }
+            if (contentSize < 0) {
+                throw new IOException("Unsupported frame content size");
+            }
+        }
+        if (singleSegment) {
+            windowSize = contentSize;
+        }
+
+        ZstdDictionary frameDictionary = dictionary;
+        if (dictionaryId != 0) {
+            if (dictionaries != null) {
+                frameDictionary = dictionaries.getParsedDictionary(dictionaryId);
+            } else if (dictionary == null) {
+                throw new IOException("Frame requires dictionary " + dictionaryId);
+            } else if (dictionary.getId() != 0 && (dictionary.getId() & 0xFFFFFFFFL) != dictionaryId) {
+                throw new IOException("Frame requires dictionary " + dictionaryId + " but dictionary "
+                    + (dictionary.getId() & 0xFFFFFFFFL) + " has been provided");
+            }
+        }
+        startFrame(windowSize, frameDictionary);
+        return true;
+    }
+
+    private void readFully(final byte[] b, final int off, final int len) throws IOException {
+        final int read = IOUtils.readFully(in, b, off, len);
+        if (read != len) {
+            throw new IOException("Premature end of stream while reading block");
+        }
+    }
+
+    private int readOneByte() throws IOException {
+        return in.read();
+    }
+
+    /**
+     * Sets up window and decoder for a new frame.
+     */
+    private void startFrame(final long windowSize, final ZstdDictionary frameDictionary) throws IOException {
+        final int dictionaryLength = frameDictionary == null ? 0 : frameDictionary.getContentLength();
+        blockMaximumSize = (int) Math.min(windowSize, ZstdBlockDecoder.MAX_BLOCK_SIZE);
+        keepLimit = windowSize + dictionaryLength;
+        long capacity = keepLimit + Math.max(blockMaximumSize, windowSize / 2);
+        if (contentSize >= 0) {
+            capacity = Math.min(capacity, dictionaryLength + contentSize);
+        }
+        if (memoryLimitInKb >= 0 && capacity / 1024 > memoryLimitInKb) {
+            throw new MemoryLimitException(capacity / 1024, memoryLimitInKb);
+        }
+        if (capacity > MAX_WINDOW_CAPACITY) {
+            throw new IOException("Unsupported window size " + windowSize);
+        }
+        maxCapacity = (int) capacity;
+
+        readPos = writePos = 0;
+        if (window != null && window.length > maxCapacity) {
+            window = null;
+        }
+        if (dictionaryLength > 0) {
+            prepareWindow(dictionaryLength);
+            System.arraycopy(frameDictionary.getData(), frameDictionary.getContentOffset(), window, 0,
+                dictionaryLength);
+            readPos = writePos = dictionaryLength;
+        }
+        decoder.reset(frameDictionary);
+        contentHash.reset();
+        frameDecodedBytes = 0;
+        lastBlock = false;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (readPos == writePos && !decodeNextBlock()) {
+                break;
+            }
+            final int k = (int) Math.min(n - skipped, writePos - readPos);
+            readPos += k;
+            skipped += k;
+            count(k);
+        }
+        return skipped;
+    }
+}
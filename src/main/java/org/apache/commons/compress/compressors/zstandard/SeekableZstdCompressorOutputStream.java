@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.utils.CountingOutputStream;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * {@link CompressorOutputStream} implementation that creates archives
+ * in the Zstandard seekable format.
+ *
+ * <p>The data is split into independent frames of a fixed
+ * decompressed size and a seek table listing all frames is appended
+ * as a skippable frame. Any Zstandard decoder can decompress the
+ * result as a whole, {@link SeekableZstdDecompressingChannel} uses the
+ * seek table to provide random access.</p>
+ *
+ * <p>Smaller frames make random access cheaper but reduce the
+ * compression ratio as matches cannot cross frame boundaries.</p>
+ *
+ * <p>Library relies on <a href="https://github.com/luben/zstd-jni/">Zstandard JNI</a>.</p>
+ *
+ * @see <a href="https://github.com/facebook/zstd/blob/dev/contrib/seekable_format/zstd_seekable_compression_format.md">Zstandard
+ * Seekable Format</a>
+ * @NotThreadSafe
+ * @since 1.23
+ */
+public class SeekableZstdCompressorOutputStream extends CompressorOutputStream {
+
+    /** The default decompressed size of a frame. */
+    public static final int DEFAULT_FRAME_SIZE = 1 << 20;
+
+    private final CountingOutputStream countingStream;
+    private final ZstdOutputStream encOS;
+    private final int frameSize;
+    private final ZstdSeekTable seekTable;
+    private final XXHash64 checksum;
+    private final byte[] oneByte = new byte[1];
+
+    private int frameBytes;
+    private long frameStart;
+    private boolean finished;
+
+    /**
+     * Wraps the given stream using zstd-jni's default level, frames of
+     * {@value #DEFAULT_FRAME_SIZE} bytes and checksums.
+     *
+     * @param outStream the stream to write to
+     * @throws IOException if zstd-jni does
+     */
+    public SeekableZstdCompressorOutputStream(final OutputStream outStream) throws IOException {
+        this(outStream, Zstd.defaultCompressionLevel(), DEFAULT_FRAME_SIZE, true);
+    }
+
+    /**
+     * Wraps the given stream.
+     *
+     * @param outStream the stream to write to
+     * @param level value for zstd-jni's level argument
+     * @param frameSize the decompressed size of each frame but the last one
+     * @param useChecksum whether frames and the seek table contain checksums
+     * @throws IOException if zstd-jni does
+     * @throws IllegalArgumentException if frameSize is not positive or bigger than 1 GiB
+     */
+    public SeekableZstdCompressorOutputStream(final OutputStream outStream, final int level, final int frameSize,
+        final boolean useChecksum) throws IOException {
+        if (frameSize <= 0 || frameSize > ZstdSeekTable.MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("frameSize must be between 1 and " + ZstdSeekTable.MAX_FRAME_SIZE);
+        }
+        this.frameSize = frameSize;
+        this.countingStream = new CountingOutputStream(outStream);
+        this.encOS = new ZstdOutputStream(countingStream, level);
+        this.encOS.setCloseFrameOnFlush(true);
+        this.encOS.setChecksum(useChecksum);
+        this.seekTable = new ZstdSeekTable(useChecksum, 16);
+        this.checksum = useChecksum ? new XXHash64() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            encOS.close();
+        }
+    }
+
+    /**
+     * Ends the current frame, if any, and writes the seek table.
+     *
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            endFrame();
+            seekTable.writeTo(countingStream);
+            finished = true;
+        }
+    }
+
+    private void endFrame() throws IOException {
+        if (frameBytes == 0) {
+            return;
+        }
+        // zstd-jni ends the frame when flushing
+        encOS.flush();
+        final long frameEnd = countingStream.getBytesWritten();
+        if (frameEnd - frameStart > ZstdSeekTable.MAX_COMPRESSED_FRAME_SIZE) {
+            throw new IOException("Compressed frame of " + (frameEnd - frameStart) + " bytes exceeds the maximum of "
+                + ZstdSeekTable.MAX_COMPRESSED_FRAME_SIZE);
+        }
+        seekTable.add(frameEnd - frameStart, frameBytes, checksum == null ? 0 : (int) checksum.getValue());
+        frameStart = frameEnd;
+        frameBytes = 0;
+        if (checksum != null) {
+            checksum.reset();
+        }
+    }
+
+    /**
+     * Ends the current frame and flushes the underlying stream.
+     *
+     * <p>Flushing frequently creates small frames.</p>
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        endFrame();
+        countingStream.flush();
+    }
+
+    @Override
+    public String toString() {
+        return encOS.toString();
+    }
+
+    @Override
+    public void write(final byte[] buf, final int off, final int len) throws IOException {
+        if (finished) {
+            throw new IOException("Stream has already been finished");
+        }
+        int pos = off;
+        final int end = off + len;
+        while (pos < end) {
+            final int n = Math.min(end - pos, frameSize - frameBytes);
+            encOS.write(buf, pos, n);
+            if (checksum != null) {
+                checksum.update(buf, pos, n);
+            }
+            frameBytes += n;
+            pos += n;
+            if (frameBytes == frameSize) {
+                endFrame();
+            }
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        oneByte[0] = (byte) b;
+        write(oneByte, 0, 1);
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.compress.utils.IOUtils;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+
+/**
+ * A read-only {@link SeekableByteChannel} providing random access to
+ * the decompressed content of an archive in the Zstandard seekable
+ * format.
+ *
+ * <p>The seek table at the end of the archive is used to locate the
+ * frame holding a given position, only this frame gets read and
+ * decompressed. The most recently used frame is kept in memory.</p>
+ *
+ * <p>When an {@link Executor} is given, the frames following the one
+ * currently read are decompressed in parallel, which speeds up
+ * sequential reads of big archives. The compressed data is always
+ * read by the thread using this channel.</p>
+ *
+ * <p>Zstandard JNI is used for decompression if it is available,
+ * {@link PureJavaZstdCompressorInputStream} otherwise.</p>
+ *
+ * @see SeekableZstdCompressorOutputStream
+ * @NotThreadSafe
+ * @since 1.23
+ */
+public class SeekableZstdDecompressingChannel implements SeekableByteChannel {
+
+    private final SeekableByteChannel channel;
+    private final ZstdSeekTable seekTable;
+    private final Executor executor;
+    private final int parallelism;
+    private final Map<Integer, FutureTask<byte[]>> pending = new HashMap<>();
+
+    private int currentFrame = -1;
+    private byte[] current;
+    private long position;
+    private boolean closed;
+
+    /**
+     * Creates a channel decompressing frames on the calling thread.
+     *
+     * @param channel the channel holding the seekable archive
+     * @throws IOException if the seek table cannot be read
+     */
+    public SeekableZstdDecompressingChannel(final SeekableByteChannel channel) throws IOException {
+        this(channel, null, 1);
+    }
+
+    /**
+     * Creates a channel decompressing up to {@code parallelism} frames
+     * at a time using the given executor.
+     *
+     * @param channel the channel holding the seekable archive
+     * @param executor the executor to decompress frames, if {@code null}
+     * frames are decompressed on the calling thread
+     * @param parallelism the number of frames to decompress in
+     * parallel, this many decompressed frames may be held in memory
+     * @throws IOException if the seek table cannot be read
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public SeekableZstdDecompressingChannel(final SeekableByteChannel channel, final Executor executor,
+        final int parallelism) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.channel = channel;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.seekTable = ZstdSeekTable.read(channel);
+    }
+
+    private static byte[] decompress(final byte[] compressed, final int size) throws IOException {
+        final byte[] data = new byte[size];
+        if (ZstdUtils.isZstdCompressionAvailable()) {
+            final long n;
+            try {
+                n = Zstd.decompressByteArray(data, 0, size, compressed, 0, compressed.length);
+            } catch (final ZstdException e) {
+                throw new IOException(e.getMessage(), e);
+            } catch (final LinkageError e) { // NOSONAR
+                // the native library cannot be loaded, use the pure Java decoder
+                return decompressPureJava(compressed, data);
+            }
+            if (n != size) {
+                throw new IOException("Frame size doesn't match seek table");
+            }
+            return data;
+        }
+        return decompressPureJava(compressed, data);
+    }
+
+    private static byte[] decompressPureJava(final byte[] compressed, final byte[] data) throws IOException {
+        try (InputStream in = new PureJavaZstdCompressorInputStream(new ByteArrayInputStream(compressed))) {
+            if (IOUtils.readFully(in, data) != data.length || in.read() != -1) {
+                throw new IOException("Frame size doesn't match seek table");
+            }
+        }
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            pending.values().forEach(f -> f.cancel(true));
+            pending.clear();
+            current = null;
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Gets the number of frames of the archive.
+     *
+     * @return the number of frames
+     */
+    public int getFrameCount() {
+        return seekTable.getFrameCount();
+    }
+
+    /**
+     * Provides the decompressed content of a frame.
+     */
+    private byte[] getFrame(final int frame) throws IOException {
+        if (frame == currentFrame) {
+            return current;
+        }
+        final byte[] data;
+        if (executor == null) {
+            data = readFrame(frame);
+        } else {
+            final int end = Math.min(frame + parallelism, seekTable.getFrameCount());
+            pending.entrySet().removeIf(e -> {
+                final boolean stale = e.getKey() < frame || e.getKey() >= end;
+                if (stale) {
+                    e.getValue().cancel(true);
+                }
+                return stale;
+            });
+            for (int i = frame; i < end; i++) {
+                if (!pending.containsKey(i)) {
+                    final byte[] compressed = readCompressedFrame(i);
+                    final int index = i;
+                    final FutureTask<byte[]> task = new FutureTask<>(() -> verify(index,
+                        decompress(compressed, Math.toIntExact(seekTable.getDecompressedSize(index)))));
+                    pending.put(i, task);
+                    executor.execute(task);
+                }
+            }
+            try {
+                data = pending.remove(frame).get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while decompressing frame " + frame);
+            } catch (final ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException("Failed to decompress frame " + frame, cause);
+            }
+        }
+        current = data;
+        currentFrame = frame;
+        return data;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must not be negative");
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        ensureOpen();
+        final long size = size();
+        if (position >= size) {
+            return -1;
+        }
+        int total = 0;
+        while (dst.hasRemaining() && position < size) {
+            final int frame = seekTable.findFrame(position);
+            final byte[] data = getFrame(frame);
+            final int offset = (int) (position - seekTable.getDecompressedOffset(frame));
+            final int n = Math.min(dst.remaining(), data.length - offset);
+            dst.put(data, offset, n);
+            position += n;
+            total += n;
+        }
+        return total;
+    }
+
+    private byte[] readCompressedFrame(final int frame) throws IOException {
+        channel.position(seekTable.getCompressedOffset(frame));
+        return IOUtils.readRange(channel, Math.toIntExact(seekTable.getCompressedSize(frame)));
+    }
+
+    private byte[] readFrame(final int frame) throws IOException {
+        final int size = Math.toIntExact(seekTable.getDecompressedSize(frame));
+        return verify(frame, decompress(readCompressedFrame(frame), size));
+    }
+
+    /**
+     * Returns the size of the decompressed content.
+     */
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return seekTable.getDecompressedOffset(seekTable.getFrameCount());
+    }
+
+    /**
+     * Throws a {@link NonWritableChannelException} as this channel is read-only.
+     */
+    @Override
+    public SeekableByteChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    private byte[] verify(final int frame, final byte[] data) throws IOException {
+        if (seekTable.hasChecksums()) {
+            final XXHash64 checksum = new XXHash64();
+            checksum.update(data, 0, data.length);
+            if ((int) checksum.getValue() != seekTable.getChecksum(frame)) {
+                throw new IOException("Checksum mismatch in frame " + frame);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Throws a {@link NonWritableChannelException} as this channel is read-only.
+     */
+    @Override
+    public int write(final ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import static java.lang.Long.rotateLeft;
+
+import java.util.zip.Checksum;
+
+/**
+ * Implementation of the xxhash64 hash algorithm used for the content
+ * checksum of Zstandard frames.
+ *
+ * @see <a href="https://cyan4973.github.io/xxHash/">xxHash</a>
+ * @NotThreadSafe
+ * @since 1.23
+ */
+final class XXHash64 implements Checksum {
+
+    private static final int BUF_SIZE = 32;
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private static int getInt(final byte[] buffer, final int idx) {
+        return (buffer[idx] & 0xff)
+            | (buffer[idx + 1] & 0xff) << 8
+            | (buffer[idx + 2] & 0xff) << 16
+            | (buffer[idx + 3] & 0xff) << 24;
+    }
+
+    private static long getLong(final byte[] buffer, final int idx) {
+        return (getInt(buffer, idx) & 0xffffffffL) | (long) getInt(buffer, idx + 4) << 32;
+    }
+
+    private static long mergeRound(final long hash, final long value) {
+        return (hash ^ round(0, value)) * PRIME1 + PRIME4;
+    }
+
+    private static long round(final long acc, final long input) {
+        return rotateLeft(acc + input * PRIME2, 31) * PRIME1;
+    }
+
+    private final byte[] oneByte = new byte[1];
+    private final long[] state = new long[4];
+    private final byte[] buffer = new byte[BUF_SIZE];
+
+    private final long seed;
+    private long totalLen;
+
+    private int pos;
+
+    /**
+     * Creates an XXHash64 instance with a seed of 0.
+     */
+    XXHash64() {
+        this(0);
+    }
+
+    /**
+     * Creates an XXHash64 instance.
+     * @param seed the seed to use
+     */
+    XXHash64(final long seed) {
+        this.seed = seed;
+        initializeState();
+    }
+
+    /**
+     * Returns the full 64 bit hash.
+     *
+     * <p>Unlike the {@link Checksum} contract suggests the returned
+     * value may be negative.</p>
+     */
+    @Override
+    public long getValue() {
+        long hash;
+        if (totalLen >= BUF_SIZE) {
+            hash = rotateLeft(state[0], 1) + rotateLeft(state[1], 7)
+                + rotateLeft(state[2], 12) + rotateLeft(state[3], 18);
+            hash = mergeRound(hash, state[0]);
+            hash = mergeRound(hash, state[1]);
+            hash = mergeRound(hash, state[2]);
+            hash = mergeRound(hash, state[3]);
+        } else {
+            hash = state[2] + PRIME5;
+        }
+        hash += totalLen;
+
+        int idx = 0;
+        for (; idx <= pos - 8; idx += 8) {
+            hash ^= round(0, getLong(buffer, idx));
+            hash = rotateLeft(hash, 27) * PRIME1 + PRIME4;
+        }
+        if (idx <= pos - 4) {
+            hash ^= (getInt(buffer, idx) & 0xffffffffL) * PRIME1;
+            hash = rotateLeft(hash, 23) * PRIME2 + PRIME3;
+            idx += 4;
+        }
+        while (idx < pos) {
+            hash ^= (buffer[idx++] & 0xff) * PRIME5;
+            hash = rotateLeft(hash, 11) * PRIME1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private void initializeState() {
+        state[0] = seed + PRIME1 + PRIME2;
+        state[1] = seed + PRIME2;
+        state[2] = seed;
+        state[3] = seed - PRIME1;
+    }
+
+    @Override
+    public void reset() {
+        initializeState();
+        totalLen = 0;
+        pos = 0;
+    }
+
+    @Override
+    public void update(final byte[] b, int off, final int len) {
+        if (len <= 0) {
+            return;
+        }
+        totalLen += len;
+
+        final int end = off + len;
+
+        if (pos + len < BUF_SIZE) {
+            System.arraycopy(b, off, buffer, pos, len);
+            pos += len;
+            return;
+        }
+
+        if (pos > 0) {
+            final int size = BUF_SIZE - pos;
+            System.arraycopy(b, off, buffer, pos, size);
+            process(buffer, 0, BUF_SIZE);
+            off += size;
+            pos = 0;
+        }
+
+        off = process(b, off, end);
+
+        if (off < end) {
+            pos = end - off;
+            System.arraycopy(b, off, buffer, 0, pos);
+        }
+    }
+
+    @Override
+    public void update(final int b) {
+        oneByte[0] = (byte) (b & 0xff);
+        update(oneByte, 0, 1);
+    }
+
+    /**
+     * Processes all complete stripes between off and end.
+     *
+     * @return the offset of the first byte that has not been processed
+     */
+    private int process(final byte[] b, int off, final int end) {
+        final int limit = end - BUF_SIZE;
+        if (off <= limit) {
+            long s0 = state[0];
+            long s1 = state[1];
+            long s2 = state[2];
+            long s3 = state[3];
+            do {
+                s0 = round(s0, getLong(b, off));
+                s1 = round(s1, getLong(b, off + 8));
+                s2 = round(s2, getLong(b, off + 16));
+                s3 = round(s3, getLong(b, off + 24));
+                off += BUF_SIZE;
+            } while (off <= limit);
+            state[0] = s0;
+            state[1] = s1;
+            state[2] = s2;
+            state[3] = s3;
+        }
+        return off;
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Decodes the content of compressed Zstandard blocks.
+ *
+ * <p>Holds the state that is carried from one block of a frame to
+ * the next - the Huffman table for literals, the FSE tables for
+ * sequences and the repeat offsets.</p>
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc8878">RFC 8878</a>
+ * @NotThreadSafe
+ * @since 1.23
+ */
+final class ZstdBlockDecoder {
+
+    /** Maximum size of the decompressed content of a block. */
+    static final int MAX_BLOCK_SIZE = 128 * 1024;
+
+    static final int LITERAL_LENGTH_MAX_ACCURACY_LOG = 9;
+    static final int MATCH_LENGTH_MAX_ACCURACY_LOG = 9;
+    static final int OFFSET_MAX_ACCURACY_LOG = 8;
+    static final int MAX_LITERAL_LENGTH_CODE = 35;
+    static final int MAX_MATCH_LENGTH_CODE = 52;
+    static final int MAX_OFFSET_CODE = 31;
+
+    private static final int LITERALS_RAW = 0;
+    private static final int LITERALS_RLE = 1;
+    private static final int LITERALS_COMPRESSED = 2;
+
+    private static final int MODE_PREDEFINED = 0;
+    private static final int MODE_RLE = 1;
+    private static final int MODE_FSE_COMPRESSED = 2;
+
+    private static final int LITERAL_LENGTH = 0;
+    private static final int OFFSET = 1;
+    private static final int MATCH_LENGTH = 2;
+
+    private static final int[] LITERAL_LENGTH_BASE = {
+        0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+        16, 18, 20, 22, 24, 28, 32, 40, 48, 64, 128, 256, 512, 1024, 2048, 4096,
+        8192, 16384, 32768, 65536
+    };
+    private static final int[] LITERAL_LENGTH_BITS = {
+        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+        1, 1, 1, 1, 2, 2, 3, 3, 4, 6, 7, 8, 9, 10, 11, 12,
+        13, 14, 15, 16
+    };
+    private static final int[] MATCH_LENGTH_BASE = {
+        3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18,
+        19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34,
+        35, 37, 39, 41, 43, 47, 51, 59, 67, 83, 99, 131, 259, 515, 1027, 2051,
+        4099, 8195, 16387, 32771, 65539
+    };
+    private static final int[] MATCH_LENGTH_BITS = {
+        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+        1, 1, 1, 1, 2, 2, 3, 3, 4, 4, 5, 7, 8, 9, 10, 11,
+        12, 13, 14, 15, 16
+    };
+
+    private static final short[] LITERAL_LENGTH_DEFAULT_COUNTS = {
+        4, 3, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 1, 1, 1,
+        2, 2, 2, 2, 2, 2, 2, 2, 2, 3, 2, 1, 1, 1, 1, 1,
+        -1, -1, -1, -1
+    };
+    private static final short[] MATCH_LENGTH_DEFAULT_COUNTS = {
+        1, 4, 3, 2, 2, 2, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1,
+        1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+        1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, -1, -1,
+        -1, -1, -1, -1, -1
+    };
+    private static final short[] OFFSET_DEFAULT_COUNTS = {
+        1, 1, 1, 1, 1, 1, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1,
+        1, 1, 1, 1, 1, 1, 1, 1, -1, -1, -1, -1, -1
+    };
+
+    private static final int[] MAX_ACCURACY_LOGS = {
+        LITERAL_LENGTH_MAX_ACCURACY_LOG, OFFSET_MAX_ACCURACY_LOG, MATCH_LENGTH_MAX_ACCURACY_LOG
+    };
+    private static final int[] MAX_CODES = {
+        MAX_LITERAL_LENGTH_CODE, MAX_OFFSET_CODE, MAX_MATCH_LENGTH_CODE
+    };
+    private static final String[] TABLE_NAMES = {
+        "literal length", "offset", "match length"
+    };
+    private static final FseTable[] DEFAULT_TABLES = {
+        defaultTable(LITERAL_LENGTH_DEFAULT_COUNTS, 6),
+        defaultTable(OFFSET_DEFAULT_COUNTS, 5),
+        defaultTable(MATCH_LENGTH_DEFAULT_COUNTS, 6)
+    };
+
+    private static void checkAvailable(final int pos, final int count, final int end) throws IOException {
+        if (pos + count > end) {
+            throw new IOException("Truncated compressed block");
+        }
+    }
+
+    /**
+     * Copies a match that may overlap with the bytes it produces.
+     */
+    private static void copyMatch(final byte[] buf, final int writeIndex, final int offset, final int length) {
+        final int readIndex = writeIndex - offset;
+        if (offset >= length) {
+            System.arraycopy(buf, readIndex, buf, writeIndex, length);
+        } else if (offset == 1) {
+            Arrays.fill(buf, writeIndex, writeIndex + length, buf[readIndex]);
+        } else {
+            // the pattern doubles with every copy
+            int copied = 0;
+            while (copied < length) {
+                final int n = Math.min(length - copied, offset + copied);
+                System.arraycopy(buf, readIndex, buf, writeIndex + copied, n);
+                copied += n;
+            }
+        }
+    }
+
+    private static FseTable defaultTable(final short[] counts, final int log) {
+        final FseTable table = new FseTable(log);
+        try {
+            table.build(counts, counts.length - 1, log);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return table;
+    }
+
+    private final BackwardBitReader bits = new BackwardBitReader();
+    private final HuffmanTable huffmanTable = new HuffmanTable();
+    private boolean hasHuffmanTable;
+    private final FseTable[] ownTables = {
+        new FseTable(LITERAL_LENGTH_MAX_ACCURACY_LOG),
+        new FseTable(OFFSET_MAX_ACCURACY_LOG),
+        new FseTable(MATCH_LENGTH_MAX_ACCURACY_LOG)
+    };
+    /** Tables used by the previous block, null before the first FSE compressed block. */
+    private final FseTable[] currentTables = new FseTable[3];
+    private final int[] repeatOffsets = new int[3];
+
+    private final byte[] literalsBuffer = new byte[MAX_BLOCK_SIZE];
+    private byte[] literals;
+    private int literalsStart;
+    private int literalsEnd;
+
+    /**
+     * Decodes a compressed block.
+     *
+     * @param src buffer holding the block's content
+     * @param off offset of the block's content
+     * @param len length of the block's content
+     * @param out buffer to write the decompressed content to, matches may refer to everything before outPos
+     * @param outPos offset inside of out to write the content to
+     * @param outLimit offset inside of out the content must not exceed
+     * @return the offset inside of out following the decompressed content
+     * @throws IOException if the block is corrupt
+     */
+    int decodeBlock(final byte[] src, final int off, final int len, final byte[] out, int outPos,
+        final int outLimit) throws IOException {
+        final int end = off + len;
+        int pos = decodeLiterals(src, off, end);
+        if (pos >= end) {
+            throw new IOException("Compressed block lacks a sequences section");
+        }
+        final int b0 = src[pos++] & 0xff;
+        final int numSequences;
+        if (b0 < 128) {
+            numSequences = b0;
+        } else if (b0 < 255) {
+            checkAvailable(pos, 1, end);
+            numSequences = ((b0 - 128) << 8) + (src[pos++] & 0xff);
+        } else {
+            checkAvailable(pos, 2, end);
+            numSequences = (src[pos] & 0xff) + ((src[pos + 1] & 0xff) << 8) + 0x7F00;
+            pos += 2;
+        }
+        if (numSequences == 0) {
+            if (pos != end) {
+                throw new IOException("Unexpected data after sequences section header");
+            }
+        } else {
+            checkAvailable(pos, 1, end);
+            final int modes = src[pos++] & 0xff;
+            if ((modes & 3) != 0) {
+                throw new IOException("Reserved bits of symbol compression modes are set");
+            }
+            pos = selectTable(LITERAL_LENGTH, modes >>> 6, src, pos, end);
+            pos = selectTable(OFFSET, (modes >>> 4) & 3, src, pos, end);
+            pos = selectTable(MATCH_LENGTH, (modes >>> 2) & 3, src, pos, end);
+            outPos = executeSequences(numSequences, src, pos, end, out, outPos, outLimit);
+        }
+        final int remaining = literalsEnd - literalsStart;
+        if (remaining > outLimit - outPos) {
+            throw new IOException("Block content exceeds the maximum block size");
+        }
+        System.arraycopy(literals, literalsStart, out, outPos, remaining);
+        return outPos + remaining;
+    }
+
+    private int decodeLiterals(final byte[] src, final int off, final int end) throws IOException {
+        checkAvailable(off, 1, end);
+        final int b0 = src[off] & 0xff;
+        final int type = b0 & 3;
+        final int sizeFormat = (b0 >>> 2) & 3;
+        if (type == LITERALS_RAW || type == LITERALS_RLE) {
+            final int headerSize;
+            final int size;
+            switch (sizeFormat) {
+            case 1:
+                checkAvailable(off, 2, end);
+                headerSize = 2;
+                size = (b0 >>> 4) + ((src[off + 1] & 0xff) << 4);
+                break;
+            case 3:
+                checkAvailable(off, 3, end);
+                headerSize = 3;
+                size = (b0 >>> 4) + ((src[off + 1] & 0xff) << 4) + ((src[off + 2] & 0xff) << 12);
+                break;
+            default:
+                headerSize = 1;
+                size = b0 >>> 3;
+                break;
+            }
+            if (size > MAX_BLOCK_SIZE) {
+                throw new IOException("Literals exceed the maximum block size");
+            }
+            final int pos = off + headerSize;
+            if (type == LITERALS_RAW) {
+                checkAvailable(pos, size, end);
+                literals = src;
+                literalsStart = pos;
+                literalsEnd = pos + size;
+                return pos + size;
+            }
+            checkAvailable(pos, 1, end);
+            Arrays.fill(literalsBuffer, 0, size, src[pos]);
+            setBufferedLiterals(size);
+            return pos + 1;
+        }
+
+        final int headerSize;
+        final int size;
+        final int compressedSize;
+        switch (sizeFormat) {
+        case 2:
+            checkAvailable(off, 4, end);
+            headerSize = 4;
+            final int h4 = b0 | (src[off + 1] & 0xff) << 8 | (src[off + 2] & 0xff) << 16 | (src[off + 3] & 0xff) << 24;
+            size = (h4 >>> 4) & 0x3FFF;
+            compressedSize = (h4 >>> 18) & 0x3FFF;
+            break;
+        case 3:
+            checkAvailable(off, 5, end);
+            headerSize = 5;
+            final long h5 = b0 | (src[off + 1] & 0xffL) << 8 | (src[off + 2] & 0xffL) << 16
+                | (src[off + 3] & 0xffL) << 24 | (src[off + 4] & 0xffL) << 32;
+            size = (int) ((h5 >>> 4) & 0x3FFFF);
+            compressedSize = (int) ((h5 >>> 22) & 0x3FFFF);
+            break;
+        default:
+            checkAvailable(off, 3, end);
+            headerSize = 3;
+            final int h3 = b0 | (src[off + 1] & 0xff) << 8 | (src[off + 2] & 0xff) << 16;
+            size = (h3 >>> 4) & 0x3FF;
+            compressedSize = (h3 >>> 14) & 0x3FF;
+            break;
+        }
+        if (size > MAX_BLOCK_SIZE) {
+            throw new IOException("Literals exceed the maximum block size");
+        }
+        int pos = off + headerSize;
+        checkAvailable(pos, compressedSize, end);
+        final int streamsEnd = pos + compressedSize;
+        if (type == LITERALS_COMPRESSED) {
+            pos += huffmanTable.readTableDescription(bits, src, pos, streamsEnd);
+            hasHuffmanTable = true;
+        } else if (!hasHuffmanTable) {
+            throw new IOException("Treeless literals block without a previous Huffman table");
+        }
+        if (sizeFormat == 0) {
+            huffmanTable.decodeStream(bits, src, pos, streamsEnd, literalsBuffer, 0, size);
+        } else {
+            decodeFourStreams(src, pos, streamsEnd, size);
+        }
+        setBufferedLiterals(size);
+        return streamsEnd;
+    }
+
+    private void decodeFourStreams(final byte[] src, final int off, final int end, final int size)
+        throws IOException {
+        checkAvailable(off, 6, end);
+        final int size1 = (src[off] & 0xff) | (src[off + 1] & 0xff) << 8;
+        final int size2 = (src[off + 2] & 0xff) | (src[off + 3] & 0xff) << 8;
+        final int size3 = (src[off + 4] & 0xff) | (src[off + 5] & 0xff) << 8;
+        final int start1 = off + 6;
+        final int start2 = start1 + size1;
+        final int start3 = start2 + size2;
+        final int start4 = start3 + size3;
+        final int segment = (size + 3) / 4;
+        final int lastSegment = size - 3 * segment;
+        if (start4 >= end || lastSegment < 0) {
+            throw new IOException("Invalid jump table of Huffman coded literals");
+        }
+        huffmanTable.decodeStream(bits, src, start1, start2, literalsBuffer, 0, segment);
+        huffmanTable.decodeStream(bits, src, start2, start3, literalsBuffer, segment, segment);
+        huffmanTable.decodeStream(bits, src, start3, start4, literalsBuffer, 2 * segment, segment);
+        huffmanTable.decodeStream(bits, src, start4, end, literalsBuffer, 3 * segment, lastSegment);
+    }
+
+    private int executeSequences(final int numSequences, final byte[] src, final int off, final int end,
+        final byte[] out, int outPos, final int outLimit) throws IOException {
+        final FseTable llTable = currentTables[LITERAL_LENGTH];
+        final FseTable ofTable = currentTables[OFFSET];
+        final FseTable mlTable = currentTables[MATCH_LENGTH];
+        final byte[] llSymbols = llTable.symbols;
+        final byte[] llBits = llTable.numBits;
+        final int[] llBase = llTable.baseStates;
+        final byte[] ofSymbols = ofTable.symbols;
+        final byte[] ofBits = ofTable.numBits;
+        final int[] ofBase = ofTable.baseStates;
+        final byte[] mlSymbols = mlTable.symbols;
+        final byte[] mlBits = mlTable.numBits;
+        final int[] mlBase = mlTable.baseStates;
+        final byte[] lit = literals;
+        int litPos = literalsStart;
+        final int litEnd = literalsEnd;
+        int rep0 = repeatOffsets[0];
+        int rep1 = repeatOffsets[1];
+        int rep2 = repeatOffsets[2];
+
+        final BackwardBitReader reader = bits;
+        reader.init(src, off, end);
+        int llState = reader.readBits(llTable.accuracyLog);
+        int ofState = reader.readBits(ofTable.accuracyLog);
+        int mlState = reader.readBits(mlTable.accuracyLog);
+
+        for (int n = numSequences; n > 0; n--) {
+            reader.reload();
+            final int llCode = llSymbols[llState];
+            final int ofCode = ofSymbols[ofState];
+            final int mlCode = mlSymbols[mlState];
+            if (ofCode > 30) {
+                throw new IOException("Unsupported offset code " + ofCode);
+            }
+            // offset and match length need at most 46 bits
+            final int offsetValue = (1 << ofCode) + reader.readBits(ofCode);
+            final int matchLength = MATCH_LENGTH_BASE[mlCode] + reader.readBits(MATCH_LENGTH_BITS[mlCode]);
+            reader.reload();
+            final int literalLength = LITERAL_LENGTH_BASE[llCode] + reader.readBits(LITERAL_LENGTH_BITS[llCode]);
+
+            final int offset;
+            if (offsetValue > 3) {
+                offset = offsetValue - 3;
+                rep2 = rep1;
+                rep1 = rep0;
+                rep0 = offset;
+            } else {
+                final int idx = literalLength == 0 ? offsetValue : offsetValue - 1;
+                if (idx == 0) {
+                    offset = rep0;
+                } else {
+                    offset = idx == 1 ? rep1 : idx == 2 ? rep2 : rep0 - 1;
+                    if (offset == 0) {
+                        throw new IOException("Invalid repeat offset");
+                    }
+                    if (idx != 1) {
+                        rep2 = rep1;
+                    }
+                    rep1 = rep0;
+                    rep0 = offset;
+                }
+            }
+
+            if (n > 1) {
+                llState = llBase[llState] + reader.readBits(llBits[llState]);
+                mlState = mlBase[mlState] + reader.readBits(mlBits[mlState]);
+                ofState = ofBase[ofState] + reader.readBits(ofBits[ofState]);
+            }
+
+            if (literalLength > litEnd - litPos) {
+                throw new IOException("Sequence uses more literals than available");
+            }
+            if (literalLength + matchLength > outLimit - outPos) {
+                throw new IOException("Block content exceeds the maximum block size");
+            }
+            System.arraycopy(lit, litPos, out, outPos, literalLength);
+            litPos += literalLength;
+            outPos += literalLength;
+            if (offset > outPos) {
+                throw new IOException("Match offset " + offset + " points before the start of the window");
+            }
+            copyMatch(out, outPos, offset, matchLength);
+            outPos += matchLength;
+        }
+        reader.reload();
+        if (!reader.isFullyConsumed()) {
+            throw new IOException("Sequences bit stream is corrupt");
+        }
+        literalsStart = litPos;
+        repeatOffsets[0] = rep0;
+        repeatOffsets[1] = rep1;
+        repeatOffsets[2] = rep2;
+        return outPos;
+    }
+
+    /**
+     * Prepares the decoder for a new frame.
+     *
+     * @param dictionary the dictionary used by the frame, may be null
+     */
+    void reset(final ZstdDictionary dictionary) {
+        if (dictionary != null && dictionary.hasEntropyTables()) {
+            huffmanTable.copyFrom(dictionary.getHuffmanTable());
+            hasHuffmanTable = true;
+            ownTables[LITERAL_LENGTH].copyFrom(dictionary.getLiteralLengthTable());
+            ownTables[OFFSET].copyFrom(dictionary.getOffsetTable());
+            ownTables[MATCH_LENGTH].copyFrom(dictionary.getMatchLengthTable());
+            System.arraycopy(ownTables, 0, currentTables, 0, currentTables.length);
+            System.arraycopy(dictionary.getRepeatOffsets(), 0, repeatOffsets, 0, repeatOffsets.length);
+        } else {
+            hasHuffmanTable = false;
+            Arrays.fill(currentTables, null);
+            repeatOffsets[0] = 1;
+            repeatOffsets[1] = 4;
+            repeatOffsets[2] = 8;
+        }
+    }
+
+    private int selectTable(final int kind, final int mode, final byte[] src, final int off, final int end)
+        throws IOException {
+        switch (mode) {
+        case MODE_PREDEFINED:
+            currentTables[kind] = DEFAULT_TABLES[kind];
+            return off;
+        case MODE_RLE:
+            checkAvailable(off, 1, end);
+            final int symbol = src[off] & 0xff;
+            if (symbol > MAX_CODES[kind]) {
+                throw new IOException("Invalid " + TABLE_NAMES[kind] + " code " + symbol);
+            }
+            ownTables[kind].initRle(symbol);
+            currentTables[kind] = ownTables[kind];
+            return off + 1;
+        case MODE_FSE_COMPRESSED:
+            final int consumed = ownTables[kind].readTableDescription(src, off, end, MAX_CODES[kind]);
+            currentTables[kind] = ownTables[kind];
+            return off + consumed;
+        default:
+            if (currentTables[kind] == null) {
+                throw new IOException("Repeated " + TABLE_NAMES[kind] + " table without a previous table");
+            }
+            return off;
+        }
+    }
+
+    private void setBufferedLiterals(final int size) {
+        literals = literalsBuffer;
+        literalsStart = 0;
+        literalsEnd = size;
+    }
+}
@@ -20,6 +20,8 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.compress.compressors.CompressorInputStream;
 import org.apache.commons.compress.utils.CountingInputStream;
@@ -27,6 +29,9 @@
 import org.apache.commons.compress.utils.InputStreamStatistics;
 
 import com.github.luben.zstd.BufferPool;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdException;
 import com.github.luben.zstd.ZstdInputStream;
 
 /**
@@ -38,6 +43,41 @@
 public class ZstdCompressorInputStream extends CompressorInputStream
     implements InputStreamStatistics {
 
+    /**
+     * Decompresses all frames held in a buffer into another buffer.
+     *
+     * <p>The data is handed to zstd-jni without being copied, both
+     * buffers must either be heap buffers or direct buffers. On success
+     * the position of {@code src} is advanced to its limit and the
+     * position of {@code dst} by the number of bytes written.</p>
+     *
+     * @param src the compressed data
+     * @param dst the buffer to write the decompressed data to
+     * @return the number of bytes written to dst
+     * @throws IOException if dst is too small or the compressed data is corrupt
+     * @throws IllegalArgumentException if only one of the buffers is a direct buffer
+     * @since 1.23
+     */
+    public static int decompress(final ByteBuffer src, final ByteBuffer dst) throws IOException {
+        final long written;
+        try {
+            if (src.hasArray() && dst.hasArray()) {
+                written = Zstd.decompressByteArray(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining(),
+                    src.array(), src.arrayOffset() + src.position(), src.remaining());
+            } else if (src.isDirect() && dst.isDirect()) {
+                written = Zstd.decompressDirectByteBuffer(dst, dst.position(), dst.remaining(), src, src.position(),
+                    src.remaining());
+            } else {
+                throw new IllegalArgumentException("Both buffers must be heap buffers or direct buffers");
+            }
+        } catch (final ZstdException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        src.position(src.limit());
+        dst.position(dst.position() + (int) written);
+        return (int) written;
+    }
+
     private final CountingInputStream countingStream;
     private final ZstdInputStream decIS;
 
@@ -61,6 +101,65 @@ public ZstdCompressorInputStream(final InputStream in, final BufferPool bufferPo
         this.decIS = new ZstdInputStream(countingStream = new CountingInputStream(in), bufferPool);
     }
 
+    /**
+     * Creates a new input stream that decompresses zstd-compressed data
+     * using the buffer pool and the window log of the given parameters.
+     *
+     * @param in the input stream of compressed data
+     * @param parameters the parameters to use, only the buffer pool and
+     * the long distance matching window log are used
+     * @throws IOException if an IO error occurs.
+     * @since 1.23
+     */
+    public ZstdCompressorInputStream(final InputStream in, final ZstdParameters parameters) throws IOException {
+        countingStream = new CountingInputStream(in);
+        this.decIS = parameters.getBufferPool() == null ? new ZstdInputStream(countingStream)
+            : new ZstdInputStream(countingStream, parameters.getBufferPool());
+        if (parameters.getLongDistanceMatchingWindowLog() > 0) {
+            this.decIS.setLongMax(parameters.getLongDistanceMatchingWindowLog());
+        }
+    }
+
+    /**
+     * Creates a new input stream that decompresses zstd-compressed data
+     * that has been compressed using the given dictionary.
+     *
+     * @param in the input stream of compressed data
+     * @param dictionary the dictionary the data has been compressed with
+     * @throws IOException if an IO error occurs.
+     * @since 1.23
+     */
+    public ZstdCompressorInputStream(final InputStream in, final ZstdDictDecompress dictionary) throws IOException {
+        this.decIS = new ZstdInputStream(countingStream = new CountingInputStream(in));
+        this.decIS.setDict(dictionary);
+    }
+
+    /**
+     * Creates a new input stream that decompresses zstd-compressed data
+     * and looks up the dictionary in the given registry.
+     *
+     * <p>The dictionary is selected by the dictionary ID of the first
+     * frame of the stream, all frames of the stream must use the same
+     * dictionary.</p>
+     *
+     * @param in the input stream of compressed data
+     * @param dictionaries the dictionaries frames may have been compressed with
+     * @throws IOException if an IO error occurs or the first frame requires
+     * a dictionary that has not been registered.
+     * @since 1.23
+     */
+    public ZstdCompressorInputStream(final InputStream in, final ZstdDictionaryRegistry dictionaries)
+        throws IOException {
+        final PushbackInputStream pin = new PushbackInputStream(in, ZstdDictionaryRegistry.MAX_HEADER_PREFIX);
+        final long id = ZstdDictionaryRegistry.peekDictionaryId(pin);
+        this.decIS = new ZstdInputStream(countingStream = new CountingInputStream(pin));
+        if (id != 0) {
+            final ZstdDictDecompress dictionary = dictionaries.getDigestedDictionary(id, ZstdDictDecompress.class,
+                ZstdDictDecompress::new);
+            this.decIS.setDict(dictionary);
+        }
+    }
+
     @Override
     public int available() throws IOException {
         return decIS.available();
@@ -20,9 +20,13 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.compress.compressors.CompressorOutputStream;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdException;
 import com.github.luben.zstd.ZstdOutputStream;
 
 /**
@@ -33,6 +37,42 @@
  */
 public class ZstdCompressorOutputStream extends CompressorOutputStream {
 
+    /**
+     * Compresses the remaining bytes of a buffer into a single frame
+     * written to another buffer using zstd-jni's default level.
+     *
+     * <p>The data is handed to zstd-jni without being copied, both
+     * buffers must either be heap buffers or direct buffers. On success
+     * the position of {@code src} is advanced to its limit and the
+     * position of {@code dst} by the number of bytes written.</p>
+     *
+     * @param src the data to compress
+     * @param dst the buffer to write the compressed frame to
+     * @return the number of bytes written to dst
+     * @throws IOException if dst is too small
+     * @throws IllegalArgumentException if only one of the buffers is a direct buffer
+     * @since 1.23
+     */
+    public static int compress(final ByteBuffer src, final ByteBuffer dst) throws IOException {
+        final long written;
+        try {
+            if (src.hasArray() && dst.hasArray()) {
+                written = Zstd.compressByteArray(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining(),
+                    src.array(), src.arrayOffset() + src.position(), src.remaining(), Zstd.defaultCompressionLevel());
+            } else if (src.isDirect() && dst.isDirect()) {
+                written = Zstd.compressDirectByteBuffer(dst, dst.position(), dst.remaining(), src, src.position(),
+                    src.remaining(), Zstd.defaultCompressionLevel());
+            } else {
+                throw new IllegalArgumentException("Both buffers must be heap buffers or direct buffers");
+            }
+        } catch (final ZstdException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        src.position(src.limit());
+        dst.position(dst.position() + (int) written);
+        return (int) written;
+    }
+
     private final ZstdOutputStream encOS;
 
     /**
@@ -87,6 +127,60 @@ public ZstdCompressorOutputStream(final OutputStream outStream, final int level,
         this.encOS.setChecksum(useChecksum);
     }
 
+    /**
+     * Wraps the given stream into a zstd-jni ZstdOutputStream that compresses using a dictionary.
+     *
+     * <p>The compression level is the one the dictionary has been digested with.</p>
+     * @param outStream the stream to write to
+     * @param dictionary the digested dictionary
+     * @throws IOException if zstd-jni does
+     * @since 1.23
+     */
+    public ZstdCompressorOutputStream(final OutputStream outStream, final ZstdDictCompress dictionary)
+        throws IOException {
+        this.encOS = new ZstdOutputStream(outStream);
+        this.encOS.setDict(dictionary);
+    }
+
+    /**
+     * Wraps the given stream into a zstd-jni ZstdOutputStream that compresses using a dictionary.
+     *
+     * <p>The compression level is the one the dictionary has been digested with.</p>
+     * @param outStream the stream to write to
+     * @param dictionary the digested dictionary
+     * @param closeFrameOnFlush value for zstd-jni's closeFrameOnFlush argument
+     * @param useChecksum value for zstd-jni's useChecksum argument
+     * @throws IOException if zstd-jni does
+     * @since 1.23
+     */
+    public ZstdCompressorOutputStream(final OutputStream outStream, final ZstdDictCompress dictionary,
+        final boolean closeFrameOnFlush, final boolean useChecksum) throws IOException {
+        this(outStream, dictionary);
+        this.encOS.setCloseFrameOnFlush(closeFrameOnFlush);
+        this.encOS.setChecksum(useChecksum);
+    }
+
+    /**
+     * Wraps the given stream into a zstd-jni ZstdOutputStream configured by the given parameters.
+     * @param outStream the stream to write to
+     * @param parameters the parameters to use
+     * @throws IOException if zstd-jni does
+     * @since 1.23
+     */
+    public ZstdCompressorOutputStream(final OutputStream outStream, final ZstdParameters parameters)
+        throws IOException {
+        this.encOS = parameters.getBufferPool() == null ? new ZstdOutputStream(outStream, parameters.getLevel())
+            : new ZstdOutputStream(outStream, parameters.getBufferPool(), parameters.getLevel());
+        this.encOS.setCloseFrameOnFlush(parameters.getCloseFrameOnFlush());
+        this.encOS.setChecksum(parameters.getChecksum());
+        if (parameters.getWorkers() > 0) {
+            this.encOS.setWorkers(parameters.getWorkers());
+        }
+        if (parameters.getLongDistanceMatchingWindowLog() > 0) {
+            this.encOS.setLong(parameters.getLongDistanceMatchingWindowLog());
+        }
+    }
+
     @Override
     public void close() throws IOException {
         encOS.close();
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+
+import org.apache.commons.compress.utils.ByteUtils;
+
+/**
+ * A parsed Zstandard dictionary.
+ *
+ * <p>A dictionary either starts with a magic number followed by its
+ * ID, entropy tables and initial repeat offsets or consists of raw
+ * content only. In both cases the content is used as history
+ * preceding the content of a frame.</p>
+ *
+ * @Immutable
+ * @since 1.23
+ */
+final class ZstdDictionary {
+
+    static final int MAGIC = 0xEC30A437;
+
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Parses a dictionary, if the data doesn't start with the magic
+     * number it is treated as raw content.
+     *
+     * @param dictionary the dictionary, the array is not copied
+     * @return the parsed dictionary
+     * @throws IOException if the dictionary starts with the magic number but is corrupt
+     */
+    static ZstdDictionary parse(final byte[] dictionary) throws IOException {
+        if (dictionary.length < HEADER_SIZE || (int) ByteUtils.fromLittleEndian(dictionary, 0, 4) != MAGIC) {
+            return new ZstdDictionary(dictionary);
+        }
+        return new ZstdDictionary(dictionary, (int) ByteUtils.fromLittleEndian(dictionary, 4, 4));
+    }
+
+    private final int id;
+    private final byte[] data;
+    private final int contentOffset;
+    private final HuffmanTable huffmanTable;
+    private final FseTable offsetTable;
+    private final FseTable matchLengthTable;
+    private final FseTable literalLengthTable;
+    private final int[] repeatOffsets;
+
+    private ZstdDictionary(final byte[] data) {
+        this.id = 0;
+        this.data = data;
+        this.contentOffset = 0;
+        this.huffmanTable = null;
+        this.offsetTable = null;
+        this.matchLengthTable = null;
+        this.literalLengthTable = null;
+        this.repeatOffsets = null;
+    }
+
+    private ZstdDictionary(final byte[] data, final int id) throws IOException {
+        this.id = id;
+        this.data = data;
+        final int end = data.length;
+        int pos = HEADER_SIZE;
+        huffmanTable = new HuffmanTable();
+        pos += huffmanTable.readTableDescription(new BackwardBitReader(), data, pos, end);
+        offsetTable = new FseTable(ZstdBlockDecoder.OFFSET_MAX_ACCURACY_LOG);
+        pos += offsetTable.readTableDescription(data, pos, end, ZstdBlockDecoder.MAX_OFFSET_CODE);
+        matchLengthTable = new FseTable(ZstdBlockDecoder.MATCH_LENGTH_MAX_ACCURACY_LOG);
+        pos += matchLengthTable.readTableDescription(data, pos, end, ZstdBlockDecoder.MAX_MATCH_LENGTH_CODE);
+        literalLengthTable = new FseTable(ZstdBlockDecoder.LITERAL_LENGTH_MAX_ACCURACY_LOG);
+        pos += literalLengthTable.readTableDescription(data, pos, end, ZstdBlockDecoder.MAX_LITERAL_LENGTH_CODE);
+        contentOffset = pos + 12;
+        if (contentOffset > end) {
+            throw new IOException("Truncated Zstandard dictionary");
+        }
+        repeatOffsets = new int[3];
+        for (int i = 0; i < 3; i++) {
+            repeatOffsets[i] = (int) ByteUtils.fromLittleEndian(data, pos + 4 * i, 4);
+            if (repeatOffsets[i] <= 0 || repeatOffsets[i] > end - contentOffset) {
+                throw new IOException("Invalid repeat offset in Zstandard dictionary");
+            }
+        }
+    }
+
+    byte[] getData() {
+        return data;
+    }
+
+    int getContentOffset() {
+        return contentOffset;
+    }
+
+    int getContentLength() {
+        return data.length - contentOffset;
+    }
+
+    HuffmanTable getHuffmanTable() {
+        return huffmanTable;
+    }
+
+    /**
+     * The dictionary's ID, 0 for raw content dictionaries.
+     */
+    int getId() {
+        return id;
+    }
+
+    FseTable getLiteralLengthTable() {
+        return literalLengthTable;
+    }
+
+    FseTable getMatchLengthTable() {
+        return matchLengthTable;
+    }
+
+    FseTable getOffsetTable() {
+        return offsetTable;
+    }
+
+    /**
+     * The initial repeat offsets, null for raw content dictionaries.
+     */
+    int[] getRepeatOffsets() {
+        return repeatOffsets;
+    }
+
+    /**
+     * Whether the dictionary provides entropy tables.
+     */
+    boolean hasEntropyTables() {
+        return huffmanTable != null;
+    }
+}
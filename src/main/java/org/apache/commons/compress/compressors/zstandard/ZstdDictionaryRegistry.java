@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+import java.io.PushbackInputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.compress.utils.ByteUtils;
+import org.apache.commons.compress.utils.IOUtils;
+
+/**
+ * Holds Zstandard dictionaries by their ID so that streams reading
+ * frames can resolve the dictionary a frame has been compressed with.
+ *
+ * <p>Only dictionaries in the format created by {@code zstd --train}
+ * or {@link ZstdDictionaryTrainer#train} can be registered as raw
+ * content dictionaries don't have an ID.</p>
+ *
+ * <p>A registry is meant to be shared by all streams using the same
+ * set of dictionaries, streams reuse the digested form of a
+ * dictionary the registry caches.</p>
+ *
+ * @ThreadSafe
+ * @since 1.23
+ */
+public class ZstdDictionaryRegistry {
+
+    private static final class Entry {
+        private final byte[] data;
+        private volatile ZstdDictionary parsed;
+        /** Digested forms of the dictionary by their type. */
+        private final Map<Class<?>, Object> digested = new ConcurrentHashMap<>();
+
+        Entry(final byte[] data) {
+            this.data = data;
+        }
+    }
+
+    private static final int MAGIC_SIZE = 4;
+    /** Magic, frame header descriptor, window descriptor and a four byte dictionary ID. */
+    static final int MAX_HEADER_PREFIX = MAGIC_SIZE + 1 + 1 + 4;
+    private static final int[] DICTIONARY_ID_SIZES = {0, 1, 2, 4};
+
+    /**
+     * Returns the ID of a dictionary.
+     *
+     * @param dictionary the dictionary
+     * @return the ID of the dictionary, 0 for raw content dictionaries
+     */
+    public static long getDictionaryId(final byte[] dictionary) {
+        if (dictionary.length < 8
+            || (int) ByteUtils.fromLittleEndian(dictionary, 0, MAGIC_SIZE) != ZstdDictionary.MAGIC) {
+            return 0;
+        }
+        return ByteUtils.fromLittleEndian(dictionary, MAGIC_SIZE, 4);
+    }
+
+    /**
+     * Reads the dictionary ID of the frame at the start of the
+     * stream and pushes back all bytes read.
+     *
+     * @param in stream that must allow {@value #MAX_HEADER_PREFIX} bytes to be pushed back
+     * @return the dictionary ID, 0 if the stream doesn't start with
+     * a frame or the frame doesn't contain a dictionary ID
+     * @throws IOException if reading fails
+     */
+    static long peekDictionaryId(final PushbackInputStream in) throws IOException {
+        final byte[] header = new byte[MAX_HEADER_PREFIX];
+        int read = IOUtils.readFully(in, header, 0, MAGIC_SIZE + 1);
+        long id = 0;
+        if (read == MAGIC_SIZE + 1
+            && (int) ByteUtils.fromLittleEndian(header, 0, MAGIC_SIZE) == PureJavaZstdCompressorInputStream.MAGIC) {
+            final int descriptor = header[MAGIC_SIZE] & 0xff;
+            final int windowDescriptorSize = (descriptor & 0x20) != 0 ? 0 : 1;
+            final int idSize = DICTIONARY_ID_SIZES[descriptor & 3];
+            if (idSize > 0) {
+                final int remaining = windowDescriptorSize + idSize;
+                final int n = IOUtils.readFully(in, header, read, remaining);
+                read += n;
+                if (n == remaining) {
+                    id = ByteUtils.fromLittleEndian(header, MAGIC_SIZE + 1 + windowDescriptorSize, idSize);
+                }
+            }
+        }
+        in.unread(header, 0, read);
+        return id;
+    }
+
+    private final Map<Long, Entry> dictionaries = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a registered dictionary.
+     *
+     * @param id the ID of the dictionary
+     * @return a copy of the dictionary or null if no dictionary with
+     * this ID has been registered
+     */
+    public byte[] getDictionary(final long id) {
+        final Entry e = dictionaries.get(id);
+        return e == null ? null : e.data.clone();
+    }
+
+    /**
+     * Gets the digested form of a dictionary, creating it on first use.
+     *
+     * @param <T> the type of the digested dictionary
+     * @param id the ID of the dictionary
+     * @param type the type of the digested dictionary, the registry caches one instance per type
+     * @param digester creates the digested form from the dictionary's bytes
+     * @return the digested dictionary
+     * @throws IOException if no dictionary with the given ID has been registered
+     */
+    <T> T getDigestedDictionary(final long id, final Class<T> type, final Function<byte[], T> digester)
+        throws IOException {
+        final Entry e = getEntry(id);
+        return type.cast(e.digested.computeIfAbsent(type, k -> digester.apply(e.data)));
+    }
+
+    private Entry getEntry(final long id) throws IOException {
+        final Entry e = dictionaries.get(id);
+        if (e == null) {
+            throw new IOException("Frame requires unknown dictionary " + id);
+        }
+        return e;
+    }
+
+    /**
+     * Gets the parsed form of a dictionary, parsing it on first use.
+     */
+    ZstdDictionary getParsedDictionary(final long id) throws IOException {
+        final Entry e = getEntry(id);
+        ZstdDictionary d = e.parsed;
+        if (d == null) {
+            d = ZstdDictionary.parse(e.data);
+            e.parsed = d;
+        }
+        return d;
+    }
+
+    /**
+     * Registers a dictionary, replacing any dictionary with the same ID.
+     *
+     * @param dictionary the dictionary, the array is copied
+     * @return the ID of the dictionary
+     * @throws IllegalArgumentException if the dictionary doesn't have an ID
+     */
+    public long register(final byte[] dictionary) {
+        final long id = getDictionaryId(dictionary);
+        if (id == 0) {
+            throw new IllegalArgumentException("Only dictionaries with an ID can be registered");
+        }
+        dictionaries.put(id, new Entry(dictionary.clone()));
+        return id;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * Trains Zstandard dictionaries using zstd-jni.
+ *
+ * <p>Unlike {@link ZstdUtils} this class requires zstd-jni to be
+ * present, use {@link ZstdUtils#isZstdCompressionAvailable} to check
+ * whether it is.</p>
+ *
+ * @ThreadSafe
+ * @since 1.23
+ */
+public class ZstdDictionaryTrainer {
+
+    /**
+     * Trains a dictionary from sample data.
+     *
+     * <p>The samples should be representative of the data that is
+     * going to be compressed using the dictionary, dictionaries are
+     * most useful for many small inputs sharing common content. The
+     * result can be passed to {@link ZstdDictionaryRegistry#register}
+     * or used to create the digested dictionaries of zstd-jni.</p>
+     *
+     * @param samples the sample data
+     * @param maxDictionarySize the maximum size of the dictionary in bytes
+     * @return the dictionary
+     * @throws IOException if zstd-jni fails to train a dictionary,
+     * usually because there are too few samples
+     * @throws IllegalArgumentException if maxDictionarySize is not positive
+     */
+    public static byte[] train(final Collection<byte[]> samples, final int maxDictionarySize)
+        throws IOException {
+        if (maxDictionarySize <= 0) {
+            throw new IllegalArgumentException("maxDictionarySize must be positive");
+        }
+        final byte[] buffer = new byte[maxDictionarySize];
+        final long size = Zstd.trainFromBuffer(samples.toArray(new byte[0][]), buffer);
+        if (Zstd.isError(size)) {
+            throw new IOException("Failed to train dictionary: " + Zstd.getErrorName(size));
+        }
+        if (size == buffer.length) {
+            return buffer;
+        }
+        final byte[] dictionary = new byte[(int) size];
+        System.arraycopy(buffer, 0, dictionary, 0, dictionary.length);
+        return dictionary;
+    }
+
+    /** Private constructor to prevent instantiation of this utility class. */
+    private ZstdDictionaryTrainer() {
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import com.github.luben.zstd.BufferPool;
+
+/**
+ * Parameters of {@link ZstdCompressorOutputStream} and {@link ZstdCompressorInputStream}.
+ *
+ * <p>A single instance can be shared by any number of streams. Sharing
+ * a {@link BufferPool} like {@link com.github.luben.zstd.RecyclingBufferPool#INSTANCE}
+ * avoids allocating new buffers for each stream when many streams are
+ * created.</p>
+ *
+ * @Immutable
+ * @since 1.23
+ */
+public final class ZstdParameters {
+
+    /**
+     * Builder for {@link ZstdParameters} instances.
+     */
+    public static class Builder {
+        private int level = DEFAULT_LEVEL;
+        private boolean closeFrameOnFlush;
+        private boolean checksum;
+        private int workers;
+        private int windowLog;
+        private BufferPool bufferPool;
+
+        private Builder() {
+        }
+
+        /**
+         * Creates the {@link ZstdParameters} instance.
+         * @return the configured {@link ZstdParameters} instance.
+         */
+        public ZstdParameters build() {
+            return new ZstdParameters(this);
+        }
+
+        /**
+         * Sets the pool buffers are taken from.
+         *
+         * <p>Default is {@code null} which uses zstd-jni's default pool.</p>
+         * @param bufferPool the pool
+         * @return the builder
+         */
+        public Builder withBufferPool(final BufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Sets whether each flush ends the current frame.
+         *
+         * <p>Default is {@code false}.</p>
+         * @param closeFrameOnFlush whether to end the frame on flush
+         * @return the builder
+         */
+        public Builder withCloseFrameOnFlush(final boolean closeFrameOnFlush) {
+            this.closeFrameOnFlush = closeFrameOnFlush;
+            return this;
+        }
+
+        /**
+         * Sets whether frames contain a checksum of their content.
+         *
+         * <p>Default is {@code false}.</p>
+         * @param checksum whether to write checksums
+         * @return the builder
+         */
+        public Builder withChecksum(final boolean checksum) {
+            this.checksum = checksum;
+            return this;
+        }
+
+        /**
+         * Sets the compression level.
+         *
+         * <p>Default is {@value ZstdParameters#DEFAULT_LEVEL}.</p>
+         * @param level the compression level, the accepted range depends on zstd-jni
+         * @return the builder
+         */
+        public Builder withLevel(final int level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Enables long distance matching using a window of {@code 2^windowLog} bytes.
+         *
+         * <p>Long distance matching improves the compression ratio of
+         * big inputs with repetitions that are far apart. When
+         * decompressing, the parameter sets the biggest window log
+         * that is accepted, which is needed to read data compressed
+         * with a window log bigger than 27.</p>
+         *
+         * <p>Default is 0 which disables long distance matching.</p>
+         * @param windowLog the window log, 0 or between
+         * {@value ZstdParameters#MIN_WINDOW_LOG} and {@value ZstdParameters#MAX_WINDOW_LOG}
+         * @return the builder
+         * @throws IllegalArgumentException if windowLog is out of range
+         */
+        public Builder withLongDistanceMatching(final int windowLog) {
+            if (windowLog != 0 && (windowLog < MIN_WINDOW_LOG || windowLog > MAX_WINDOW_LOG)) {
+                throw new IllegalArgumentException("windowLog must be 0 or between " + MIN_WINDOW_LOG + " and "
+                    + MAX_WINDOW_LOG);
+            }
+            this.windowLog = windowLog;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads compressing in parallel.
+         *
+         * <p>Each worker compresses a separate part of the input, the
+         * output is a single frame that can be read by any
+         * decoder. Default is 0 which compresses on the calling
+         * thread.</p>
+         * @param workers the number of worker threads
+         * @return the builder
+         * @throws IllegalArgumentException if workers is negative
+         */
+        public Builder withWorkers(final int workers) {
+            if (workers < 0) {
+                throw new IllegalArgumentException("workers must not be negative");
+            }
+            this.workers = workers;
+            return this;
+        }
+    }
+
+    /** The default compression level of Zstandard. */
+    public static final int DEFAULT_LEVEL = 3;
+
+    /** The smallest window log accepted by Zstandard. */
+    public static final int MIN_WINDOW_LOG = 10;
+
+    /** The biggest window log accepted by Zstandard on 64 bit platforms. */
+    public static final int MAX_WINDOW_LOG = 31;
+
+    /**
+     * Creates a builder initialized with the default parameters.
+     * @return a builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final int level;
+    private final boolean closeFrameOnFlush;
+    private final boolean checksum;
+    private final int workers;
+    private final int windowLog;
+    private final BufferPool bufferPool;
+
+    private ZstdParameters(final Builder builder) {
+        level = builder.level;
+        closeFrameOnFlush = builder.closeFrameOnFlush;
+        checksum = builder.checksum;
+        workers = builder.workers;
+        windowLog = builder.windowLog;
+        bufferPool = builder.bufferPool;
+    }
+
+    /**
+     * Gets the pool buffers are taken from.
+     * @return the pool, null for zstd-jni's default pool
+     */
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Gets whether each flush ends the current frame.
+     * @return whether each flush ends the current frame
+     */
+    public boolean getCloseFrameOnFlush() {
+        return closeFrameOnFlush;
+    }
+
+    /**
+     * Gets whether frames contain a checksum of their content.
+     * @return whether frames contain a checksum
+     */
+    public boolean getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Gets the compression level.
+     * @return the compression level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the window log of long distance matching.
+     * @return the window log, 0 if long distance matching is disabled
+     */
+    public int getLongDistanceMatchingWindowLog() {
+        return windowLog;
+    }
+
+    /**
+     * Gets the number of threads compressing in parallel.
+     * @return the number of worker threads, 0 if compressing on the calling thread
+     */
+    public int getWorkers() {
+        return workers;
+    }
+}
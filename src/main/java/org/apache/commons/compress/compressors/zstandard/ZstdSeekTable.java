@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+
+import org.apache.commons.compress.utils.ByteUtils;
+import org.apache.commons.compress.utils.IOUtils;
+
+/**
+ * The seek table of the Zstandard seekable format.
+ *
+ * <p>The table is stored in a skippable frame at the end of the
+ * compressed data. It holds the compressed and decompressed size of
+ * each frame and optionally the lower 32 bits of the XXH64 checksum
+ * of the decompressed data, followed by a footer containing the
+ * number of frames, a descriptor byte and a magic number.</p>
+ *
+ * @see <a href="https://github.com/facebook/zstd/blob/dev/contrib/seekable_format/zstd_seekable_compression_format.md">Zstandard
+ * Seekable Format</a>
+ * @NotThreadSafe
+ */
+final class ZstdSeekTable {
+
+    static final int SKIPPABLE_MAGIC = 0x184D2A5E;
+    static final int SEEKABLE_MAGIC = 0x8F92EAB1;
+    /** The maximum decompressed size of a frame the reference implementation accepts. */
+    static final int MAX_FRAME_SIZE = 1 << 30;
+    /** The maximum compressed size of a frame, frames are read into arrays. */
+    static final long MAX_COMPRESSED_FRAME_SIZE = Integer.MAX_VALUE;
+
+    private static final int SKIPPABLE_HEADER_SIZE = 8;
+    private static final int FOOTER_SIZE = 9;
+    private static final int CHECKSUM_FLAG = 0x80;
+    private static final int RESERVED_BITS = 0x7C;
+    private static final long MAX_UNSIGNED_INT = 0xFFFFFFFFL;
+
+    /**
+     * Reads the seek table from the end of the channel.
+     *
+     * @param channel the channel holding the compressed data and the seek table
+     * @return the seek table
+     * @throws IOException if reading fails or the channel doesn't end with a valid seek table
+     */
+    static ZstdSeekTable read(final SeekableByteChannel channel) throws IOException {
+        final long size = channel.size();
+        if (size < SKIPPABLE_HEADER_SIZE + FOOTER_SIZE) {
+            throw new IOException("Too short to contain a seek table");
+        }
+        final ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.position(size - FOOTER_SIZE);
+        IOUtils.readFully(channel, footer);
+        footer.flip();
+        final long frameCount = footer.getInt() & MAX_UNSIGNED_INT;
+        final int descriptor = footer.get() & 0xff;
+        if (footer.getInt() != SEEKABLE_MAGIC) {
+            throw new IOException("Not a seekable Zstandard archive, seek table magic is missing");
+        }
+        if ((descriptor & RESERVED_BITS) != 0) {
+            throw new IOException("Reserved bits of seek table descriptor are set");
+        }
+        final boolean checksums = (descriptor & CHECKSUM_FLAG) != 0;
+        final int entrySize = checksums ? 12 : 8;
+        final long tableSize = frameCount * entrySize + FOOTER_SIZE + SKIPPABLE_HEADER_SIZE;
+        if (tableSize > size || tableSize > Integer.MAX_VALUE) {
+            throw new IOException("Seek table of " + frameCount + " frames doesn't fit into the archive");
+        }
+        final ByteBuffer table = ByteBuffer.allocate((int) tableSize - FOOTER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        channel.position(size - tableSize);
+        IOUtils.readFully(channel, table);
+        table.flip();
+        if (table.getInt() != SKIPPABLE_MAGIC || (table.getInt() & MAX_UNSIGNED_INT) != tableSize - SKIPPABLE_HEADER_SIZE) {
+            throw new IOException("Seek table is not contained in a matching skippable frame");
+        }
+        final ZstdSeekTable result = new ZstdSeekTable(checksums, (int) frameCount);
+        for (int i = 0; i < frameCount; i++) {
+            final long compressedSize = table.getInt() & MAX_UNSIGNED_INT;
+            if (compressedSize > MAX_COMPRESSED_FRAME_SIZE) {
+                throw new IOException("Frame " + i + " exceeds the maximum compressed frame size");
+            }
+            final int decompressedSize = table.getInt();
+            if (decompressedSize < 0 || decompressedSize > MAX_FRAME_SIZE) {
+                throw new IOException("Frame " + i + " exceeds the maximum frame size");
+            }
+            result.add(compressedSize, decompressedSize, checksums ? table.getInt() : 0);
+        }
+        if (result.getCompressedOffset(result.frameCount) != size - tableSize) {
+            throw new IOException("Seek table doesn't match the size of the compressed data");
+        }
+        return result;
+    }
+
+    private final boolean checksums;
+    private int frameCount;
+    private long[] compressedOffsets;
+    private long[] decompressedOffsets;
+    private int[] frameChecksums;
+
+    /**
+     * Creates an empty seek table.
+     *
+     * @param checksums whether the table stores checksums of the frames
+     * @param expectedFrames the number of frames to allocate room for
+     */
+    ZstdSeekTable(final boolean checksums, final int expectedFrames) {
+        this.checksums = checksums;
+        final int capacity = Math.max(expectedFrames, 1) + 1;
+        compressedOffsets = new long[capacity];
+        decompressedOffsets = new long[capacity];
+        frameChecksums = checksums ? new int[capacity] : null;
+    }
+
+    /**
+     * Appends a frame.
+     */
+    void add(final long compressedSize, final int decompressedSize, final int checksum) {
+        if (frameCount + 1 == compressedOffsets.length) {
+            final int capacity = compressedOffsets.length * 2;
+            compressedOffsets = Arrays.copyOf(compressedOffsets, capacity);
+            decompressedOffsets = Arrays.copyOf(decompressedOffsets, capacity);
+            if (checksums) {
+                frameChecksums = Arrays.copyOf(frameChecksums, capacity);
+            }
+        }
+        if (checksums) {
+            frameChecksums[frameCount] = checksum;
+        }
+        compressedOffsets[frameCount + 1] = compressedOffsets[frameCount] + compressedSize;
+        decompressedOffsets[frameCount + 1] = decompressedOffsets[frameCount] + decompressedSize;
+        frameCount++;
+    }
+
+    /**
+     * Finds the frame containing the given position of the decompressed data.
+     *
+     * @param position a position inside the decompressed data
+     * @return the index of the frame
+     */
+    int findFrame(final long position) {
+        // largest index with an offset not bigger than position, skipping empty frames
+        int low = 0;
+        int high = frameCount - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (decompressedOffsets[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    int getChecksum(final int frame) {
+        return frameChecksums[frame];
+    }
+
+    /**
+     * Gets the offset of a frame inside the compressed data, passing the number of frames yields the total size.
+     */
+    long getCompressedOffset(final int frame) {
+        return compressedOffsets[frame];
+    }
+
+    long getCompressedSize(final int frame) {
+        return compressedOffsets[frame + 1] - compressedOffsets[frame];
+    }
+
+    /**
+     * Gets the offset of a frame inside the decompressed data, passing the number of frames yields the total size.
+     */
+    long getDecompressedOffset(final int frame) {
+        return decompressedOffsets[frame];
+    }
+
+    long getDecompressedSize(final int frame) {
+        return decompressedOffsets[frame + 1] - decompressedOffsets[frame];
+    }
+
+    int getFrameCount() {
+        return frameCount;
+    }
+
+    boolean hasChecksums() {
+        return checksums;
+    }
+
+    /**
+     * Writes the table as a skippable frame.
+     */
+    void writeTo(final OutputStream out) throws IOException {
+        final int entrySize = checksums ? 12 : 8;
+        final byte[] buffer = new byte[SKIPPABLE_HEADER_SIZE + frameCount * entrySize + FOOTER_SIZE];
+        ByteUtils.toLittleEndian(buffer, SKIPPABLE_MAGIC, 0, 4);
+        ByteUtils.toLittleEndian(buffer, buffer.length - SKIPPABLE_HEADER_SIZE, 4, 4);
+        int off = SKIPPABLE_HEADER_SIZE;
+        for (int i = 0; i < frameCount; i++) {
+            ByteUtils.toLittleEndian(buffer, getCompressedSize(i), off, 4);
+            ByteUtils.toLittleEndian(buffer, getDecompressedSize(i), off + 4, 4);
+            if (checksums) {
+                ByteUtils.toLittleEndian(buffer, frameChecksums[i], off + 8, 4);
+            }
+            off += entrySize;
+        }
+        ByteUtils.toLittleEndian(buffer, frameCount, off, 4);
+        buffer[off + 4] = (byte) (checksums ? CHECKSUM_FLAG : 0);
+        ByteUtils.toLittleEndian(buffer, SEEKABLE_MAGIC, off + 5, 4);
+        out.write(buffer);
+    }
+}
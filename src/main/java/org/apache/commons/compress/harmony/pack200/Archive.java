@@ -17,10 +17,18 @@
 package org.apache.commons.compress.harmony.pack200;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
@@ -227,10 +235,14 @@ private void doNormalPack() throws IOException, Pack200Exception {
 		int packedByteAmount = 0;
 
 		final int segmentSize = segmentUnitList.size();
-		SegmentUnit segmentUnit;
-		for (int index = 0; index < segmentSize; index++) {
-			segmentUnit = segmentUnitList.get(index);
-			new Segment().pack(segmentUnit, outputStream, options);
+		if (options.getParallelism() > 1 && segmentSize > 1) {
+			packInParallel(segmentUnitList, Math.min(options.getParallelism(), segmentSize));
+		} else {
+			for (final SegmentUnit segmentUnit : segmentUnitList) {
+				new Segment().pack(segmentUnit, outputStream, options);
+			}
+		}
+		for (final SegmentUnit segmentUnit : segmentUnitList) {
 			previousByteAmount += segmentUnit.getByteAmount();
 			packedByteAmount += segmentUnit.getPackedByteAmount();
 		}
@@ -278,6 +290,36 @@ public void pack() throws Pack200Exception, IOException {
         }
     }
 
+    /**
+     * Packs the segments on a pool of worker threads and writes them in their original order.
+     *
+     * <p>At most twice as many segments as there are threads are packed ahead of the one that gets written next, this
+     * bounds the memory needed for segments that have been packed but cannot be written yet.</p>
+     */
+    private void packInParallel(final List<SegmentUnit> segmentUnitList, final int parallelism)
+        throws IOException, Pack200Exception {
+        // initialize the shared prototypes before the workers use them
+        options.getUnknownAttributePrototypes();
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            final Deque<Future<ByteArrayOutputStream>> pending = new ArrayDeque<>();
+            int next = 0;
+            while (next < segmentUnitList.size() || !pending.isEmpty()) {
+                while (next < segmentUnitList.size() && pending.size() < 2 * parallelism) {
+                    final SegmentUnit segmentUnit = segmentUnitList.get(next++);
+                    pending.add(executor.submit(() -> {
+                        final ByteArrayOutputStream packed = new ByteArrayOutputStream();
+                        new Segment().pack(segmentUnit, packed, options);
+                        return packed;
+                    }));
+                }
+                waitForSegment(pending.poll()).writeTo(outputStream);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private List<SegmentUnit> splitIntoSegments(final List<PackingFile> packingFileList) {
         final List<SegmentUnit> segmentUnitList = new ArrayList<>();
         List<Pack200ClassReader> classes = new ArrayList<>();
@@ -313,4 +355,28 @@ private List<SegmentUnit> splitIntoSegments(final List<PackingFile> packingFileL
         return segmentUnitList;
     }
 
+    private ByteArrayOutputStream waitForSegment(final Future<ByteArrayOutputStream> future)
+        throws IOException, Pack200Exception {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while packing segments");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof Pack200Exception) {
+                throw (Pack200Exception) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
 }
@@ -24,6 +24,7 @@
 import java.util.List;
 
 import org.apache.commons.compress.utils.ExactMath;
+import org.apache.commons.compress.utils.IOUtils;
 
 /**
  * A BHSD codec is a means of encoding integer values as a sequence of bytes or vice versa using a specified "BHSD"
@@ -68,6 +69,17 @@
  */
 public final class BHSDCodec extends Codec {
 
+    /**
+     * The maximum number of bytes read at once when decoding a band.
+     */
+    private static final int BULK_DECODING_SIZE = 8192;
+
+    /**
+     * Buffers for decoding bands, the codecs are shared constants that may be used by segments unpacked concurrently.
+     */
+    private static final ThreadLocal<byte[]> BULK_DECODING_BUFFER = ThreadLocal
+        .withInitial(() -> new byte[BULK_DECODING_SIZE]);
+
     /**
      * The maximum number of bytes in each coding word
      */
@@ -279,9 +291,71 @@ public int decode(final InputStream in, final long last) throws IOException, Pac
     // return u;
     // }
 
+    /**
+     * Decodes {@code count} values into {@code band}, starting at {@code offset}.
+     *
+     * <p>Rather than reading the stream byte by byte, chunks of bytes are read into an array which the values are
+     * decoded from. Every value takes at least one byte, so reading no more bytes than there are values left never
+     * reads past the end of the band; the bytes of a value continuing after a chunk are kept for the next one.</p>
+     */
+    private void decodeBulk(final int[] band, final int offset, final int count, final InputStream in, int last)
+        throws IOException {
+        final byte[] buffer = BULK_DECODING_BUFFER.get();
+        final boolean signed = isSigned();
+        final boolean delta = isDelta();
+        final long signMask = (1L << s) - 1;
+        final int end = offset + count;
+        int i = offset;
+        int carry = 0;
+        while (i < end) {
+            final int wanted = Math.min(buffer.length - carry, end - i);
+            if (IOUtils.readFully(in, buffer, carry, wanted) < wanted) {
+                throw new EOFException("End of stream reached whilst decoding");
+            }
+            lastBandLength += wanted;
+            final int available = carry + wanted;
+            carry = 0;
+            int pos = 0;
+            values: while (i < end) {
+                final int start = pos;
+                long z = 0;
+                int n = 0;
+                int x;
+                do {
+                    if (pos == available) {
+                        carry = pos - start;
+                        System.arraycopy(buffer, start, buffer, 0, carry);
+                        break values;
+                    }
+                    x = buffer[pos++] & 0xFF;
+                    z += x * powers[n];
+                    n++;
+                } while (x >= l && n < b);
+                if (signed) {
+                    if ((z & signMask) == signMask) {
+                        z = z >>> s ^ -1L;
+                    } else {
+                        z = z - (z >>> s);
+                    }
+                }
+                if (delta) {
+                    z += last;
+                }
+                band[i++] = last = (int) z;
+            }
+        }
+    }
+
     @Override
     public int[] decodeInts(final int n, final InputStream in) throws IOException, Pack200Exception {
-        final int[] band = super.decodeInts(n, in);
+        final int[] band;
+        if (n > 0) {
+            lastBandLength = 0;
+            band = new int[n];
+            decodeBulk(band, 0, n, in, 0);
+        } else {
+            band = super.decodeInts(n, in);
+        }
         if (isDelta()) {
             for (int i = 0; i < band.length; i++) {
                 while (band[i] > largest) {
@@ -298,7 +372,14 @@ public int[] decodeInts(final int n, final InputStream in) throws IOException, P
     @Override
     public int[] decodeInts(final int n, final InputStream in, final int firstValue)
         throws IOException, Pack200Exception {
-        final int[] band = super.decodeInts(n, in, firstValue);
+        final int[] band;
+        if (n > 0) {
+            band = new int[n + 1];
+            band[0] = firstValue;
+            decodeBulk(band, 1, n, in, firstValue);
+        } else {
+            band = super.decodeInts(n, in, firstValue);
+        }
         if (isDelta()) {
             for (int i = 0; i < band.length; i++) {
                 while (band[i] > largest) {
@@ -65,7 +65,14 @@ public class CodecEncoding {
         new BHSDCodec(4, 224, 0, 1), new BHSDCodec(4, 224, 1, 1), new BHSDCodec(4, 240, 0, 1),
         new BHSDCodec(4, 240, 1, 1), new BHSDCodec(4, 248, 0, 1), new BHSDCodec(4, 248, 1, 1)};
 
-    private static Map<BHSDCodec, Integer> canonicalCodecsToSpecifiers;
+    private static final Map<BHSDCodec, Integer> canonicalCodecsToSpecifiers = new HashMap<>(canonicalCodec.length);
+
+    static {
+        // initialized eagerly as segments may be packed concurrently
+        for (int i = 0; i < canonicalCodec.length; i++) {
+            canonicalCodecsToSpecifiers.put(canonicalCodec[i], Integer.valueOf(i));
+        }
+    }
 
     public static BHSDCodec getCanonicalCodec(final int i) {
         return canonicalCodec[i];
@@ -178,15 +185,6 @@ public static Codec getCodec(final int value, final InputStream in, final Codec
     }
 
     public static int[] getSpecifier(final Codec codec, final Codec defaultForBand) {
-        // lazy initialization
-        if (canonicalCodecsToSpecifiers == null) {
-            final HashMap<BHSDCodec, Integer> reverseMap = new HashMap<>(canonicalCodec.length);
-            for (int i = 0; i < canonicalCodec.length; i++) {
-                reverseMap.put(canonicalCodec[i], Integer.valueOf(i));
-            }
-            canonicalCodecsToSpecifiers = reverseMap;
-        }
-
 		if (canonicalCodecsToSpecifiers.containsKey(codec)) {
 			return new int[] { canonicalCodecsToSpecifiers.get(codec).intValue() };
 		}
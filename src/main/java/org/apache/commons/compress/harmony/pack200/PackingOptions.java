@@ -51,6 +51,7 @@ public class PackingOptions {
     private final Map<String, String> codeAttributeActions = new HashMap<>();
     private boolean verbose;
     private String logFile;
+    private int parallelism = 1;
 
     private Attribute[] unknownAttributeTypes;
 
@@ -138,6 +139,16 @@ private String getOrDefault(final Map<String, String> map, final String type, fi
         return map == null ? defaultValue : map.getOrDefault(type, defaultValue);
     }
 
+    /**
+     * Gets the number of segments that are packed concurrently.
+     *
+     * @return the number of segments that are packed concurrently
+     * @since 1.23
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
     public long getSegmentLimit() {
         return segmentLimit;
     }
@@ -252,6 +263,25 @@ public void setModificationTime(final String modificationTime) {
         this.modificationTime = modificationTime;
     }
 
+    /**
+     * Sets the number of segments that are packed concurrently.
+     *
+     * <p>Segments are independent of each other and are always written in their original order, so the packed archive
+     * does not depend on this setting. Values greater than one require more memory as the packed bands of several
+     * segments are kept in memory at the same time. The default is one, which packs all segments on the calling
+     * thread.</p>
+     *
+     * @param parallelism the number of segments to pack concurrently
+     * @throws IllegalArgumentException if parallelism is less than one
+     * @since 1.23
+     */
+    public void setParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
     public void setQuiet(final boolean quiet) {
         this.verbose = !quiet;
     }
@@ -518,7 +518,8 @@ void unpackRead(InputStream in) throws IOException, Pack200Exception {
     void unpackWrite(final JarOutputStream out) throws IOException {
         writeJar(out);
         if (logStream != null) {
-            logStream.close();
+            // the log stream is owned by the caller, it may be System.out
+            logStream.flush();
         }
     }
 
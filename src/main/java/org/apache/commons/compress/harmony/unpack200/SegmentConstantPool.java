@@ -72,6 +72,12 @@ protected static boolean regexMatches(final String regexString, final String com
     }
     private final CpBands bands;
     private final SegmentConstantPoolArrayCache arrayCache = new SegmentConstantPoolArrayCache();
+    private SegmentConstantPoolIndex index;
+    private SegmentConstantPoolIndex.MemberIndex classIndex;
+    private SegmentConstantPoolIndex.MemberIndex fieldIndex;
+    private SegmentConstantPoolIndex.MemberIndex methodIndex;
+    private SegmentConstantPoolIndex.MemberIndex imethodIndex;
+    private SegmentConstantPoolIndex.MemberIndex initMethodIndex;
 
     /**
      * @param bands TODO
@@ -195,6 +201,59 @@ public ConstantPoolEntry getInitMethodPoolEntry(final int cp, final long value,
         return getConstantPoolEntry(cp, realIndex);
     }
 
+    /**
+     * Answer the index for the given arrays if they belong to the segment's constant pool, building it on first use.
+     *
+     * @return MemberIndex for the given arrays and regex, or null if they are not indexed.
+     */
+    private SegmentConstantPoolIndex.MemberIndex getMemberIndex(final String[] primaryArray,
+        final String[] secondaryArray, final String secondaryCompareRegex) {
+        final String[] classes = bands.getCpClass();
+        if (primaryArray == null || classes == null) {
+            return null;
+        }
+        if (index == null) {
+            index = new SegmentConstantPoolIndex(classes);
+        }
+        if (REGEX_MATCH_ALL.equals(secondaryCompareRegex)) {
+            if (primaryArray == classes) {
+                if (classIndex == null) {
+                    classIndex = index.indexMembers(classes, null);
+                }
+                return classIndex;
+            }
+            if (primaryArray == bands.getCpFieldClass()) {
+                if (fieldIndex == null) {
+                    fieldIndex = index.indexMembers(primaryArray, null);
+                }
+                return fieldIndex;
+            }
+            if (primaryArray == bands.getCpMethodClass()) {
+                if (methodIndex == null) {
+                    methodIndex = index.indexMembers(primaryArray, null);
+                }
+                return methodIndex;
+            }
+            if (primaryArray == bands.getCpIMethodClass()) {
+                if (imethodIndex == null) {
+                    imethodIndex = index.indexMembers(primaryArray, null);
+                }
+                return imethodIndex;
+            }
+        } else if (REGEX_MATCH_INIT.equals(secondaryCompareRegex) && primaryArray == bands.getCpMethodClass()
+            && secondaryArray == bands.getCpMethodDescriptor()) {
+            if (initMethodIndex == null) {
+                final boolean[] initMethods = new boolean[secondaryArray.length];
+                for (int i = 0; i < secondaryArray.length; i++) {
+                    initMethods[i] = regexMatches(REGEX_MATCH_INIT, secondaryArray[i]);
+                }
+                initMethodIndex = index.indexMembers(primaryArray, initMethods);
+            }
+            return initMethodIndex;
+        }
+        return null;
+    }
+
     public ClassFileEntry getValue(final int cp, final long value) throws Pack200Exception {
         final int index = (int) value;
         if (index == -1) {
@@ -259,6 +318,9 @@ protected int matchSpecificPoolEntryIndex(final String[] nameArray, final String
      * primaryCompareString - the secondaryArray[index] .matches() the secondaryCompareString. When the desiredIndex
      * number of hits has been reached, the index into the original two arrays of the element hit is returned.
      *
+     * The class, field and method arrays of the segment's constant pool are looked up using a
+     * {@link SegmentConstantPoolIndex} rather than being searched.
+     *
      * @param primaryArray The first array to search
      * @param secondaryArray The second array (must be same .length as primaryArray)
      * @param primaryCompareString The String to compare against primaryArray using .equals()
@@ -268,6 +330,11 @@ protected int matchSpecificPoolEntryIndex(final String[] nameArray, final String
      */
     protected int matchSpecificPoolEntryIndex(final String[] primaryArray, final String[] secondaryArray,
         final String primaryCompareString, final String secondaryCompareRegex, final int desiredIndex) {
+        final SegmentConstantPoolIndex.MemberIndex memberIndex = getMemberIndex(primaryArray, secondaryArray,
+            secondaryCompareRegex);
+        if (memberIndex != null) {
+            return memberIndex.get(index.indexOfClass(primaryCompareString), desiredIndex);
+        }
         int instanceCount = -1;
         final List<Integer> indexList = arrayCache.indexesForArrayKey(primaryArray, primaryCompareString);
         if (indexList.isEmpty()) {
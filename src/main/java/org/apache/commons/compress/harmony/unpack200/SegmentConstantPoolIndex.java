@@ -0,0 +1,136 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.commons.compress.harmony.unpack200;
+
+/**
+ * An index over the class names of a segment's constant pool and the class references of its field and method
+ * entries, built once per segment.
+ *
+ * Class names are looked up in an open-addressed hash table of class pool indices. Field and method entries are
+ * grouped by the index of the first class with their class name, so that the nth member of a class is found without
+ * searching or allocating.
+ */
+class SegmentConstantPoolIndex {
+
+    /**
+     * The entries of a member pool (fields, methods or interface methods) grouped by the index of their class.
+     */
+    static final class MemberIndex {
+
+        /** Start of the members of each class in {@link #members}, with an extra end offset. */
+        private final int[] offsets;
+        private final int[] members;
+
+        private MemberIndex(final int[] offsets, final int[] members) {
+            this.offsets = offsets;
+            this.members = members;
+        }
+
+        /**
+         * Answer the index of the nth member of the given class, or -1 if the class doesn't have that many members.
+         *
+         * @param classIndex index of the class as answered by {@link SegmentConstantPoolIndex#indexOfClass}
+         * @param n nth member of the class (counting from 0)
+         * @return int index of the member in its pool, or -1 if not found
+         */
+        public int get(final int classIndex, final int n) {
+            if (classIndex < 0 || n < 0) {
+                return -1;
+            }
+            final int position = offsets[classIndex] + n;
+            return position < offsets[classIndex + 1] ? members[position] : -1;
+        }
+    }
+
+    private final String[] classNames;
+    private final int[] table;
+
+    /**
+     * @param classNames the names of the classes of the class pool
+     */
+    public SegmentConstantPoolIndex(final String[] classNames) {
+        this.classNames = classNames;
+        int size = 2;
+        while (size < classNames.length * 2) {
+            size <<= 1;
+        }
+        table = new int[size];
+        for (int i = 0; i < classNames.length; i++) {
+            if (indexOfClass(classNames[i]) < 0) {
+                int slot = slot(classNames[i]);
+                while (table[slot] != 0) {
+                    slot = slot + 1 & table.length - 1;
+                }
+                table[slot] = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Answer the index of the first class with the given name.
+     *
+     * @param name class name to look for (form: java/lang/Object)
+     * @return int index into the class pool, or -1 if not found.
+     */
+    public int indexOfClass(final String name) {
+        int slot = slot(name);
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (classNames[entry - 1].equals(name)) {
+                return entry - 1;
+            }
+            slot = slot + 1 & table.length - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Groups the entries of a member pool by their class.
+     *
+     * @param memberClassNames the class name of each member
+     * @param filter members to include, or null to include all members
+     * @return MemberIndex of the given pool
+     */
+    public MemberIndex indexMembers(final String[] memberClassNames, final boolean[] filter) {
+        final int[] memberClasses = new int[memberClassNames.length];
+        final int[] offsets = new int[classNames.length + 1];
+        int count = 0;
+        for (int i = 0; i < memberClassNames.length; i++) {
+            memberClasses[i] = filter == null || filter[i] ? indexOfClass(memberClassNames[i]) : -1;
+            if (memberClasses[i] >= 0) {
+                offsets[memberClasses[i] + 1]++;
+                count++;
+            }
+        }
+        for (int c = 0; c < classNames.length; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        final int[] members = new int[count];
+        final int[] next = offsets.clone();
+        for (int i = 0; i < memberClasses.length; i++) {
+            if (memberClasses[i] >= 0) {
+                members[next[memberClasses[i]]++] = i;
+            }
+        }
+        return new MemberIndex(offsets, members);
+    }
+
+    private int slot(final String name) {
+        final int h = name.hashCode();
+        return (h ^ h >>> 16) & table.length - 1;
+    }
+}
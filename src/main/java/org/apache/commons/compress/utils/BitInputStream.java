@@ -21,15 +21,24 @@
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 /**
- * Reads bits from an InputStream.
+ * Reads bits from an InputStream or a byte array.
+ *
+ * <p>When reading from a stream only the bytes needed to satisfy a
+ * request are read from the stream, all of them with a single bulk
+ * read. When reading from a byte array the cache is refilled eight
+ * bytes at a time.</p>
  * @since 1.10
  * @NotThreadSafe
  */
 public class BitInputStream implements Closeable {
     private static final int MAXIMUM_CACHE_SIZE = 63; // bits in long minus sign bit
+    private static final int MAXIMUM_PEEK_SIZE = 56; // guaranteed to fit into the cache
+    private static final int MAXIMUM_REFILL_SIZE = 57; // ensureCache stops at this size
+    private static final int BYTE_MASK = 0xFF;
     private static final long[] MASKS = new long[MAXIMUM_CACHE_SIZE + 1];
 
     static {
@@ -40,9 +49,53 @@ public class BitInputStream implements Closeable {
 
     private final CountingInputStream in;
     private final ByteOrder byteOrder;
+    /** Bytes to read from, the data of a byte array or a buffer for the bulk reads from {@link #in}. */
+    private final byte[] data;
+    private final int dataStart;
+    private final int dataEnd;
+    private int dataPosition;
     private long bitsCached;
     private int bitsCachedSize;
 
+    /**
+     * Constructor taking a byte array and its bit arrangement.
+     * @param data the bytes to read from, the array is not copied
+     * @param offset the index of the first byte to read
+     * @param length the number of bytes to read
+     * @param byteOrder the bit arrangement across byte boundaries,
+     *      either BIG_ENDIAN (aaaaabbb bb000000) or LITTLE_ENDIAN (bbbaaaaa 000000bb)
+     * @throws IndexOutOfBoundsException if offset and length don't describe a range of the array
+     * @since 1.23
+     */
+    public BitInputStream(final byte[] data, final int offset, final int length, final ByteOrder byteOrder) {
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + " and length " + length
+                + " don't fit into an array of length " + data.length);
+        }
+        this.in = null;
+        this.byteOrder = byteOrder;
+        this.data = data;
+        this.dataStart = offset;
+        this.dataEnd = offset + length;
+        this.dataPosition = offset;
+    }
+
+    /**
+     * Constructor taking the remaining bytes of a buffer and their bit arrangement.
+     *
+     * <p>The position of the buffer is not modified. The backing
+     * array of a heap buffer is used without copying, the content of
+     * other buffers is copied.</p>
+     * @param buffer the bytes to read from
+     * @param byteOrder the bit arrangement across byte boundaries,
+     *      either BIG_ENDIAN (aaaaabbb bb000000) or LITTLE_ENDIAN (bbbaaaaa 000000bb)
+     * @since 1.23
+     */
+    public BitInputStream(final ByteBuffer buffer, final ByteOrder byteOrder) {
+        this(array(buffer), buffer.hasArray() ? buffer.arrayOffset() + buffer.position() : 0,
+            buffer.remaining(), byteOrder);
+    }
+
     /**
      * Constructor taking an InputStream and its bit arrangement.
      * @param in the InputStream
@@ -52,6 +105,28 @@ public class BitInputStream implements Closeable {
     public BitInputStream(final InputStream in, final ByteOrder byteOrder) {
         this.in = new CountingInputStream(in);
         this.byteOrder = byteOrder;
+        this.data = new byte[Long.BYTES];
+        this.dataStart = 0;
+        this.dataEnd = 0;
+    }
+
+    private static byte[] array(final ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return buffer.array();
+        }
+        final byte[] copy = new byte[buffer.remaining()];
+        buffer.duplicate().get(copy);
+        return copy;
+    }
+
+    private void addByte(final long nextByte) {
+        if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+            bitsCached |= (nextByte << bitsCachedSize);
+        } else {
+            bitsCached <<= Byte.SIZE;
+            bitsCached |= nextByte;
+        }
+        bitsCachedSize += Byte.SIZE;
     }
 
     /**
@@ -74,7 +149,7 @@ public void alignWithByteBoundary() {
      * @since 1.16
      */
     public long bitsAvailable() throws IOException {
-        return bitsCachedSize + ((long) Byte.SIZE) * in.available();
+        return bitsCachedSize + ((long) Byte.SIZE) * (in == null ? dataEnd - dataPosition : in.available());
     }
 
     /**
@@ -98,30 +173,47 @@ public void clearBitCache() {
 
     @Override
     public void close() throws IOException {
-        in.close();
+        if (in != null) {
+            in.close();
+        }
     }
 
     /**
-     * Fills the cache up to 56 bits
+     * Drops bits from the cache, there must be enough of them.
+     */
+    private void dropCachedBits(final int count) {
+        if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+            bitsCached >>>= count;
+        }
+        bitsCachedSize -= count;
+    }
+
+    /**
+     * Fills the cache up to 57 bits
      * @param count
      * @return return true, when EOF
      * @throws IOException
      */
     private boolean ensureCache(final int count) throws IOException {
-        while (bitsCachedSize < count && bitsCachedSize < 57) {
-            final long nextByte = in.read();
-            if (nextByte < 0) {
-                return true;
+        final int target = Math.min(count, MAXIMUM_REFILL_SIZE);
+        if (bitsCachedSize >= target) {
+            return false;
+        }
+        if (in == null) {
+            // fill as many whole bytes as fit into the cache
+            final int end = Math.min(dataEnd, dataPosition + (Long.SIZE - bitsCachedSize) / Byte.SIZE);
+            while (dataPosition < end) {
+                addByte(data[dataPosition++] & BYTE_MASK);
             }
-            if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
-                bitsCached |= (nextByte << bitsCachedSize);
-            } else {
-                bitsCached <<= Byte.SIZE;
-                bitsCached |= nextByte;
+        } else {
+            // read exactly the bytes needed, the stream must not be read beyond the end of the data
+            final int needed = (target - bitsCachedSize + Byte.SIZE - 1) / Byte.SIZE;
+            final int read = IOUtils.readFully(in, data, 0, needed);
+            for (int i = 0; i < read; i++) {
+                addByte(data[i] & BYTE_MASK);
             }
-            bitsCachedSize += Byte.SIZE;
         }
-        return false;
+        return bitsCachedSize < target;
     }
 
     /**
@@ -133,7 +225,37 @@ private boolean ensureCache(final int count) throws IOException {
      * @since 1.17
      */
     public long getBytesRead() {
-        return in.getBytesRead();
+        return in == null ? dataPosition - dataStart : in.getBytesRead();
+    }
+
+    /**
+     * Returns the next bits without consuming them.
+     *
+     * <p>If the end of the underlying stream is reached before
+     * {@code count} bits could be read the missing bits are returned
+     * as zeros, {@link #bitsCached} tells how many of the returned
+     * bits are real. This allows table driven decoders to look up a
+     * code of unknown length and only consume the bits actually used
+     * via {@link #readBits}.</p>
+     *
+     * @param count the number of bits to peek at, must be a positive
+     * number not bigger than 56.
+     * @return the bits concatenated as a long using the stream's byte order.
+     * @throws IOException on error
+     * @since 1.23
+     */
+    public long peekBits(final int count) throws IOException {
+        if (count < 0 || count > MAXIMUM_PEEK_SIZE) {
+            throw new IOException("count must not be negative or greater than " + MAXIMUM_PEEK_SIZE);
+        }
+        ensureCache(count);
+        if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+            return bitsCached & MASKS[count];
+        }
+        if (bitsCachedSize >= count) {
+            return (bitsCached >> (bitsCachedSize - count)) & MASKS[count];
+        }
+        return (bitsCached << (count - bitsCachedSize)) & MASKS[count];
     }
 
     private long processBitsGreater57(final int count) throws IOException {
@@ -144,7 +266,7 @@ private long processBitsGreater57(final int count) throws IOException {
         // bitsCachedSize >= 57 and left-shifting it 8 bits would cause an overflow
         final int bitsToAddCount = count - bitsCachedSize;
         overflowBits = Byte.SIZE - bitsToAddCount;
-        final long nextByte = in.read();
+        final long nextByte = readByte();
         if (nextByte < 0) {
             return nextByte;
         }
@@ -188,6 +310,13 @@ public long readBits(final int count) throws IOException {
         return readCachedBits(count);
     }
 
+    private long readByte() throws IOException {
+        if (in != null) {
+            return in.read();
+        }
+        return dataPosition < dataEnd ? data[dataPosition++] & BYTE_MASK : -1;
+    }
+
     private long readCachedBits(final int count) {
         final long bitsOut;
         if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
@@ -200,4 +329,25 @@ private long readCachedBits(final int count) {
         return bitsOut;
     }
 
+    /**
+     * Skips bits, this is a cheaper {@link #readBits} for callers
+     * that already know the bits from {@link #peekBits}.
+     *
+     * @param count the number of bits to skip, must be a positive
+     * number not bigger than 56.
+     * @return the number of bits skipped, less than count if the end
+     * of the underlying stream has been reached
+     * @throws IOException on error
+     * @since 1.23
+     */
+    public int skipBits(final int count) throws IOException {
+        if (count < 0 || count > MAXIMUM_PEEK_SIZE) {
+            throw new IOException("count must not be negative or greater than " + MAXIMUM_PEEK_SIZE);
+        }
+        ensureCache(count);
+        final int skipped = Math.min(count, bitsCachedSize);
+        dropCachedBits(skipped);
+        return skipped;
+    }
+
 }
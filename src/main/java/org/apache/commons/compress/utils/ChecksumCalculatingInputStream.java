@@ -58,7 +58,13 @@ public long getValue() {
     public int read() throws IOException {
         final int ret = in.read();
         if (ret >= 0) {
-            checksum.update(ret);
+            if (Metrics.isEnabled()) {
+                final long start = System.nanoTime();
+                checksum.update(ret);
+                Metrics.getListener().checksumTime(this, System.nanoTime() - start);
+            } else {
+                checksum.update(ret);
+            }
         }
         return ret;
     }
@@ -87,7 +93,13 @@ public int read(final byte[] b, final int off, final int len) throws IOException
         }
         final int ret = in.read(b, off, len);
         if (ret >= 0) {
-            checksum.update(b, off, ret);
+            if (Metrics.isEnabled()) {
+                final long start = System.nanoTime();
+                checksum.update(b, off, ret);
+                Metrics.getListener().checksumTime(this, System.nanoTime() - start);
+            } else {
+                checksum.update(b, off, ret);
+            }
         }
         return ret;
     }
@@ -76,7 +76,13 @@ public int read() throws IOException {
         }
         final int ret = in.read();
         if (ret >= 0) {
-            checksum.update(ret);
+            if (Metrics.isEnabled()) {
+                final long start = System.nanoTime();
+                checksum.update(ret);
+                Metrics.getListener().checksumTime(this, System.nanoTime() - start);
+            } else {
+                checksum.update(ret);
+            }
             --bytesRemaining;
         }
         verify();
@@ -107,7 +113,13 @@ public int read(final byte[] b, final int off, final int len) throws IOException
         }
         final int ret = in.read(b, off, len);
         if (ret >= 0) {
-            checksum.update(b, off, ret);
+            if (Metrics.isEnabled()) {
+                final long start = System.nanoTime();
+                checksum.update(b, off, ret);
+                Metrics.getListener().checksumTime(this, System.nanoTime() - start);
+            } else {
+                checksum.update(b, off, ret);
+            }
             bytesRemaining -= ret;
         }
         verify();
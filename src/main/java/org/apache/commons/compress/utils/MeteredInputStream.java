@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reports the bytes read from the wrapped stream and the time spent reading them to the {@link MetricsListener}.
+ *
+ * <p>Bytes read again after {@link #reset} are reported again.</p>
+ *
+ * @NotThreadSafe
+ * @since 1.23
+ */
+public class MeteredInputStream extends FilterInputStream {
+
+    private final Object source;
+
+    /**
+     * Creates a new stream.
+     *
+     * @param in the stream to read from
+     * @param source the source reported to the listener
+     */
+    public MeteredInputStream(final InputStream in, final Object source) {
+        super(in);
+        this.source = source;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!Metrics.isEnabled()) {
+            return in.read();
+        }
+        final long start = System.nanoTime();
+        final int b = in.read();
+        Metrics.getListener().ioRead(source, b >= 0 ? 1 : 0, System.nanoTime() - start);
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (!Metrics.isEnabled()) {
+            return in.read(b, off, len);
+        }
+        final long start = System.nanoTime();
+        final int n = in.read(b, off, len);
+        Metrics.getListener().ioRead(source, Math.max(n, 0), System.nanoTime() - start);
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        if (!Metrics.isEnabled()) {
+            return in.skip(n);
+        }
+        final long start = System.nanoTime();
+        final long skipped = in.skip(n);
+        Metrics.getListener().ioRead(source, skipped, System.nanoTime() - start);
+        return skipped;
+    }
+}
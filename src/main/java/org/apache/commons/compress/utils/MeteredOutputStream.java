@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Reports the bytes written to the wrapped stream and the time spent writing them to the {@link MetricsListener}.
+ *
+ * @NotThreadSafe
+ * @since 1.23
+ */
+public class MeteredOutputStream extends FilterOutputStream {
+
+    private final Object source;
+
+    /**
+     * Creates a new stream.
+     *
+     * @param out the stream to write to
+     * @param source the source reported to the listener
+     */
+    public MeteredOutputStream(final OutputStream out, final Object source) {
+        super(out);
+        this.source = source;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (!Metrics.isEnabled()) {
+            out.write(b, off, len);
+            return;
+        }
+        final long start = System.nanoTime();
+        out.write(b, off, len);
+        Metrics.getListener().ioWritten(source, len, System.nanoTime() - start);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (!Metrics.isEnabled()) {
+            out.write(b);
+            return;
+        }
+        final long start = System.nanoTime();
+        out.write(b);
+        Metrics.getListener().ioWritten(source, 1, System.nanoTime() - start);
+    }
+}
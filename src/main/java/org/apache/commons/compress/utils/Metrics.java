@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.utils;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the {@link MetricsListener} all streams and archives report to.
+ *
+ * <p>Unless a listener is set explicitly, the first {@link MetricsListener} service found by the
+ * {@link ServiceLoader} of the system class loader is used. Without any listener no measurements are taken at
+ * all.</p>
+ *
+ * @ThreadSafe
+ * @since 1.23
+ */
+public final class Metrics {
+
+    private static volatile MetricsListener listener = loadListener();
+
+    /** Set on threads running {@link #unmetered}. */
+    private static final ThreadLocal<Boolean> SUSPENDED = new ThreadLocal<>();
+
+    /**
+     * Gets the current listener.
+     *
+     * @return the listener, {@link MetricsListener#NOOP} if none has been registered or the current thread is
+     * running {@link #unmetered}
+     */
+    public static MetricsListener getListener() {
+        final MetricsListener current = listener;
+        return current == MetricsListener.NOOP || SUSPENDED.get() == null ? current : MetricsListener.NOOP;
+    }
+
+    /**
+     * Whether events are reported to a listener, measurements that are expensive to take are skipped otherwise.
+     *
+     * @return true if a listener has been registered and the current thread is not running {@link #unmetered}
+     */
+    public static boolean isEnabled() {
+        return getListener() != MetricsListener.NOOP;
+    }
+
+    private static MetricsListener loadListener() {
+        try {
+            final Iterator<MetricsListener> services = ServiceLoader
+                .load(MetricsListener.class, ClassLoader.getSystemClassLoader()).iterator();
+            if (services.hasNext()) {
+                return services.next();
+            }
+        } catch (final ServiceConfigurationError e) { // NOSONAR
+            // a broken service must not break compression
+        }
+        return MetricsListener.NOOP;
+    }
+
+    /**
+     * Sets the listener that receives all measurements, streams created before the listener has been set report to
+     * the new listener as well.
+     *
+     * @param listener the listener, null to stop reporting
+     */
+    public static void setListener(final MetricsListener listener) {
+        Metrics.listener = listener == null ? MetricsListener.NOOP : listener;
+    }
+
+    /**
+     * Runs an action without reporting anything it does on the current thread, for reads that only probe data
+     * rather than process it.
+     *
+     * @param <T> the type of the result
+     * @param action the action to run
+     * @return the result of the action
+     * @throws Exception if the action throws
+     */
+    public static <T> T unmetered(final Callable<T> action) throws Exception {
+        if (SUSPENDED.get() != null) {
+            return action.call();
+        }
+        SUSPENDED.set(Boolean.TRUE);
+        try {
+            return action.call();
+        } finally {
+            SUSPENDED.remove();
+        }
+    }
+
+    private Metrics() {
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.utils;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+
+/**
+ * Receives measurements from the streams and archives of this library.
+ *
+ * <p>A listener is registered globally using {@link Metrics#setListener} or as a {@link java.util.ServiceLoader}
+ * service, so applications can feed per codec throughput dashboards without wrapping every stream themselves. All
+ * methods do nothing by default, implementations only override the events they are interested in.</p>
+ *
+ * <p>The {@code source} of an event is the stream or archive reporting it, or the name of the format for the raw
+ * streams wrapped by {@link org.apache.commons.compress.compressors.CompressorStreamFactory} and
+ * {@link org.apache.commons.compress.archivers.ArchiveStreamFactory}.</p>
+ *
+ * <p>Events are reported synchronously on the thread using the stream, many of them once per read or write
+ * operation. Implementations must be thread-safe and should be cheap, accumulating counters rather than doing
+ * I/O.</p>
+ *
+ * <p>The time spent decoding is not reported as an event of its own yet. It is the time an application spends
+ * reading from a compressor stream minus the time reported by {@link #ioRead} for the stream underneath.</p>
+ *
+ * @since 1.23
+ */
+public interface MetricsListener {
+
+    /** Listener ignoring all events, used as long as no other listener has been registered. */
+    MetricsListener NOOP = new MetricsListener() {
+        // nothing to do
+    };
+
+    /**
+     * Reports bytes returned by a stream.
+     *
+     * <p>These are the uncompressed bytes for compressor streams and all bytes consumed from the archive, including
+     * headers, for archive streams.</p>
+     *
+     * @param source the stream
+     * @param count the number of bytes
+     */
+    default void bytesRead(final Object source, final long count) {
+    }
+
+    /**
+     * Reports bytes written by an archive stream, including headers.
+     *
+     * @param source the stream
+     * @param count the number of bytes
+     */
+    default void bytesWritten(final Object source, final long count) {
+    }
+
+    /**
+     * Reports time spent calculating checksums.
+     *
+     * @param source the stream calculating the checksum
+     * @param nanos the elapsed time in nanoseconds
+     */
+    default void checksumTime(final Object source, final long nanos) {
+    }
+
+    /**
+     * Reports an entry whose data is about to be read.
+     *
+     * @param source the archive or stream
+     * @param entry the entry
+     */
+    default void entryRead(final Object source, final ArchiveEntry entry) {
+    }
+
+    /**
+     * Reports an entry that is about to be written.
+     *
+     * @param source the archive or stream
+     * @param entry the entry
+     */
+    default void entryWritten(final Object source, final ArchiveEntry entry) {
+    }
+
+    /**
+     * Reports bytes read from an underlying stream and the time the read took.
+     *
+     * <p>For compressor streams these are the compressed bytes, so comparing the time reported here with the total
+     * time spent reading tells how much time is spent decoding rather than waiting for I/O.</p>
+     *
+     * @param source the stream or format
+     * @param count the number of bytes
+     * @param nanos the elapsed time in nanoseconds
+     */
+    default void ioRead(final Object source, final long count, final long nanos) {
+    }
+
+    /**
+     * Reports bytes written to an underlying stream and the time the write took.
+     *
+     * @param source the stream or format
+     * @param count the number of bytes
+     * @param nanos the elapsed time in nanoseconds
+     */
+    default void ioWritten(final Object source, final long count, final long nanos) {
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An input stream that reads ahead from a wrapped stream on a background thread.
+ *
+ * <p>The data is prefetched into a fixed ring of reusable buffers, so that reading from the
+ * underlying stream overlaps with whatever the consumer of this stream does with the data -
+ * decompressing and parsing archive entries for example. The stream is meant to be placed
+ * between a slow source and a streaming reader like {@code TarArchiveInputStream}:</p>
+ *
+ * <pre>
+ * try (InputStream raw = openRemoteObject();
+ *      TarArchiveInputStream tar = new TarArchiveInputStream(
+ *          new GzipCompressorInputStream(new ReadAheadInputStream(raw, 1 &lt;&lt; 20, 8)))) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>At most {@code bufferCount * bufferSize} bytes are read ahead of the consumer. The
+ * consuming side is not thread-safe, this stream is expected to be read by a single thread.
+ * Closing this stream stops the background task, waits for a pending read of the task to
+ * complete and closes the wrapped stream.</p>
+ *
+ * <p>Any {@link IOException} thrown by the wrapped stream is rethrown by the {@code read}
+ * method that would have returned the data following the failure and by all later reads,
+ * other exceptions are wrapped in an {@link IOException}. If the read-ahead task gets
+ * interrupted, reads fail with an {@link InterruptedIOException} once the data read so
+ * far has been consumed.</p>
+ *
+ * @NotThreadSafe
+ * @since 1.23
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    /** A buffer of the ring together with the number of valid bytes it holds. */
+    private static final class Chunk {
+        private final byte[] data;
+        /** number of valid bytes */
+        private int length;
+
+        Chunk(final int size) {
+            data = new byte[size];
+        }
+    }
+
+    /** Put into the free queue by close to wake up a waiting producer. */
+    private static final Chunk POISON = new Chunk(0);
+
+    /** Put into the filled queue by the producer once it stops, signals EOF or a failure. */
+    private static final Chunk END = new Chunk(0);
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    /** Default size of a single buffer of the ring. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Default number of buffers in the ring. */
+    public static final int DEFAULT_BUFFER_COUNT = 4;
+
+    private static final int BYTE_MASK = 0xFF;
+
+    private final InputStream in;
+    private final BlockingQueue<Chunk> free;
+    private final BlockingQueue<Chunk> filled;
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+    /** State of the read-ahead task, {@link #NEW}, {@link #RUNNING} or {@link #DONE}. */
+    private final AtomicInteger producerState = new AtomicInteger(NEW);
+    private final CountDownLatch producerDone = new CountDownLatch(1);
+
+    private Chunk current;
+    private int position;
+    private boolean eof;
+
+    /**
+     * Creates a stream that reads ahead using {@value #DEFAULT_BUFFER_COUNT} buffers of
+     * {@value #DEFAULT_BUFFER_SIZE} bytes on a new daemon thread.
+     *
+     * @param in the stream to read from
+     */
+    public ReadAheadInputStream(final InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * Creates a stream that reads ahead on a new daemon thread.
+     *
+     * @param in the stream to read from
+     * @param bufferSize the size of a single buffer
+     * @param bufferCount the number of buffers to read ahead, must be at least two
+     * @throws IllegalArgumentException if bufferSize is not positive or bufferCount is less than two
+     */
+    public ReadAheadInputStream(final InputStream in, final int bufferSize, final int bufferCount) {
+        this(in, bufferSize, bufferCount, null);
+    }
+
+    /**
+     * Creates a stream that reads ahead using a task submitted to the given executor.
+     *
+     * <p>The task runs until the wrapped stream is exhausted, fails or this stream gets
+     * closed, so the executor must be able to dedicate a thread to it for that time. On
+     * Java 21 an executor creating virtual threads is a good fit.</p>
+     *
+     * @param in the stream to read from
+     * @param bufferSize the size of a single buffer
+     * @param bufferCount the number of buffers to read ahead, must be at least two
+     * @param executor the executor to run the read-ahead task, if {@code null} a new daemon
+     * thread is started
+     * @throws IllegalArgumentException if bufferSize is not positive or bufferCount is less than two
+     */
+    public ReadAheadInputStream(final InputStream in, final int bufferSize, final int bufferCount,
+        final Executor executor) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        if (bufferCount < 2) {
+            throw new IllegalArgumentException("bufferCount must be at least 2");
+        }
+        this.in = in;
+        free = new ArrayBlockingQueue<>(bufferCount);
+        // one more slot for END, so the producer can always signal that it has stopped
+        filled = new ArrayBlockingQueue<>(bufferCount + 1);
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(new Chunk(bufferSize));
+        }
+        if (executor == null) {
+            final Thread t = new Thread(this::fill, "commons-compress-read-ahead");
+            t.setDaemon(true);
+            t.start();
+        } else {
+            executor.execute(this::fill);
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        return current == null ? 0 : current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!producerState.compareAndSet(NEW, DONE)) {
+            free.offer(POISON);
+            try {
+                producerDone.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the read-ahead task");
+            }
+        }
+        in.close();
+    }
+
+    /**
+     * Producer side, moves buffers from the free queue to the filled queue until EOF,
+     * failure or close and signals the end with {@link #END} unless the stream has been closed.
+     */
+    private void fill() {
+        if (!producerState.compareAndSet(NEW, RUNNING)) {
+            // closed before the task started
+            return;
+        }
+        try {
+            while (!closed) {
+                final Chunk chunk = free.take();
+                if (chunk == POISON) {
+                    return;
+                }
+                final int n = readChunk(chunk.data);
+                if (n > 0) {
+                    chunk.length = n;
+                    filled.put(chunk);
+                } else {
+                    free.add(chunk);
+                }
+                if (n < chunk.data.length || failure != null) {
+                    // short read means EOF or failure
+                    return;
+                }
+            }
+        } catch (final InterruptedException ex) {
+            // the executor is shutting down
+            failure = new InterruptedIOException("Interrupted while reading ahead");
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!closed) {
+                filled.add(END);
+            }
+            producerState.set(DONE);
+            producerDone.countDown();
+        }
+    }
+
+    /**
+     * Makes sure {@link #current} holds unread bytes.
+     *
+     * @return false if EOF has been reached
+     */
+    private boolean ensureData() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (current != null && position < current.length) {
+            return true;
+        }
+        if (eof) {
+            if (failure != null) {
+                throw failure;
+            }
+            return false;
+        }
+        if (current != null) {
+            free.add(current);
+            current = null;
+        }
+        final Chunk next;
+        try {
+            next = filled.take();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for data");
+        }
+        if (next == END) {
+            eof = true;
+            if (failure != null) {
+                throw failure;
+            }
+            return false;
+        }
+        current = next;
+        position = 0;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return current.data[position++] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        final int n = Math.min(len, current.length - position);
+        System.arraycopy(current.data, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * Fills the buffer from the wrapped stream, keeping the data read before an exception.
+     * Unchecked exceptions are wrapped in an {@link IOException} so they reach the consumer.
+     *
+     * @return the number of bytes read, less than the buffer's length if EOF has been reached or reading failed
+     */
+    private int readChunk(final byte[] buffer) {
+        int count = 0;
+        try {
+            while (count < buffer.length) {
+                final int n = in.read(buffer, count, buffer.length - count);
+                if (n < 0) {
+                    break;
+                }
+                count += n;
+            }
+        } catch (final IOException ex) {
+            failure = ex;
+        } catch (final RuntimeException | Error ex) { // NOSONAR
+            failure = new IOException(ex);
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        long remaining = n;
+        while (remaining > 0 && ensureData()) {
+            final int skipped = (int) Math.min(remaining, current.length - position);
+            position += skipped;
+            remaining -= skipped;
+        }
+        return n < 0 ? 0 : n - remaining;
+    }
+}
@@ -33,6 +33,9 @@
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.commons.compress.MockEvilInputStream;
 import org.apache.commons.compress.archivers.arj.ArjArchiveInputStream;
@@ -226,6 +229,17 @@ private String detect(final String resource) throws IOException, ArchiveExceptio
             return ArchiveStreamFactory.detect(in);
         }
     }
+
+    private List<String> detectStack(final String resource) throws IOException, ArchiveException {
+        final byte[] data = Files.readAllBytes(getFile(resource).toPath());
+        try (InputStream in = new BufferedInputStream(new ByteArrayInputStream(data))) {
+            final List<String> formats = ArchiveStreamFactory.detectStack(in);
+            // the stream has been reset
+            assertEquals(data[0] & 0xFF, in.read());
+            return formats;
+        }
+    }
+
     /**
      * Test case for
      * <a href="https://issues.apache.org/jira/browse/COMPRESS-267"
@@ -341,6 +355,21 @@ public void testDetect() throws Exception {
         }
     }
 
+    @Test
+    public void testDetectStack() throws Exception {
+        assertEquals(Arrays.asList("gz", ArchiveStreamFactory.TAR), detectStack("bla.tgz"));
+        assertEquals(Arrays.asList("bzip2", ArchiveStreamFactory.TAR), detectStack("bla.tar.bz2"));
+        assertEquals(Arrays.asList("xz", ArchiveStreamFactory.TAR), detectStack("bla.tar.xz"));
+        assertEquals(Arrays.asList("z", ArchiveStreamFactory.TAR), detectStack("bla.tar.Z"));
+        assertEquals(Collections.singletonList(ArchiveStreamFactory.ZIP), detectStack("bla.zip"));
+        assertEquals(Collections.singletonList(ArchiveStreamFactory.TAR), detectStack("bla.tar"));
+        assertEquals(Collections.singletonList("bzip2"), detectStack("bla.txt.bz2"));
+
+        final ArchiveException e = assertThrows(ArchiveException.class, () -> ArchiveStreamFactory
+            .detectStack(new BufferedInputStream(new ByteArrayInputStream(ByteUtils.EMPTY_BYTE_ARRAY))));
+        assertTrue(e.getMessage().startsWith("No Archiver or Compressor found"));
+    }
+
     @Test
     public void testEncodingCtor() {
         ArchiveStreamFactory fac = new ArchiveStreamFactory();
@@ -30,6 +30,8 @@
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 import org.apache.commons.compress.AbstractTestCase;
@@ -38,8 +40,11 @@
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.utils.IOUtils;
 import org.junit.Assert;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -119,6 +124,47 @@ public void outputStreamVersion(final String format) throws Exception {
         verifyContent(format);
     }
 
+    @Test
+    public void parallelScatterZipVersion() throws Exception {
+        setUp("zip");
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(target)) {
+            new Archiver().create(zos, dir.toPath(), new ParallelScatterZipCreator(Executors.newFixedThreadPool(2)),
+                Archiver.EMPTY_FileVisitOption);
+        }
+        verifyContent("zip");
+    }
+
+    @ParameterizedTest
+    @MethodSource("data")
+    public void pipelinedVersion(final String format) throws Exception {
+        // TODO How to parameterize a BeforeEach method?
+        setUp(format);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (OutputStream os = Files.newOutputStream(target.toPath());
+             ArchiveOutputStream aos = ArchiveStreamFactory.DEFAULT.createArchiveOutputStream(format, os)) {
+            new Archiver().create(aos, dir.toPath(), executorService, 1 << 20, Archiver.EMPTY_FileVisitOption);
+        } finally {
+            executorService.shutdownNow();
+        }
+        verifyContent(format);
+    }
+
+    @ParameterizedTest
+    @MethodSource("data")
+    public void pipelinedVersionWithTinyMemoryBudget(final String format) throws Exception {
+        // TODO How to parameterize a BeforeEach method?
+        setUp(format);
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (OutputStream os = Files.newOutputStream(target.toPath());
+             ArchiveOutputStream aos = ArchiveStreamFactory.DEFAULT.createArchiveOutputStream(format, os)) {
+            // no file fits the budget so all of them are streamed
+            new Archiver().create(aos, dir.toPath(), executorService, 5, Archiver.EMPTY_FileVisitOption);
+        } finally {
+            executorService.shutdownNow();
+        }
+        verifyContent(format);
+    }
+
     public void setUp(final String format) throws Exception {
         super.setUp();
         final File c = new File(dir, "a/b/c");
@@ -50,6 +50,23 @@ public void testDecode() throws IOException {
         assertEquals(7, tree.read(stream));
     }
 
+    @Test
+    public void testReadPathsLongerThanLookupTable() throws IOException {
+        final BinaryTree tree = new BinaryTree(10);
+        tree.addLeaf(0, 0, 1, 1);
+        tree.addLeaf(0, 1, 10, 2);
+        tree.addLeaf(0, 3, 2, 3);
+
+        final BitStream stream = new BitStream(new ByteArrayInputStream(new byte[] { 0x01, 0x18 }));
+        assertEquals(2, tree.read(stream));
+        assertEquals(1, tree.read(stream));
+        assertEquals(3, tree.read(stream));
+        assertEquals(1, tree.read(stream));
+        assertEquals(1, tree.read(stream));
+        assertEquals(1, tree.read(stream));
+        assertEquals(-1, tree.read(stream));
+    }
+
     @Test
     public void testExceptions() {
         final BinaryTree binaryFinary = new BinaryTree(4);
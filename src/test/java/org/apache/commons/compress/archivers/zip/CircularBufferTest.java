@@ -19,6 +19,7 @@
 
 package org.apache.commons.compress.archivers.zip;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -62,6 +63,34 @@ public void testCopy() {
         }
     }
 
+    @Test
+    public void testBulkGetWraps() {
+        final CircularBuffer buffer = new CircularBuffer(8);
+        for (int i = 0; i < 6; i++) {
+            buffer.put(i);
+            buffer.get();
+        }
+        for (int i = 0; i < 5; i++) {
+            buffer.put(i + 1);
+        }
+        final byte[] b = new byte[7];
+        assertEquals(5, buffer.get(b, 1, 6));
+        assertArrayEquals(new byte[] { 0, 1, 2, 3, 4, 5, 0 }, b);
+        assertEquals(0, buffer.get(b, 0, 7));
+    }
+
+    @Test
+    public void testCopyWithoutOverlap() {
+        final CircularBuffer buffer = new CircularBuffer(16);
+        for (int i = 1; i <= 4; i++) {
+            buffer.put(i);
+        }
+        buffer.copy(4, 3);
+        final byte[] b = new byte[7];
+        assertEquals(7, buffer.get(b, 0, 7));
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 1, 2, 3 }, b);
+    }
+
     @Test
     public void testPutAndGet() {
         final int size = 16;
@@ -26,9 +26,12 @@
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.utils.IOUtils;
 import org.junit.jupiter.api.Test;
 
 public class StreamCompressorTest {
@@ -48,6 +51,24 @@ public void deflatedEntries() throws Exception {
         assertArrayEquals(expected, actuals);
     }
 
+    @Test
+    public void resetReleasesUnfinishedMethodCompressor() throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (StreamCompressor sc = StreamCompressor.create(baos)) {
+            final byte[] abandoned = "ABANDONED".getBytes();
+            sc.write(abandoned, 0, abandoned.length, ZipMethod.XZ.getCode());
+            sc.reset();
+            final int abandonedSize = baos.size();
+            sc.deflate(new ByteArrayInputStream("AAAAAABBBBBB".getBytes()), ZipMethod.XZ.getCode());
+            assertEquals(baos.size() - abandonedSize, sc.getBytesWrittenForLastEntry());
+            final byte[] written = baos.toByteArray();
+            try (InputStream in = new XZCompressorInputStream(
+                new ByteArrayInputStream(written, abandonedSize, written.length - abandonedSize))) {
+                assertArrayEquals("AAAAAABBBBBB".getBytes(), IOUtils.toByteArray(in));
+            }
+        }
+    }
+
     @Test
     public void storedEntries() throws Exception {
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.archivers.zip;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.compress.AbstractTestCase;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ZipUpdaterTest {
+
+    private static void add(final ZipArchiveOutputStream out, final String name, final String content)
+        throws IOException {
+        out.putArchiveEntry(new ZipArchiveEntry(name));
+        out.write(content.getBytes(UTF_8));
+        out.closeArchiveEntry();
+    }
+
+    private static String content(final ZipFile zf, final String name) throws IOException {
+        return new String(IOUtils.toByteArray(zf.getInputStream(zf.getEntry(name))), UTF_8);
+    }
+
+    private static List<String> names(final ZipFile zf) {
+        final List<String> names = new ArrayList<>();
+        for (final ZipArchiveEntry ze : Collections.list(zf.getEntries())) {
+            names.add(ze.getName());
+        }
+        return names;
+    }
+
+    private File dir;
+
+    private Path archive;
+
+    @BeforeEach
+    public void createArchive() throws Exception {
+        dir = AbstractTestCase.mkdir("dir");
+        archive = new File(dir, "update.zip").toPath();
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(archive)) {
+            add(out, "a.txt", "a");
+            add(out, "b.txt", "b");
+            add(out, "c.txt", "c");
+        }
+    }
+
+    @Test
+    public void compactDropsUnusedData() throws IOException {
+        try (ZipUpdater updater = new ZipUpdater(archive)) {
+            updater.addArchiveEntry(new ZipArchiveEntry("a.txt"),
+                new ByteArrayInputStream("new a".getBytes(UTF_8)));
+        }
+        final Path compacted = new File(dir, "compacted.zip").toPath();
+        ZipUpdater.compact(archive, compacted);
+        assertTrue(Files.size(compacted) < Files.size(archive));
+        try (ZipFile zf = new ZipFile(compacted)) {
+            assertEquals(3, names(zf).size());
+            assertEquals("new a", content(zf, "a.txt"));
+            assertEquals("b", content(zf, "b.txt"));
+        }
+    }
+
+    @Test
+    public void keepsExistingEntriesInPlace() throws IOException {
+        final long offsetOfC;
+        final byte[] originalPrefix;
+        try (ZipFile zf = new ZipFile(archive)) {
+            offsetOfC = zf.getEntry("c.txt").getLocalHeaderOffset();
+            originalPrefix = new byte[(int) zf.getCentralDirectoryStartOffset()];
+        }
+        System.arraycopy(Files.readAllBytes(archive), 0, originalPrefix, 0, originalPrefix.length);
+        try (ZipUpdater updater = new ZipUpdater(archive)) {
+            updater.addArchiveEntry(new ZipArchiveEntry("d.txt"), new ByteArrayInputStream("d".getBytes(UTF_8)));
+        }
+        final byte[] updated = Files.readAllBytes(archive);
+        final byte[] updatedPrefix = new byte[originalPrefix.length];
+        System.arraycopy(updated, 0, updatedPrefix, 0, updatedPrefix.length);
+        assertArrayEquals(originalPrefix, updatedPrefix);
+        try (ZipFile zf = new ZipFile(archive)) {
+            assertEquals(offsetOfC, zf.getEntry("c.txt").getLocalHeaderOffset());
+            assertEquals("d", content(zf, "d.txt"));
+        }
+    }
+
+    @Test
+    public void keepsGeneralPurposeBitsAndNamesOfExistingEntries() throws IOException {
+        final String name = "\u00c4.txt";
+        final Path cp437 = new File(dir, "cp437.zip").toPath();
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(cp437)) {
+            out.setEncoding("Cp437");
+            out.setUseLanguageEncodingFlag(false);
+            final ZipArchiveEntry entry = new ZipArchiveEntry(name);
+            entry.setComment("kept");
+            out.putArchiveEntry(entry);
+            out.write('a');
+            out.closeArchiveEntry();
+        }
+        final byte[] rawName;
+        try (ZipFile zf = new ZipFile(cp437, "Cp437")) {
+            rawName = zf.getEntry(name).getRawName();
+        }
+        // the updater uses UTF-8 and sets the language encoding flag for new entries
+        try (ZipUpdater updater = new ZipUpdater(cp437)) {
+            updater.addArchiveEntry(new ZipArchiveEntry("d.txt"), new ByteArrayInputStream("d".getBytes(UTF_8)));
+        }
+        final GeneralPurposeBit centralDirectoryBits;
+        try (ZipFile zf = new ZipFile(cp437, "Cp437")) {
+            final ZipArchiveEntry kept = zf.getEntry(name);
+            assertNotNull(kept);
+            assertArrayEquals(rawName, kept.getRawName());
+            assertEquals("kept", kept.getComment());
+            centralDirectoryBits = kept.getGeneralPurposeBit();
+            assertFalse(centralDirectoryBits.usesUTF8ForNames());
+            assertTrue(zf.getEntry("d.txt").getGeneralPurposeBit().usesUTF8ForNames());
+        }
+        try (ZipArchiveInputStream in = new ZipArchiveInputStream(Files.newInputStream(cp437), "Cp437")) {
+            final ZipArchiveEntry kept = in.getNextZipEntry();
+            assertEquals(name, kept.getName());
+            assertEquals(centralDirectoryBits, kept.getGeneralPurposeBit());
+        }
+    }
+
+    @Test
+    public void leavesArchiveAloneWithoutModifications() throws IOException {
+        final byte[] original = Files.readAllBytes(archive);
+        try (ZipUpdater updater = new ZipUpdater(archive)) {
+            assertEquals(3, updater.getEntries().size());
+            assertFalse(updater.delete("x.txt"));
+        }
+        assertArrayEquals(original, Files.readAllBytes(archive));
+    }
+
+    @AfterEach
+    public void removeTempFiles() {
+        AbstractTestCase.rmdir(dir);
+    }
+
+    @Test
+    public void updatesArchive() throws IOException {
+        try (ZipUpdater updater = new ZipUpdater(archive)) {
+            assertTrue(updater.delete("b.txt"));
+            updater.addArchiveEntry(new ZipArchiveEntry("a.txt"),
+                new ByteArrayInputStream("new a".getBytes(UTF_8)));
+            updater.setMethod(ZipArchiveEntry.STORED);
+            updater.addArchiveEntry(new ZipArchiveEntry("d.txt"), new ByteArrayInputStream("d".getBytes(UTF_8)));
+            assertEquals(1, updater.getEntries().size());
+        }
+        try (ZipFile zf = new ZipFile(archive)) {
+            assertEquals(3, names(zf).size());
+            assertEquals("c.txt", names(zf).get(0));
+            assertNull(zf.getEntry("b.txt"));
+            assertEquals("new a", content(zf, "a.txt"));
+            assertEquals("c", content(zf, "c.txt"));
+            assertEquals("d", content(zf, "d.txt"));
+            assertEquals(ZipArchiveEntry.STORED, zf.getEntry("d.txt").getMethod());
+        }
+        try (ZipArchiveInputStream in = new ZipArchiveInputStream(Files.newInputStream(archive))) {
+            int count = 0;
+            while (in.getNextZipEntry() != null) {
+                count++;
+            }
+            // the streaming reader sees the replaced and deleted entries as well
+            assertEquals(5, count);
+        }
+    }
+
+    @Test
+    public void updatesArchiveWithDeletionsOnly() throws IOException {
+        try (ZipUpdater updater = new ZipUpdater(archive)) {
+            assertTrue(updater.delete("a.txt"));
+        }
+        try (ZipFile zf = new ZipFile(archive)) {
+            assertEquals(2, names(zf).size());
+            assertEquals("b", content(zf, "b.txt"));
+        }
+    }
+}
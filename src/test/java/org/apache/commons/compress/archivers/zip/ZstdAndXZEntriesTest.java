@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.archivers.zip;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class ZstdAndXZEntriesTest {
+
+    private static final byte[] CONTENT = content();
+
+    private static byte[] content() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("line ").append(i % 97).append(" of the test content\n");
+        }
+        return sb.toString().getBytes(UTF_8);
+    }
+
+    private static void assertReadableByZipFile(final byte[] archive, final ZipMethod method) throws IOException {
+        try (ZipFile zf = new ZipFile(new SeekableInMemoryByteChannel(archive))) {
+            final ZipArchiveEntry content = zf.getEntry("content.txt");
+            assertEquals(method.getCode(), content.getMethod());
+            assertEquals(CONTENT.length, content.getSize());
+            assertTrue(content.getCompressedSize() < CONTENT.length / 4);
+            assertTrue(zf.canReadEntryData(content));
+            try (InputStream in = zf.getInputStream(content)) {
+                assertArrayEquals(CONTENT, IOUtils.toByteArray(in));
+            }
+            try (InputStream in = zf.getInputStream(zf.getEntry("empty.txt"))) {
+                assertEquals(-1, in.read());
+            }
+        }
+    }
+
+    private static byte[] write(final ZipMethod method, final boolean seekable) throws IOException {
+        final SeekableInMemoryByteChannel channel = new SeekableInMemoryByteChannel();
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipArchiveOutputStream zos = seekable ? new ZipArchiveOutputStream(channel)
+            : new ZipArchiveOutputStream(bos)) {
+            zos.setMethod(method.getCode());
+            final ZipArchiveEntry entry = new ZipArchiveEntry("content.txt");
+            entry.setMethod(method.getCode());
+            assertTrue(zos.canWriteEntryData(entry));
+            zos.putArchiveEntry(entry);
+            zos.write(CONTENT);
+            zos.closeArchiveEntry();
+            zos.putArchiveEntry(new ZipArchiveEntry("empty.txt"));
+            zos.closeArchiveEntry();
+        }
+        if (!seekable) {
+            return bos.toByteArray();
+        }
+        return Arrays.copyOf(channel.array(), (int) channel.size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ZipMethod.class, names = {"ZSTD", "XZ"})
+    public void parallelScatterZipCreatorRoundtrip(final ZipMethod method) throws Exception {
+        final ParallelScatterZipCreator creator = new ParallelScatterZipCreator(Executors.newFixedThreadPool(2));
+        for (int i = 0; i < 10; i++) {
+            final ZipArchiveEntry entry = new ZipArchiveEntry("file" + i + ".txt");
+            entry.setMethod(method.getCode());
+            final InputStreamSupplier source = () -> new ByteArrayInputStream(CONTENT);
+            creator.addArchiveEntry(entry, source);
+        }
+        final SeekableInMemoryByteChannel channel = new SeekableInMemoryByteChannel();
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(channel)) {
+            creator.writeTo(zos);
+        }
+        try (ZipFile zf = new ZipFile(new SeekableInMemoryByteChannel(
+            Arrays.copyOf(channel.array(), (int) channel.size())))) {
+            for (int i = 0; i < 10; i++) {
+                final ZipArchiveEntry entry = zf.getEntry("file" + i + ".txt");
+                assertEquals(method.getCode(), entry.getMethod());
+                try (InputStream in = zf.getInputStream(entry)) {
+                    assertArrayEquals(CONTENT, IOUtils.toByteArray(in));
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ZipMethod.class, names = {"ZSTD", "XZ"})
+    public void roundtripUsingDataDescriptor(final ZipMethod method) throws IOException {
+        final byte[] archive = write(method, false);
+        assertReadableByZipFile(archive, method);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ZipMethod.class, names = {"ZSTD", "XZ"})
+    public void roundtripUsingSeekableOutput(final ZipMethod method) throws IOException {
+        final byte[] archive = write(method, true);
+        assertReadableByZipFile(archive, method);
+        try (ZipArchiveInputStream zis = new ZipArchiveInputStream(new ByteArrayInputStream(archive))) {
+            final ZipArchiveEntry entry = zis.getNextZipEntry();
+            assertEquals(method.getCode(), entry.getMethod());
+            assertTrue(zis.canReadEntryData(entry));
+            assertArrayEquals(CONTENT, IOUtils.toByteArray(zis));
+            assertEquals(entry.getCompressedSize(), zis.getCompressedCount());
+            assertEquals("empty.txt", zis.getNextZipEntry().getName());
+            assertEquals(-1, zis.read());
+            assertNull(zis.getNextZipEntry());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ZipMethod.class, names = {"ZSTD", "XZ"})
+    public void streamCompressorCompressesEntry(final ZipMethod method) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (StreamCompressor sc = StreamCompressor.create(bos, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+            sc.deflate(new ByteArrayInputStream(CONTENT), method.getCode());
+            assertEquals(CONTENT.length, sc.getBytesRead());
+            assertEquals(bos.size(), sc.getBytesWrittenForLastEntry());
+        }
+        assertTrue(bos.size() < CONTENT.length / 4);
+    }
+}
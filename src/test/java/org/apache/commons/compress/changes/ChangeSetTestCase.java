@@ -18,16 +18,24 @@
  */
 package org.apache.commons.compress.changes;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
 
 import org.apache.commons.compress.AbstractTestCase;
 import org.apache.commons.compress.archivers.ArchiveEntry;
@@ -38,7 +46,9 @@
 import org.apache.commons.compress.archivers.jar.JarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.IOUtils;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -986,6 +996,96 @@ public void testDeleteFromAndAddToZipUsingZipFilePerform() throws Exception {
         this.checkArchiveContent(result, archiveList);
     }
 
+    /**
+     * Replaces and adds files in a zip archive compressing the added
+     * files in parallel, the kept entries are copied raw.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testReplaceAndAddToZipUsingZipFileParallelPerform() throws Exception {
+        final String archivename = "zip";
+        final File input = this.createArchive(archivename);
+        final File result = File.createTempFile("test", "." + archivename);
+        result.deleteOnExit();
+        final byte[] replacement = Files.readAllBytes(getFile("test.txt").toPath());
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (ZipFile ais = new ZipFile(input);
+             ArchiveOutputStream out = factory.createArchiveOutputStream(archivename,
+                 Files.newOutputStream(result.toPath()))) {
+            final ChangeSet changes = new ChangeSet();
+            changes.add(new ZipArchiveEntry("testdata/test1.xml"),
+                Files.newInputStream(getFile("test.txt").toPath()), true);
+            changes.add(new ZipArchiveEntry("blub/test.txt"), Files.newInputStream(getFile("test.txt").toPath()));
+            archiveList.add("blub/test.txt");
+
+            final ChangeSetResults results = new ChangeSetPerformer(changes, executorService).perform(ais, out);
+            assertEquals(2, results.getAddedFromChangeSet().size());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        this.checkArchiveContent(result, archiveList);
+        try (ZipFile original = new ZipFile(input);
+             ZipFile zf = new ZipFile(result)) {
+            assertArrayEquals(replacement, IOUtils.toByteArray(zf.getInputStream(zf.getEntry("testdata/test1.xml"))));
+            assertArrayEquals(replacement, IOUtils.toByteArray(zf.getInputStream(zf.getEntry("blub/test.txt"))));
+            final ZipArchiveEntry kept = zf.getEntry("testdata/test2.xml");
+            assertEquals(original.getEntry("testdata/test2.xml").getCompressedSize(), kept.getCompressedSize());
+            assertArrayEquals(IOUtils.toByteArray(original.getInputStream(original.getEntry("testdata/test2.xml"))),
+                IOUtils.toByteArray(zf.getInputStream(kept)));
+        }
+    }
+
+    /**
+     * Parallel compression only reads the added entries that get
+     * written, uses the settings of the output and leaves the entries
+     * of the ChangeSet alone.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testParallelPerformCompressesWrittenEntriesOnly() throws Exception {
+        final String archivename = "zip";
+        final File input = this.createArchive(archivename);
+        final File result = File.createTempFile("test", "." + archivename);
+        result.deleteOnExit();
+        final byte[] content = Files.readAllBytes(getFile("test.txt").toPath());
+        final AtomicBoolean skippedInputRead = new AtomicBoolean();
+        final ZipArchiveEntry added = new ZipArchiveEntry("blub/test.txt");
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (ZipFile ais = new ZipFile(input);
+             ZipArchiveOutputStream out = new ZipArchiveOutputStream(result)) {
+            out.setLevel(Deflater.NO_COMPRESSION);
+            final ChangeSet changes = new ChangeSet();
+            // exists in the archive and is not replaced
+            changes.add(new ZipArchiveEntry("testdata/test2.xml"), new ByteArrayInputStream(content) {
+                @Override
+                public synchronized int read(final byte[] b, final int off, final int len) {
+                    skippedInputRead.set(true);
+                    return super.read(b, off, len);
+                }
+            }, false);
+            changes.add(added, new ByteArrayInputStream(content));
+            archiveList.add("blub/test.txt");
+
+            final ChangeSetResults results = new ChangeSetPerformer(changes, executorService).perform(ais, out);
+            assertEquals(1, results.getAddedFromChangeSet().size());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertFalse(skippedInputRead.get());
+        assertEquals(-1, added.getMethod());
+        this.checkArchiveContent(result, archiveList);
+        try (ZipFile zf = new ZipFile(result)) {
+            final ZipArchiveEntry entry = zf.getEntry("blub/test.txt");
+            assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+            assertTrue(entry.getCompressedSize() > content.length);
+            assertArrayEquals(content, IOUtils.toByteArray(zf.getInputStream(entry)));
+        }
+    }
+
     /**
      * Simple delete from an ar file
      *
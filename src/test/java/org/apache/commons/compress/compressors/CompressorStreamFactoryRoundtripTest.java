@@ -19,13 +19,18 @@
 package org.apache.commons.compress.compressors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.stream.Stream;
 
 import org.apache.commons.compress.utils.IOUtils;
 import org.junit.Assert;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -35,6 +40,7 @@ public class CompressorStreamFactoryRoundtripTest {
     public static Stream<Arguments> data() {
         // @formatter:off
         return Stream.of(
+                Arguments.of(CompressorStreamFactory.BROTLI),
                 Arguments.of(CompressorStreamFactory.BZIP2),
                 Arguments.of(CompressorStreamFactory.DEFLATE),
                 Arguments.of(CompressorStreamFactory.GZIP),
@@ -48,6 +54,69 @@ public static Stream<Arguments> data() {
         // @formatter:on
     }
 
+    public static Stream<Arguments> byteBufferData() {
+        return Stream.of(
+                Arguments.of(CompressorStreamFactory.DEFLATE, false),
+                Arguments.of(CompressorStreamFactory.DEFLATE, true),
+                Arguments.of(CompressorStreamFactory.GZIP, true),
+                Arguments.of(CompressorStreamFactory.LZ4_BLOCK, false),
+                Arguments.of(CompressorStreamFactory.LZ4_BLOCK, true),
+                Arguments.of(CompressorStreamFactory.LZ4_FRAMED, false),
+                Arguments.of(CompressorStreamFactory.SNAPPY_RAW, false),
+                Arguments.of(CompressorStreamFactory.SNAPPY_RAW, true),
+                Arguments.of(CompressorStreamFactory.ZSTANDARD, false),
+                Arguments.of(CompressorStreamFactory.ZSTANDARD, true)
+        );
+    }
+
+    private static byte[] fixture() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("The quick brown fox jumps over the lazy dog ").append(i).append('\n');
+        }
+        return sb.toString().getBytes(UTF_8);
+    }
+
+    @ParameterizedTest
+    @MethodSource("byteBufferData")
+    public void testByteBufferRoundtrip(final String compressorName, final boolean direct) throws Exception {
+        final CompressorStreamFactory factory = new CompressorStreamFactory();
+        final byte[] fixture = fixture();
+        final ByteBuffer src = direct ? ByteBuffer.allocateDirect(fixture.length) : ByteBuffer.allocate(fixture.length);
+        src.put(fixture).flip();
+        final ByteBuffer compressed = direct ? ByteBuffer.allocateDirect(2 * fixture.length) : ByteBuffer.allocate(2 * fixture.length);
+        final int compressedSize = factory.compress(compressorName, src, compressed);
+        Assert.assertFalse(src.hasRemaining());
+        Assert.assertEquals(compressedSize, compressed.position());
+        Assert.assertTrue(compressedSize < fixture.length);
+        compressed.flip();
+
+        final ByteBuffer decompressed = direct ? ByteBuffer.allocateDirect(fixture.length + 10) : ByteBuffer.allocate(fixture.length + 10);
+        decompressed.position(10);
+        Assert.assertEquals(fixture.length, factory.decompress(compressorName, compressed, decompressed));
+        decompressed.flip().position(10);
+        final byte[] actual = new byte[decompressed.remaining()];
+        decompressed.get(actual);
+        Assert.assertArrayEquals(fixture, actual);
+
+        compressed.rewind();
+        assertThrows(IOException.class, () -> factory.decompress(compressorName, compressed, ByteBuffer.allocate(100)));
+    }
+
+    @Test
+    public void testByteBufferCompressedDataIsReadableByStreams() throws Exception {
+        final CompressorStreamFactory factory = new CompressorStreamFactory();
+        final byte[] fixture = fixture();
+        for (final String compressorName : new String[] {CompressorStreamFactory.DEFLATE, CompressorStreamFactory.ZSTANDARD}) {
+            final ByteBuffer compressed = ByteBuffer.allocate(2 * fixture.length);
+            factory.compress(compressorName, ByteBuffer.wrap(fixture), compressed);
+            try (InputStream in = factory.createCompressorInputStream(compressorName,
+                new ByteArrayInputStream(compressed.array(), 0, compressed.position()))) {
+                Assert.assertArrayEquals(compressorName, fixture, IOUtils.toByteArray(in));
+            }
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("data")
     public void testCompressorStreamFactoryRoundtrip(final String compressorName) throws Exception {
@@ -180,6 +180,11 @@ public void testJarArchiveCreationInMemory() throws Exception {
         jarArchiveCreation(Pack200Strategy.IN_MEMORY);
     }
 
+    @Test
+    public void testJarArchiveCreationSpillToTempFile() throws Exception {
+        jarArchiveCreation(Pack200Strategy.SPILL_TO_TEMP_FILE);
+    }
+
     @Test
     public void testJarArchiveCreationTempFile() throws Exception {
         jarArchiveCreation(Pack200Strategy.TEMP_FILE);
@@ -195,11 +200,21 @@ public void testJarUnarchiveAllFileTempFile() throws Exception {
         jarUnarchiveAll(true, Pack200Strategy.TEMP_FILE);
     }
 
+    @Test
+    public void testJarUnarchiveAllFileSpillToTempFile() throws Exception {
+        jarUnarchiveAll(true, Pack200Strategy.SPILL_TO_TEMP_FILE);
+    }
+
     @Test
     public void testJarUnarchiveAllInMemory() throws Exception {
         jarUnarchiveAll(false, Pack200Strategy.IN_MEMORY);
     }
 
+    @Test
+    public void testJarUnarchiveAllSpillToTempFile() throws Exception {
+        jarUnarchiveAll(false, Pack200Strategy.SPILL_TO_TEMP_FILE);
+    }
+
     @Test
     public void testJarUnarchiveAllTempFile() throws Exception {
         jarUnarchiveAll(false, Pack200Strategy.TEMP_FILE);
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.brotli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.compress.AbstractTestCase;
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class BrotliCompressorOutputStreamTest {
+
+    private static byte[] compress(final byte[] data, final int quality, final int windowBits) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BrotliCompressorOutputStream out = new BrotliCompressorOutputStream(bos, quality, windowBits)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] decompress(final byte[] compressed) throws IOException {
+        try (InputStream in = new BrotliCompressorInputStream(new ByteArrayInputStream(compressed))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private static byte[] text(final int words) {
+        final Random random = new Random(5);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append("word").append(random.nextInt(300)).append(i % 11 == 0 ? '\n' : ' ');
+        }
+        return sb.toString().getBytes(UTF_8);
+    }
+
+    @Test
+    public void compressesBetterWithHigherQuality() throws IOException {
+        final byte[] data = text(50_000);
+        final int fast = compress(data, 0, 22).length;
+        final int best = compress(data, 11, 22).length;
+        assertTrue(best < fast);
+        assertTrue(fast < data.length / 2);
+    }
+
+    @Test
+    public void flushMakesDataWrittenSoFarDecodable() throws IOException {
+        final byte[] first = "first part, first part, first part\n".getBytes(UTF_8);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BrotliCompressorOutputStream out = new BrotliCompressorOutputStream(bos, 5)) {
+            out.write(first);
+            out.flush();
+            // the flushed data ends at a byte boundary, appending an empty last meta-block completes it
+            final byte[] flushed = Arrays.copyOf(bos.toByteArray(), bos.size() + 1);
+            flushed[flushed.length - 1] = 3;
+            assertArrayEquals(first, decompress(flushed));
+            out.write(first);
+        }
+        final byte[] expected = new byte[2 * first.length];
+        System.arraycopy(first, 0, expected, 0, first.length);
+        System.arraycopy(first, 0, expected, first.length, first.length);
+        assertArrayEquals(expected, decompress(bos.toByteArray()));
+    }
+
+    @Test
+    public void rejectsIllegalArguments() {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class, () -> new BrotliCompressorOutputStream(bos, -1));
+        assertThrows(IllegalArgumentException.class, () -> new BrotliCompressorOutputStream(bos, 12));
+        assertThrows(IllegalArgumentException.class, () -> new BrotliCompressorOutputStream(bos, 5, 9));
+        assertThrows(IllegalArgumentException.class, () -> new BrotliCompressorOutputStream(bos, 5, 25));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11})
+    public void roundtripAllQualities(final int quality) throws IOException {
+        final byte[] data = Files.readAllBytes(AbstractTestCase.getFile("bla.tar").toPath());
+        assertArrayEquals(data, decompress(compress(data, quality, BrotliCompressorOutputStream.DEFAULT_WINDOW_BITS)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 15, 16, 17, 18, 24})
+    public void roundtripWindowSizes(final int windowBits) throws IOException {
+        // bigger than the window and the meta-blocks, so matches are limited and history gets discarded
+        final byte[] data = text(150_000);
+        assertArrayEquals(data, decompress(compress(data, 3, windowBits)));
+        assertArrayEquals(data, decompress(compress(data, 5, windowBits)));
+    }
+
+    @Test
+    public void roundtripEmptyAndIncompressibleData() throws IOException {
+        assertArrayEquals(new byte[0], decompress(compress(new byte[0], 11, 22)));
+        final byte[] random = new byte[200_000];
+        new Random(1).nextBytes(random);
+        final byte[] compressed = compress(random, 1, 22);
+        assertTrue(compressed.length < random.length + 32);
+        assertArrayEquals(random, decompress(compressed));
+    }
+
+    @Test
+    public void singleByteWritesAndFactory() throws Exception {
+        final byte[] data = text(2000);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (CompressorOutputStream out = new CompressorStreamFactory()
+            .createCompressorOutputStream(CompressorStreamFactory.BROTLI, bos)) {
+            for (final byte b : data) {
+                out.write(b);
+            }
+        }
+        assertArrayEquals(data, decompress(bos.toByteArray()));
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.apache.commons.compress.compressors.deflate64;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -24,10 +25,14 @@
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
@@ -67,6 +72,31 @@ public void closeIsDelegatedJustOnce() throws Exception {
         Mockito.verify(decoder, times(1)).close();
     }
 
+    /**
+     * Deflate without back-references is valid Deflate64, a skewed distribution of bytes leads
+     * to codes that need a second table lookup.
+     */
+    @Test
+    public void decodesLongHuffmanCodes() throws Exception {
+        final Random random = new Random(12345);
+        final byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Math.min(255, Long.numberOfTrailingZeros(random.nextLong()) * 8 + random.nextInt(8));
+        }
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        deflater.setStrategy(Deflater.HUFFMAN_ONLY);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(data);
+        } finally {
+            deflater.end();
+        }
+        try (Deflate64CompressorInputStream input =
+                 new Deflate64CompressorInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertArrayEquals(data, IOUtils.toByteArray(input));
+        }
+    }
+
     @Test
     public void delegatesAvailable() throws Exception {
         Mockito.when(decoder.available()).thenReturn(1024);
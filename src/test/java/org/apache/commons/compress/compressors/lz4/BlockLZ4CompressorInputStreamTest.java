@@ -18,6 +18,9 @@
  */
 package org.apache.commons.compress.compressors.lz4;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,6 +33,18 @@
 
 public class BlockLZ4CompressorInputStreamTest extends AbstractTestCase {
 
+    @Test
+    public void decompressBlockWithOverlappingBackReference() throws IOException {
+        final byte[] block = { 0x36, 'a', 'b', 'c', 3, 0, 0 };
+        final byte[] dest = new byte[20];
+        Assert.assertEquals(13, BlockLZ4CompressorInputStream.decompress(block, 0, block.length, dest, 1, 19));
+        Assert.assertEquals("abcabcabcabca", new String(dest, 1, 13, US_ASCII));
+        assertThrows(IOException.class, () -> BlockLZ4CompressorInputStream.decompress(block, 0, block.length, dest, 0, 12));
+        final byte[] badOffset = { 0x36, 'a', 'b', 'c', 4, 0, 0 };
+        assertThrows(IOException.class, () -> BlockLZ4CompressorInputStream.decompress(badOffset, 0, badOffset.length, dest, 0, 20));
+        assertThrows(IOException.class, () -> BlockLZ4CompressorInputStream.decompress(block, 0, 5, dest, 0, 20));
+    }
+
     @Test
     public void multiByteReadConsistentlyReturnsMinusOneAtEof() throws IOException {
         final File input = getFile("bla.tar.block_lz4");
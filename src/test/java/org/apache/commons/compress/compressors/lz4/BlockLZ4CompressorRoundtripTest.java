@@ -79,6 +79,12 @@ private void roundTripTest(final String testFile, final String config, final Par
             final byte[] expected = IOUtils.toByteArray(is);
             final byte[] actual = IOUtils.toByteArray(sis);
             Assert.assertArrayEquals(expected, actual);
+
+            final byte[] compressed = Files.readAllBytes(outputSz.toPath());
+            final byte[] decompressed = new byte[expected.length];
+            Assert.assertEquals(expected.length,
+                BlockLZ4CompressorInputStream.decompress(compressed, 0, compressed.length, decompressed, 0, decompressed.length));
+            Assert.assertArrayEquals(expected, decompressed);
         }
         // System.err.println(outputSz.getName() + " read after " + (System.currentTimeMillis() - start) + "ms");
     }
@@ -27,6 +27,7 @@
 import org.apache.commons.compress.AbstractTestCase;
 import org.apache.commons.compress.utils.IOUtils;
 import org.junit.Assert;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -42,6 +43,18 @@ public static Stream<Arguments> factory() {
         );
     }
 
+    @Test
+    public void chunkedUpdatesMatchSingleUpdate() throws IOException {
+        final byte[] b = Files.readAllBytes(AbstractTestCase.getFile("bla.tar").toPath());
+        final XXHash32 expected = new XXHash32(7);
+        expected.update(b, 0, b.length);
+        final XXHash32 h = new XXHash32(7);
+        for (int off = 0, len = 1; off < b.length; off += len, len = len % 37 + 3) {
+            h.update(b, off, Math.min(len, b.length - off));
+        }
+        Assert.assertEquals(expected.getValue(), h.getValue());
+    }
+
     @ParameterizedTest
     @MethodSource("factory")
     public void verifyChecksum(final String fileName, final String expectedChecksum) throws IOException {
@@ -301,6 +301,15 @@ public void nonCompressableWithLengthThatForcesWindowSlide() throws IOException
         assertLiteralBlock(new byte[] { 9, 10 }, blocks.get(2));
     }
 
+    @Test
+    public void samIAmExampleIsIndependentOfHashSize() throws IOException {
+        final String expected = compress(newParameters(1024), SAM).toString();
+        for (final int hashBits : new int[] { Parameters.MIN_HASH_BITS, 12, Parameters.MAX_HASH_BITS }) {
+            final Parameters params = Parameters.builder(1024).withHashBits(hashBits).build();
+            assertEquals(expected, compress(params, SAM).toString());
+        }
+    }
+
     @Test
     public void samIAmExampleWithFullArrayAvailableForCompression() throws IOException {
         final List<LZ77Compressor.Block> blocks = compress(newParameters(1024), SAM);
@@ -124,6 +124,20 @@ public void minBackReferenceLengthIsAtLeastThree() {
         assertEquals(3, p.getMinBackReferenceLength());
     }
 
+    @Test
+    public void hashBitsDefaultsToFifteen() {
+        assertEquals(Parameters.DEFAULT_HASH_BITS, newParameters(128).getHashBits());
+        assertEquals(20, Parameters.builder(128).withHashBits(20).build().getHashBits());
+    }
+
+    @Test
+    public void hashBitsMustBeInRange() {
+        assertThrows(IllegalArgumentException.class,
+            () -> Parameters.builder(128).withHashBits(Parameters.MIN_HASH_BITS - 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> Parameters.builder(128).withHashBits(Parameters.MAX_HASH_BITS + 1));
+    }
+
     @Test
     public void windowSizeMustBeAPowerOfTwo() {
         assertThrows(IllegalArgumentException.class, () -> newParameters(100, 200, 300, 400, 500));
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.pack200;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+
+public class SpillingStreamBridgeTest {
+
+    private static byte[] randomData(final int size) {
+        final byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    private static void write(final StreamBridge bridge, final byte[] data) throws IOException {
+        bridge.write(data[0]);
+        for (int off = 1; off < data.length; off += 1000) {
+            bridge.write(data, off, Math.min(1000, data.length - off));
+        }
+    }
+
+    @Test
+    public void keepsSmallDataInMemory() throws IOException {
+        final byte[] data = randomData(100_000);
+        final SpillingStreamBridge bridge = new SpillingStreamBridge(data.length);
+        try {
+            write(bridge, data);
+            assertFalse(bridge.isSpilled());
+            final InputStream in = bridge.getInput();
+            assertEquals(data.length, in.available());
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+            assertEquals(-1, in.read());
+        } finally {
+            bridge.stop();
+        }
+    }
+
+    @Test
+    public void spillsToTempFileAboveThreshold() throws IOException {
+        final byte[] data = randomData(100_000);
+        final SpillingStreamBridge bridge = new SpillingStreamBridge(data.length - 1);
+        try {
+            write(bridge, data);
+            assertTrue(bridge.isSpilled());
+            assertArrayEquals(data, IOUtils.toByteArray(bridge.getInput()));
+        } finally {
+            bridge.stop();
+        }
+    }
+
+    @Test
+    public void supportsMarkResetAndSkipAcrossChunks() throws IOException {
+        final byte[] data = randomData(50_000);
+        final SpillingStreamBridge bridge = new SpillingStreamBridge();
+        try {
+            write(bridge, data);
+            final InputStream in = bridge.getInput();
+            assertTrue(in.markSupported());
+            assertEquals(8000, in.skip(8000));
+            in.mark(100_000);
+            final byte[] buffer = new byte[20_000];
+            assertEquals(buffer.length, IOUtils.readFully(in, buffer));
+            assertEquals(data[28_000] & 0xFF, in.read());
+            in.reset();
+            assertEquals(data[8000] & 0xFF, in.read());
+            assertEquals(data.length - 8001, in.skip(Long.MAX_VALUE));
+            assertEquals(0, in.available());
+        } finally {
+            bridge.stop();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.snappy;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.zip.Checksum;
+
+import org.junit.jupiter.api.Test;
+
+public class Crc32CTest {
+
+    @Test
+    public void matchesPureJavaImplementation() {
+        final byte[] data = new byte[10_000];
+        new Random(42).nextBytes(data);
+        final Checksum expected = new PureJavaCrc32C();
+        final Checksum actual = Crc32C.newChecksum();
+        for (int off = 0, len = 1; off + len <= data.length; off += len, len += 7) {
+            expected.update(data, off, len);
+            actual.update(data, off, len);
+            assertEquals(expected.getValue(), actual.getValue());
+        }
+        expected.update(0x42);
+        actual.update(0x42);
+        assertEquals(expected.getValue(), actual.getValue());
+        actual.reset();
+        assertEquals(0, actual.getValue());
+    }
+
+    @Test
+    public void computesCheckValue() {
+        final Checksum crc = Crc32C.newChecksum();
+        final byte[] data = "123456789".getBytes(US_ASCII);
+        crc.update(data, 0, data.length);
+        assertEquals(0xE3069283L, crc.getValue());
+    }
+
+    @Test
+    public void usesJdkImplementationOnJava9AndLater() {
+        final boolean java8 = System.getProperty("java.specification.version").startsWith("1.");
+        assertTrue(java8 || Crc32C.isJdkImplementation());
+    }
+}
@@ -25,6 +25,7 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Random;
 
 import org.apache.commons.compress.AbstractTestCase;
@@ -45,6 +46,14 @@ private static Parameters newParameters(final int windowSize, final int minBackR
             .build();
     }
 
+    private static void assertBlockDecompression(final byte[] expected, final byte[] compressed) throws IOException {
+        Assert.assertEquals(expected.length, SnappyCompressorInputStream.getUncompressedSize(compressed, 0, compressed.length));
+        final byte[] decompressed = new byte[expected.length + 2];
+        Assert.assertEquals(expected.length,
+            SnappyCompressorInputStream.decompress(compressed, 0, compressed.length, decompressed, 2));
+        Assert.assertArrayEquals(expected, Arrays.copyOfRange(decompressed, 2, decompressed.length));
+    }
+
     // yields no compression at all
     @Test
     public void biggerFileRoundtrip() throws IOException {
@@ -82,6 +91,20 @@ public void gzippedLoremIpsumRoundtrip() throws IOException {
         roundTripTest("lorem-ipsum.txt.gz");
     }
 
+    @Test
+    public void rejectsUncompressedSizeOutOfRange() throws IOException {
+        final byte[] sixBytes = { (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 0 };
+        Assert.assertThrows(IOException.class,
+            () -> SnappyCompressorInputStream.getUncompressedSize(sixBytes, 0, sixBytes.length));
+        Assert.assertThrows(IOException.class,
+            () -> SnappyCompressorInputStream.decompress(sixBytes, 0, sixBytes.length, new byte[1], 0));
+        final byte[] moreThan32Bits = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x1F, 0 };
+        Assert.assertThrows(IOException.class,
+            () -> SnappyCompressorInputStream.getUncompressedSize(moreThan32Bits, 0, moreThan32Bits.length));
+        final byte[] maxSize = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F };
+        Assert.assertEquals(0xFFFFFFFFL, SnappyCompressorInputStream.getUncompressedSize(maxSize, 0, maxSize.length));
+    }
+
     private void roundTripTest(final byte[] input, final Parameters params) throws IOException {
         long start = System.currentTimeMillis();
         final ByteArrayOutputStream os = new ByteArrayOutputStream();
@@ -98,6 +121,7 @@ private void roundTripTest(final byte[] input, final Parameters params) throws I
             final byte[] actual = IOUtils.toByteArray(sis);
             Assert.assertArrayEquals(input, actual);
         }
+        assertBlockDecompression(input, os.toByteArray());
         // System.err.println("byte array" + " read after " + (System.currentTimeMillis() - start) + "ms");
     }
 
@@ -116,6 +140,7 @@ private void roundTripTest(final File input, final Parameters params) throws IOE
             final byte[] expected = IOUtils.toByteArray(is);
             final byte[] actual = IOUtils.toByteArray(sis);
             Assert.assertArrayEquals(expected, actual);
+            assertBlockDecompression(expected, Files.readAllBytes(outputSz.toPath()));
         }
         // System.err.println(outputSz.getName() + " read after " + (System.currentTimeMillis() - start) + "ms");
     }
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.compress.AbstractTestCase.getFile;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.MemoryLimitException;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+
+public class PureJavaZstdCompressorInputStreamTest {
+
+    private static final String[] WORDS = {
+        "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "\"id\":", "\"name\":", "{", "}", ",",
+        "commons", "compress", "zstandard", "\n"
+    };
+
+    private static byte[] compress(final byte[] data, final int level, final boolean checksum, final byte[] dictionary)
+        throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZstdOutputStream out = new ZstdOutputStream(bos, level)) {
+            out.setChecksum(checksum);
+            if (dictionary != null) {
+                out.setDict(dictionary);
+            }
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] decompress(final byte[] compressed) throws IOException {
+        return decompress(compressed, null);
+    }
+
+    private static byte[] decompress(final byte[] compressed, final byte[] dictionary) throws IOException {
+        try (InputStream in = new PureJavaZstdCompressorInputStream(new ByteArrayInputStream(compressed),
+            dictionary)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    public static Stream<Arguments> levelsAndData() {
+        return IntStream.of(-5, 1, 3, 9, 19).boxed()
+            .flatMap(level -> Stream.of(
+                Arguments.of(level, "text", text(1, 300_000)),
+                Arguments.of(level, "random", random(2, 70_000)),
+                Arguments.of(level, "mixed", mixed(3, 500_000)),
+                Arguments.of(level, "tiny", text(4, 7))));
+    }
+
+    private static byte[] mixed(final long seed, final int size) {
+        final byte[] data = text(seed, size);
+        final Random r = new Random(seed);
+        for (int i = 0; i < size; i += 1 + r.nextInt(5000)) {
+            Arrays.fill(data, i, Math.min(size, i + r.nextInt(300)), (byte) r.nextInt());
+            if (r.nextBoolean()) {
+                for (int j = i; j < Math.min(size, i + r.nextInt(500)); j++) {
+                    data[j] = (byte) r.nextInt();
+                }
+            }
+        }
+        return data;
+    }
+
+    private static byte[] random(final long seed, final int size) {
+        final byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] text(final long seed, final int size) {
+        final Random r = new Random(seed);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        while (bos.size() < size) {
+            final byte[] word = WORDS[r.nextInt(WORDS.length)].getBytes(UTF_8);
+            bos.write(word, 0, word.length);
+            bos.write(r.nextInt(10) == 0 ? '0' + r.nextInt(10) : ' ');
+        }
+        return Arrays.copyOf(bos.toByteArray(), size);
+    }
+
+    @Test
+    public void decodesConcatenatedAndSkippableFrames() throws IOException {
+        final byte[] first = text(5, 10_000);
+        final byte[] second = mixed(6, 20_000);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(compress(first, 3, true, null));
+        bos.write(new byte[] {0x5E, 0x2A, 0x4D, 0x18, 3, 0, 0, 0, 1, 2, 3});
+        bos.write(Zstd.compress(second, 5));
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+        assertArrayEquals(expected.toByteArray(), decompress(bos.toByteArray()));
+    }
+
+    @ParameterizedTest(name = "level {0}, {1}")
+    @MethodSource("levelsAndData")
+    public void decodesFramesOfZstdJni(final int level, final String kind, final byte[] data) throws IOException {
+        assertArrayEquals(data, decompress(compress(data, level, true, null)));
+        assertArrayEquals(data, decompress(Zstd.compress(data, level)));
+    }
+
+    @Test
+    public void decodesFramesBiggerThanTheirWindow() throws IOException {
+        // level 1 uses a window of 512 KiB when the content size is unknown
+        final byte[] data = mixed(11, 3_000_000);
+        assertArrayEquals(data, decompress(compress(data, 1, true, null)));
+        final byte[] dictionary = text(12, 100_000);
+        assertArrayEquals(data, decompress(compress(data, 1, true, dictionary), dictionary));
+    }
+
+    @Test
+    public void decodesFramesUsingLongDistanceMatching() throws IOException {
+        final byte[] chunk = random(13, 500_000);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        for (int i = 0; i < 4; i++) {
+            bos.write(chunk);
+            bos.write(text(i, 100_000));
+        }
+        final byte[] data = bos.toByteArray();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ZstdOutputStream out = new ZstdOutputStream(compressed, 3)) {
+            out.setLong(24);
+            out.write(data);
+        }
+        assertArrayEquals(data, decompress(compressed.toByteArray()));
+    }
+
+    @Test
+    public void decodesReferenceFiles() throws IOException {
+        for (final String name : new String[] {"bla.tar", "zstandard.testdata"}) {
+            final byte[] expected = Files.readAllBytes(getFile(name).toPath());
+            final byte[] compressed = Files.readAllBytes(getFile(name + ".zst").toPath());
+            assertArrayEquals(expected, decompress(compressed), name);
+        }
+    }
+
+    @Test
+    public void decodesEmptyFrameAndEmptyStream() throws IOException {
+        assertEquals(0, decompress(Zstd.compress(new byte[0])).length);
+        assertEquals(0, decompress(new byte[0]).length);
+    }
+
+    @Test
+    public void decodesFramesUsingRawContentDictionary() throws IOException {
+        final byte[] dictionary = text(7, 50_000);
+        final byte[] data = text(7, 60_000);
+        final byte[] compressed = compress(data, 3, false, dictionary);
+        assertArrayEquals(data, decompress(compressed, dictionary));
+    }
+
+    @Test
+    public void decodesFramesUsingTrainedDictionary() throws IOException {
+        final byte[][] samples = new byte[1000][];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = ("{\"id\":" + i + ",\"name\":\"" + new String(text(i, 100 + i % 200), UTF_8) + "\"}")
+                .getBytes(UTF_8);
+        }
+        final byte[] buffer = new byte[16 * 1024];
+        final long size = Zstd.trainFromBuffer(samples, buffer);
+        final byte[] dictionary = Arrays.copyOf(buffer, (int) size);
+        assertNotEquals(0, ZstdDictionary.parse(dictionary).getId());
+        for (final int level : new int[] {1, 3, 19}) {
+            for (int i = 0; i < samples.length; i += 97) {
+                final byte[] compressed = compress(samples[i], level, true, dictionary);
+                assertArrayEquals(samples[i], decompress(compressed, dictionary));
+            }
+        }
+        final byte[] compressed = compress(samples[0], 3, false, dictionary);
+        final IOException ex = assertThrows(IOException.class, () -> decompress(compressed));
+        assertTrue(ex.getMessage().startsWith("Frame requires dictionary"));
+    }
+
+    @Test
+    public void detectsChecksumMismatch() throws IOException {
+        final byte[] compressed = compress(text(8, 1000), 3, true, null);
+        compressed[compressed.length - 1] ^= 1;
+        assertThrows(IOException.class, () -> decompress(compressed));
+    }
+
+    @Test
+    public void enforcesMemoryLimit() throws IOException {
+        final byte[] compressed = compress(text(9, 2_000_000), 3, false, null);
+        assertThrows(MemoryLimitException.class, () -> {
+            try (InputStream in = new PureJavaZstdCompressorInputStream(new ByteArrayInputStream(compressed),
+                (byte[]) null, 100)) {
+                in.read();
+            }
+        });
+    }
+
+    @Test
+    public void readsAndSkipsConsistently() throws IOException {
+        final byte[] data = text(10, 100_000);
+        try (PureJavaZstdCompressorInputStream in = new PureJavaZstdCompressorInputStream(
+            new ByteArrayInputStream(compress(data, 3, false, null)))) {
+            assertEquals(data[0] & 0xff, in.read());
+            assertEquals(50_000, in.skip(50_000));
+            final byte[] rest = IOUtils.toByteArray(in);
+            assertArrayEquals(Arrays.copyOfRange(data, 50_001, data.length), rest);
+            assertEquals(-1, in.read());
+            assertEquals(-1, in.read(new byte[2]));
+            assertEquals(0, in.skip(1));
+            assertEquals(data.length, in.getUncompressedCount());
+        }
+    }
+
+    @Test
+    public void rejectsGarbage() {
+        assertThrows(IOException.class, () -> decompress("not zstd".getBytes(UTF_8)));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.jupiter.api.Test;
+
+public class SeekableZstdDecompressingChannelTest {
+
+    private static byte[] compress(final byte[] data, final int frameSize, final boolean checksum) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (SeekableZstdCompressorOutputStream out = new SeekableZstdCompressorOutputStream(bos, 3, frameSize,
+            checksum)) {
+            out.write(data, 0, 1234);
+            out.write(data[1234]);
+            out.write(data, 1235, data.length - 1235);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] data() {
+        final Random random = new Random(42);
+        final byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    private static byte[] read(final SeekableZstdDecompressingChannel channel, final long position, final int len)
+        throws IOException {
+        channel.position(position);
+        final ByteBuffer buffer = ByteBuffer.allocate(len);
+        IOUtils.readFully(channel, buffer);
+        return buffer.array();
+    }
+
+    private static byte[] slice(final byte[] data, final int off, final int len) {
+        final byte[] result = new byte[len];
+        System.arraycopy(data, off, result, 0, len);
+        return result;
+    }
+
+    @Test
+    public void decodesFramesInParallel() throws IOException {
+        final byte[] data = data();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (SeekableZstdDecompressingChannel channel = new SeekableZstdDecompressingChannel(
+            new SeekableInMemoryByteChannel(compress(data, 1000, true)), executor, 4)) {
+            assertEquals(100, channel.getFrameCount());
+            assertArrayEquals(data, read(channel, 0, data.length));
+            assertArrayEquals(slice(data, 5000, 3000), read(channel, 5000, 3000));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void detectsChecksumMismatch() throws IOException {
+        final byte[] compressed = compress(data(), 1000, true);
+        // last entry's checksum is right before the footer
+        compressed[compressed.length - 10]++;
+        try (SeekableZstdDecompressingChannel channel = new SeekableZstdDecompressingChannel(
+            new SeekableInMemoryByteChannel(compressed))) {
+            read(channel, 0, 1000);
+            assertThrows(IOException.class, () -> read(channel, 99_500, 100));
+        }
+    }
+
+    @Test
+    public void detectsCorruptFrames() throws IOException {
+        final byte[] compressed = compress(data(), 1000, false);
+        // break the magic of the first frame
+        compressed[0]++;
+        try (SeekableZstdDecompressingChannel channel = new SeekableZstdDecompressingChannel(
+            new SeekableInMemoryByteChannel(compressed))) {
+            assertThrows(IOException.class, () -> read(channel, 0, 100));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (SeekableZstdDecompressingChannel channel = new SeekableZstdDecompressingChannel(
+            new SeekableInMemoryByteChannel(compressed), executor, 2)) {
+            assertThrows(IOException.class, () -> read(channel, 0, 100));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void handlesEmptyArchive() throws IOException {
+        final byte[] compressed = compress(new byte[1235], 1000, false);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new SeekableZstdCompressorOutputStream(bos).close();
+        try (SeekableZstdDecompressingChannel channel = new SeekableZstdDecompressingChannel(
+            new SeekableInMemoryByteChannel(bos.toByteArray()))) {
+            assertEquals(0, channel.size());
+            assertEquals(0, channel.getFrameCount());
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+        try (SeekableZstdDecompressingChannel channel = new SeekableZstdDecompressingChannel(
+            new SeekableInMemoryByteChannel(compressed))) {
+            assertEquals(1235, channel.size());
+            assertEquals(2, channel.getFrameCount());
+        }
+    }
+
+    @Test
+    public void isReadOnly() throws IOException {
+        final SeekableZstdDecompressingChannel channel = new SeekableZstdDecompressingChannel(
+            new SeekableInMemoryByteChannel(compress(data(), 1000, false)));
+        assertThrows(NonWritableChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+        assertThrows(NonWritableChannelException.class, () -> channel.truncate(0));
+        assertThrows(IllegalArgumentException.class, () -> channel.position(-1));
+        channel.close();
+        assertFalse(channel.isOpen());
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    public void readsRandomPositions() throws IOException {
+        final byte[] data = data();
+        try (SeekableZstdDecompressingChannel channel = new SeekableZstdDecompressingChannel(
+            new SeekableInMemoryByteChannel(compress(data, 4096, false)))) {
+            assertEquals(data.length, channel.size());
+            assertEquals(25, channel.getFrameCount());
+            final Random random = new Random(1);
+            for (int i = 0; i < 50; i++) {
+                final int pos = random.nextInt(data.length);
+                final int len = Math.min(random.nextInt(10_000), data.length - pos);
+                assertArrayEquals(slice(data, pos, len), read(channel, pos, len));
+                assertEquals(pos + len, channel.position());
+            }
+            channel.position(data.length + 10);
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    public void rejectsArchivesWithoutSeekTable() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZstdCompressorOutputStream out = new ZstdCompressorOutputStream(bos)) {
+            out.write(data());
+        }
+        assertThrows(IOException.class,
+            () -> new SeekableZstdDecompressingChannel(new SeekableInMemoryByteChannel(bos.toByteArray())));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SeekableZstdCompressorOutputStream(new ByteArrayOutputStream(), 3, 0, true));
+    }
+
+    @Test
+    public void rejectsFramesOf2GiBOrMore() throws IOException {
+        final byte[] compressed = compress(data(), 200_000, false);
+        // compressed size of the only entry, which is followed by its decompressed size and the footer
+        compressed[compressed.length - 14] = (byte) 0x80;
+        final IOException ex = assertThrows(IOException.class,
+            () -> new SeekableZstdDecompressingChannel(new SeekableInMemoryByteChannel(compressed)));
+        assertTrue(ex.getMessage().contains("maximum compressed frame size"), ex.getMessage());
+    }
+
+    @Test
+    public void streamsCanReadSeekableArchives() throws IOException {
+        final byte[] data = data();
+        final byte[] compressed = compress(data, 1000, true);
+        try (InputStream in = new ZstdCompressorInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+        try (InputStream in = new PureJavaZstdCompressorInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.compress.AbstractTestCase;
+import org.junit.jupiter.api.Test;
+
+public class XXHash64Test {
+
+    @Test
+    public void chunkedUpdatesMatchSingleUpdate() throws IOException {
+        final byte[] b = Files.readAllBytes(AbstractTestCase.getFile("bla.tar").toPath());
+        final XXHash64 expected = new XXHash64(7);
+        expected.update(b, 0, b.length);
+        final XXHash64 h = new XXHash64(7);
+        for (int off = 0, len = 1; off < b.length; off += len, len = len % 71 + 5) {
+            h.update(b, off, Math.min(len, b.length - off));
+        }
+        assertEquals(expected.getValue(), h.getValue());
+        h.reset();
+        h.update(b, 0, 100);
+        expected.reset();
+        for (int i = 0; i < 100; i++) {
+            expected.update(b[i]);
+        }
+        assertEquals(expected.getValue(), h.getValue());
+    }
+
+    @Test
+    public void hashOfEmptyInput() {
+        assertEquals(0xEF46DB3751D8E999L, new XXHash64().getValue());
+    }
+}
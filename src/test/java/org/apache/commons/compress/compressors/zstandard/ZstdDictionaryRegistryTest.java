@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.compressors.zstandard;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+
+public class ZstdDictionaryRegistryTest {
+
+    private static byte[] dictionary;
+
+    private static byte[] compress(final byte[] data) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZstdCompressorOutputStream out = new ZstdCompressorOutputStream(bos,
+            new ZstdDictCompress(dictionary, 3), false, true)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] record(final Random random, final int i) {
+        return ("{\"id\":" + i + ",\"name\":\"user" + random.nextInt(1000) + "\",\"email\":\"user" + random.nextInt()
+            + "@example.org\",\"active\":" + random.nextBoolean() + ",\"roles\":[\"reader\",\"writer\"]}")
+            .getBytes(UTF_8);
+    }
+
+    @BeforeAll
+    public static void train() throws IOException {
+        final Random random = new Random(7);
+        final List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            samples.add(record(random, i));
+        }
+        dictionary = ZstdDictionaryTrainer.train(samples, 4096);
+    }
+
+    @Test
+    public void cachesOneDigestedDictionaryPerType() throws IOException {
+        final ZstdDictionaryRegistry registry = new ZstdDictionaryRegistry();
+        final long id = registry.register(dictionary);
+        final ZstdDictDecompress decompress = registry.getDigestedDictionary(id, ZstdDictDecompress.class,
+            ZstdDictDecompress::new);
+        final ZstdDictCompress compress = registry.getDigestedDictionary(id, ZstdDictCompress.class,
+            d -> new ZstdDictCompress(d, 3));
+        assertSame(decompress, registry.getDigestedDictionary(id, ZstdDictDecompress.class, ZstdDictDecompress::new));
+        assertSame(compress, registry.getDigestedDictionary(id, ZstdDictCompress.class, d -> new ZstdDictCompress(d, 3)));
+    }
+
+    @Test
+    public void compressesSmallInputsBetterThanWithoutDictionary() throws IOException {
+        final byte[] data = record(new Random(1), 4711);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZstdCompressorOutputStream out = new ZstdCompressorOutputStream(bos, 3)) {
+            out.write(data);
+        }
+        assertTrue(compress(data).length < bos.size());
+    }
+
+    @Test
+    public void decodesUsingDigestedDictionary() throws IOException {
+        final byte[] data = record(new Random(2), 1);
+        try (InputStream in = new ZstdCompressorInputStream(new ByteArrayInputStream(compress(data)),
+            new ZstdDictDecompress(dictionary))) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void decodesUsingRegistry() throws IOException {
+        final ZstdDictionaryRegistry registry = new ZstdDictionaryRegistry();
+        final long id = registry.register(dictionary);
+        assertEquals(ZstdDictionaryRegistry.getDictionaryId(dictionary), id);
+        final Random random = new Random(3);
+        for (int i = 0; i < 3; i++) {
+            final byte[] data = record(random, i);
+            final byte[] compressed = compress(data);
+            try (InputStream in = new ZstdCompressorInputStream(new ByteArrayInputStream(compressed), registry)) {
+                assertArrayEquals(data, IOUtils.toByteArray(in));
+            }
+            try (InputStream in = new PureJavaZstdCompressorInputStream(new ByteArrayInputStream(compressed),
+                registry, -1)) {
+                assertArrayEquals(data, IOUtils.toByteArray(in));
+            }
+        }
+    }
+
+    @Test
+    public void decodesFramesWithoutDictionaryUsingRegistry() throws IOException {
+        final byte[] data = "no dictionary here".getBytes(UTF_8);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZstdCompressorOutputStream out = new ZstdCompressorOutputStream(bos)) {
+            out.write(data);
+        }
+        final ZstdDictionaryRegistry registry = new ZstdDictionaryRegistry();
+        try (InputStream in = new ZstdCompressorInputStream(new ByteArrayInputStream(bos.toByteArray()), registry)) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+        try (InputStream in = new PureJavaZstdCompressorInputStream(new ByteArrayInputStream(bos.toByteArray()),
+            registry, -1)) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+        }
+    }
+
+    @Test
+    public void failsForUnknownDictionary() throws IOException {
+        final byte[] compressed = compress(record(new Random(4), 1));
+        final ZstdDictionaryRegistry registry = new ZstdDictionaryRegistry();
+        assertThrows(IOException.class,
+            () -> new ZstdCompressorInputStream(new ByteArrayInputStream(compressed), registry));
+        assertThrows(IOException.class, () -> {
+            try (InputStream in = new PureJavaZstdCompressorInputStream(new ByteArrayInputStream(compressed),
+                registry, -1)) {
+                IOUtils.toByteArray(in);
+            }
+        });
+    }
+
+    @Test
+    public void registryReturnsCopies() {
+        final ZstdDictionaryRegistry registry = new ZstdDictionaryRegistry();
+        final long id = registry.register(dictionary);
+        final byte[] copy = registry.getDictionary(id);
+        assertArrayEquals(dictionary, copy);
+        copy[0]++;
+        assertArrayEquals(dictionary, registry.getDictionary(id));
+        assertNull(registry.getDictionary(id + 1));
+    }
+
+    @Test
+    public void rejectsRawContentDictionaries() {
+        final byte[] raw = "just some content".getBytes(UTF_8);
+        assertEquals(0, ZstdDictionaryRegistry.getDictionaryId(raw));
+        assertThrows(IllegalArgumentException.class, () -> new ZstdDictionaryRegistry().register(raw));
+        assertNotEquals(0, ZstdDictionaryRegistry.getDictionaryId(dictionary));
+    }
+
+    @Test
+    public void trainingRejectsIllegalSize() {
+        final List<byte[]> samples = new ArrayList<>();
+        assertThrows(IllegalArgumentException.class, () -> ZstdDictionaryTrainer.train(samples, 0));
+    }
+}
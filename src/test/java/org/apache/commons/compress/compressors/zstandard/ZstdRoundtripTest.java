@@ -17,12 +17,15 @@
 
 package org.apache.commons.compress.compressors.zstandard;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.Random;
 
 import org.apache.commons.compress.AbstractTestCase;
 import org.apache.commons.compress.compressors.CompressorInputStream;
@@ -32,6 +35,8 @@
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 
+import com.github.luben.zstd.RecyclingBufferPool;
+
 public class ZstdRoundtripTest extends AbstractTestCase {
 
     private interface OutputStreamCreator {
@@ -96,4 +101,40 @@ public void roundtripWithCustomLevel() throws Exception {
         roundtrip(os -> new ZstdCompressorOutputStream(os, 1));
     }
 
+    @Test
+    public void roundtripWithParameters() throws Exception {
+        roundtrip(os -> new ZstdCompressorOutputStream(os, ZstdParameters.builder().withLevel(5)
+            .withChecksum(true).withBufferPool(RecyclingBufferPool.INSTANCE).build()));
+    }
+
+    @Test
+    public void roundtripWithWorkersAndLongDistanceMatching() throws Exception {
+        // repetitions that are further apart than the default window of level 1
+        final byte[] block = new byte[3 << 20];
+        new Random(42).nextBytes(block);
+        final byte[] data = new byte[2 * block.length];
+        System.arraycopy(block, 0, data, 0, block.length);
+        System.arraycopy(block, 0, data, block.length, block.length);
+        final ZstdParameters parameters = ZstdParameters.builder().withLevel(1).withWorkers(2)
+            .withLongDistanceMatching(27).withBufferPool(RecyclingBufferPool.INSTANCE).build();
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZstdCompressorOutputStream zos = new ZstdCompressorOutputStream(bos, parameters)) {
+            zos.write(data);
+        }
+        Assert.assertTrue(bos.size() < data.length * 3 / 4);
+        try (ZstdCompressorInputStream zis = new ZstdCompressorInputStream(
+            new ByteArrayInputStream(bos.toByteArray()), parameters)) {
+            Assert.assertArrayEquals(data, IOUtils.toByteArray(zis));
+        }
+    }
+
+    @Test
+    public void parametersRejectIllegalValues() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> ZstdParameters.builder().withWorkers(-1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ZstdParameters.builder().withLongDistanceMatching(9));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ZstdParameters.builder().withLongDistanceMatching(32));
+        Assert.assertEquals(0, ZstdParameters.builder().withLongDistanceMatching(0).build()
+            .getLongDistanceMatchingWindowLog());
+    }
+
 }
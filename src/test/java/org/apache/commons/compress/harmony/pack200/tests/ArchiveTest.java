@@ -17,6 +17,8 @@
 package org.apache.commons.compress.harmony.pack200.tests;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -25,6 +27,7 @@
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -302,6 +305,38 @@ public void testMultipleJars() throws URISyntaxException, IOException, Pack200Ex
 		}
     }
 
+    public void testParallelPacking() throws IOException, Pack200Exception, URISyntaxException {
+        final File sql = new File(Archive.class.getResource("/pack200/sqlUnpacked.jar").toURI());
+        final byte[][] packed = new byte[2][];
+        for (int i = 0; i < packed.length; i++) {
+            final PackingOptions options = new PackingOptions();
+            options.setGzip(false);
+            options.setSegmentLimit(20_000);
+            options.setParallelism(i == 0 ? 1 : 4);
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (JarFile jar = new JarFile(sql)) {
+                new Archive(jar, bos, options).pack();
+            }
+            packed[i] = bos.toByteArray();
+        }
+        assertTrue(Arrays.equals(packed[0], packed[1]));
+
+        file = File.createTempFile("sqlparallel", ".jar");
+        file.deleteOnExit();
+        try (JarOutputStream jout = new JarOutputStream(new FileOutputStream(file))) {
+            new org.apache.commons.compress.harmony.unpack200.Archive(new ByteArrayInputStream(packed[1]), jout)
+                .unpack();
+        }
+        try (JarFile jarFile = new JarFile(file); JarFile jarFile2 = new JarFile(sql)) {
+            assertEquals(jarFile2.size(), jarFile.size());
+            final Enumeration<JarEntry> entries = jarFile2.entries();
+            while (entries.hasMoreElements()) {
+                final String name = entries.nextElement().getName();
+                assertNotNull("Missing Entry: " + name, jarFile.getJarEntry(name));
+            }
+        }
+    }
+
     public void testSQL() throws IOException, Pack200Exception, URISyntaxException {
         in = new JarFile(new File(Archive.class.getResource(
                 "/pack200/sqlUnpacked.jar").toURI()));
@@ -16,9 +16,13 @@
  */
 package org.apache.commons.compress.harmony.pack200.tests;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
 
 import org.apache.commons.compress.harmony.pack200.BHSDCodec;
 import org.apache.commons.compress.harmony.pack200.Codec;
@@ -32,6 +36,79 @@
  */
 public class BHSDCodecTest extends TestCase {
 
+    private static int[] decodeOneByOne(final BHSDCodec codec, final int n, final byte[] data)
+        throws IOException, Pack200Exception {
+        final InputStream in = new ByteArrayInputStream(data);
+        final int[] values = new int[n];
+        long last = 0;
+        for (int i = 0; i < n; i++) {
+            last = codec.decode(in, last);
+            values[i] = (int) last;
+        }
+        return values;
+    }
+
+    public void testBulkDecodingMatchesSingleValueDecoding() throws IOException, Pack200Exception {
+        final BHSDCodec[] codecs = {Codec.BYTE1, Codec.UNSIGNED5, Codec.SIGNED5, Codec.BCI5, Codec.DELTA5,
+            Codec.UDELTA5, Codec.MDELTA5, Codec.CHAR3, Codec.BRANCH5};
+        final Random random = new Random(42);
+        for (final BHSDCodec codec : codecs) {
+            for (final int n : new int[] {1, 17, 5000, 20000}) {
+                final int[] values = new int[n];
+                int last = 0;
+                for (int i = 0; i < n; i++) {
+                    int value = random.nextInt(codec == Codec.BYTE1 ? 256 : 10000);
+                    if (codec.isSigned() && !codec.isDelta()) {
+                        value -= 5000;
+                    }
+                    if (codec == Codec.UDELTA5) {
+                        value += last;
+                    }
+                    values[i] = last = value;
+                }
+                final byte[] encoded = codec.encode(values);
+                final byte[] data = Arrays.copyOf(encoded, encoded.length + 1);
+                data[encoded.length] = 42;
+
+                final int[] expected = decodeOneByOne(codec, n, data);
+                final ByteArrayInputStream in = new ByteArrayInputStream(data);
+                final int[] actual = codec.decodeInts(n, in);
+                assertTrue(codec + " " + n, Arrays.equals(values, actual));
+                assertTrue(codec + " " + n, Arrays.equals(expected, actual));
+                assertEquals(encoded.length, codec.lastBandLength);
+                assertEquals(42, in.read());
+
+                if (!codec.isDelta() && n > 1) {
+                    final byte[] rest = codec.encode(Arrays.copyOfRange(values, 1, n));
+                    final int[] withFirst = codec.decodeInts(n - 1, new ByteArrayInputStream(rest), values[0]);
+                    assertTrue(codec + " " + n, Arrays.equals(values, withFirst));
+                }
+            }
+        }
+    }
+
+    public void testBulkDecodingKeepsTheMarkOfTheStream() throws IOException, Pack200Exception {
+        final int[] values = new int[1000];
+        Arrays.fill(values, 1000);
+        final byte[] encoded = Codec.UNSIGNED5.encode(values);
+        final InputStream in = new BufferedInputStream(new ByteArrayInputStream(encoded));
+        in.mark(encoded.length);
+        assertTrue(Arrays.equals(values, Codec.UNSIGNED5.decodeInts(values.length, in)));
+        assertEquals(-1, in.read());
+        in.reset();
+        assertTrue(Arrays.equals(values, Codec.UNSIGNED5.decodeInts(values.length, in)));
+    }
+
+    public void testBulkDecodingThrowsAtEndOfStream() throws IOException, Pack200Exception {
+        final byte[] encoded = Codec.UNSIGNED5.encode(new int[] {1000, 1000, 1000});
+        try {
+            Codec.UNSIGNED5.decodeInts(3, new ByteArrayInputStream(encoded, 0, encoded.length - 1));
+            fail("Expected EOFException");
+        } catch (final EOFException e) {
+            // expected
+        }
+    }
+
     public void testDeltaEncodings() throws IOException, Pack200Exception {
         Codec c = Codec.UDELTA5;
         int[] sequence = {0, 2, 4, 2, 2, 4};
@@ -0,0 +1,76 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.commons.compress.harmony.unpack200;
+
+import org.apache.commons.compress.harmony.unpack200.SegmentConstantPoolIndex.MemberIndex;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for org.apache.commons.compress.harmony.unpack200.SegmentConstantPoolIndex.
+ */
+public class SegmentConstantPoolIndexTest extends TestCase {
+
+    String[] testClassArray = { "Object", "java/lang/String", "Other",
+            "java/lang/String" };
+    String[] testMemberClasses = { "Object", "Object", "java/lang/String",
+            "java/lang/String", "Object", "Other", "NotThere" };
+
+    public void testIndexOfClass() {
+        SegmentConstantPoolIndex index = new SegmentConstantPoolIndex(testClassArray);
+        assertEquals(0, index.indexOfClass("Object"));
+        assertEquals(1, index.indexOfClass("java/lang/String"));
+        assertEquals(2, index.indexOfClass("Other"));
+        assertEquals(-1, index.indexOfClass("NotThere"));
+    }
+
+    public void testIndexOfClassWithManyClasses() {
+        String[] classes = new String[100000];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = "pkg/Class" + i;
+        }
+        SegmentConstantPoolIndex index = new SegmentConstantPoolIndex(classes);
+        for (int i = 0; i < classes.length; i++) {
+            assertEquals(i, index.indexOfClass("pkg/Class" + i));
+        }
+        assertEquals(-1, index.indexOfClass("pkg/Class"));
+    }
+
+    public void testMembersOfClass() {
+        SegmentConstantPoolIndex index = new SegmentConstantPoolIndex(testClassArray);
+        MemberIndex members = index.indexMembers(testMemberClasses, null);
+        assertEquals(0, members.get(0, 0));
+        assertEquals(1, members.get(0, 1));
+        assertEquals(4, members.get(0, 2));
+        assertEquals(-1, members.get(0, 3));
+        assertEquals(2, members.get(1, 0));
+        assertEquals(3, members.get(1, 1));
+        assertEquals(5, members.get(2, 0));
+        assertEquals(-1, members.get(-1, 0));
+    }
+
+    public void testFilteredMembersOfClass() {
+        SegmentConstantPoolIndex index = new SegmentConstantPoolIndex(testClassArray);
+        MemberIndex members = index.indexMembers(testMemberClasses,
+                new boolean[] { false, true, false, true, true, false, true });
+        assertEquals(1, members.get(0, 0));
+        assertEquals(4, members.get(0, 1));
+        assertEquals(3, members.get(1, 0));
+        assertEquals(-1, members.get(1, 1));
+        assertEquals(-1, members.get(2, 0));
+    }
+}
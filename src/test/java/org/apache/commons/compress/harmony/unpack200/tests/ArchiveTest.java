@@ -19,6 +19,8 @@
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -26,13 +28,18 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipEntry;
 
+import org.apache.commons.compress.harmony.pack200.PackingOptions;
 import org.apache.commons.compress.harmony.unpack200.Archive;
+import org.apache.commons.compress.utils.IOUtils;
 
 import junit.framework.TestCase;
 
@@ -189,6 +196,64 @@ public void testLoggingOptions() throws Exception {
         reader.close();
     }
 
+    public void testLoggingOfAllSegments() throws Exception {
+        final PackingOptions options = new PackingOptions();
+        options.setGzip(false);
+        options.setSegmentLimit(20_000);
+        final ByteArrayOutputStream packed = new ByteArrayOutputStream();
+        try (JarFile jar = new JarFile(new File(Archive.class.getResource("/pack200/sqlUnpacked.jar").toURI()))) {
+            new org.apache.commons.compress.harmony.pack200.Archive(jar, packed, options).pack();
+        }
+        for (final boolean pipelined : new boolean[] {false, true}) {
+            file = File.createTempFile("logtest", ".jar");
+            file.deleteOnExit();
+            final File logFile = File.createTempFile("logfile", ".txt");
+            logFile.deleteOnExit();
+            final Archive archive = new Archive(new ByteArrayInputStream(packed.toByteArray()),
+                new JarOutputStream(new FileOutputStream(file)));
+            archive.setLogFile(logFile.getPath());
+            archive.setVerbose(true);
+            archive.setPipelined(pipelined);
+            archive.unpack();
+            // the first segment used to close the log file
+            final String log = new String(Files.readAllBytes(logFile.toPath()), Charset.defaultCharset());
+            assertTrue(log.contains("Reading segment 2"));
+            logFile.delete();
+        }
+    }
+
+    public void testPipelinedUnpacking() throws Exception {
+        final PackingOptions options = new PackingOptions();
+        options.setGzip(false);
+        options.setSegmentLimit(20_000);
+        final ByteArrayOutputStream packed = new ByteArrayOutputStream();
+        try (JarFile jar = new JarFile(new File(Archive.class.getResource("/pack200/sqlUnpacked.jar").toURI()))) {
+            new org.apache.commons.compress.harmony.pack200.Archive(jar, packed, options).pack();
+        }
+        final File[] unpacked = new File[2];
+        for (int i = 0; i < unpacked.length; i++) {
+            unpacked[i] = File.createTempFile("sqlpipelined", ".jar");
+            unpacked[i].deleteOnExit();
+            final Archive archive = new Archive(new ByteArrayInputStream(packed.toByteArray()),
+                new JarOutputStream(new FileOutputStream(unpacked[i])));
+            archive.setPipelined(i == 1);
+            archive.unpack();
+        }
+        file = unpacked[1];
+        try (JarFile sequential = new JarFile(unpacked[0]); JarFile pipelined = new JarFile(unpacked[1])) {
+            assertEquals(sequential.size(), pipelined.size());
+            final Enumeration<JarEntry> entries = sequential.entries();
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+                final JarEntry other = pipelined.getJarEntry(entry.getName());
+                assertNotNull("Missing Entry: " + entry.getName(), other);
+                assertTrue(entry.getName(), Arrays.equals(IOUtils.toByteArray(sequential.getInputStream(entry)),
+                    IOUtils.toByteArray(pipelined.getInputStream(other))));
+            }
+        }
+        unpacked[0].delete();
+    }
+
     public void testRemovePackFile() throws Exception {
         File original = new File(Archive.class.getResource(
                 "/pack200/sql.pack.gz").toURI());
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.arj.ArjArchiveInputStream;
+import org.apache.commons.compress.archivers.dump.DumpArchiveInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads the archive formats this library can't write.
+ *
+ * <p>Without writers there is no way to generate archives of a chosen size, so the archives of the test resources
+ * are used.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ArchiveReaderBenchmark {
+
+    @Param({"bla.arj", "bla.dump"})
+    public String resource;
+
+    private final byte[] buffer = new byte[8192];
+    private byte[] archive;
+
+    private ArchiveInputStream open() throws ArchiveException {
+        final InputStream in = new ByteArrayInputStream(archive);
+        return resource.endsWith(".arj") ? new ArjArchiveInputStream(in) : new DumpArchiveInputStream(in);
+    }
+
+    /**
+     * Reads all entries and their contents.
+     */
+    @Benchmark
+    public long read() throws IOException, ArchiveException {
+        long count = 0;
+        try (ArchiveInputStream in = open()) {
+            while (in.getNextEntry() != null) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    count += n;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = ArchiveReaderBenchmark.class.getResourceAsStream("/" + resource)) {
+            if (in == null) {
+                throw new IllegalStateException(resource + " not found, the test resources must be on the class path");
+            }
+            archive = IOUtils.toByteArray(in);
+        }
+    }
+}
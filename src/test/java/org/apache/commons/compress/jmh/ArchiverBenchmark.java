@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ar.ArArchiveEntry;
+import org.apache.commons.compress.archivers.ar.ArArchiveInputStream;
+import org.apache.commons.compress.archivers.ar.ArArchiveOutputStream;
+import org.apache.commons.compress.archivers.cpio.CpioArchiveEntry;
+import org.apache.commons.compress.archivers.cpio.CpioArchiveInputStream;
+import org.apache.commons.compress.archivers.cpio.CpioArchiveOutputStream;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZFile;
+import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarFile;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.jmh.BenchmarkData.Payload;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes, opens and reads archives containing many small files.
+ *
+ * <p>The archives are kept in memory so the results don't depend on the file system. ar and cpio archives can only
+ * be read as streams. The read-only formats arj and dump are covered by {@link ArchiveReaderBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ArchiverBenchmark {
+
+    @Param({"zip", "tar", "7z", "ar", "cpio"})
+    public String format;
+
+    @Param({"100", "1000"})
+    public int fileCount;
+
+    @Param({"TEXT", "INCOMPRESSIBLE"})
+    public Payload payload;
+
+    private final byte[] buffer = new byte[8192];
+    private byte[][] files;
+    private byte[] archive;
+
+    private static String name(final int index) {
+        return "dir" + index / 100 + "/file" + index + ".txt";
+    }
+
+    private ArchiveInputStream openStream() throws IOException {
+        final InputStream in = new ByteArrayInputStream(archive);
+        return "ar".equals(format) ? new ArArchiveInputStream(in) : new CpioArchiveInputStream(in);
+    }
+
+    private long drain(final InputStream in) throws IOException {
+        long count = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * Opens the archive and counts its entries, this reads the central directory of zip archives, all headers of tar
+     * archives and the header of 7z archives. ar and cpio archives are read sequentially, skipping the contents.
+     */
+    @Benchmark
+    public int open() throws IOException {
+        switch (format) {
+        case "ar":
+        case "cpio":
+            try (ArchiveInputStream in = openStream()) {
+                int count = 0;
+                while (in.getNextEntry() != null) {
+                    count++;
+                }
+                return count;
+            }
+        case "zip":
+            try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(archive))) {
+                return Collections.list(zip.getEntries()).size();
+            }
+        case "tar":
+            try (TarFile tar = new TarFile(archive)) {
+                return tar.getEntries().size();
+            }
+        default:
+            try (SevenZFile sevenZ = new SevenZFile(new SeekableInMemoryByteChannel(archive))) {
+                int count = 0;
+                for (final SevenZArchiveEntry ignored : sevenZ.getEntries()) {
+                    count++;
+                }
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Opens the archive and reads the contents of all entries.
+     */
+    @Benchmark
+    public long read() throws IOException {
+        long count = 0;
+        switch (format) {
+        case "ar":
+        case "cpio":
+            try (ArchiveInputStream in = openStream()) {
+                while (in.getNextEntry() != null) {
+                    count += drain(in);
+                }
+            }
+            break;
+        case "zip":
+            try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(archive))) {
+                for (final ZipArchiveEntry entry : Collections.list(zip.getEntries())) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        count += drain(in);
+                    }
+                }
+            }
+            break;
+        case "tar":
+            try (TarFile tar = new TarFile(archive)) {
+                for (final TarArchiveEntry entry : tar.getEntries()) {
+                    try (InputStream in = tar.getInputStream(entry)) {
+                        count += drain(in);
+                    }
+                }
+            }
+            break;
+        default:
+            try (SevenZFile sevenZ = new SevenZFile(new SeekableInMemoryByteChannel(archive))) {
+                while (sevenZ.getNextEntry() != null) {
+                    int n;
+                    while ((n = sevenZ.read(buffer)) != -1) {
+                        count += n;
+                    }
+                }
+            }
+            break;
+        }
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        files = BenchmarkData.smallFiles(fileCount, payload);
+        archive = write();
+    }
+
+    /**
+     * Creates the archive in memory.
+     */
+    @Benchmark
+    public byte[] write() throws IOException {
+        switch (format) {
+        case "ar": {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ArArchiveOutputStream ar = new ArArchiveOutputStream(bytes)) {
+                ar.setLongFileMode(ArArchiveOutputStream.LONGFILE_BSD);
+                for (int i = 0; i < files.length; i++) {
+                    ar.putArchiveEntry(new ArArchiveEntry(name(i), files[i].length));
+                    ar.write(files[i]);
+                    ar.closeArchiveEntry();
+                }
+            }
+            return bytes.toByteArray();
+        }
+        case "cpio": {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (CpioArchiveOutputStream cpio = new CpioArchiveOutputStream(bytes)) {
+                for (int i = 0; i < files.length; i++) {
+                    final CpioArchiveEntry entry = new CpioArchiveEntry(name(i), files[i].length);
+                    entry.setMode(CpioArchiveEntry.C_ISREG | 0644);
+                    cpio.putArchiveEntry(entry);
+                    cpio.write(files[i]);
+                    cpio.closeArchiveEntry();
+                }
+            }
+            return bytes.toByteArray();
+        }
+        case "zip": {
+            final SeekableInMemoryByteChannel channel = new SeekableInMemoryByteChannel();
+            try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(channel)) {
+                for (int i = 0; i < files.length; i++) {
+                    zip.putArchiveEntry(new ZipArchiveEntry(name(i)));
+                    zip.write(files[i]);
+                    zip.closeArchiveEntry();
+                }
+            }
+            return Arrays.copyOf(channel.array(), (int) channel.size());
+        }
+        case "tar": {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (TarArchiveOutputStream tar = new TarArchiveOutputStream(bytes)) {
+                for (int i = 0; i < files.length; i++) {
+                    final TarArchiveEntry entry = new TarArchiveEntry(name(i));
+                    entry.setSize(files[i].length);
+                    tar.putArchiveEntry(entry);
+                    tar.write(files[i]);
+                    tar.closeArchiveEntry();
+                }
+            }
+            return bytes.toByteArray();
+        }
+        default: {
+            final SeekableInMemoryByteChannel channel = new SeekableInMemoryByteChannel();
+            try (SevenZOutputFile sevenZ = new SevenZOutputFile(channel)) {
+                for (int i = 0; i < files.length; i++) {
+                    final SevenZArchiveEntry entry = new SevenZArchiveEntry();
+                    entry.setName(name(i));
+                    sevenZ.putArchiveEntry(entry);
+                    sevenZ.write(files[i]);
+                    sevenZ.closeArchiveEntry();
+                }
+            }
+            return Arrays.copyOf(channel.array(), (int) channel.size());
+        }
+        }
+    }
+}
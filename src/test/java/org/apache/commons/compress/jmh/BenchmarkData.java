@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates the payloads used by the benchmarks.
+ *
+ * <p>All data is created from fixed seeds, so every run of a benchmark works on exactly the same bytes.</p>
+ */
+public final class BenchmarkData {
+
+    /**
+     * Kinds of payload with different compressibility.
+     */
+    public enum Payload {
+
+        /** Natural language like text made of words with a skewed frequency distribution. */
+        TEXT {
+            @Override
+            void fill(final Random random, final byte[] data) {
+                final String[] vocabulary = vocabulary(random, 2000);
+                int pos = 0;
+                int wordsInLine = 0;
+                while (pos < data.length) {
+                    // cubing the random value favours the first words of the vocabulary
+                    final double r = random.nextDouble();
+                    final String word = vocabulary[(int) (r * r * r * vocabulary.length)];
+                    for (int i = 0; i < word.length() && pos < data.length; i++) {
+                        data[pos++] = (byte) word.charAt(i);
+                    }
+                    if (pos < data.length) {
+                        data[pos++] = (byte) (++wordsInLine % 12 == 0 ? '\n' : random.nextInt(10) == 0 ? ',' : ' ');
+                    }
+                }
+            }
+        },
+
+        /** Fixed size little endian records of counters, timestamps, measurements and codes. */
+        BINARY {
+            @Override
+            void fill(final Random random, final byte[] data) {
+                final ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+                final byte[][] codes = {ascii("INFO"), ascii("WARN"), ascii("DBUG"), ascii("FAIL")};
+                long timestamp = 1_600_000_000_000L;
+                int counter = 0;
+                while (buffer.remaining() >= 32) {
+                    timestamp += random.nextInt(1000);
+                    buffer.putInt(counter++);
+                    buffer.putLong(timestamp);
+                    buffer.putDouble(100 + random.nextGaussian() * 15);
+                    buffer.put(codes[random.nextInt(10) == 0 ? 1 + random.nextInt(3) : 0]);
+                    buffer.putInt(random.nextInt(16));
+                    buffer.putInt(0);
+                }
+                while (buffer.hasRemaining()) {
+                    buffer.put((byte) 0);
+                }
+            }
+        },
+
+        /** Uniformly distributed random bytes. */
+        INCOMPRESSIBLE {
+            @Override
+            void fill(final Random random, final byte[] data) {
+                random.nextBytes(data);
+            }
+        };
+
+        /**
+         * Creates a payload of the given size.
+         *
+         * @param size the size of the payload
+         * @param seed seed of the random generator
+         * @return the payload
+         */
+        public byte[] generate(final int size, final long seed) {
+            final byte[] data = new byte[size];
+            fill(new Random(seed), data);
+            return data;
+        }
+
+        abstract void fill(Random random, byte[] data);
+    }
+
+    /** Seed used for payloads unless a benchmark needs several different ones. */
+    public static final long SEED = 0x5EED;
+
+    /**
+     * Creates the contents of a number of small files, as found in source or resource trees.
+     *
+     * @param count number of files
+     * @param payload kind of content of the files
+     * @return the contents of the files, between 100 bytes and 8 KiB each
+     */
+    public static byte[][] smallFiles(final int count, final Payload payload) {
+        final Random sizes = new Random(SEED);
+        final byte[][] files = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            files[i] = payload.generate(100 + sizes.nextInt(8 * 1024 - 100), SEED + i);
+        }
+        return files;
+    }
+
+    private static byte[] ascii(final String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String[] vocabulary(final Random random, final int size) {
+        final String[] syllables = {"ka", "lo", "mi", "re", "su", "ta", "ne", "vo", "pri", "str", "ung", "ex", "ion",
+            "al", "co", "de", "th", "qu", "ar", "en"};
+        final String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                word.append(syllables[random.nextInt(syllables.length)]);
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private BenchmarkData() {
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.jmh.BenchmarkData.Payload;
+import org.apache.commons.compress.utils.CountingOutputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compresses and decompresses the benchmark payloads with every compressor that supports both directions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class CompressorBenchmark {
+
+    /** Discards all data written to it. */
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            // discard
+        }
+
+        @Override
+        public void write(final int b) {
+            // discard
+        }
+    };
+
+    @Param({CompressorStreamFactory.BROTLI, CompressorStreamFactory.BZIP2, CompressorStreamFactory.DEFLATE,
+        CompressorStreamFactory.GZIP, CompressorStreamFactory.LZ4_BLOCK, CompressorStreamFactory.LZ4_FRAMED,
+        CompressorStreamFactory.LZMA, CompressorStreamFactory.SNAPPY_FRAMED, CompressorStreamFactory.XZ,
+        CompressorStreamFactory.ZSTANDARD})
+    public String compressor;
+
+    @Param({"TEXT", "BINARY", "INCOMPRESSIBLE"})
+    public Payload payload;
+
+    @Param("1048576")
+    public int size;
+
+    private final CompressorStreamFactory factory = new CompressorStreamFactory();
+    private final byte[] buffer = new byte[8192];
+    private byte[] data;
+    private byte[] compressed;
+
+    @Benchmark
+    public long compress() throws IOException, CompressorException {
+        final CountingOutputStream counter = new CountingOutputStream(NULL_OUTPUT);
+        try (OutputStream out = factory.createCompressorOutputStream(compressor, counter)) {
+            out.write(data);
+        }
+        return counter.getBytesWritten();
+    }
+
+    @Benchmark
+    public long decompress() throws IOException, CompressorException {
+        long count = 0;
+        try (InputStream in = factory.createCompressorInputStream(compressor, new ByteArrayInputStream(compressed))) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                count += n;
+            }
+        }
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException, CompressorException {
+        data = payload.generate(size, BenchmarkData.SEED);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = factory.createCompressorOutputStream(compressor, bytes)) {
+            out.write(data);
+        }
+        compressed = bytes.toByteArray();
+        try (InputStream in = factory.createCompressorInputStream(compressor, new ByteArrayInputStream(compressed))) {
+            if (IOUtils.toByteArray(in).length != size) {
+                throw new IllegalStateException(compressor + " doesn't decompress to the original size");
+            }
+        }
+    }
+}
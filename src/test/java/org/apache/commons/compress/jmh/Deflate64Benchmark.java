@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.apache.commons.compress.compressors.deflate64.Deflate64CompressorInputStream;
+import org.apache.commons.compress.jmh.BenchmarkData.Payload;
+import org.apache.commons.compress.utils.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes DEFLATE streams with the HuffmanDecoder behind {@link Deflate64CompressorInputStream}.
+ *
+ * <p>There is no Deflate64 encoder, so the data is compressed with {@link Deflater}. Raw DEFLATE is valid
+ * Deflate64 unless it contains a match of length 258, which the text and random payloads don't.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class Deflate64Benchmark {
+
+    @Param({"TEXT", "INCOMPRESSIBLE"})
+    public Payload payload;
+
+    @Param("1048576")
+    public int size;
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    private final byte[] buffer = new byte[8192];
+    private byte[] compressed;
+
+    @Benchmark
+    public long decompress() throws IOException {
+        long count = 0;
+        try (InputStream in = new Deflate64CompressorInputStream(new ByteArrayInputStream(compressed))) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                count += n;
+            }
+        }
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        final byte[] data = payload.generate(size, BenchmarkData.SEED);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(level, true);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(data);
+        } finally {
+            deflater.end();
+        }
+        compressed = bytes.toByteArray();
+        try (InputStream in = new Deflate64CompressorInputStream(new ByteArrayInputStream(compressed))) {
+            if (!Arrays.equals(data, IOUtils.toByteArray(in))) {
+                throw new IllegalStateException("payload is not valid Deflate64");
+            }
+        }
+    }
+}
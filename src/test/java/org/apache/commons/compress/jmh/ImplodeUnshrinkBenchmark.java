@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.archivers.zip.ZipMethod;
+import org.apache.commons.compress.utils.IOUtils;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes the legacy zip methods implode and unshrink with ExplodingInputStream and UnshrinkingInputStream.
+ *
+ * <p>There are no encoders for these methods, so the archives of the test resources are read through
+ * {@link ZipFile}. moby-imploded.zip holds 1.2 MB of text imploded into 135 entries, the other archives are small and mostly
+ * measure the setup cost of the decoders.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ImplodeUnshrinkBenchmark {
+
+    @Param({"moby-imploded.zip", "imploding-8Kdict-3trees.zip", "SHRUNK.ZIP"})
+    public String resource;
+
+    private final byte[] buffer = new byte[8192];
+    private byte[] archive;
+
+    @Benchmark
+    public long decompress() throws IOException {
+        long count = 0;
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(archive))) {
+            for (final ZipArchiveEntry entry : Collections.list(zip.getEntries())) {
+                try (InputStream in = zip.getInputStream(entry)) {
+                    int n;
+                    while ((n = in.read(buffer)) != -1) {
+                        count += n;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = ImplodeUnshrinkBenchmark.class.getResourceAsStream("/" + resource)) {
+            if (in == null) {
+                throw new IllegalStateException(resource + " not found, the test resources must be on the class path");
+            }
+            archive = IOUtils.toByteArray(in);
+        }
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(archive))) {
+            for (final ZipArchiveEntry entry : Collections.list(zip.getEntries())) {
+                final int method = entry.getMethod();
+                if (!entry.isDirectory() && method != ZipMethod.IMPLODING.getCode()
+                    && method != ZipMethod.UNSHRINKING.getCode()) {
+                    throw new IllegalStateException(entry.getName() + " is neither imploded nor shrunk");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.compress.compressors.lz77support.LZ77Compressor;
+import org.apache.commons.compress.compressors.lz77support.Parameters;
+import org.apache.commons.compress.jmh.BenchmarkData.Payload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the LZ77 match finder shared by the LZ4 and Snappy compressors.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LZ77CompressorBenchmark {
+
+    /** Settings of the match finder. */
+    public enum Tuning {
+        DEFAULT, SPEED, COMPRESSION_RATIO
+    }
+
+    @Param({"TEXT", "BINARY", "INCOMPRESSIBLE"})
+    public Payload payload;
+
+    @Param("1048576")
+    public int size;
+
+    @Param({"DEFAULT", "SPEED", "COMPRESSION_RATIO"})
+    public Tuning tuning;
+
+    private byte[] data;
+    private Parameters parameters;
+
+    @Benchmark
+    public long compress() throws IOException {
+        final long[] blocks = new long[1];
+        final LZ77Compressor compressor = new LZ77Compressor(parameters, block -> blocks[0]++);
+        compressor.compress(data);
+        compressor.finish();
+        return blocks[0];
+    }
+
+    @Setup
+    public void setup() {
+        data = payload.generate(size, BenchmarkData.SEED);
+        final Parameters.Builder builder = Parameters.builder(64 * 1024);
+        if (tuning == Tuning.SPEED) {
+            builder.tunedForSpeed();
+        } else if (tuning == Tuning.COMPRESSION_RATIO) {
+            builder.tunedForCompressionRatio();
+        }
+        parameters = builder.build();
+    }
+}
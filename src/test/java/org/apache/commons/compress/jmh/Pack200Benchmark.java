@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.java.util.jar.Pack200;
+import org.apache.commons.compress.utils.CountingOutputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Packs and unpacks the jars and pack files of the pack200 test resources.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class Pack200Benchmark {
+
+    @Param({"sql", "jndi", "largeClass"})
+    public String archive;
+
+    private byte[] jar;
+    private byte[] pack;
+
+    private static byte[] resource(final String name) throws IOException {
+        try (InputStream in = Pack200Benchmark.class.getResourceAsStream("/pack200/" + name)) {
+            if (in == null) {
+                throw new IOException("missing resource " + name);
+            }
+            return IOUtils.toByteArray(name.endsWith(".gz") ? new GZIPInputStream(in) : in);
+        }
+    }
+
+    @Benchmark
+    public long pack() throws IOException {
+        final CountingOutputStream out = new CountingOutputStream(new ByteArrayOutputStream());
+        try (JarInputStream in = new JarInputStream(new ByteArrayInputStream(jar))) {
+            Pack200.newPacker().pack(in, out);
+        }
+        return out.getBytesWritten();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        switch (archive) {
+        case "sql":
+            jar = resource("sqlUnpacked.jar");
+            pack = resource("sql.pack.gz");
+            break;
+        case "jndi":
+            jar = resource("jndi.jar");
+            pack = resource("jndi-e1.pack.gz");
+            break;
+        default:
+            jar = resource("largeClassUnpacked.jar");
+            pack = resource("LargeClass.pack.gz");
+            break;
+        }
+    }
+
+    @Benchmark
+    public long unpack() throws IOException {
+        final CountingOutputStream out = new CountingOutputStream(new ByteArrayOutputStream());
+        try (JarOutputStream jarOut = new JarOutputStream(out)) {
+            Pack200.newUnpacker().unpack(new ByteArrayInputStream(pack), jarOut);
+        }
+        return out.getBytesWritten();
+    }
+}
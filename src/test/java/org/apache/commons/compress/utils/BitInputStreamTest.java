@@ -23,7 +23,9 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -49,6 +51,27 @@ public void alignWithByteBoundaryWhenNotAtBoundary() throws Exception {
         }
     }
 
+    @Test
+    public void arrayAndStreamReadSameBits() throws IOException {
+        final byte[] data = new byte[1000];
+        final Random random = new Random(42);
+        random.nextBytes(data);
+        for (final ByteOrder byteOrder : new ByteOrder[] {ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            try (BitInputStream stream = new BitInputStream(new ByteArrayInputStream(data, 3, 990), byteOrder);
+                BitInputStream array = new BitInputStream(data, 3, 990, byteOrder)) {
+                long bits;
+                do {
+                    final int count = 1 + random.nextInt(63);
+                    bits = stream.readBits(count);
+                    assertEquals(bits, array.readBits(count));
+                    final int peek = random.nextInt(57);
+                    assertEquals(stream.peekBits(peek), array.peekBits(peek));
+                } while (bits >= 0);
+                assertEquals(990, array.getBytesRead());
+            }
+        }
+    }
+
     @Test
     public void availableWithCache() throws Exception {
         try (final BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
@@ -89,6 +112,23 @@ public void bigEndianWithOverflow() throws Exception {
         }
     }
 
+    @Test
+    public void byteBufferPositionIsNotModified() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(6);
+        buffer.put(new byte[] {0, 1, (byte) 0xF8, 0, 0, 0});
+        buffer.position(2);
+        try (BitInputStream bis = new BitInputStream(buffer, ByteOrder.LITTLE_ENDIAN)) {
+            assertEquals(0xF8, bis.readBits(8));
+            assertEquals(24, bis.bitsAvailable());
+        }
+        assertEquals(2, buffer.position());
+        final ByteBuffer heap = ByteBuffer.wrap(new byte[] {1, 2, 3}, 1, 2).slice();
+        try (BitInputStream bis = new BitInputStream(heap, ByteOrder.BIG_ENDIAN)) {
+            assertEquals(0x0203, bis.readBits(16));
+            assertEquals(-1, bis.readBits(1));
+        }
+    }
+
     private ByteArrayInputStream getStream() {
         return new ByteArrayInputStream(new byte[] {
                 (byte) 0xF8,  // 11111000
@@ -125,6 +165,45 @@ public void littleEndianWithOverflow() throws Exception {
         }
     }
 
+    @Test
+    public void peekBitsDoesNotConsumeBitsInBigEndian() throws IOException {
+        try (final BitInputStream bis = new BitInputStream(getStream(), ByteOrder.BIG_ENDIAN)) {
+            assertEquals(0xF84, bis.peekBits(12));
+            assertEquals(0xF, bis.readBits(4));
+            assertEquals(0x84, bis.peekBits(8));
+            assertEquals(0x84, bis.readBits(8));
+        }
+    }
+
+    @Test
+    public void peekBitsDoesNotConsumeBitsInLittleEndian() throws IOException {
+        try (final BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
+            assertEquals(0x08, bis.peekBits(4));
+            assertEquals(0x08, bis.readBits(4));
+            assertEquals(0x0F, bis.peekBits(8));
+            assertEquals(0x0F, bis.readBits(8));
+        }
+    }
+
+    @Test
+    public void peekBitsPadsWithZerosAtEof() throws IOException {
+        try (final BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
+            assertEquals(0x2F0140F8L, bis.peekBits(40));
+            assertEquals(32, bis.bitsCached());
+        }
+        try (final BitInputStream bis = new BitInputStream(getStream(), ByteOrder.BIG_ENDIAN)) {
+            assertEquals(0xF840012F00L, bis.peekBits(40));
+            assertEquals(32, bis.bitsCached());
+        }
+    }
+
+    @Test
+    public void shouldNotAllowPeekingAtMoreThan56BitsAtATime() throws IOException {
+        try (final BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
+            assertThrows(IOException.class, () -> bis.peekBits(57));
+        }
+    }
+
     @Test
     public void shouldNotAllowReadingOfANegativeAmountOfBits() throws IOException {
         try (final BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
@@ -139,6 +218,30 @@ public void shouldNotAllowReadingOfMoreThan63BitsAtATime() throws IOException {
         }
     }
 
+    @Test
+    public void skipBitsDropsPeekedBits() throws IOException {
+        try (BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
+            assertEquals(0x08, bis.peekBits(4));
+            assertEquals(4, bis.skipBits(4));
+            assertEquals(0x0F, bis.readBits(4));
+            assertEquals(24, bis.skipBits(30));
+            assertEquals(0, bis.skipBits(1));
+            assertThrows(IOException.class, () -> bis.skipBits(57));
+        }
+    }
+
+    @Test
+    public void streamIsNotReadBeyondRequestedBits() throws IOException {
+        try (BitInputStream bis = new BitInputStream(getStream(), ByteOrder.BIG_ENDIAN)) {
+            bis.readBits(9);
+            assertEquals(2, bis.getBytesRead());
+            bis.peekBits(16);
+            assertEquals(4, bis.getBytesRead());
+            bis.skipBits(15);
+            assertEquals(4, bis.getBytesRead());
+        }
+    }
+
     @Test
     public void testClearBitCache() throws IOException {
         try (final BitInputStream bis = new BitInputStream(getStream(), ByteOrder.LITTLE_ENDIAN)) {
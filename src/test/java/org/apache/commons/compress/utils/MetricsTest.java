@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class MetricsTest {
+
+    private static final class RecordingListener implements MetricsListener {
+        private final Map<Object, AtomicLong> bytesRead = new ConcurrentHashMap<>();
+        private final Map<Object, AtomicLong> bytesWritten = new ConcurrentHashMap<>();
+        private final Map<Object, AtomicLong> ioRead = new ConcurrentHashMap<>();
+        private final Map<Object, AtomicLong> ioWritten = new ConcurrentHashMap<>();
+        private final List<String> entriesRead = new ArrayList<>();
+        private final List<String> entriesWritten = new ArrayList<>();
+        private final AtomicLong checksumCalls = new AtomicLong();
+
+        private static long get(final Map<Object, AtomicLong> map, final Object key) {
+            final AtomicLong value = map.get(key);
+            return value == null ? 0 : value.get();
+        }
+
+        @Override
+        public void bytesRead(final Object source, final long count) {
+            bytesRead.computeIfAbsent(source, k -> new AtomicLong()).addAndGet(count);
+        }
+
+        @Override
+        public void bytesWritten(final Object source, final long count) {
+            bytesWritten.computeIfAbsent(source, k -> new AtomicLong()).addAndGet(count);
+        }
+
+        @Override
+        public void checksumTime(final Object source, final long nanos) {
+            checksumCalls.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void entryRead(final Object source, final ArchiveEntry entry) {
+            entriesRead.add(entry.getName());
+        }
+
+        @Override
+        public synchronized void entryWritten(final Object source, final ArchiveEntry entry) {
+            entriesWritten.add(entry.getName());
+        }
+
+        @Override
+        public void ioRead(final Object source, final long count, final long nanos) {
+            ioRead.computeIfAbsent(source, k -> new AtomicLong()).addAndGet(count);
+        }
+
+        @Override
+        public void ioWritten(final Object source, final long count, final long nanos) {
+            ioWritten.computeIfAbsent(source, k -> new AtomicLong()).addAndGet(count);
+        }
+    }
+
+    private static final byte[] DATA = "Hello, metrics! Hello, metrics! Hello, metrics!".getBytes(UTF_8);
+
+    private static TarArchiveEntry entry(final String name) {
+        final TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(DATA.length);
+        return entry;
+    }
+
+    private static byte[] writeArchive(final String format, final ArchiveEntry... entries) throws Exception {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ArchiveOutputStream out = ArchiveStreamFactory.DEFAULT.createArchiveOutputStream(format, bos)) {
+            for (final ArchiveEntry entry : entries) {
+                out.putArchiveEntry(entry);
+                out.write(DATA);
+                out.closeArchiveEntry();
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private final RecordingListener listener = new RecordingListener();
+
+    @Test
+    public void checksumTimeIsReported() throws IOException {
+        Metrics.setListener(listener);
+        try (InputStream in = new ChecksumCalculatingInputStream(new CRC32(), new ByteArrayInputStream(DATA))) {
+            IOUtils.toByteArray(in);
+        }
+        assertTrue(listener.checksumCalls.get() > 0);
+    }
+
+    @Test
+    public void compressorStreamsReportBytesAndIo() throws Exception {
+        Metrics.setListener(listener);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = CompressorStreamFactory.getSingleton()
+            .createCompressorOutputStream(CompressorStreamFactory.GZIP, compressed)) {
+            out.write(DATA);
+        }
+        assertEquals(compressed.size(), RecordingListener.get(listener.ioWritten, CompressorStreamFactory.GZIP));
+
+        final InputStream in = CompressorStreamFactory.getSingleton().createCompressorInputStream(
+            CompressorStreamFactory.GZIP, new ByteArrayInputStream(compressed.toByteArray()));
+        assertArrayEquals(DATA, IOUtils.toByteArray(in));
+        in.close();
+        assertEquals(DATA.length, RecordingListener.get(listener.bytesRead, in));
+        // the gzip stream uses mark/reset and may read some bytes twice
+        assertTrue(RecordingListener.get(listener.ioRead, CompressorStreamFactory.GZIP) >= compressed.size());
+    }
+
+    @AfterEach
+    public void resetListener() {
+        Metrics.setListener(null);
+    }
+
+    @Test
+    public void nothingIsReportedWithoutListener() throws Exception {
+        assertSame(MetricsListener.NOOP, Metrics.getListener());
+        assertFalse(Metrics.isEnabled());
+        try (ArchiveInputStream in = ArchiveStreamFactory.DEFAULT.createArchiveInputStream(ArchiveStreamFactory.TAR,
+            new ByteArrayInputStream(writeArchive(ArchiveStreamFactory.TAR, entry("a"))))) {
+            assertEquals("a", in.getNextEntry().getName());
+        }
+        assertTrue(listener.entriesRead.isEmpty());
+    }
+
+    @Test
+    public void stackDetectionIsNotReported() throws Exception {
+        final byte[] tar = writeArchive(ArchiveStreamFactory.TAR, entry("a"));
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = CompressorStreamFactory.getSingleton()
+            .createCompressorOutputStream(CompressorStreamFactory.GZIP, compressed)) {
+            out.write(tar);
+        }
+        Metrics.setListener(listener);
+        assertEquals(Arrays.asList(CompressorStreamFactory.GZIP, ArchiveStreamFactory.TAR), ArchiveStreamFactory
+            .detectStack(new BufferedInputStream(new ByteArrayInputStream(compressed.toByteArray()))));
+        assertTrue(listener.bytesRead.isEmpty());
+        assertTrue(listener.ioRead.isEmpty());
+        assertTrue(Metrics.isEnabled());
+    }
+
+    @Test
+    public void tarStreamsReportEntries() throws Exception {
+        Metrics.setListener(listener);
+        final byte[] tar = writeArchive(ArchiveStreamFactory.TAR, entry("a"), entry("b"));
+        assertEquals(tar.length, RecordingListener.get(listener.ioWritten, ArchiveStreamFactory.TAR));
+        assertEquals(2, listener.entriesWritten.size());
+
+        try (ArchiveInputStream in = ArchiveStreamFactory.DEFAULT.createArchiveInputStream(ArchiveStreamFactory.TAR,
+            new ByteArrayInputStream(tar))) {
+            while (in.getNextEntry() != null) {
+                IOUtils.toByteArray(in);
+            }
+            assertTrue(RecordingListener.get(listener.bytesRead, in) >= 2 * DATA.length);
+        }
+        assertEquals(listener.entriesWritten, listener.entriesRead);
+    }
+
+    @Test
+    public void zipFileReportsEntriesAndIo() throws Exception {
+        Metrics.setListener(listener);
+        final ZipArchiveEntry entry = new ZipArchiveEntry("z.txt");
+        final byte[] zip = writeArchive(ArchiveStreamFactory.ZIP, entry);
+        assertEquals(1, listener.entriesWritten.size());
+
+        try (ZipFile zf = new ZipFile(new SeekableInMemoryByteChannel(zip))) {
+            try (InputStream in = zf.getInputStream(zf.getEntry("z.txt"))) {
+                assertArrayEquals(DATA, IOUtils.toByteArray(in));
+            }
+            assertEquals(zf.getEntry("z.txt").getCompressedSize(), RecordingListener.get(listener.ioRead, zf));
+        }
+        assertEquals(listener.entriesWritten, listener.entriesRead);
+    }
+}
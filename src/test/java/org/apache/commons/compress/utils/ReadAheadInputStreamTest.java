@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.compress.utils;
+
+import static org.apache.commons.compress.AbstractTestCase.getFile;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.junit.jupiter.api.Test;
+
+public class ReadAheadInputStreamTest {
+
+    private static byte[] randomData(final int size) {
+        final byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    private static List<String> tarEntries(final InputStream in) throws IOException {
+        final List<String> names = new ArrayList<>();
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(in)) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                names.add(entry.getName() + ":" + IOUtils.toByteArray(tar).length);
+            }
+        }
+        return names;
+    }
+
+    @Test
+    public void closeBeforeTaskStartsDoesNotRunTask() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            final AtomicBoolean read = new AtomicBoolean();
+            final InputStream in = new ByteArrayInputStream(randomData(10)) {
+                @Override
+                public synchronized int read(final byte[] b, final int off, final int len) {
+                    read.set(true);
+                    return super.read(b, off, len);
+                }
+            };
+            new ReadAheadInputStream(in, 10, 2, executor).close();
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertFalse(read.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void closeStopsProducerWaitingForFreeBuffer() throws IOException {
+        final ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(randomData(1000)), 10, 2);
+        assertTrue(in.read() >= 0);
+        in.close();
+        assertThrows(IOException.class, in::read);
+    }
+
+    @Test
+    public void closeWaitsForPendingReadAndDoesNotInterruptExecutorThread() throws Exception {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean readCompleted = new AtomicBoolean();
+        final AtomicBoolean closedWhileReading = new AtomicBoolean();
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final InputStream blocking = new InputStream() {
+            private volatile boolean closed;
+
+            @Override
+            public void close() {
+                closedWhileReading.set(!readCompleted.get());
+                closed = true;
+            }
+
+            @Override
+            public int read() throws IOException {
+                if (closed) {
+                    throw new IOException("closed");
+                }
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    interrupted.set(true);
+                }
+                readCompleted.set(true);
+                return 1;
+            }
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final ReadAheadInputStream in = new ReadAheadInputStream(blocking, 1, 2, executor);
+            reading.await();
+            final Thread closer = new Thread(() -> {
+                try {
+                    in.close();
+                } catch (final IOException e) {
+                    // ignored
+                }
+            });
+            closer.start();
+            closer.join(200);
+            // close waits for the pending read
+            assertTrue(closer.isAlive());
+            release.countDown();
+            closer.join();
+            assertFalse(closedWhileReading.get());
+            assertFalse(interrupted.get());
+            // the pooled thread is usable and not interrupted
+            assertFalse(executor.submit(() -> Thread.currentThread().isInterrupted()).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void exceptionIsPropagatedAfterData() throws IOException {
+        final byte[] data = randomData(100);
+        final InputStream failing = new InputStream() {
+            private int pos;
+
+            @Override
+            public int read() throws IOException {
+                if (pos < data.length) {
+                    return data[pos++] & 0xFF;
+                }
+                throw new IOException("boom");
+            }
+        };
+        try (ReadAheadInputStream in = new ReadAheadInputStream(failing, 16, 3)) {
+            final byte[] buffer = new byte[data.length];
+            assertEquals(data.length, IOUtils.readFully(in, buffer));
+            assertArrayEquals(data, buffer);
+            final IOException ex = assertThrows(IOException.class, in::read);
+            assertEquals("boom", ex.getMessage());
+            // the failure is not turned into EOF
+            assertSame(ex, assertThrows(IOException.class, in::read));
+            assertSame(ex, assertThrows(IOException.class, () -> in.read(buffer)));
+        }
+    }
+
+    @Test
+    public void interruptedTaskFailsReads() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(randomData(1000)), 10, 2,
+            executor)) {
+            assertTrue(in.read() >= 0);
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(InterruptedIOException.class, () -> IOUtils.toByteArray(in)));
+        }
+    }
+
+    @Test
+    public void readsSameDataAsWrappedStream() throws IOException {
+        final byte[] data = randomData(100_000);
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), 1000, 3)) {
+            assertArrayEquals(data, IOUtils.toByteArray(in));
+            assertEquals(-1, in.read());
+            assertEquals(0, in.available());
+        }
+    }
+
+    @Test
+    public void readsSameDataUsingExecutor() throws IOException {
+        final byte[] data = randomData(12_345);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), 100, 2, executor)) {
+            final byte[] head = new byte[10];
+            assertEquals(10, IOUtils.readFully(in, head));
+            assertEquals(data[10] & 0xFF, in.read());
+            assertEquals(1000, in.skip(1000));
+            final byte[] rest = IOUtils.toByteArray(in);
+            assertEquals(data.length - 1011, rest.length);
+            assertEquals(data[1011], rest[0]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejectsIllegalArguments() {
+        final InputStream empty = new ByteArrayInputStream(ByteUtils.EMPTY_BYTE_ARRAY);
+        assertThrows(IllegalArgumentException.class, () -> new ReadAheadInputStream(empty, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new ReadAheadInputStream(empty, 10, 1));
+    }
+
+    @Test
+    public void tarArchiveInputStreamSeesSameEntries() throws IOException {
+        final byte[] tar = Files.readAllBytes(getFile("bla.tar").toPath());
+        final List<String> expected = tarEntries(new ByteArrayInputStream(tar));
+        assertEquals(expected, tarEntries(new ReadAheadInputStream(new ByteArrayInputStream(tar), 512, 4)));
+    }
+
+    @Test
+    public void uncheckedExceptionIsPropagatedAfterData() throws IOException {
+        final byte[] data = randomData(100);
+        final IllegalStateException boom = new IllegalStateException("boom");
+        final InputStream failing = new InputStream() {
+            private int pos;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) {
+                if (pos == data.length) {
+                    throw boom;
+                }
+                final int n = Math.min(len, data.length - pos);
+                System.arraycopy(data, pos, b, off, n);
+                pos += n;
+                return n;
+            }
+        };
+        try (ReadAheadInputStream in = new ReadAheadInputStream(failing, 16, 3)) {
+            final byte[] buffer = new byte[data.length];
+            assertEquals(data.length, IOUtils.readFully(in, buffer));
+            assertArrayEquals(data, buffer);
+            final IOException ex = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IOException.class, in::read));
+            assertSame(boom, ex.getCause());
+        }
+    }
+}